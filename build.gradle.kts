@@ -40,6 +40,67 @@ dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter")
 }
 
+// ABI code generator: a separate source set on top of the library, run at build time to compile ABI JSON files
+// into straight-line decoders. Here it compiles a few of the test ABIs into the test sources.
+val codegen: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+configurations[codegen.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[codegen.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+val generateTestAbiDecoders by tasks.registering(JavaExec::class) {
+    description = "Generates compiled decoders for the test ABIs."
+    val abiFiles = fileTree("src/test/resources") {
+        include("erc20_abi.json", "uniswap_abi.json", "multicall_example.json", "codegen_clash_abi.json")
+    }
+    val outputDir = layout.buildDirectory.dir("generated/sources/abi/java/test")
+    inputs.files(abiFiles)
+    outputs.dir(outputDir)
+    classpath = codegen.runtimeClasspath
+    mainClass = "com.github.wkennedy.abi.codegen.AbiCodeGenerator"
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf(outputDir.get().asFile.path, "com.github.wkennedy.abi.generated") + abiFiles.files.sorted().map { it.path }
+    })
+}
+sourceSets.test {
+    java.srcDir(generateTestAbiDecoders)
+}
+
+// JMH benchmarks: ./gradlew jmh, or ./gradlew jmh -Pjmh.includes=DecoderBenchmark to run a subset.
+// Results, including the GC profiler's allocation rate, are written to build/reports/jmh/results.json.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+    resources.srcDir("src/test/resources")
+}
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks."
+    group = "verification"
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json")
+    outputs.file(resultFile)
+    outputs.upToDateWhen { false }
+    doFirst { resultFile.get().asFile.parentFile.mkdirs() }
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOfNotNull(project.findProperty("jmh.includes") as String?) +
+                listOf("-prof", "gc", "-rf", "json", "-rff", resultFile.get().asFile.path)
+    })
+}
+
+tasks.check {
+    dependsOn(jmh.classesTaskName)
+}
+
 tasks.test {
     useJUnitPlatform()
     finalizedBy(tasks.jacocoTestReport) // report is always generated after tests run
@@ -0,0 +1,428 @@
+package com.github.wkennedy.abi.codegen;
+
+import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.SolidityType;
+import com.github.wkennedy.abi.entry.AbiEntry;
+import com.github.wkennedy.abi.entry.AbiEvent;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.entry.AbiParam;
+import org.apache.commons.codec.binary.Hex;
+
+import javax.lang.model.SourceVersion;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Generates one Java source file per ABI JSON file with a record per function and event. Each record has its
+ * selector or topic 0 as a constant and decodes with reads at hard-coded offsets; only dynamic values and tuples go
+ * through {@link SolidityType}. Records holding arrays compare and hash them by content. The generated class
+ * implements {@link com.github.wkennedy.abi.compiled.CompiledAbi} so it can be registered with the decoder.
+ * <p>
+ * Usage: {@code AbiCodeGenerator <output dir> <package> <abi.json>...}
+ */
+public class AbiCodeGenerator {
+    private static final int SELECTOR_LENGTH = 4;
+
+    private final String packageName;
+
+    public AbiCodeGenerator(String packageName) {
+        this.packageName = packageName;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: AbiCodeGenerator <output dir> <package> <abi.json>...");
+        }
+        AbiCodeGenerator generator = new AbiCodeGenerator(args[1]);
+        Path packageDir = Paths.get(args[0]).resolve(args[1].replace('.', '/'));
+        Files.createDirectories(packageDir);
+        try (Stream<Path> stale = Files.list(packageDir)) {
+            for (Path file : stale.filter(f -> f.toString().endsWith(".java")).toList()) {
+                Files.delete(file);
+            }
+        }
+        for (int i = 2; i < args.length; i++) {
+            Path abiFile = Paths.get(args[i]);
+            String className = classNameOf(abiFile);
+            String source = generator.generate(className, Files.readString(abiFile));
+            Files.writeString(packageDir.resolve(className + ".java"), source, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Generates the source of a compiled ABI class.
+     *
+     * @param className the simple class name
+     * @param json      the ABI JSON
+     * @return the Java source
+     */
+    public String generate(String className, String json) {
+        Abi abi = Abi.fromJson(json).orElseThrow(() -> new IllegalArgumentException("Invalid ABI JSON for " + className));
+        List<String> functions = new ArrayList<>();
+        List<String> events = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+
+        StringBuilder body = new StringBuilder();
+        for (AbiEntry entry : abi) {
+            if (entry instanceof AbiFunction function && function.name != null) {
+                String recordName = uniqueName(usedNames, upperCamel(function.name) + "Call", function.encodeSignature());
+                generateFunction(body, recordName, function);
+                functions.add(recordName + ".FUNCTION");
+            } else if (entry instanceof AbiEvent event && event.name != null) {
+                String recordName = uniqueName(usedNames, upperCamel(event.name) + "Event", event.encodeSignature());
+                generateEvent(body, recordName, event);
+                events.add(recordName + ".EVENT");
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(packageName).append(";\n\n");
+        out.append("import com.github.wkennedy.abi.AbiLayout;\n");
+        out.append("import com.github.wkennedy.abi.SolidityType;\n");
+        out.append("import com.github.wkennedy.abi.compiled.CompiledAbi;\n");
+        out.append("import com.github.wkennedy.abi.compiled.CompiledEvent;\n");
+        out.append("import com.github.wkennedy.abi.compiled.CompiledFunction;\n");
+        out.append("import com.github.wkennedy.abi.compiled.Words;\n");
+        out.append("import com.github.wkennedy.abi.models.Param;\n");
+        out.append("import com.github.wkennedy.abi.models.ParamNames;\n\n");
+        out.append("import java.math.BigInteger;\n");
+        out.append("import java.util.Arrays;\n");
+        out.append("import java.util.List;\n");
+        out.append("import java.util.Objects;\n\n");
+        out.append("/**\n * Generated by AbiCodeGenerator. Do not edit.\n */\n");
+        out.append("@SuppressWarnings(\"unused\")\n");
+        out.append("public final class ").append(className).append(" implements CompiledAbi {\n");
+        out.append("    public static final ").append(className).append(" INSTANCE = new ").append(className).append("();\n\n");
+        out.append("    private ").append(className).append("() {\n    }\n\n");
+        out.append("    @Override\n    public List<CompiledFunction> functions() {\n");
+        out.append("        return List.of(").append(String.join(", ", functions)).append(");\n    }\n\n");
+        out.append("    @Override\n    public List<CompiledEvent> events() {\n");
+        out.append("        return List.of(").append(String.join(", ", events)).append(");\n    }\n");
+        out.append(body);
+        out.append("}\n");
+        return out.toString();
+    }
+
+    private void generateFunction(StringBuilder out, String recordName, AbiFunction function) {
+        List<AbiParam> inputs = function.inputs;
+        List<String> names = componentNames(inputs);
+        int headSize = headSize(inputs);
+        boolean dynamic = inputs.stream().anyMatch(p -> p.type.isDynamicType());
+        String selector = "0x" + Hex.encodeHexString(function.encodeSignature()).substring(0, 8);
+
+        out.append("\n    /**\n     * ").append(function.formatSignature()).append("\n     */\n");
+        out.append("    public record ").append(recordName).append("(").append(components(inputs, names)).append(") {\n");
+        out.append("        public static final int SELECTOR = ").append(selector).append(";\n");
+        out.append("        public static final String SIGNATURE = \"").append(function.formatSignature()).append("\";\n");
+        appendTypes(out, inputs);
+        appendNames(out, inputs);
+        out.append("        private static final AbiLayout LAYOUT = AbiLayout.of(List.of(").append(typeRefs(inputs.size())).append("));\n");
+        out.append("        public static final CompiledFunction FUNCTION = new CompiledFunction() {\n");
+        appendCommon(out, function.name);
+        out.append("            @Override\n            public AbiLayout layout() {\n                return LAYOUT;\n            }\n\n");
+        out.append("            @Override\n            public byte[] selector() {\n                return Words.selectorBytes(SELECTOR);\n            }\n\n");
+        out.append("            @Override\n            public List<Param> decodeParams(byte[] calldata) {\n");
+        out.append("                return decode(calldata).toParams();\n            }\n        };\n\n");
+
+        out.append("        public static ").append(recordName).append(" decode(byte[] calldata) {\n");
+        out.append("            Words.checkSelector(calldata, SELECTOR, ").append(SELECTOR_LENGTH + headSize).append(");\n");
+        out.append("            return new ").append(recordName).append("(");
+        int headOffset = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            out.append(i == 0 ? "\n" : ",\n").append("                    ")
+                    .append(read(inputs.get(i).type, i, "calldata", SELECTOR_LENGTH, headOffset));
+            headOffset += inputs.get(i).type.getFixedSize();
+        }
+        out.append(");\n        }\n\n");
+
+        out.append("        public byte[] encode() {\n");
+        if (dynamic) {
+            out.append("            return Words.encode(SELECTOR, LAYOUT");
+            for (String name : names) {
+                out.append(", this.").append(name);
+            }
+            out.append(");\n");
+        } else {
+            out.append("            byte[] out = new byte[").append(SELECTOR_LENGTH + headSize).append("];\n");
+            out.append("            Words.writeSelector(out, SELECTOR);\n");
+            headOffset = SELECTOR_LENGTH;
+            for (int i = 0; i < inputs.size(); i++) {
+                out.append("            ").append(write(inputs.get(i).type, i, "this." + names.get(i), headOffset)).append(";\n");
+                headOffset += inputs.get(i).type.getFixedSize();
+            }
+            out.append("            return out;\n");
+        }
+        out.append("        }\n\n");
+        appendToParams(out, inputs, names);
+        appendEqualsAndHashCode(out, recordName, inputs, names);
+        out.append("    }\n");
+    }
+
+    private void generateEvent(StringBuilder out, String recordName, AbiEvent event) {
+        List<AbiParam> inputs = event.inputs;
+        List<String> names = componentNames(inputs);
+        boolean anonymous = Boolean.TRUE.equals(event.anonymous);
+        List<AbiParam> dataParams = inputs.stream().filter(p -> !Boolean.TRUE.equals(p.indexed)).toList();
+        int topicCount = inputs.size() - dataParams.size() + (anonymous ? 0 : 1);
+
+        out.append("\n    /**\n     * ").append(event.formatSignature()).append("\n     */\n");
+        out.append("    public record ").append(recordName).append("(").append(components(inputs, names)).append(") {\n");
+        out.append("        public static final String SIGNATURE = \"").append(event.formatSignature()).append("\";\n");
+        if (anonymous) {
+            out.append("        private static final byte[] TOPIC0 = null;\n");
+        } else {
+            out.append("        public static final String TOPIC0_HEX = \"0x").append(Hex.encodeHexString(event.encodeSignature())).append("\";\n");
+            out.append("        private static final byte[] TOPIC0 = Words.fromHex(TOPIC0_HEX);\n");
+        }
+        appendTypes(out, inputs);
+        appendNames(out, inputs);
+        out.append("        public static final CompiledEvent EVENT = new CompiledEvent() {\n");
+        appendCommon(out, event.name);
+        out.append("            @Override\n            public byte[] topic0() {\n                return TOPIC0 == null ? null : TOPIC0.clone();\n            }\n\n");
+        out.append("            @Override\n            public List<Param> decodeParams(byte[][] topics, byte[] data) {\n");
+        out.append("                return decode(topics, data).toParams();\n            }\n        };\n\n");
+
+        out.append("        public static ").append(recordName).append(" decode(byte[][] topics, byte[] data) {\n");
+        out.append("            Words.checkTopics(topics, TOPIC0, ").append(topicCount).append(");\n");
+        out.append("            return new ").append(recordName).append("(");
+        int topicIndex = anonymous ? 0 : 1;
+        int headOffset = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            AbiParam param = inputs.get(i);
+            out.append(i == 0 ? "\n" : ",\n").append("                    ");
+            if (Boolean.TRUE.equals(param.indexed)) {
+                String topic = "topics[" + topicIndex++ + "]";
+                out.append(isHashedTopic(param)
+                        ? "Words.readWord(" + topic + ", 0)"
+                        : read(param.type, i, topic, 0, 0));
+            } else {
+                out.append(read(param.type, i, "data", 0, headOffset));
+                headOffset += param.type.getFixedSize();
+            }
+        }
+        out.append(");\n        }\n\n");
+        appendToParams(out, inputs, names);
+        appendEqualsAndHashCode(out, recordName, inputs, names);
+        out.append("    }\n");
+    }
+
+    private static void appendCommon(StringBuilder out, String name) {
+        out.append("            @Override\n            public String name() {\n                return \"").append(name).append("\";\n            }\n\n");
+        out.append("            @Override\n            public String signature() {\n                return SIGNATURE;\n            }\n\n");
+        out.append("            @Override\n            public ParamNames paramNames() {\n                return NAMES;\n            }\n\n");
+    }
+
+    private static void appendNames(StringBuilder out, List<AbiParam> params) {
+        out.append("        public static final ParamNames NAMES = ParamNames.of(");
+        for (int i = 0; i < params.size(); i++) {
+            out.append(i == 0 ? "" : ", ").append(params.get(i).name == null ? "(String) null" : literal(params.get(i).name));
+        }
+        out.append(");\n");
+    }
+
+    private static void appendTypes(StringBuilder out, List<AbiParam> params) {
+        for (int i = 0; i < params.size(); i++) {
+            out.append("        private static final SolidityType T").append(i).append(" = ")
+                    .append(typeExpression(params.get(i).type)).append(";\n");
+        }
+    }
+
+    private static void appendToParams(StringBuilder out, List<AbiParam> params, List<String> names) {
+        out.append("        public List<Param> toParams() {\n            return List.of(");
+        for (int i = 0; i < params.size(); i++) {
+            out.append(i == 0 ? "\n" : ",\n").append("                    new Param(").append(literal(params.get(i).name))
+                    .append(", T").append(i).append(".toString(), this.").append(names.get(i)).append(")");
+        }
+        out.append(");\n        }\n");
+    }
+
+    /**
+     * The implicit record equals and hashCode compare arrays by reference, so records with array components get
+     * ones that compare them by content.
+     */
+    private static void appendEqualsAndHashCode(StringBuilder out, String recordName, List<AbiParam> params, List<String> names) {
+        List<String> types = new ArrayList<>();
+        for (AbiParam param : params) {
+            types.add(isHashedTopic(param) ? "byte[]" : javaType(param.type));
+        }
+        if (types.stream().noneMatch(type -> type.endsWith("[]"))) return;
+
+        out.append("\n        @Override\n        public boolean equals(Object o) {\n");
+        out.append("            return o instanceof ").append(recordName).append(" other");
+        for (int i = 0; i < names.size(); i++) {
+            String field = "this." + names.get(i);
+            String otherField = "other." + names.get(i);
+            out.append("\n                    && ").append(switch (types.get(i)) {
+                case "boolean" -> field + " == " + otherField;
+                case "byte[]" -> "Arrays.equals(" + field + ", " + otherField + ")";
+                case "Object[]" -> "Arrays.deepEquals(" + field + ", " + otherField + ")";
+                default -> "Objects.equals(" + field + ", " + otherField + ")";
+            });
+        }
+        out.append(";\n        }\n\n");
+
+        out.append("        @Override\n        public int hashCode() {\n            int result = 0;\n");
+        for (int i = 0; i < names.size(); i++) {
+            String field = "this." + names.get(i);
+            out.append("            result = 31 * result + ").append(switch (types.get(i)) {
+                case "boolean" -> "Boolean.hashCode(" + field + ")";
+                case "byte[]" -> "Arrays.hashCode(" + field + ")";
+                case "Object[]" -> "Arrays.deepHashCode(" + field + ")";
+                default -> "Objects.hashCode(" + field + ")";
+            }).append(";\n");
+        }
+        out.append("            return result;\n        }\n");
+    }
+
+    /**
+     * The expression that reads a param. Single word types are read at a constant position; everything else
+     * delegates to the type.
+     */
+    private static String read(SolidityType type, int index, String buffer, int base, int headOffset) {
+        String position = base == 0 ? String.valueOf(headOffset) : String.valueOf(base + headOffset);
+        if (type.isDynamicType()) {
+            return cast(type) + "T" + index + ".decode(" + buffer + ", Words.tail(" + buffer + ", " + base + ", " + headOffset + "))";
+        }
+        if (type instanceof SolidityType.BoolType) return "Words.readBool(" + buffer + ", " + position + ")";
+        if (type instanceof SolidityType.AddressType) return "Words.readAddress(" + buffer + ", " + position + ")";
+        if (type instanceof SolidityType.UnsignedIntType) return "Words.readUint(" + buffer + ", " + position + ")";
+        if (type instanceof SolidityType.IntType) return "Words.readInt(" + buffer + ", " + position + ")";
+        if (type instanceof SolidityType.Bytes32Type) return "Words.readWord(" + buffer + ", " + position + ")";
+        return cast(type) + "T" + index + ".decode(" + buffer + ", " + position + ")";
+    }
+
+    private static String write(SolidityType type, int index, String name, int position) {
+        if (type instanceof SolidityType.BoolType) return "Words.writeBool(out, " + position + ", " + name + ")";
+        if (type instanceof SolidityType.AddressType) return "Words.writeAddress(out, " + position + ", " + name + ")";
+        if (type instanceof SolidityType.UnsignedIntType) return "Words.writeUint(out, " + position + ", " + name + ")";
+        if (type instanceof SolidityType.IntType) return "Words.writeInt(out, " + position + ", " + name + ")";
+        return "Words.write(out, " + position + ", T" + index + ", " + name + ")";
+    }
+
+    /**
+     * Indexed params that don't fit a single word are stored as the hash of their encoding.
+     */
+    private static boolean isHashedTopic(AbiParam param) {
+        return Boolean.TRUE.equals(param.indexed)
+                && !(param.type instanceof SolidityType.NumericType || param.type instanceof SolidityType.Bytes32Type);
+    }
+
+    private static String javaType(SolidityType type) {
+        if (type instanceof SolidityType.BoolType) return "boolean";
+        if (type instanceof SolidityType.AddressType) return "byte[]";
+        if (type instanceof SolidityType.NumericType) return "BigInteger";
+        if (type instanceof SolidityType.StringType) return "String";
+        if (type instanceof SolidityType.BytesType || type instanceof SolidityType.Bytes32Type) return "byte[]";
+        return "Object[]";
+    }
+
+    private static String literal(String value) {
+        return value == null ? "null" : '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    private static String cast(SolidityType type) {
+        return "(" + javaType(type) + ") ";
+    }
+
+    private static String typeExpression(SolidityType type) {
+        SolidityType inner = type;
+        while (inner instanceof SolidityType.ArrayType arrayType) {
+            inner = arrayType.getElementType();
+        }
+        StringBuilder expression = new StringBuilder("Words.type(\"").append(type.getName()).append('"');
+        if (inner instanceof SolidityType.TupleType tupleType) {
+            for (SolidityType component : tupleType.getTypes()) {
+                expression.append(", ").append(typeExpression(component));
+            }
+        }
+        return expression.append(')').toString();
+    }
+
+    private static String components(List<AbiParam> params, List<String> names) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) result.append(", ");
+            AbiParam param = params.get(i);
+            String type = isHashedTopic(param) ? "byte[]" : javaType(param.type);
+            result.append(type).append(' ').append(names.get(i));
+        }
+        return result.toString();
+    }
+
+    private static String typeRefs(int count) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) result.append(", ");
+            result.append('T').append(i);
+        }
+        return result.toString();
+    }
+
+    private static int headSize(List<AbiParam> params) {
+        return params.stream().mapToInt(p -> p.type.getFixedSize()).sum();
+    }
+
+    /**
+     * Record component names: the param names where they are valid identifiers, made unique and safe otherwise.
+     */
+    private static List<String> componentNames(List<AbiParam> params) {
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < params.size(); i++) {
+            String name = params.get(i).name;
+            if (name == null || name.isEmpty()) name = "arg" + i;
+            if (!SourceVersion.isName(name) || isReserved(name)) name = name + "_";
+            int count = seen.merge(name, 1, Integer::sum);
+            names.add(count == 1 ? name : name + count);
+        }
+        return names;
+    }
+
+    /**
+     * Names a component can't take: members of the generated record, including its static fields, whose field
+     * would clash with the component's.
+     */
+    private static boolean isReserved(String name) {
+        return switch (name) {
+            case "encode", "decode", "toParams", "hashCode", "equals", "toString", "getClass",
+                 "SELECTOR", "SIGNATURE", "LAYOUT", "NAMES", "FUNCTION", "EVENT", "TOPIC0", "TOPIC0_HEX" -> true;
+            default -> name.matches("T\\d+");
+        };
+    }
+
+    private static String uniqueName(Set<String> usedNames, String name, byte[] signature) {
+        String result = usedNames.contains(name) ? name + "_" + Hex.encodeHexString(signature).substring(0, 8) : name;
+        usedNames.add(result);
+        return result;
+    }
+
+    private static String upperCamel(String name) {
+        StringBuilder result = new StringBuilder();
+        boolean upper = true;
+        for (char c : name.toCharArray()) {
+            if (c == '_' || !Character.isJavaIdentifierPart(c)) {
+                upper = true;
+            } else {
+                result.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        if (result.isEmpty() || !Character.isJavaIdentifierStart(result.charAt(0))) result.insert(0, 'X');
+        return result.toString();
+    }
+
+    static String classNameOf(Path abiFile) {
+        String fileName = abiFile.getFileName().toString();
+        return upperCamel(fileName.endsWith(".json") ? fileName.substring(0, fileName.length() - 5) : fileName);
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.wkennedy.abi.benchmark;
+
+import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.Decoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ABI parsing and registration, i.e. the startup cost per ABI.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AbiRegistryBenchmark {
+
+    @Param({"erc20_abi.json", "uniswap_abi.json", "UniswapV3SwapRouter.json"})
+    public String abiFile;
+
+    private String json;
+
+    @Setup
+    public void setup() {
+        json = Fixtures.abi(abiFile);
+    }
+
+    @Benchmark
+    public Optional<Abi> fromJson() {
+        return Abi.fromJson(json);
+    }
+
+    @Benchmark
+    public Decoder addAbi() {
+        Decoder decoder = new Decoder();
+        decoder.addAbi("0x7a250d5630b4cf539739df2c5dacb4c659f2488d", json);
+        return decoder;
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.wkennedy.abi.benchmark;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.DecodedFunctions;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of calldata and logs through {@link Decoder}, for hex and byte[] inputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderBenchmark {
+
+    private Decoder decoder;
+    private byte[] swapBytes;
+    private byte[] tupleBytes;
+    private byte[] multicallBytes;
+    private byte[] routerMulticallBytes;
+    private Log transferLog;
+
+    @Setup
+    public void setup() throws DecoderException {
+        decoder = new Decoder();
+        decoder.addAbi("uniswap", Fixtures.abi("uniswap_abi.json"));
+        decoder.addAbi("tuple", Fixtures.abi("tuple_test_abi.json"));
+        decoder.addAbi("multicall", Fixtures.abi("multicall_example.json"));
+        decoder.addAbi("router", Fixtures.abi("UniswapV3SwapRouter.json"));
+        decoder.addAbi("log", Fixtures.abi("log_test_abi.json"));
+        swapBytes = Hex.decodeHex(Fixtures.SWAP_CALLDATA.substring(2));
+        tupleBytes = Hex.decodeHex(Fixtures.TUPLE_CALLDATA.substring(2));
+        multicallBytes = Hex.decodeHex(Fixtures.MULTICALL_CALLDATA.substring(2));
+        routerMulticallBytes = Hex.decodeHex(Fixtures.ROUTER_MULTICALL_CALLDATA.substring(2));
+        transferLog = new Log(Fixtures.TRANSFER_DATA,
+                List.of(Fixtures.TRANSFER_TOPIC0, Fixtures.TRANSFER_FROM, Fixtures.TRANSFER_TO),
+                Fixtures.TRANSFER_ADDRESS);
+    }
+
+    @Benchmark
+    public DecodedFunctions decodeSimpleBytes() {
+        return decoder.decodeFunction(swapBytes);
+    }
+
+    @Benchmark
+    public DecodedFunctions decodeSimpleHex() {
+        return decoder.decodeFunction(Fixtures.SWAP_CALLDATA);
+    }
+
+    @Benchmark
+    public DecodedFunctions decodeTupleBytes() {
+        return decoder.decodeFunction(tupleBytes);
+    }
+
+    @Benchmark
+    public DecodedFunctions decodeTupleHex() {
+        return decoder.decodeFunction(Fixtures.TUPLE_CALLDATA);
+    }
+
+    @Benchmark
+    public DecodedFunctions decodeMulticallBytes() {
+        return decoder.decodeFunction(multicallBytes);
+    }
+
+    @Benchmark
+    public DecodedFunctions decodeMulticallHex() {
+        return decoder.decodeFunction(Fixtures.MULTICALL_CALLDATA);
+    }
+
+    @Benchmark
+    public DecodedFunctions decodeRouterMulticallBytes() {
+        return decoder.decodeFunction(routerMulticallBytes);
+    }
+
+    @Benchmark
+    public List<DecodedLog> decodeLogs() {
+        return decoder.decodeLogs(transferLog);
+    }
+}
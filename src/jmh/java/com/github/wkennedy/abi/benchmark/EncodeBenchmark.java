@@ -0,0 +1,46 @@
+package com.github.wkennedy.abi.benchmark;
+
+import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding of calldata with {@link AbiFunction#encode}, for static and dynamic arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodeBenchmark {
+    private static final String TOKEN_A = "0xa0b86991c6218b36c1d19d4a2e9eb0ce3606eb48";
+    private static final String TOKEN_B = "0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+    private static final String RECIPIENT = "0xd4cf8e47beac55b42ae58991785fa326d9384bd1";
+
+    private AbiFunction transfer;
+    private AbiFunction swap;
+    private BigInteger amount;
+
+    @Setup
+    public void setup() {
+        transfer = Abi.fromJson(Fixtures.abi("erc20_abi.json")).orElseThrow()
+                .findFunction(f -> "transfer".equals(f.name)).orElseThrow();
+        swap = Abi.fromJson(Fixtures.abi("uniswap_abi.json")).orElseThrow()
+                .findFunction(f -> "swapExactTokensForETH".equals(f.name)).orElseThrow();
+        amount = new BigInteger("6283178947560620");
+    }
+
+    @Benchmark
+    public byte[] encodeStatic() {
+        return transfer.encode(RECIPIENT, amount);
+    }
+
+    @Benchmark
+    public byte[] encodeDynamic() {
+        return swap.encode(amount, amount, new String[]{TOKEN_A, TOKEN_B}, RECIPIENT, 1659426897);
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.wkennedy.abi.benchmark;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.Log;
+import com.github.wkennedy.abi.subscription.LogFilter;
+import com.github.wkennedy.abi.subscription.Subscription;
+import com.github.wkennedy.abi.subscription.SubscriptionEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching raw logs against many "Transfer where to = X" subscriptions, for a log no subscription wants and for one
+ * that is matched, decoded and delivered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubscriptionBenchmark {
+
+    @Param({"1000", "100000"})
+    public int subscriptions;
+
+    private SubscriptionEngine engine;
+    private Log unmatchedLog;
+    private Log matchedLog;
+
+    @Setup
+    public void setup() {
+        Decoder decoder = new Decoder();
+        decoder.addAbi("log", Fixtures.abi("log_test_abi.json"));
+        engine = new SubscriptionEngine(decoder);
+        for (int i = 0; i < subscriptions; i++) {
+            String to = String.format("0x%064x", i + 1);
+            engine.subscribe(LogFilter.event(Fixtures.TRANSFER_TOPIC0).withTopic(2, to), log -> {
+            });
+        }
+        engine.subscribe(LogFilter.event(Fixtures.TRANSFER_TOPIC0).withTopic(2, Fixtures.TRANSFER_TO), log -> {
+        });
+        unmatchedLog = new Log(Fixtures.TRANSFER_DATA,
+                List.of(Fixtures.TRANSFER_TOPIC0, Fixtures.TRANSFER_FROM, Fixtures.TRANSFER_FROM),
+                Fixtures.TRANSFER_ADDRESS);
+        matchedLog = new Log(Fixtures.TRANSFER_DATA,
+                List.of(Fixtures.TRANSFER_TOPIC0, Fixtures.TRANSFER_FROM, Fixtures.TRANSFER_TO),
+                Fixtures.TRANSFER_ADDRESS);
+    }
+
+    @Benchmark
+    public List<Subscription> matchUnmatched() {
+        return engine.match(unmatchedLog);
+    }
+
+    @Benchmark
+    public int processMatched() {
+        return engine.process(matchedLog);
+    }
+}
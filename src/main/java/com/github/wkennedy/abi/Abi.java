@@ -9,6 +9,7 @@ import org.apache.commons.collections4.Predicate;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -100,12 +101,24 @@ public class Abi extends ArrayList<AbiEntry> {
 
         @Override
         public AbiParam convert(AbiParam param) {
-            if (param.type instanceof SolidityType.TupleType) {
-                for (AbiParam.Component c : param.components) {
-                    ((SolidityType.TupleType) param.type).types.add(c.getType());
+            populateTuple(param.type, param.components);
+            return param;
+        }
+
+        /**
+         * Adds the component types to the tuple, looking through array dimensions (e.g. 'tuple[]') and recursing
+         * into nested tuples.
+         */
+        private static void populateTuple(SolidityType type, List<AbiParam.Component> components) {
+            while (type instanceof SolidityType.ArrayType arrayType) {
+                type = arrayType.getElementType();
+            }
+            if (type instanceof SolidityType.TupleType tupleType && components != null && tupleType.types.isEmpty()) {
+                for (AbiParam.Component c : components) {
+                    populateTuple(c.getType(), c.getComponents());
+                    tupleType.types.add(c.getType());
                 }
             }
-            return param;
         }
     }
 
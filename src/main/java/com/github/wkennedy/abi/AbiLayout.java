@@ -0,0 +1,326 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.visitor.DecodeVisitor;
+
+import java.util.List;
+
+/**
+ * A precomputed head/tail layout for a sequence of Solidity types (function arguments, tuple components or array
+ * elements). The head offset of every element and the total head size are computed once, and the same layout is
+ * used for both encoding and decoding so the two directions can never disagree on sizes or offsets.
+ */
+public final class AbiLayout {
+    static final int WORD_SIZE = 32;
+
+    /**
+     * Returned by the validation methods when the encoding can be decoded without reading past the buffer.
+     */
+    public static final int VALID = -1;
+
+    private final SolidityType[] types;
+    private final SolidityType elementType;
+    private final int count;
+    private final int[] headOffsets;
+    private final int headSize;
+    private final boolean dynamic;
+
+    private AbiLayout(SolidityType[] types) {
+        this.types = types;
+        this.elementType = null;
+        this.count = types.length;
+        this.headOffsets = new int[types.length];
+        int offset = 0;
+        boolean anyDynamic = false;
+        for (int i = 0; i < types.length; i++) {
+            headOffsets[i] = offset;
+            offset += types[i].getFixedSize();
+            anyDynamic |= types[i].isDynamicType();
+        }
+        this.headSize = offset;
+        this.dynamic = anyDynamic;
+    }
+
+    private AbiLayout(SolidityType elementType, int count) {
+        this.types = null;
+        this.elementType = elementType;
+        this.count = count;
+        this.headOffsets = null;
+        this.headSize = elementType.getFixedSize() * count;
+        this.dynamic = elementType.isDynamicType() && count > 0;
+    }
+
+    /**
+     * Creates the layout of a heterogeneous sequence of types, e.g. function inputs or tuple components.
+     *
+     * @param types the types in declaration order
+     * @return the layout
+     */
+    public static AbiLayout of(List<SolidityType> types) {
+        return new AbiLayout(types.toArray(new SolidityType[0]));
+    }
+
+    /**
+     * Creates the layout of {@code count} consecutive elements of the same type, e.g. the body of an array.
+     * Offsets are computed arithmetically, so no per-element state is allocated.
+     *
+     * @param elementType the element type
+     * @param count       the number of elements
+     * @return the layout
+     */
+    public static AbiLayout repeated(SolidityType elementType, int count) {
+        return new AbiLayout(elementType, count);
+    }
+
+    /**
+     * @return the number of elements in this layout
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the size in bytes of the head section (static values and offsets of dynamic values)
+     */
+    public int getHeadSize() {
+        return headSize;
+    }
+
+    /**
+     * @return true if any element is dynamic, i.e. the encoding has a tail section
+     */
+    public boolean isDynamic() {
+        return dynamic;
+    }
+
+    /**
+     * @param index the element index
+     * @return the type of the element at the given index
+     */
+    public SolidityType getType(int index) {
+        return types != null ? types[index] : elementType;
+    }
+
+    /**
+     * @param index the element index
+     * @return the offset of the element's head word(s), relative to the start of the encoding
+     */
+    public int getHeadOffset(int index) {
+        return headOffsets != null ? headOffsets[index] : index * elementType.getFixedSize();
+    }
+
+    /**
+     * Encodes the given values according to this layout.
+     *
+     * @param values the values, one per element
+     * @return the head followed by the tails of all dynamic elements
+     */
+    public byte[] encode(List<?> values) {
+        if (values.size() != count) {
+            throw new RuntimeException("Value count (" + values.size() + ") != " + count);
+        }
+        byte[][] encoded = new byte[count][];
+        int totalSize = headSize;
+        for (int i = 0; i < count; i++) {
+            encoded[i] = getType(i).encode(values.get(i));
+            if (getType(i).isDynamicType()) {
+                totalSize += encoded[i].length;
+            }
+        }
+
+        byte[] result = new byte[totalSize];
+        int tailOffset = headSize;
+        for (int i = 0; i < count; i++) {
+            int headOffset = getHeadOffset(i);
+            if (getType(i).isDynamicType()) {
+                writeOffset(result, headOffset, tailOffset);
+                System.arraycopy(encoded[i], 0, result, tailOffset, encoded[i].length);
+                tailOffset += encoded[i].length;
+            } else {
+                System.arraycopy(encoded[i], 0, result, headOffset, encoded[i].length);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes all elements of this layout.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer; dynamic offsets are relative to it
+     * @return the decoded values, one per element
+     */
+    public Object[] decode(byte[] encoded, int offset) {
+        Object[] result = new Object[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = decode(encoded, offset, i);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a single element of this layout without touching the others.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer
+     * @param index   the element index
+     * @return the decoded value
+     */
+    public Object decode(byte[] encoded, int offset, int index) {
+        return getType(index).decode(encoded, getValueOffset(encoded, offset, index));
+    }
+
+    /**
+     * Reports all elements of this layout to a visitor instead of decoding them.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer
+     * @param visitor the visitor, called with pointers into the buffer
+     * @throws RuntimeException if an element extends past the buffer
+     */
+    public void visit(byte[] encoded, int offset, DecodeVisitor visitor) {
+        for (int i = 0; i < count; i++) {
+            visit(encoded, offset, i, i, visitor);
+        }
+    }
+
+    /**
+     * Reports a single element, with the index the visitor should see, e.g. its position among all params of an
+     * event rather than among the ones in the data.
+     */
+    void visit(byte[] encoded, int offset, int index, int visitorIndex, DecodeVisitor visitor) {
+        if (getType(index).isDynamicType()) SolidityType.checkWord(encoded, offset + getHeadOffset(index));
+        getType(index).visit(encoded, getValueOffset(encoded, offset, index), visitorIndex, visitor);
+    }
+
+    /**
+     * Checks that all elements can be decoded without reading past the buffer. Nothing is allocated and nothing is
+     * thrown, so garbage input can be rejected cheaply before decoding.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer
+     * @return {@link #VALID}, or the position of the first word that is out of bounds or out of range
+     */
+    public int validate(byte[] encoded, int offset) {
+        return validateWithin(encoded, offset, encoded.length);
+    }
+
+    /**
+     * Checks that all elements can be decoded without reading at or past {@code end}, e.g. for an encoding embedded
+     * in a larger buffer whose own bounds checks would let a value run into the data that follows.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer
+     * @param end     the end of the encoding within the buffer
+     * @return {@link #VALID}, or the position of the first word that is out of bounds or out of range
+     */
+    public int validateWithin(byte[] encoded, int offset, int end) {
+        for (int i = 0; i < count; i++) {
+            int invalid = validate(encoded, offset, i, end);
+            if (invalid != VALID) return invalid;
+        }
+        return VALID;
+    }
+
+    /**
+     * Checks that a single element can be decoded without reading past the buffer.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer
+     * @param index   the element index
+     * @return {@link #VALID}, or the position of the first word that is out of bounds or out of range
+     */
+    public int validate(byte[] encoded, int offset, int index) {
+        return validate(encoded, offset, index, encoded.length);
+    }
+
+    private int validate(byte[] encoded, int offset, int index, int end) {
+        SolidityType type = getType(index);
+        int headOffset = offset + getHeadOffset(index);
+        if (!type.isDynamicType()) {
+            return type.validate(encoded, headOffset, end);
+        }
+        int tail = peekOffset(encoded, headOffset, end);
+        if (tail < 0 || tail > end - offset) return headOffset;
+        return type.validate(encoded, offset + tail, end);
+    }
+
+    /**
+     * Resolves where the value of an element starts: its head position for static types, or the position its
+     * offset word points to for dynamic types.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer
+     * @param index   the element index
+     * @return the absolute position of the element's value within the buffer
+     */
+    public int getValueOffset(byte[] encoded, int offset, int index) {
+        int headOffset = offset + getHeadOffset(index);
+        return getType(index).isDynamicType() ? offset + readOffset(encoded, headOffset) : headOffset;
+    }
+
+    /**
+     * Reads a 32 byte big-endian offset or length word without throwing.
+     *
+     * @param encoded the buffer
+     * @param offset  the position of the word
+     * @return the value of the word, or -1 if the word is out of bounds or does not fit into a non-negative int
+     */
+    public static int peekOffset(byte[] encoded, int offset) {
+        return peekOffset(encoded, offset, encoded.length);
+    }
+
+    /**
+     * Reads a 32 byte big-endian offset or length word without throwing.
+     *
+     * @param encoded the buffer
+     * @param offset  the position of the word
+     * @param end     the end of the encoded data within the buffer
+     * @return the value of the word, or -1 if the word is not before {@code end} or does not fit into a non-negative
+     * int
+     */
+    public static int peekOffset(byte[] encoded, int offset, int end) {
+        if (offset < 0 || offset > end - WORD_SIZE) return -1;
+        for (int i = offset; i < offset + WORD_SIZE - 4; i++) {
+            if (encoded[i] != 0) return -1;
+        }
+        int value = ((encoded[offset + 28] & 0xFF) << 24) | ((encoded[offset + 29] & 0xFF) << 16)
+                | ((encoded[offset + 30] & 0xFF) << 8) | (encoded[offset + 31] & 0xFF);
+        return value < 0 ? -1 : value;
+    }
+
+    /**
+     * Reads a 32 byte big-endian offset or length word as an int.
+     *
+     * @param encoded the buffer
+     * @param offset  the position of the word
+     * @return the value of the word
+     * @throws RuntimeException if the word does not fit into a non-negative int
+     */
+    public static int readOffset(byte[] encoded, int offset) {
+        for (int i = offset; i < offset + WORD_SIZE - 4; i++) {
+            if (encoded[i] != 0) {
+                throw new RuntimeException("Offset or length out of range at position " + offset);
+            }
+        }
+        int value = ((encoded[offset + 28] & 0xFF) << 24) | ((encoded[offset + 29] & 0xFF) << 16)
+                | ((encoded[offset + 30] & 0xFF) << 8) | (encoded[offset + 31] & 0xFF);
+        if (value < 0) {
+            throw new RuntimeException("Offset or length out of range at position " + offset);
+        }
+        return value;
+    }
+
+    /**
+     * Writes an int as a 32 byte big-endian word. The upper bytes of the word are expected to be zero already.
+     *
+     * @param target the buffer
+     * @param offset the position of the word
+     * @param value  the value to write
+     */
+    public static void writeOffset(byte[] target, int offset, int value) {
+        target[offset + 28] = (byte) (value >>> 24);
+        target[offset + 29] = (byte) (value >>> 16);
+        target[offset + 30] = (byte) (value >>> 8);
+        target[offset + 31] = (byte) value;
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.wkennedy.abi;
+
+/**
+ * Tracks what the decode running on the current thread has consumed against its {@link DecodeLimits}. A budget is
+ * opened by the outermost decode and shared by everything it triggers (nested multicall calls included); decoding
+ * outside of an open budget, e.g. through {@link SolidityType} directly, is only subject to the bounds checks.
+ * <p>
+ * Each thread reuses one budget, so opening it doesn't allocate. Decoders outside of this package, e.g. the columnar
+ * decoder, open and charge it to run under the same limits.
+ */
+public final class DecodeBudget {
+    private static final ThreadLocal<DecodeBudget> CURRENT = ThreadLocal.withInitial(DecodeBudget::new);
+
+    private DecodeLimits limits;
+    private long allocated;
+    private int nestedCalls;
+
+    /**
+     * Opens a budget for the current thread.
+     *
+     * @param limits the limits to enforce
+     * @return the new budget to close when the decode ends, or null if a budget is already open on this thread
+     */
+    public static DecodeBudget open(DecodeLimits limits) {
+        DecodeBudget budget = CURRENT.get();
+        if (budget.limits != null) return null;
+        budget.limits = limits;
+        budget.allocated = 0;
+        budget.nestedCalls = 0;
+        return budget;
+    }
+
+    public void close() {
+        limits = null;
+    }
+
+    /**
+     * Charges an allocation of the given size.
+     *
+     * @throws DecodeLimitExceededException if the total exceeds {@link DecodeLimits#maxAllocation()}
+     */
+    public static void allocate(long bytes) {
+        DecodeBudget budget = CURRENT.get();
+        if (budget.limits != null) budget.charge(bytes);
+    }
+
+    /**
+     * Charges the reference array of a decoded array or tuple.
+     *
+     * @throws DecodeLimitExceededException if the length exceeds {@link DecodeLimits#maxArrayLength()} or the total allocation
+     *                          exceeds {@link DecodeLimits#maxAllocation()}
+     */
+    static void allocateArray(int length) {
+        DecodeBudget budget = CURRENT.get();
+        if (budget.limits != null) {
+            if (length > budget.limits.maxArrayLength()) {
+                throw new DecodeLimitExceededException("Decode limit exceeded: array length " + length + " > " + budget.limits.maxArrayLength());
+            }
+            budget.charge(16L + 8L * length);
+        }
+    }
+
+    private void charge(long bytes) {
+        allocated += bytes;
+        if (allocated > limits.maxAllocation()) {
+            throw new DecodeLimitExceededException("Decode limit exceeded: more than " + limits.maxAllocation() + " bytes allocated");
+        }
+    }
+
+    /**
+     * Charges one nested call of a multicall.
+     *
+     * @param depth the nesting depth of the call
+     * @throws DecodeLimitExceededException if the depth exceeds {@link DecodeLimits#maxDepth()} or the number of nested calls
+     *                          exceeds {@link DecodeLimits#maxNestedCalls()}
+     */
+    static void nestedCall(int depth) {
+        DecodeBudget budget = CURRENT.get();
+        if (budget.limits != null) {
+            if (depth > budget.limits.maxDepth()) {
+                throw new DecodeLimitExceededException("Decode limit exceeded: multicall depth " + depth + " > " + budget.limits.maxDepth());
+            }
+            if (++budget.nestedCalls > budget.limits.maxNestedCalls()) {
+                throw new DecodeLimitExceededException("Decode limit exceeded: more than " + budget.limits.maxNestedCalls() + " nested calls");
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.wkennedy.abi;
+
+/**
+ * Thrown when a decode exceeds its {@link DecodeLimits}. Hostile input hits the limits on purpose and often, so the
+ * exception carries no stack trace; the message says which limit was exceeded.
+ */
+public class DecodeLimitExceededException extends RuntimeException {
+
+    public DecodeLimitExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
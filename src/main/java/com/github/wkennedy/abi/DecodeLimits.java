@@ -0,0 +1,33 @@
+package com.github.wkennedy.abi;
+
+/**
+ * Bounds applied to a single top-level decode (one call, one log or one revert), so adversarial calldata cannot
+ * make the decoder allocate far more than the size of its input or recurse without end.
+ * <p>
+ * Lengths are always checked against the actual buffer before anything is allocated; these limits additionally cap
+ * what a valid-looking payload may cost, e.g. a dynamic array whose elements all point at the same large tail.
+ *
+ * @param maxAllocation  the maximum number of bytes allocated for decoded byte strings and arrays
+ * @param maxArrayLength the maximum length of a single dynamic array
+ * @param maxDepth       the maximum multicall nesting depth; the top-level call is at depth 0
+ * @param maxNestedCalls the maximum number of nested calls expanded from multicalls
+ * @see Decoder#setDecodeLimits(DecodeLimits)
+ */
+public record DecodeLimits(long maxAllocation, int maxArrayLength, int maxDepth, int maxNestedCalls) {
+    /**
+     * 64 MiB of allocation, arrays of up to a million elements, 8 levels of multicall nesting and 10,000 nested
+     * calls.
+     */
+    public static final DecodeLimits DEFAULT = new DecodeLimits(64L << 20, 1_000_000, 8, 10_000);
+
+    /**
+     * No limits beyond the bounds checks against the buffer size.
+     */
+    public static final DecodeLimits UNLIMITED = new DecodeLimits(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    public DecodeLimits {
+        if (maxAllocation < 0 || maxArrayLength < 0 || maxDepth < 0 || maxNestedCalls < 0) {
+            throw new IllegalArgumentException("Decode limits must not be negative");
+        }
+    }
+}
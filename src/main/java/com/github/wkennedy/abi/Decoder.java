@@ -1,20 +1,43 @@
 package com.github.wkennedy.abi;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.wkennedy.abi.compiled.CompiledAbi;
+import com.github.wkennedy.abi.compiled.CompiledEvent;
+import com.github.wkennedy.abi.compiled.CompiledFunction;
 import com.github.wkennedy.abi.entry.AbiEntry;
+import com.github.wkennedy.abi.entry.AbiError;
+import com.github.wkennedy.abi.entry.AbiEvent;
 import com.github.wkennedy.abi.entry.AbiFunction;
 import com.github.wkennedy.abi.entry.AbiParam;
+import com.github.wkennedy.abi.filter.LogsBloom;
+import com.github.wkennedy.abi.filter.TopicFilter;
+import com.github.wkennedy.abi.jfr.AddAbiEvent;
+import com.github.wkennedy.abi.jfr.DecodeFunctionEvent;
+import com.github.wkennedy.abi.jfr.DecodeLogBatchEvent;
+import com.github.wkennedy.abi.jfr.MulticallExpansionEvent;
+import com.github.wkennedy.abi.jfr.Outcome;
+import com.github.wkennedy.abi.metrics.DecoderMetrics;
+import com.github.wkennedy.abi.models.DecodeResult;
 import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.DecodedRevert;
 import com.github.wkennedy.abi.models.DecodedFunctions;
+import com.github.wkennedy.abi.models.DeferredParam;
 import com.github.wkennedy.abi.models.Log;
 import com.github.wkennedy.abi.models.Param;
+import com.github.wkennedy.abi.models.ValueFormatter;
+import com.github.wkennedy.abi.registry.AddressIndex;
+import com.github.wkennedy.abi.registry.SelectorIndex;
+import com.github.wkennedy.abi.transaction.RawTransaction;
+import com.github.wkennedy.abi.visitor.DecodeVisitor;
+import com.github.wkennedy.util.Keccak256;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
-import org.web3j.crypto.Hash;
 
 import static com.github.wkennedy.util.Constants.HEX_PREFIX;
 
@@ -23,10 +46,36 @@ import static com.github.wkennedy.util.Constants.HEX_PREFIX;
  */
 public class Decoder {
     private static final int FORMATTED_STRING_SIZE = 40;
+    private static final AbiError ERROR = new AbiError(DecodedRevert.ERROR, List.of(new AbiParam(false, "message", SolidityType.getType("string"))));
+    private static final AbiError PANIC = new AbiError(DecodedRevert.PANIC, List.of(new AbiParam(false, "code", SolidityType.getType("uint256"))));
 
     private final Map<String, Abi> abiCache = new HashMap<>();
+    private final Map<String, Map<String, AbiFunction>> functionsByAbi = new HashMap<>();
+    private final SelectorIndex<RevertEntry> errorsBySelector = new SelectorIndex<>();
+    private final SelectorIndex<String> methodIdsBySelector = new SelectorIndex<>();
+    private final Map<String, AbiEvent> eventsByTopic0 = new HashMap<>();
+    private final List<String> abiKeys = new ArrayList<>();
+    private final Map<String, Integer> abiKeyIds = new HashMap<>();
+    private AddressIndex addressIndex = AddressIndex.create(0);
     private final HashMap<String, AbiEntry> abiEntriesByMethodId = new HashMap<>();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CompiledFunction> compiledFunctionsByMethodId = new HashMap<>();
+    private final Map<String, CompiledEvent> compiledEventsByTopic = new HashMap<>();
+    private final Map<String, String> abiIdsByMethodId = new HashMap<>();
+    private static final ObjectReader LOGS_READER = new ObjectMapper().readerFor(Log[].class);
+    private final Map<AbiEntry, SpecializedDecoder.HotPath> hotPaths = new ConcurrentHashMap<>();
+    private volatile int specializationThreshold;
+    private volatile DecoderMetrics metrics;
+    private volatile ValueFormatter valueFormatter = ValueFormatter.HEX;
+    private volatile DecodeLimits decodeLimits = DecodeLimits.DEFAULT;
+    private volatile LogDecodeMode logDecodeMode = LogDecodeMode.FULL;
+    private volatile TopicFilter topicFilter;
+    private volatile LogsBloom registeredTopicsBloom;
+    private volatile boolean frozen;
+
+    {
+        addError(ERROR);
+        addError(PANIC);
+    }
 
     public Decoder() {
     }
@@ -57,7 +106,7 @@ public class Decoder {
      */
     @SuppressWarnings("unused")
     public void addAbi(String json) {
-        String abiHash = Hash.sha3(Hex.encodeHexString(json.getBytes()));
+        String abiHash = HEX_PREFIX + Hex.encodeHexString(Keccak256.hash(json.getBytes()));
         addAbi(abiHash, json);
     }
 
@@ -68,37 +117,397 @@ public class Decoder {
      * @param json The JSON string representing the ABI.
      */
     public void addAbi(String address, String json) {
+        checkNotFrozen();
+        AddAbiEvent event = new AddAbiEvent();
+        event.begin();
         Optional<Abi> potentialAbi = Abi.fromJson(json);
         potentialAbi.ifPresent(abi -> {
+            Map<String, AbiFunction> functions = new HashMap<>();
             abi.forEach(entry -> {
                 if (entry != null) {
+                    if (entry instanceof AbiError error && error.name != null) {
+                        addError(error);
+                    }
                     if (entry.name != null) {
+                        entry.inputNames();
                         byte[] methodSignature = entry.encodeSignature();
                         String hexSig = Hex.encodeHexString(methodSignature);
-                        abiEntriesByMethodId.put(hexSig, entry);
+                        AbiEntry existing = abiEntriesByMethodId.put(hexSig, entry);
+                        if (methodSignature.length == 4) addMethodId(hexSig, methodSignature);
+                        if (entry instanceof AbiEvent abiEvent) eventsByTopic0.put(HEX_PREFIX + hexSig, abiEvent);
+                        abiIdsByMethodId.put(hexSig, address);
+                        if (entry instanceof AbiFunction function) functions.put(hexSig, function);
+                        DecoderMetrics metrics = this.metrics;
+                        if (metrics != null && existing != null && !existing.formatSignature().equals(entry.formatSignature())) {
+                            metrics.collision(hexSig, existing.formatSignature(), entry.formatSignature());
+                        }
                     }
                 }
             });
             abiCache.put(address, abi);
+            functionsByAbi.put(address, functions);
+            int abiId = abiKeyId(address);
+            if (AddressIndex.isAddress(address)) addressIndex.put(address, abiId);
+            registryChanged();
         });
+        if (event.shouldCommit()) {
+            event.abi = address;
+            event.jsonSize = json.length();
+            event.entries = potentialAbi.map(abi -> (int) abi.stream().filter(e -> e != null && e.name != null).count()).orElse(0);
+            event.outcome = potentialAbi.isPresent() ? Outcome.DECODED : Outcome.INVALID;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds an ABI compiled ahead of time. Its functions and events take precedence over runtime ABIs with the same
+     * selector or topic 0, and no JSON is parsed.
+     *
+     * @param abi The compiled ABI, e.g. a class generated by AbiCodeGenerator.
+     */
+    public void addCompiledAbi(CompiledAbi abi) {
+        checkNotFrozen();
+        AddAbiEvent event = new AddAbiEvent();
+        event.begin();
+        String abiId = abi.getClass().getSimpleName();
+        for (CompiledFunction function : abi.functions()) {
+            String selector = Hex.encodeHexString(function.selector());
+            compiledFunctionsByMethodId.put(selector, function);
+            addMethodId(selector, function.selector());
+            abiIdsByMethodId.put(selector, abiId);
+        }
+        for (CompiledEvent compiledEvent : abi.events()) {
+            if (compiledEvent.topic0() != null) {
+                String topic0 = Hex.encodeHexString(compiledEvent.topic0());
+                compiledEventsByTopic.put(topic0, compiledEvent);
+                abiIdsByMethodId.put(topic0, abiId);
+            }
+        }
+        registryChanged();
+        if (event.shouldCommit()) {
+            event.abi = abiId;
+            event.compiled = true;
+            event.entries = abi.functions().size() + abi.events().size();
+            event.outcome = Outcome.DECODED;
+            event.commit();
+        }
+    }
+
+    /**
+     * Makes the registry read-only: adding ABIs or routing addresses throws from now on. The registry maps are not
+     * synchronized, so a decoder shared by many threads must not change after it is published; freezing enforces
+     * that. The getters only ever expose read-only views of the registry. Settings such as the value formatter or
+     * the decode limits can still be changed.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) throw new IllegalStateException("The decoder is frozen; its ABIs can't be changed");
+    }
+
+    /**
+     * Enables specialized decoders for hot entries. Once a function or event has been decoded {@code threshold}
+     * times, a decoder specialized for its inputs is generated as a hidden class and used from then on; until then
+     * the generic decoding is used.
+     *
+     * @param threshold The number of decodes after which an entry is specialized, or 0 to disable specialization.
+     */
+    public void setSpecializationThreshold(int threshold) {
+        if (threshold < 0) throw new IllegalArgumentException("Threshold must not be negative: " + threshold);
+        this.specializationThreshold = threshold;
+        hotPaths.clear();
+    }
+
+    public int getSpecializationThreshold() {
+        return specializationThreshold;
+    }
+
+    /**
+     * Sets the listener notified of every decode, registry miss, collision and failure.
+     *
+     * @param metrics The listener, e.g. a RecordingDecoderMetrics, or null to disable metrics.
+     */
+    public void setMetrics(DecoderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public DecoderMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets how the values of decoded params are rendered by {@link Param#getValue()}. Rendering happens lazily on
+     * first access; the raw value is always available through {@link Param#getRawValue()}.
+     *
+     * @param valueFormatter The formatter, e.g. ValueFormatter.HEX (the default) or ValueFormatter.CHECKSUM_ADDRESSES.
+     */
+    public void setValueFormatter(ValueFormatter valueFormatter) {
+        this.valueFormatter = Objects.requireNonNull(valueFormatter, "valueFormatter");
+    }
+
+    public ValueFormatter getValueFormatter() {
+        return valueFormatter;
+    }
+
+    /**
+     * Sets the limits applied to each top-level decode: a function call with all of its nested multicall calls, a
+     * single log or a revert. A decode that exceeds them throws instead of allocating further.
+     *
+     * @param decodeLimits The limits, e.g. DecodeLimits.DEFAULT (the default) or DecodeLimits.UNLIMITED.
+     */
+    public void setDecodeLimits(DecodeLimits decodeLimits) {
+        this.decodeLimits = Objects.requireNonNull(decodeLimits, "decodeLimits");
+    }
+
+    public DecodeLimits getDecodeLimits() {
+        return decodeLimits;
+    }
+
+    /**
+     * Sets how much of each log {@link #decodeLogs} decodes up front. With TOPICS_ONLY the indexed params are
+     * decoded from the topics and the data is only parsed when a non-indexed param's value is first read.
+     *
+     * @param logDecodeMode The mode, LogDecodeMode.FULL by default.
+     */
+    public void setLogDecodeMode(LogDecodeMode logDecodeMode) {
+        this.logDecodeMode = Objects.requireNonNull(logDecodeMode, "logDecodeMode");
+    }
+
+    public LogDecodeMode getLogDecodeMode() {
+        return logDecodeMode;
+    }
+
+    /**
+     * Tests a block header's {@code logsBloom} for the topic 0 of every registered event. Blocks for which this
+     * returns false contain no log that {@link #decodeLogs} could decode and can be skipped without fetching their
+     * receipts. To also require one of a set of contract addresses, test the bloom with {@link LogsBloom#anyOf}.
+     *
+     * @param logsBloom The 256 byte bloom as hex, with or without the 0x prefix.
+     * @return false if the block certainly contains no registered event.
+     */
+    public boolean mightContainRegisteredEvents(String logsBloom) {
+        return registeredTopicsBloom().mightContainAny(logsBloom);
+    }
+
+    /**
+     * @param logsBloom The 256 byte bloom.
+     * @return false if the block certainly contains no registered event.
+     * @see #mightContainRegisteredEvents(String)
+     */
+    public boolean mightContainRegisteredEvents(byte[] logsBloom) {
+        return registeredTopicsBloom().mightContainAny(logsBloom);
     }
 
     /**
      * Retrieves the ABI cache.
      *
-     * @return The ABI cache as a Map, where the key is a String representing the address and the value is an Abi object.
+     * @return A read-only view of the ABI cache, where the key is a String representing the address and the value is an Abi object.
      */
     public Map<String, Abi> getAbis() {
-        return abiCache;
+        return Collections.unmodifiableMap(abiCache);
+    }
+
+    /**
+     * Routes an address to an ABI that is already registered, without parsing or storing the ABI again. The mapping
+     * is kept off-heap, so every contract on a chain can be routed.
+     *
+     * @param address The contract address, with or without the 0x prefix, in any case.
+     * @param abiKey The key the ABI was added with, e.g. an address or the hash used by {@link #addAbi(String)}.
+     * @throws IllegalArgumentException If the address isn't an address or no ABI was added with the key.
+     */
+    public void mapAddress(String address, String abiKey) {
+        checkNotFrozen();
+        Integer abiId = abiKeyIds.get(abiKey);
+        if (abiId == null || !abiCache.containsKey(abiKey)) throw new IllegalArgumentException("No ABI added with key " + abiKey);
+        addressIndex.put(address, abiId);
+    }
+
+    /**
+     * Looks up the ABI of a contract, ignoring the case of the address.
+     *
+     * @param address The contract address, with or without the 0x prefix.
+     * @return The ABI added for or mapped to the address, or null if there is none.
+     */
+    public Abi getAbiByAddress(String address) {
+        int abiId = addressIndex.get(address);
+        return abiId == AddressIndex.NO_ID || abiId >= abiKeys.size() ? null : abiCache.get(abiKeys.get(abiId));
+    }
+
+    /**
+     * The table routing addresses to ABI ids. Persist it with {@link AddressIndex#writeTo} together with
+     * {@link #getAbiKeys()}, and restore both with {@link #setAddressIndex}.
+     *
+     * @return The address index.
+     */
+    public AddressIndex getAddressIndex() {
+        return addressIndex;
+    }
+
+    /**
+     * @return The ABI keys by ABI id: the id an address maps to is the position of its ABI's key in this list.
+     */
+    public List<String> getAbiKeys() {
+        return Collections.unmodifiableList(abiKeys);
+    }
+
+    /**
+     * Replaces the address routing, typically with a table mapped at startup. The ABIs themselves are still added
+     * with {@link #addAbi}, before or after this call, under the same keys.
+     *
+     * @param addressIndex The table, e.g. from {@link AddressIndex#map}.
+     * @param abiKeys The ABI keys by ABI id the table was built with, as returned by {@link #getAbiKeys()}.
+     */
+    public void setAddressIndex(AddressIndex addressIndex, List<String> abiKeys) {
+        checkNotFrozen();
+        this.addressIndex = Objects.requireNonNull(addressIndex, "addressIndex");
+        this.abiKeys.clear();
+        this.abiKeyIds.clear();
+        abiKeys.forEach(this::abiKeyId);
+        abiCache.keySet().forEach(this::abiKeyId);
+    }
+
+    private int abiKeyId(String abiKey) {
+        return abiKeyIds.computeIfAbsent(abiKey, key -> {
+            abiKeys.add(key);
+            return abiKeys.size() - 1;
+        });
     }
 
     /**
      * Retrieves the methodIDs.
      *
-     * @return A map of methodIDs, where the key is a String representing the methodID and the value is an AbiEntry object.
+     * @return A read-only view of the methodIDs, where the key is a String representing the methodID and the value is an AbiEntry object.
      */
     public Map<String, AbiEntry> getMethodIDs() {
-        return abiEntriesByMethodId;
+        return Collections.unmodifiableMap(abiEntriesByMethodId);
+    }
+
+    /**
+     * Binds an event to a record class. The record's components are validated against the event inputs once, and
+     * the returned decoder writes decoded values straight into the record constructor.
+     *
+     * @param event       the event
+     * @param recordClass the record with one component per event input
+     * @return the record decoder
+     * @see RecordDecoder
+     */
+    public <T extends Record> RecordDecoder<T> bind(AbiEvent event, Class<T> recordClass) {
+        return RecordDecoder.forEvent(event, recordClass);
+    }
+
+    /**
+     * Binds a function to a record class. The record's components are validated against the function inputs once,
+     * and the returned decoder writes decoded values straight into the record constructor.
+     *
+     * @param function    the function
+     * @param recordClass the record with one component per function input
+     * @return the record decoder
+     * @see RecordDecoder
+     */
+    public <T extends Record> RecordDecoder<T> bind(AbiFunction function, Class<T> recordClass) {
+        return RecordDecoder.forFunction(function, recordClass);
+    }
+
+    /**
+     * Decodes the revert data of a failed call or simulation. The selector is resolved among the custom errors of
+     * all added ABIs and the built-in {@code Error(string)} and {@code Panic(uint256)}.
+     *
+     * @param revertData The revert data, selector included.
+     * @return The decoded revert, or null if the data is shorter than a selector or the error is unknown.
+     * @throws RuntimeException If the data doesn't match the error's params.
+     */
+    public DecodedRevert decodeRevert(byte[] revertData) {
+        return decodeRevert(revertData, 0, revertData.length);
+    }
+
+    /**
+     * Decodes revert data embedded in a larger buffer, e.g. the return data of a failed call in a multicall result,
+     * without copying it out.
+     *
+     * @param buffer The buffer.
+     * @param offset Where the revert data starts.
+     * @param length The length of the revert data.
+     * @return The decoded revert, or null if the data is shorter than a selector or the error is unknown.
+     * @throws RuntimeException If the data doesn't match the error's params or doesn't fit in the slice.
+     */
+    public DecodedRevert decodeRevert(byte[] buffer, int offset, int length) {
+        RevertEntry entry = length < 4 ? null : errorsBySelector.get(buffer, offset);
+        if (entry == null) {
+            DecoderMetrics metrics = this.metrics;
+            if (metrics != null && length >= 4) {
+                metrics.registryMiss(Hex.encodeHexString(Arrays.copyOfRange(buffer, offset, offset + 4)));
+            }
+            return null;
+        }
+        List<Param> params;
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            params = extractParamsFromDecodedABI(entry.error.decodeRevert(buffer, offset, length), entry.error.inputs);
+        } finally {
+            if (budget != null) budget.close();
+        }
+        return new DecodedRevert(entry.error.name, entry.signature, params, entry.error.inputNames());
+    }
+
+    /**
+     * Decodes the return data of a call embedded in a larger buffer, e.g. one result of a multicall, without copying
+     * it out. Nothing outside of the slice is read, and the decode limits apply.
+     *
+     * @param function The function that was called.
+     * @param buffer   The buffer.
+     * @param offset   Where the return data starts.
+     * @param length   The length of the return data.
+     * @return The decoded outputs.
+     * @throws RuntimeException If the data doesn't match the function's outputs or doesn't fit in the slice.
+     */
+    public List<Param> decodeResult(AbiFunction function, byte[] buffer, int offset, int length) {
+        AbiLayout layout = function.outputLayout();
+        int invalid = layout.validateWithin(buffer, offset, offset + length);
+        if (invalid != AbiLayout.VALID) {
+            throw new RuntimeException("Return data of " + function.name + " is truncated or malformed at position " + invalid);
+        }
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            return extractParamsFromDecodedABI(AbiParam.decodeList(layout, buffer, offset), function.outputs);
+        } finally {
+            if (budget != null) budget.close();
+        }
+    }
+
+    /**
+     * @param revertData The revert data as hex, with or without the 0x prefix.
+     * @return The decoded revert, or null if the data is shorter than a selector or the error is unknown.
+     * @see #decodeRevert(byte[])
+     */
+    public DecodedRevert decodeRevert(String revertData) {
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            return decodeRevert(scratch.hex(revertData));
+        }
+    }
+
+    private void addMethodId(String methodId, byte[] selector) {
+        methodIdsBySelector.put(SelectorIndex.selector(selector, 0), methodId);
+    }
+
+    /**
+     * @return The hex selector of the calldata as used to key the registry, without allocating if it is registered.
+     */
+    private String methodId(byte[] buffer, int offset, int length) {
+        String methodId = length >= 4 ? methodIdsBySelector.get(SelectorIndex.selector(buffer, offset)) : null;
+        if (methodId != null) return methodId;
+        byte[] methodBytes = new byte[4];
+        System.arraycopy(buffer, offset, methodBytes, 0, Math.min(length, 4));
+        return Hex.encodeHexString(methodBytes);
+    }
+
+    private void addError(AbiError error) {
+        errorsBySelector.put(SelectorIndex.selector(error.selector(), 0), new RevertEntry(error, error.formatSignature()));
     }
 
     /**
@@ -108,41 +517,152 @@ public class Decoder {
      * @return The decoded function represented by a DecodedFunctions object, or null if the function cannot be decoded.
      */
     public DecodedFunctions decodeFunction(byte[] data) {
-        byte[] methodBytes = Arrays.copyOf(data, 4);
-        String methodId = Hex.encodeHexString(methodBytes);
-        AbiEntry abiEntry = abiEntriesByMethodId.get(methodId);
-        if (abiEntry instanceof AbiFunction) {
-            DecodedFunctions decodedFunction = decodeAbiFunction(data, (AbiFunction) abiEntry);
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            return decodeFunction(data, 0);
+        } finally {
+            if (budget != null) budget.close();
+        }
+    }
+
+    /**
+     * Decodes calldata embedded in a larger buffer, e.g. the data field of a raw transaction, without copying it
+     * out. Nothing outside of the slice is read.
+     *
+     * @param buffer The buffer.
+     * @param offset Where the calldata starts.
+     * @param length The length of the calldata.
+     * @return The decoded function, or null if the function cannot be decoded.
+     * @throws RuntimeException If there is an error decoding the function.
+     */
+    public DecodedFunctions decodeFunction(byte[] buffer, int offset, int length) {
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            return decodeFunction(buffer, offset, length, null, 0);
+        } finally {
+            if (budget != null) budget.close();
+        }
+    }
+
+    /**
+     * Decodes the calldata of a raw signed transaction in place.
+     *
+     * @param rawTransaction The transaction as broadcast with eth_sendRawTransaction.
+     * @return The decoded function, or null if it's a contract creation, a plain transfer or the function cannot be decoded.
+     * @throws RuntimeException If the transaction or the calldata is malformed.
+     * @see #decodeTransaction(RawTransaction)
+     */
+    public DecodedFunctions decodeTransaction(byte[] rawTransaction) {
+        return decodeTransaction(RawTransaction.parse(rawTransaction));
+    }
 
-            if (decodedFunction.isMulticall()) {
-                Object paramValue = decodedFunction.getParam("data").getValue();
+    /**
+     * Decodes the calldata of a raw signed transaction in place. If the {@code to} address is routed to an ABI, the
+     * selector is resolved in that ABI first, so the contract's own function wins over a colliding selector added by
+     * another ABI.
+     *
+     * @param transaction The transaction.
+     * @return The decoded function, or null if it's a contract creation, a plain transfer or the function cannot be decoded.
+     * @throws RuntimeException If the calldata is malformed.
+     */
+    public DecodedFunctions decodeTransaction(RawTransaction transaction) {
+        if (transaction.isContractCreation() || transaction.getDataLength() < 4) return null;
+        byte[] buffer = transaction.getBuffer();
+        int abiId = addressIndex.get(buffer, transaction.getToOffset());
+        Map<String, AbiFunction> routed = abiId == AddressIndex.NO_ID || abiId >= abiKeys.size() ? null : functionsByAbi.get(abiKeys.get(abiId));
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            return decodeFunction(buffer, transaction.getDataOffset(), transaction.getDataLength(), routed, 0);
+        } finally {
+            if (budget != null) budget.close();
+        }
+    }
+
+    private DecodedFunctions decodeFunction(byte[] data, int depth) {
+        return decodeFunction(data, 0, data.length, null, depth);
+    }
+
+    private DecodedFunctions decodeFunction(byte[] buffer, int offset, int length, Map<String, AbiFunction> routed, int depth) {
+        if (depth > 0) DecodeBudget.nestedCall(depth);
+        DecoderMetrics metrics = this.metrics;
+        DecodeFunctionEvent event = new DecodeFunctionEvent();
+        event.begin();
+        long start = metrics != null ? System.nanoTime() : 0;
+        String methodId = methodId(buffer, offset, length);
+        AbiFunction routedFunction = routed != null ? routed.get(methodId) : null;
+        CompiledFunction compiledFunction = routedFunction != null ? null : compiledFunctionsByMethodId.get(methodId);
+        AbiEntry abiEntry = routedFunction != null ? routedFunction : abiEntriesByMethodId.get(methodId);
+        if (compiledFunction != null || abiEntry instanceof AbiFunction) {
+            DecodedFunctions decodedFunction;
+            try {
+                decodedFunction = compiledFunction != null
+                        ? new DecodedFunctions(compiledFunction.name(), formatted(compiledFunction.decodeParams(slice(buffer, offset, length))), compiledFunction.paramNames())
+                        : decodeAbiFunction(buffer, offset, length, (AbiFunction) abiEntry);
 
-                handleParamValue(decodedFunction, paramValue);
+                if (decodedFunction.isMulticall()) {
+                    expandMulticall(decodedFunction, methodId, depth + 1);
+                }
+            } catch (RuntimeException e) {
+                if (metrics != null) metrics.failure(methodId, abiIdsByMethodId.get(methodId), e);
+                commit(event, methodId, length, depth, Outcome.FAILED);
+                throw e;
+            }
+            if (metrics != null) {
+                metrics.functionDecoded(methodId, abiIdsByMethodId.get(methodId), length, depth, System.nanoTime() - start);
             }
+            commit(event, methodId, length, depth, Outcome.DECODED);
             return decodedFunction;
         }
 
+        if (metrics != null) metrics.registryMiss(methodId);
+        commit(event, methodId, length, depth, Outcome.MISS);
         return null;
     }
 
-    private void handleParamValue(DecodedFunctions decodedFunction, Object paramValue) {
+    private void commit(DecodeFunctionEvent event, String methodId, int payloadSize, int depth, String outcome) {
+        if (event.shouldCommit()) {
+            event.selector = HEX_PREFIX + methodId;
+            event.abi = abiIdsByMethodId.get(methodId);
+            event.payloadSize = payloadSize;
+            event.depth = depth;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private void expandMulticall(DecodedFunctions decodedFunction, String methodId, int depth) {
+        MulticallExpansionEvent event = new MulticallExpansionEvent();
+        event.begin();
+        Object paramValue = decodedFunction.getParam("data").getRawValue();
+
+        handleParamValue(decodedFunction, paramValue, depth);
+        if (event.shouldCommit()) {
+            event.selector = HEX_PREFIX + methodId;
+            event.abi = abiIdsByMethodId.get(methodId);
+            event.nestedCalls = decodedFunction.getNestedDecodedFunctions().size();
+            event.depth = depth;
+            event.commit();
+        }
+    }
+
+    private void handleParamValue(DecodedFunctions decodedFunction, Object paramValue, int depth) {
         if (paramValue instanceof String) {
-            decodedFunction.addNestedDecodedFunction(decodeFunction((String) paramValue));
+            decodedFunction.addNestedDecodedFunction(decodeFunction((String) paramValue, depth));
         } else if (paramValue instanceof byte[]) {
-            decodedFunction.addNestedDecodedFunction(decodeFunction(org.bouncycastle.util.encoders.Hex.toHexString((byte[]) paramValue)));
+            decodedFunction.addNestedDecodedFunction(decodeFunction((byte[]) paramValue, depth));
         } else if (paramValue instanceof Object[] singleCallInputDataArray) {
             for (Object singleCallInputData : singleCallInputDataArray) {
-                handleCallInputData(decodedFunction, singleCallInputData);
+                handleCallInputData(decodedFunction, singleCallInputData, depth);
             }
         }
     }
 
-    private void handleCallInputData(DecodedFunctions decodedFunction, Object singleCallInputData) {
+    private void handleCallInputData(DecodedFunctions decodedFunction, Object singleCallInputData, int depth) {
         if (singleCallInputData instanceof String) {
-            DecodedFunctions call = decodeFunction((String) singleCallInputData);
+            DecodedFunctions call = decodeFunction((String) singleCallInputData, depth);
             if (call != null) decodedFunction.addNestedDecodedFunction(call);
         } else if (singleCallInputData instanceof byte[]) {
-            DecodedFunctions call = decodeFunction((byte[]) singleCallInputData);
+            DecodedFunctions call = decodeFunction((byte[]) singleCallInputData, depth);
             if (call != null) decodedFunction.addNestedDecodedFunction(call);
         }
     }
@@ -155,6 +675,75 @@ public class Decoder {
      * @throws RuntimeException If there is an error decoding the function.
      */
     public DecodedFunctions decodeFunction(String data) {
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            return decodeFunction(scratch.hex(data), 0);
+        } finally {
+            if (budget != null) budget.close();
+        }
+    }
+
+    /**
+     * Decodes a function without throwing on bad input. The calldata is validated against the layout of the
+     * function its selector resolves to before anything is decoded, so garbage is rejected without allocating or
+     * constructing exceptions.
+     *
+     * @param data The calldata, selector included.
+     * @return The decoded function, UnknownSelector if no ABI has the selector, or Malformed with the failing param
+     * index and the offset of the offending word.
+     */
+    public DecodeResult<DecodedFunctions> tryDecodeFunction(byte[] data) {
+        if (data.length < 4) {
+            return new DecodeResult.Malformed<>(null, -1, 0, "Calldata shorter than a selector");
+        }
+        String methodId = methodId(data, 0, data.length);
+        CompiledFunction compiledFunction = compiledFunctionsByMethodId.get(methodId);
+        AbiEntry abiEntry = abiEntriesByMethodId.get(methodId);
+        AbiLayout layout = compiledFunction != null ? compiledFunction.layout()
+                : abiEntry instanceof AbiFunction ? abiEntry.inputLayout() : null;
+        if (layout == null) {
+            DecoderMetrics metrics = this.metrics;
+            if (metrics != null) metrics.registryMiss(methodId);
+            return new DecodeResult.UnknownSelector<>(HEX_PREFIX + methodId);
+        }
+        for (int i = 0; i < layout.size(); i++) {
+            int invalid = layout.validate(data, 4, i);
+            if (invalid != AbiLayout.VALID) {
+                return new DecodeResult.Malformed<>(HEX_PREFIX + methodId, i, invalid, "Param " + i + " out of bounds or out of range");
+            }
+        }
+        try {
+            // only limits, which throw without a stack trace, and nested multicall calls can still fail here
+            return new DecodeResult.Success<>(decodeFunction(data));
+        } catch (RuntimeException e) {
+            return new DecodeResult.Malformed<>(HEX_PREFIX + methodId, -1, -1, e.getMessage());
+        }
+    }
+
+    /**
+     * @param data The calldata as hex, with or without the 0x prefix.
+     * @return The decoded function, or the reason it couldn't be decoded.
+     * @see #tryDecodeFunction(byte[])
+     */
+    public DecodeResult<DecodedFunctions> tryDecodeFunction(String data) {
+        byte[] bytes = parseHex(data);
+        return bytes != null ? tryDecodeFunction(bytes) : new DecodeResult.Malformed<>(null, -1, -1, "Invalid hex");
+    }
+
+    private static byte[] parseHex(String hex) {
+        int start = hex.startsWith(HEX_PREFIX) ? 2 : 0;
+        if (((hex.length() - start) & 1) != 0) return null;
+        byte[] result = new byte[(hex.length() - start) / 2];
+        for (int i = 0; i < result.length; i++) {
+            int high = Character.digit(hex.charAt(start + 2 * i), 16);
+            int low = Character.digit(hex.charAt(start + 2 * i + 1), 16);
+            if (high < 0 || low < 0) return null;
+            result[i] = (byte) ((high << 4) | low);
+        }
+        return result;
+    }
+
+    private DecodedFunctions decodeFunction(String data, int depth) {
         String noPrefix = data.replaceFirst(HEX_PREFIX, "");
         byte[] decodedDataInBytes;
         try {
@@ -163,13 +752,26 @@ public class Decoder {
             throw new RuntimeException(e);
         }
 
-        return decodeFunction(decodedDataInBytes);
+        return decodeFunction(decodedDataInBytes, depth);
+    }
+
+    private static byte[] slice(byte[] buffer, int offset, int length) {
+        return offset == 0 && length == buffer.length ? buffer : Arrays.copyOfRange(buffer, offset, offset + length);
     }
 
-    private DecodedFunctions decodeAbiFunction(byte[] decodedDataInBytes, AbiFunction abiFunctionEntry) {
-        List<?> decoded = abiFunctionEntry.decode(decodedDataInBytes);
+    private DecodedFunctions decodeAbiFunction(byte[] buffer, int offset, int length, AbiFunction abiFunctionEntry) {
+        if (offset + length != buffer.length) {
+            // embedded calldata, e.g. in a raw transaction: the bounds checks alone would decode what follows it
+            int invalid = abiFunctionEntry.inputLayout().validateWithin(buffer, offset + 4, offset + length);
+            if (invalid != AbiLayout.VALID) {
+                throw new RuntimeException("Calldata of " + abiFunctionEntry.name + " is truncated or malformed at position " + invalid);
+            }
+        }
+        List<?> decoded = specializationThreshold > 0
+                ? hotPath(abiFunctionEntry, abiFunctionEntry.inputs).decode(buffer, offset + 4)
+                : AbiParam.decodeList(abiFunctionEntry.inputLayout(), buffer, offset + 4);
         List<Param> params = extractParamsFromDecodedABI(decoded, abiFunctionEntry.inputs);
-        return new DecodedFunctions(abiFunctionEntry.name, params);
+        return new DecodedFunctions(abiFunctionEntry.name, params, abiFunctionEntry.inputNames());
     }
 
     private List<Param> extractParamsFromDecodedABI(List<?> decoded, List<AbiParam> inputs) {
@@ -178,7 +780,7 @@ public class Decoder {
             String paramName = inputs.get(index).name;
             String paramType = inputs.get(index).type.toString();
             Object paramValue = decoded.get(index);
-            Param param = new Param(paramName, paramType, paramValue);
+            Param param = new Param(paramName, paramType, paramValue, valueFormatter);
             params.add(param);
         }
         return params;
@@ -207,13 +809,55 @@ public class Decoder {
     public List<DecodedLog> decodeLogs(Log... logs) {
         List<DecodedLog> result = new ArrayList<>();
 
+        DecoderMetrics metrics = this.metrics;
+        DecodeLogBatchEvent event = new DecodeLogBatchEvent();
+        event.begin();
+        int misses = 0;
+        long payloadSize = 0;
+        TopicFilter filter = topicFilter();
+        boolean topicsOnly = logDecodeMode == LogDecodeMode.TOPICS_ONLY;
         for (Log log : logs) {
-            var entry = getAbiEntryByMethodId(log);
-            if (entry != null) {
-                List<Param> decodedParams = generateDecodedParams(log, entry);
-                result.add(new DecodedLog(entry.name, log.getAddress(), decodedParams));
+            long start = metrics != null ? System.nanoTime() : 0;
+            String rawTopic0 = log.getTopics().getFirst();
+            if (!filter.mightContain(rawTopic0)) {
+                if (metrics != null) metrics.registryMiss(rawTopic0.replace(HEX_PREFIX, "").toLowerCase());
+                misses++;
+                continue;
+            }
+            String topic0 = rawTopic0.replace(HEX_PREFIX, "").toLowerCase();
+            CompiledEvent compiledEvent = compiledEventsByTopic.get(topic0);
+            var entry = compiledEvent == null ? abiEntriesByMethodId.get(topic0) : null;
+            if (compiledEvent == null && entry == null) {
+                if (metrics != null) metrics.registryMiss(topic0);
+                misses++;
+                continue;
+            }
+            DecodeBudget budget = DecodeBudget.open(decodeLimits);
+            try (ScratchArena scratch = ScratchArena.acquire()) {
+                if (compiledEvent != null) {
+                    byte[][] topics = new byte[log.getTopics().size()][];
+                    for (int i = 0; i < topics.length; i++) topics[i] = scratch.hex(log.getTopics().get(i));
+                    List<Param> decodedParams = formatted(compiledEvent.decodeParams(topics, scratch.hex(log.getData())));
+                    result.add(new DecodedLog(compiledEvent.name(), log.getAddress(), decodedParams, compiledEvent.paramNames()));
+                } else {
+                    List<Param> decodedParams = topicsOnly && entry instanceof AbiEvent abiEvent
+                            ? decodeTopicParams(log, abiEvent, scratch)
+                            : generateDecodedParams(log, entry, scratch);
+                    result.add(new DecodedLog(entry.name, log.getAddress(), decodedParams, entry.inputNames()));
+                }
+            } catch (RuntimeException e) {
+                if (metrics != null) metrics.failure(topic0, abiIdsByMethodId.get(topic0), e);
+                commit(event, logs.length, result.size(), misses, payloadSize, Outcome.FAILED);
+                throw e;
+            } finally {
+                if (budget != null) budget.close();
+            }
+            payloadSize += hexPayloadSize(log.getData());
+            if (metrics != null) {
+                metrics.logDecoded(topic0, abiIdsByMethodId.get(topic0), hexPayloadSize(log.getData()), System.nanoTime() - start);
             }
         }
+        commit(event, logs.length, result.size(), misses, payloadSize, Outcome.DECODED);
         return result;
     }
 
@@ -228,6 +872,102 @@ public class Decoder {
         return decodeLogs(logs);
     }
 
+    /**
+     * Walks the params of a function call without building Params: each value is reported to the visitor, as a
+     * pointer into the calldata where it doesn't fit a primitive. Nested multicall calls are reported as bytes and
+     * not expanded.
+     *
+     * @param data The calldata, selector included.
+     * @param visitor The visitor.
+     * @return true if the params were visited, false if the function is unknown.
+     * @throws RuntimeException If the calldata doesn't match the function's params.
+     */
+    public boolean decodeFunction(byte[] data, DecodeVisitor visitor) {
+        String methodId = methodId(data, 0, data.length);
+        CompiledFunction compiledFunction = compiledFunctionsByMethodId.get(methodId);
+        AbiEntry abiEntry = compiledFunction == null ? abiEntriesByMethodId.get(methodId) : null;
+        if (compiledFunction == null && !(abiEntry instanceof AbiFunction)) {
+            DecoderMetrics metrics = this.metrics;
+            if (metrics != null) metrics.registryMiss(methodId);
+            return false;
+        }
+        AbiLayout layout = compiledFunction != null ? compiledFunction.layout() : abiEntry.inputLayout();
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            visitor.begin(compiledFunction != null ? compiledFunction.name() : abiEntry.name, layout.size());
+            layout.visit(data, 4, visitor);
+            visitor.end();
+        } finally {
+            if (budget != null) budget.close();
+        }
+        return true;
+    }
+
+    /**
+     * @param data The calldata as hex, with or without the 0x prefix.
+     * @param visitor The visitor; the buffers it is called with are only valid during the call.
+     * @return true if the params were visited, false if the function is unknown.
+     * @see #decodeFunction(byte[], DecodeVisitor)
+     */
+    public boolean decodeFunction(String data, DecodeVisitor visitor) {
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            return decodeFunction(scratch.hex(data), visitor);
+        }
+    }
+
+    /**
+     * Walks the params of a log without building Params, in declaration order. Indexed params are read from their
+     * topic; indexed strings, bytes, arrays and tuples are reported as the 32 byte hash the topic holds.
+     *
+     * @param log The log.
+     * @param visitor The visitor; the buffers it is called with are only valid during the call.
+     * @return true if the params were visited, false if the event is unknown.
+     * @throws RuntimeException If the log doesn't match the event's params.
+     */
+    public boolean decodeLog(Log log, DecodeVisitor visitor) {
+        List<String> topics = log.getTopics();
+        String rawTopic0 = topics.getFirst();
+        AbiEvent event = eventsByTopic0.get(rawTopic0);
+        if (event == null) {
+            String topic0 = rawTopic0.replace(HEX_PREFIX, "").toLowerCase();
+            if (!(abiEntriesByMethodId.get(topic0) instanceof AbiEvent abiEvent)) {
+                DecoderMetrics metrics = this.metrics;
+                if (metrics != null) metrics.registryMiss(topic0);
+                return false;
+            }
+            event = abiEvent;
+        }
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            byte[] data = scratch.hex(log.getData());
+            AbiLayout dataLayout = event.dataLayout();
+            visitor.begin(event.name, event.inputs.size());
+            int dataIndex = 0;
+            int topicIndex = 1;
+            for (int i = 0; i < event.inputs.size(); i++) {
+                AbiParam input = event.inputs.get(i);
+                if (!input.indexed) {
+                    dataLayout.visit(data, 0, dataIndex++, i, visitor);
+                    continue;
+                }
+                if (topicIndex >= topics.size()) {
+                    throw new RuntimeException("Missing topic " + topicIndex + " for param " + input.name + " of " + event.name);
+                }
+                byte[] topic = scratch.hex(topics.get(topicIndex++));
+                if (topic.length != 32) throw new RuntimeException("Topic " + (topicIndex - 1) + " is not 32 bytes");
+                if (input.type.isDynamicType() || input.type instanceof SolidityType.ArrayType || input.type instanceof SolidityType.TupleType) {
+                    visitor.onBytes(i, topic, 0, topic.length);
+                } else {
+                    input.type.visit(topic, 0, i, visitor);
+                }
+            }
+            visitor.end();
+        } finally {
+            if (budget != null) budget.close();
+        }
+        return true;
+    }
+
     public static String getFunctionSignature(byte[] data) {
         byte[] methodBytes = Arrays.copyOf(data, 4);
         return HEX_PREFIX + Hex.encodeHexString(methodBytes);
@@ -246,7 +986,7 @@ public class Decoder {
 
     private Log[] fromJson(String data) {
         try {
-            return objectMapper.readValue(data, Log[].class);
+            return LOGS_READER.readValue(data);
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -260,17 +1000,110 @@ public class Decoder {
         }
     }
 
-    private AbiEntry getAbiEntryByMethodId(Log log) {
-        byte[] methodBytes = getDecodedBytes(log.getTopics().getFirst());
-        var methodIdHex = Hex.encodeHexString(methodBytes);
-        return abiEntriesByMethodId.get(methodIdHex);
+    private void registryChanged() {
+        topicFilter = null;
+        registeredTopicsBloom = null;
+    }
+
+    private TopicFilter topicFilter() {
+        TopicFilter result = topicFilter;
+        if (result == null) {
+            result = TopicFilter.of(registeredTopics());
+            topicFilter = result;
+        }
+        return result;
+    }
+
+    private LogsBloom registeredTopicsBloom() {
+        LogsBloom result = registeredTopicsBloom;
+        if (result == null) {
+            result = LogsBloom.anyOf(registeredTopics());
+            registeredTopicsBloom = result;
+        }
+        return result;
+    }
+
+    /**
+     * The topic 0 of every registered event, i.e. every 32 byte key a log can be decoded with.
+     */
+    private List<byte[]> registeredTopics() {
+        List<byte[]> topics = new ArrayList<>();
+        for (String key : abiEntriesByMethodId.keySet()) {
+            if (key.length() == 64) topics.add(getDecodedBytes(key));
+        }
+        for (String key : compiledEventsByTopic.keySet()) {
+            topics.add(getDecodedBytes(key));
+        }
+        return topics;
+    }
+
+    private record RevertEntry(AbiError error, String signature) {
+    }
+
+    private List<Param> formatted(List<Param> params) {
+        ValueFormatter formatter = valueFormatter;
+        if (formatter == ValueFormatter.HEX) return params;
+        List<Param> result = new ArrayList<>(params.size());
+        for (Param param : params) {
+            result.add(new Param(param.getName(), param.getType(), param.getRawValue(), formatter));
+        }
+        return result;
+    }
+
+    private SpecializedDecoder.HotPath hotPath(AbiEntry entry, List<AbiParam> params) {
+        return hotPaths.computeIfAbsent(entry, e -> new SpecializedDecoder.HotPath(AbiParam.layoutOf(params), specializationThreshold));
     }
 
-    private List<Param> generateDecodedParams(Log log, AbiEntry entry) {
+    private static void commit(DecodeLogBatchEvent event, int logs, int decoded, int misses, long payloadSize, String outcome) {
+        if (event.shouldCommit()) {
+            event.logs = logs;
+            event.decoded = decoded;
+            event.misses = misses;
+            event.payloadSize = payloadSize;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    private static int hexPayloadSize(String hex) {
+        if (hex == null) return 0;
+        return (hex.startsWith(HEX_PREFIX) ? hex.length() - HEX_PREFIX.length() : hex.length()) / 2;
+    }
+
+    /**
+     * Decodes the indexed params of a log; the non-indexed ones are deferred until their value is read.
+     */
+    private List<Param> decodeTopicParams(Log log, AbiEvent event, ScratchArena scratch) {
+        DeferredLogData data = new DeferredLogData(log.getData(), event.dataLayout(), decodeLimits);
+        List<Param> params = new ArrayList<>(event.inputs.size());
+        int dataIndex = 0;
+        int topicsIndex = 1;
+        for (AbiParam input : event.inputs) {
+            if (!input.indexed) {
+                params.add(new DeferredParam(input.name, input.type.toString(), data.value(dataIndex++), valueFormatter));
+                continue;
+            }
+            if (topicsIndex >= log.getTopics().size()) {
+                throw new RuntimeException("Missing topic " + topicsIndex + " for param " + input.name + " of " + event.name);
+            }
+            byte[] topic = scratch.hex(log.getTopics().get(topicsIndex++));
+            Object value = input.type.isDynamicType() || input.type instanceof SolidityType.ArrayType || input.type instanceof SolidityType.TupleType
+                    ? SolidityType.Bytes32Type.decodeBytes32(topic, 0)
+                    : input.type.decode(topic, 0);
+            params.add(new Param(input.name, input.type.toString(), value, valueFormatter));
+        }
+        return params;
+    }
+
+    private List<Param> generateDecodedParams(Log log, AbiEntry entry, ScratchArena scratch) {
         List<AbiParam> nonIndexedInputs = entry.inputs.stream()
                 .filter(input -> !input.indexed)
                 .collect(Collectors.toList());
-        byte[] bytes = getDecodedBytes(log.getData());
+        byte[] bytes = scratch.hex(log.getData());
+
+        List<?> dataValues = specializationThreshold > 0
+                ? hotPath(entry, nonIndexedInputs).decode(bytes, 0)
+                : AbiParam.decodeList(nonIndexedInputs, bytes);
 
         List<Param> decodedParams = new ArrayList<>();
         int dataIndex = 0;
@@ -278,14 +1111,12 @@ public class Decoder {
         for (AbiParam input : entry.inputs) {
             List<?> decoded;
             if (input.indexed) {
-                byte[] topicBytes = getDecodedBytes(log.getTopics().get(topicsIndex));
+                byte[] topicBytes = scratch.hex(log.getTopics().get(topicsIndex));
                 decoded = AbiParam.decodeList(Collections.singletonList(input), topicBytes);
-                decodedParams.add(new Param(input.name, input.type.toString(), decoded.getFirst()));
+                decodedParams.add(new Param(input.name, input.type.toString(), decoded.getFirst(), valueFormatter));
                 topicsIndex++;
             } else {
-                decoded = AbiParam.decodeList(nonIndexedInputs, bytes);
-                Object value = input.indexed ? decoded.getFirst() : decoded.get(dataIndex);
-                decodedParams.add(new Param(input.name, input.type.toString(), value));
+                decodedParams.add(new Param(input.name, input.type.toString(), dataValues.get(dataIndex), valueFormatter));
                 dataIndex++;
             }
         }
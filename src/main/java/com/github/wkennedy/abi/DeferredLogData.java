@@ -0,0 +1,63 @@
+package com.github.wkennedy.abi;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * The data of a log decoded in {@link LogDecodeMode#TOPICS_ONLY} mode: the unparsed hex, decoded in full the first
+ * time any of its values is needed and shared by the deferred params of the log. Data is equal to the same hex
+ * decoded with the same layout, so that deferred params compare equal without decoding.
+ */
+final class DeferredLogData {
+    private final String hex;
+    private final AbiLayout layout;
+    private final DecodeLimits limits;
+    private volatile Object[] values;
+
+    DeferredLogData(String hex, AbiLayout layout, DecodeLimits limits) {
+        this.hex = hex;
+        this.layout = layout;
+        this.limits = limits;
+    }
+
+    /**
+     * @param index the index of the param among the non-indexed params of the event
+     * @return the value of the param, decoding the data on the first call
+     */
+    Supplier<Object> value(int index) {
+        return new Value(this, index);
+    }
+
+    private Object[] values() {
+        Object[] result = values;
+        if (result == null) {
+            // decoded values are copied out of the buffer, so the scratch arena can take it back
+            DecodeBudget budget = DecodeBudget.open(limits);
+            try (ScratchArena scratch = ScratchArena.acquire()) {
+                result = layout.decode(scratch.hex(hex), 0);
+            } finally {
+                if (budget != null) budget.close();
+            }
+            values = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        return o instanceof DeferredLogData other && layout == other.layout && Objects.equals(hex, other.hex);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(layout) + Objects.hashCode(hex);
+    }
+
+    private record Value(DeferredLogData data, int index) implements Supplier<Object> {
+        @Override
+        public Object get() {
+            return data.values()[index];
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.wkennedy.abi;
+
+/**
+ * How much of a log {@link Decoder#decodeLogs} decodes up front.
+ */
+public enum LogDecodeMode {
+    /**
+     * Topics and data are decoded when the log is. This is the default.
+     */
+    FULL,
+
+    /**
+     * Only the indexed params are decoded, from the topics. The data is kept as the log's hex and decoded the first
+     * time the value of a non-indexed param is read, so logs that are only filtered or indexed by their topics never
+     * parse it. Events of compiled ABIs are always decoded in full.
+     */
+    TOPICS_ONLY
+}
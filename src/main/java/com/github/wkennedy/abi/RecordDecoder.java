@@ -0,0 +1,425 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.entry.AbiEntry;
+import com.github.wkennedy.abi.entry.AbiEvent;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.entry.AbiParam;
+import com.github.wkennedy.abi.models.Log;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * Decodes an event or function directly into a user-defined record, bypassing {@code Param} and boxing.
+ * <p>
+ * The record's components are matched by position against the entry's inputs and validated once, when the decoder is
+ * created. Each component then gets a reader for its ABI type and Java type, and all readers are combined with the
+ * record's canonical constructor into a single {@link MethodHandle}, so decoding is a chain of direct reads from the
+ * buffer without reflection. Supported component types:
+ * <ul>
+ *     <li>{@code long}, {@code int}, {@code short}, {@code byte} (and their boxes) for integers. If the ABI type always
+ *     fits, unsigned values of the full width are stored as their two's complement bits; wider ABI types (e.g. a
+ *     uint256 amount read into a {@code long}) are range checked and throw {@link ArithmeticException} on overflow</li>
+ *     <li>{@code boolean}/{@code Boolean} for bool</li>
+ *     <li>{@code BigInteger} for any integer</li>
+ *     <li>{@code byte[]} for address, bytesN, function and bytes; {@code String} for string, or 0x hex for the former</li>
+ *     <li>a nested record for a tuple</li>
+ *     <li>{@code Object} or {@code Object[]} for anything, holding what {@link SolidityType#decode} returns</li>
+ * </ul>
+ * Indexed dynamic event params are stored as their 32 byte topic hash. Each decode runs under the decoder's
+ * {@link DecodeLimits}.
+ *
+ * @param <T> the record type
+ */
+public class RecordDecoder<T extends Record> {
+    private static final int WORD_SIZE = 32;
+    private static final int SELECTOR_LENGTH = 4;
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    // (byte[] data, byte[][] topics, int base) -> value
+    private static final MethodType FRAME = MethodType.methodType(Object.class, byte[].class, byte[][].class, int.class);
+
+    private final AbiEntry entry;
+    private final Class<T> recordClass;
+    private final boolean event;
+    private final byte[] signature;
+    private final MethodHandle factory;
+    private DecodeLimits decodeLimits = DecodeLimits.DEFAULT;
+
+    private RecordDecoder(AbiEntry entry, Class<T> recordClass, boolean event) {
+        this.entry = entry;
+        this.recordClass = recordClass;
+        this.event = event;
+        this.signature = entry.encodeSignature();
+        this.factory = bindRecord(recordClass, entry.inputs, event).asType(FRAME.changeReturnType(Object.class));
+    }
+
+    /**
+     * Validates the record against the event's inputs and creates a decoder for its logs.
+     *
+     * @param event       the event
+     * @param recordClass the record with one component per event input, in declaration order
+     * @return the decoder
+     * @throws RuntimeException if the record doesn't match the inputs
+     */
+    public static <T extends Record> RecordDecoder<T> forEvent(AbiEvent event, Class<T> recordClass) {
+        return new RecordDecoder<>(event, recordClass, true);
+    }
+
+    /**
+     * Validates the record against the function's inputs and creates a decoder for its calldata.
+     *
+     * @param function    the function
+     * @param recordClass the record with one component per function input, in declaration order
+     * @return the decoder
+     * @throws RuntimeException if the record doesn't match the inputs
+     */
+    public static <T extends Record> RecordDecoder<T> forFunction(AbiFunction function, Class<T> recordClass) {
+        return new RecordDecoder<>(function, recordClass, false);
+    }
+
+    public AbiEntry getEntry() {
+        return entry;
+    }
+
+    public Class<T> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Sets the limits applied to each decode.
+     *
+     * @param decodeLimits the limits, e.g. DecodeLimits.DEFAULT (the default) or DecodeLimits.UNLIMITED
+     */
+    public void setDecodeLimits(DecodeLimits decodeLimits) {
+        this.decodeLimits = Objects.requireNonNull(decodeLimits, "decodeLimits");
+    }
+
+    public DecodeLimits getDecodeLimits() {
+        return decodeLimits;
+    }
+
+    /**
+     * Decodes calldata (selector included) of the bound function.
+     *
+     * @param calldata the calldata
+     * @return the record
+     * @throws RuntimeException if the selector doesn't match or the data is malformed
+     */
+    public T decodeFunction(byte[] calldata) {
+        if (event) throw new RuntimeException("Decoder is bound to event " + entry.name);
+        if (calldata.length < SELECTOR_LENGTH || !Arrays.equals(calldata, 0, SELECTOR_LENGTH, signature, 0, SELECTOR_LENGTH))
+            throw new RuntimeException("Calldata is not a call to " + entry.formatSignature());
+        return invoke(calldata, null, SELECTOR_LENGTH);
+    }
+
+    /**
+     * Decodes a log of the bound event from raw topics and data.
+     *
+     * @param topics the topics, topic 0 included unless the event is anonymous
+     * @param data   the data
+     * @return the record
+     * @throws RuntimeException if topic 0 doesn't match or the log is malformed
+     */
+    public T decodeLog(byte[][] topics, byte[] data) {
+        if (!event) throw new RuntimeException("Decoder is bound to function " + entry.name);
+        boolean anonymous = Boolean.TRUE.equals(entry.anonymous);
+        if (!anonymous && (topics.length == 0 || !Arrays.equals(signature, topics[0])))
+            throw new RuntimeException("Log is not a " + entry.formatSignature() + " event");
+        byte[][] argTopics = anonymous ? topics : Arrays.copyOfRange(topics, 1, topics.length);
+        return invoke(data, argTopics, 0);
+    }
+
+    /**
+     * Decodes a log of the bound event.
+     *
+     * @param log the log
+     * @return the record
+     */
+    public T decodeLog(Log log) {
+        byte[][] topics = new byte[log.getTopics().size()][];
+        for (int i = 0; i < topics.length; i++) {
+            topics[i] = decodeHex(log.getTopics().get(i));
+        }
+        return decodeLog(topics, decodeHex(log.getData()));
+    }
+
+    private T invoke(byte[] data, byte[][] topics, int base) {
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            return recordClass.cast(factory.invokeExact(data, topics, base));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        } finally {
+            if (budget != null) budget.close();
+        }
+    }
+
+    /**
+     * Builds a handle (byte[] data, byte[][] topics, int base) -> record from the record's canonical constructor and
+     * one reader per component.
+     */
+    private static MethodHandle bindRecord(Class<?> recordClass, List<AbiParam> params, boolean event) {
+        RecordComponent[] components = recordClass.getRecordComponents();
+        if (components == null)
+            throw new RuntimeException(recordClass.getName() + " is not a record");
+        if (components.length != params.size())
+            throw new RuntimeException(recordClass.getName() + " has " + components.length + " components but the ABI has " + params.size() + " inputs");
+
+        List<SolidityType> dataTypes = new ArrayList<>();
+        for (AbiParam param : params) {
+            if (!(event && Boolean.TRUE.equals(param.indexed))) dataTypes.add(param.type);
+        }
+        AbiLayout dataLayout = AbiLayout.of(dataTypes);
+
+        MethodHandle result = constructor(recordClass, components);
+        int dataIndex = 0;
+        int topicIndex = 0;
+        MethodHandle[] extractors = new MethodHandle[components.length];
+        for (int i = 0; i < components.length; i++) {
+            AbiParam param = params.get(i);
+            String description = recordClass.getSimpleName() + "." + components[i].getName();
+            if (event && Boolean.TRUE.equals(param.indexed)) {
+                boolean hashed = param.type.isDynamicType() || param.type instanceof SolidityType.ArrayType || param.type instanceof SolidityType.TupleType;
+                SolidityType topicType = hashed ? new SolidityType.Bytes32Type("bytes32") : param.type;
+                extractors[i] = extractor(reader(components[i].getType(), topicType, description),
+                        MethodHandles.insertArguments(TOPIC, 0, topicIndex++),
+                        MethodHandles.dropArguments(MethodHandles.constant(int.class, 0), 0, byte[].class, byte[][].class, int.class));
+            } else {
+                extractors[i] = extractor(reader(components[i].getType(), param.type, description),
+                        MethodHandles.dropArguments(MethodHandles.identity(byte[].class), 1, byte[][].class, int.class),
+                        MethodHandles.insertArguments(VALUE_OFFSET, 0, dataLayout, dataIndex++));
+            }
+        }
+        int[] reorder = new int[components.length * 3];
+        for (int i = components.length - 1; i >= 0; i--) {
+            result = MethodHandles.collectArguments(result, i, extractors[i]);
+        }
+        for (int i = 0; i < reorder.length; i++) {
+            reorder[i] = i % 3;
+        }
+        if (components.length == 0) {
+            return MethodHandles.dropArguments(result, 0, byte[].class, byte[][].class, int.class);
+        }
+        return MethodHandles.permuteArguments(result, MethodType.methodType(recordClass, byte[].class, byte[][].class, int.class), reorder);
+    }
+
+    /**
+     * Combines a reader (byte[] buffer, int position) -> value with a buffer selector and a position locator, both
+     * (byte[] data, byte[][] topics, int base), into (byte[] data, byte[][] topics, int base) -> value.
+     */
+    private static MethodHandle extractor(MethodHandle reader, MethodHandle buffer, MethodHandle position) {
+        MethodHandle h = MethodHandles.dropArguments(reader, 2, byte[].class, byte[][].class, int.class);
+        h = MethodHandles.foldArguments(h, 1, position);
+        return MethodHandles.foldArguments(h, 0, buffer);
+    }
+
+    private static MethodHandle constructor(Class<?> recordClass, RecordComponent[] components) {
+        Class<?>[] types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+        }
+        try {
+            Constructor<?> constructor = recordClass.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new RuntimeException("Cannot access the canonical constructor of " + recordClass.getName(), e);
+        }
+    }
+
+    /**
+     * Picks the reader (byte[] buffer, int position) -> javaType for the given ABI type.
+     */
+    private static MethodHandle reader(Class<?> javaType, SolidityType type, String description) {
+        MethodHandle reader = findReader(javaType, type);
+        if (reader == null)
+            throw new RuntimeException(description + " of type " + javaType.getName() + " cannot hold ABI type " + type.getTypeDefinition());
+        return reader.asType(MethodType.methodType(javaType, byte[].class, int.class));
+    }
+
+    private static MethodHandle findReader(Class<?> javaType, SolidityType type) {
+        Class<?> primitive = javaType.isPrimitive() ? javaType : MethodType.methodType(javaType).unwrap().returnType();
+        if (type instanceof SolidityType.BoolType) {
+            return primitive == boolean.class ? READ_BOOLEAN : objectReader(javaType, type);
+        }
+        if (type instanceof SolidityType.AddressType) {
+            return fixedBytesReader(javaType, type, WORD_SIZE - 20, 20);
+        }
+        if (type instanceof SolidityType.NumericType numeric) {
+            if (primitive == long.class) return integerReader(numeric, long.class, 64);
+            if (primitive == int.class) return integerReader(numeric, int.class, 32);
+            if (primitive == short.class) return integerReader(numeric, short.class, 16);
+            if (primitive == byte.class) return integerReader(numeric, byte.class, 8);
+            if (javaType == BigInteger.class) return type instanceof SolidityType.UnsignedIntType ? READ_UNSIGNED : READ_SIGNED;
+            return objectReader(javaType, type);
+        }
+        if (type instanceof SolidityType.Bytes32Type bytesN) {
+            return fixedBytesReader(javaType, type, 0, bytesN.getByteSize());
+        }
+        if (type instanceof SolidityType.StringType) {
+            return javaType == String.class ? READ_STRING : objectReader(javaType, type);
+        }
+        if (type instanceof SolidityType.BytesType) {
+            if (javaType == byte[].class) return READ_BYTES;
+            if (javaType == String.class) return MethodHandles.filterReturnValue(READ_BYTES, TO_HEX);
+            return objectReader(javaType, type);
+        }
+        if (type instanceof SolidityType.TupleType tuple && javaType.isRecord()) {
+            List<AbiParam> params = new ArrayList<>();
+            for (SolidityType component : tuple.getTypes()) {
+                params.add(new AbiParam(false, null, component));
+            }
+            MethodHandle nested = bindRecord(javaType, params, false);
+            return MethodHandles.insertArguments(nested, 1, (Object) null);
+        }
+        return objectReader(javaType, type);
+    }
+
+    /**
+     * Reads integers that always fit the Java type without checks; wider ABI integers are range checked on every
+     * read so a value that doesn't fit fails instead of being truncated.
+     */
+    private static MethodHandle integerReader(SolidityType.NumericType type, Class<?> primitive, int javaBits) {
+        MethodHandle read = type.getBitSize() <= javaBits
+                ? READ_LONG
+                : MethodHandles.insertArguments(READ_LONG_EXACT, 2, javaBits, !(type instanceof SolidityType.UnsignedIntType));
+        return MethodHandles.explicitCastArguments(read, MethodType.methodType(primitive, byte[].class, int.class));
+    }
+
+    private static MethodHandle fixedBytesReader(Class<?> javaType, SolidityType type, int skip, int width) {
+        MethodHandle bytes = MethodHandles.insertArguments(READ_FIXED_BYTES, 2, skip, width);
+        if (javaType == byte[].class) return bytes;
+        if (javaType == String.class) return MethodHandles.filterReturnValue(bytes, TO_HEX);
+        return objectReader(javaType, type);
+    }
+
+    private static MethodHandle objectReader(Class<?> javaType, SolidityType type) {
+        boolean arrayValue = type instanceof SolidityType.ArrayType || type instanceof SolidityType.TupleType;
+        if (javaType == Object.class || (arrayValue && javaType == Object[].class)) {
+            return MethodHandles.insertArguments(READ_OBJECT, 0, type);
+        }
+        return null;
+    }
+
+    private static final MethodHandle READ_LONG = find("readLong", long.class, byte[].class, int.class);
+    private static final MethodHandle READ_LONG_EXACT = find("readLongExact", long.class, byte[].class, int.class, int.class, boolean.class);
+    private static final MethodHandle READ_BOOLEAN = find("readBoolean", boolean.class, byte[].class, int.class);
+    private static final MethodHandle READ_UNSIGNED = find("readUnsigned", BigInteger.class, byte[].class, int.class);
+    private static final MethodHandle READ_SIGNED = find("readSigned", BigInteger.class, byte[].class, int.class);
+    private static final MethodHandle READ_FIXED_BYTES = find("readFixedBytes", byte[].class, byte[].class, int.class, int.class, int.class);
+    private static final MethodHandle READ_BYTES = find("readBytes", byte[].class, byte[].class, int.class);
+    private static final MethodHandle READ_STRING = find("readString", String.class, byte[].class, int.class);
+    private static final MethodHandle READ_OBJECT = find("readObject", Object.class, SolidityType.class, byte[].class, int.class);
+    private static final MethodHandle TO_HEX = find("toHex", String.class, byte[].class);
+    private static final MethodHandle TOPIC = find("topic", byte[].class, int.class, byte[].class, byte[][].class, int.class);
+    private static final MethodHandle VALUE_OFFSET = find("valueOffset", int.class, AbiLayout.class, int.class, byte[].class, byte[][].class, int.class);
+
+    private static MethodHandle find(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return LOOKUP.findStatic(RecordDecoder.class, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static long readLong(byte[] buffer, int position) {
+        long value = 0;
+        for (int i = position + WORD_SIZE - Long.BYTES; i < position + WORD_SIZE; i++) {
+            value = (value << 8) | (buffer[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static long readLongExact(byte[] buffer, int position, int bits, boolean signed) {
+        long value = readLong(buffer, position);
+        byte extension = signed && buffer[position + WORD_SIZE - Long.BYTES] < 0 ? (byte) 0xFF : 0;
+        for (int i = position; i < position + WORD_SIZE - Long.BYTES; i++) {
+            if (buffer[i] != extension) {
+                throw new ArithmeticException("Value at position " + position + " does not fit into " + bits + " bits");
+            }
+        }
+        long shift = 64 - bits;
+        if ((value << shift >> shift) != value || (!signed && value < 0)) {
+            throw new ArithmeticException("Value at position " + position + " does not fit into " + bits + " bits");
+        }
+        return value;
+    }
+
+    private static boolean readBoolean(byte[] buffer, int position) {
+        // the low 4 bytes, as BoolType and the compiled decoders read them
+        return (int) readLong(buffer, position) != 0;
+    }
+
+    private static BigInteger readUnsigned(byte[] buffer, int position) {
+        return new BigInteger(1, buffer, position, WORD_SIZE);
+    }
+
+    private static BigInteger readSigned(byte[] buffer, int position) {
+        return new BigInteger(buffer, position, WORD_SIZE);
+    }
+
+    private static byte[] readFixedBytes(byte[] buffer, int position, int skip, int width) {
+        // the whole word must be present, as for readLong, rather than zero padding a truncated one
+        Objects.checkFromIndexSize(position, WORD_SIZE, buffer.length);
+        return Arrays.copyOfRange(buffer, position + skip, position + skip + width);
+    }
+
+    private static byte[] readBytes(byte[] buffer, int position) {
+        int length = readLength(buffer, position);
+        return Arrays.copyOfRange(buffer, position + WORD_SIZE, position + WORD_SIZE + length);
+    }
+
+    private static String readString(byte[] buffer, int position) {
+        int length = readLength(buffer, position);
+        return new String(buffer, position + WORD_SIZE, length, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(byte[] buffer, int position) {
+        int length = AbiLayout.readOffset(buffer, position);
+        if (length > buffer.length - position - WORD_SIZE)
+            throw new RuntimeException("Length " + length + " exceeds payload at position " + position);
+        DecodeBudget.allocate(length);
+        return length;
+    }
+
+    private static Object readObject(SolidityType type, byte[] buffer, int position) {
+        return type.decode(buffer, position);
+    }
+
+    private static String toHex(byte[] bytes) {
+        return HEX_PREFIX + Hex.encodeHexString(bytes);
+    }
+
+    private static byte[] topic(int index, byte[] data, byte[][] topics, int base) {
+        if (index >= topics.length)
+            throw new RuntimeException("Log has no topic for indexed param " + index);
+        return topics[index];
+    }
+
+    private static int valueOffset(AbiLayout layout, int index, byte[] data, byte[][] topics, int base) {
+        return layout.getValueOffset(data, base, index);
+    }
+
+    private static byte[] decodeHex(String hex) {
+        try {
+            return Hex.decodeHex(hex.startsWith(HEX_PREFIX) ? hex.substring(2) : hex);
+        } catch (DecoderException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
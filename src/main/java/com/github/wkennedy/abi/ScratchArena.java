@@ -0,0 +1,139 @@
+package com.github.wkennedy.abi;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * Temporary byte arrays for a single top-level decode, e.g. the bytes of hex calldata or of a log's topics and data.
+ * Arrays are handed out at their exact length, so bounds checks against {@code encoded.length} behave as with a fresh
+ * array, and are taken back when the arena is closed; a steady stream of same-shaped inputs then decodes without
+ * allocating them again. Decoded values never reference these arrays, they are always copied out.
+ * <p>
+ * Platform threads keep one arena each. Virtual threads are too many and too short-lived for that, so they borrow
+ * from a small shared pool for the duration of the decode instead.
+ */
+final class ScratchArena implements AutoCloseable {
+    static final int MAX_POOLED_LENGTH = 2048;
+    private static final int MAX_PER_LENGTH = 4;
+    private static final int MAX_POOLED_BYTES = 64 << 10;
+
+    private static final ThreadLocal<ScratchArena> PER_THREAD = ThreadLocal.withInitial(() -> new ScratchArena(false));
+    private static final AtomicReferenceArray<ScratchArena> SHARED = new AtomicReferenceArray<>(Runtime.getRuntime().availableProcessors() * 2);
+
+    private final boolean shared;
+    // allocated on the first close that keeps an array, so a shared arena that is dropped never pays for them
+    private byte[][][] free;
+    private byte[] freeCount;
+    private int pooledBytes;
+    private byte[][] lent = new byte[8][];
+    private int lentCount;
+    private boolean inUse;
+
+    private ScratchArena(boolean shared) {
+        this.shared = shared;
+    }
+
+    /**
+     * @return an arena for the current thread, to close when the decode ends
+     */
+    static ScratchArena acquire() {
+        ScratchArena arena;
+        if (Thread.currentThread().isVirtual()) {
+            arena = null;
+            for (int i = 0; i < SHARED.length() && arena == null; i++) {
+                arena = SHARED.getAndSet(i, null);
+            }
+            if (arena == null) arena = new ScratchArena(true);
+        } else {
+            arena = PER_THREAD.get();
+            // a decode triggered from within a decode on the same thread, e.g. by a metrics callback
+            if (arena.inUse) arena = new ScratchArena(false);
+        }
+        arena.inUse = true;
+        return arena;
+    }
+
+    /**
+     * @param length the length
+     * @return an array of exactly that length with undefined contents, valid until the arena is closed
+     */
+    byte[] bytes(int length) {
+        if (length > MAX_POOLED_LENGTH) return new byte[length];
+        byte[] array;
+        int count = freeCount != null ? freeCount[length] : 0;
+        if (count > 0) {
+            array = free[length][--count];
+            free[length][count] = null;
+            freeCount[length] = (byte) count;
+            pooledBytes -= length;
+        } else {
+            array = new byte[length];
+        }
+        if (lentCount == lent.length) lent = Arrays.copyOf(lent, lentCount * 2);
+        lent[lentCount++] = array;
+        return array;
+    }
+
+    /**
+     * Parses hex, with or without the 0x prefix, into an array of this arena.
+     *
+     * @throws RuntimeException if the hex has an odd length or an invalid character
+     */
+    byte[] hex(String hex) {
+        int start = hex.startsWith(HEX_PREFIX) ? HEX_PREFIX.length() : 0;
+        if (((hex.length() - start) & 1) != 0) {
+            throw new RuntimeException("Odd number of hex characters: " + (hex.length() - start));
+        }
+        byte[] result = bytes((hex.length() - start) / 2);
+        for (int i = 0, position = start; i < result.length; i++, position += 2) {
+            int high = Character.digit(hex.charAt(position), 16);
+            int low = Character.digit(hex.charAt(position + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new RuntimeException("Illegal hex character at index " + (high < 0 ? position : position + 1));
+            }
+            result[i] = (byte) ((high << 4) | low);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (shared && free == null && !hasRoomInSharedPool()) {
+            // a virtual thread that missed a full pool: this arena is dropped, so only hand back the arrays
+            Arrays.fill(lent, 0, lentCount, null);
+            lentCount = 0;
+            inUse = false;
+            return;
+        }
+        if (free == null && lentCount > 0) {
+            free = new byte[MAX_POOLED_LENGTH + 1][][];
+            freeCount = new byte[MAX_POOLED_LENGTH + 1];
+        }
+        for (int i = 0; i < lentCount; i++) {
+            byte[] array = lent[i];
+            lent[i] = null;
+            int length = array.length;
+            if (freeCount[length] < MAX_PER_LENGTH && pooledBytes + length <= MAX_POOLED_BYTES) {
+                if (free[length] == null) free[length] = new byte[MAX_PER_LENGTH][];
+                free[length][freeCount[length]++] = array;
+                pooledBytes += length;
+            }
+        }
+        lentCount = 0;
+        inUse = false;
+        if (shared) {
+            for (int i = 0; i < SHARED.length(); i++) {
+                if (SHARED.compareAndSet(i, null, this)) return;
+            }
+        }
+    }
+
+    private static boolean hasRoomInSharedPool() {
+        for (int i = 0; i < SHARED.length(); i++) {
+            if (SHARED.get(i) == null) return true;
+        }
+        return false;
+    }
+}
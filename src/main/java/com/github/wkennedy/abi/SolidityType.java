@@ -2,7 +2,9 @@ package com.github.wkennedy.abi;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.github.wkennedy.abi.visitor.DecodeVisitor;
 import com.github.wkennedy.util.ByteUtil;
+import com.github.wkennedy.util.Keccak256;
 
 import java.lang.reflect.Array;
 import java.math.BigInteger;
@@ -47,6 +49,14 @@ public abstract class SolidityType {
         return getName();
     }
 
+    /**
+     * The type as it appears in a function or event signature. Differs from the canonical name only for tuples,
+     * which are spelled out as their component types, e.g. '(address,uint256)[]'
+     */
+    public String getTypeDefinition() {
+        return getCanonicalName();
+    }
+
     /**
      * TypeFactory is an abstract class that represents a factory for creating SolidityTypes.
      * It provides methods for getting a SolidityType based on a typeName and checking if a typeName matches any of the factory's types.
@@ -223,6 +233,53 @@ public abstract class SolidityType {
      */
     public abstract byte[] encode(Object value);
 
+    /**
+     * Encodes the given value the way {@code abi.encodePacked} does: static types use only as many bytes as the
+     * type needs, bytes and string are copied without length or padding.
+     *
+     * @param value the value to encode
+     * @return the packed encoding
+     */
+    public byte[] encodePacked(Object value) {
+        throw new RuntimeException("Packed encoding is not supported for type " + getName());
+    }
+
+    /**
+     * Encodes the given value as it is stored in an event topic when the param is indexed. Value types are stored
+     * as their 32 byte encoding, everything else as the Keccak-256 hash of its in-place encoding.
+     *
+     * @param value the value to encode
+     * @return the 32 byte topic
+     */
+    public byte[] encodeTopic(Object value) {
+        return encode(value);
+    }
+
+    /**
+     * The encoding used for members of arrays and structs when hashing an indexed param: static values are padded to
+     * 32 bytes, bytes and string are padded to a multiple of 32 bytes, and no offsets or lengths are written.
+     */
+    protected byte[] encodeInPlace(Object value) {
+        return encode(value);
+    }
+
+    /**
+     * Packed encoding of a sequence of values, equivalent to {@code abi.encodePacked(values...)}.
+     *
+     * @param types  the types of the values
+     * @param values the values
+     * @return the concatenated packed encodings
+     */
+    public static byte[] encodePacked(List<SolidityType> types, Object... values) {
+        if (types.size() != values.length)
+            throw new RuntimeException("Value count (" + values.length + ") != " + types.size());
+        byte[][] encoded = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = types.get(i).encodePacked(values[i]);
+        }
+        return ByteUtil.merge(encoded);
+    }
+
     public abstract Object decode(byte[] encoded, int offset);
 
     public Object
@@ -230,6 +287,61 @@ public abstract class SolidityType {
         return decode(encoded, 0);
     }
 
+    /**
+     * Checks that a value of this type can be decoded from the given position without reading past the buffer,
+     * without decoding it and without throwing.
+     *
+     * @param encoded the buffer
+     * @param offset  the position {@link #decode(byte[], int)} would be called with
+     * @return {@link AbiLayout#VALID}, or the position of the first word that is out of bounds or out of range
+     */
+    public int validate(byte[] encoded, int offset) {
+        return validate(encoded, offset, encoded.length);
+    }
+
+    /**
+     * Like {@link #validate(byte[], int)}, for a value embedded in a larger buffer: nothing at or past {@code end}
+     * may be read.
+     *
+     * @param encoded the buffer
+     * @param offset  the position {@link #decode(byte[], int)} would be called with
+     * @param end     the end of the encoded data within the buffer
+     * @return {@link AbiLayout#VALID}, or the position of the first word that is out of bounds or out of range
+     */
+    public int validate(byte[] encoded, int offset, int end) {
+        return end - offset >= getFixedSize() ? AbiLayout.VALID : offset;
+    }
+
+    /**
+     * Reports the value at the given position to a visitor instead of decoding it. Values are reported as positions
+     * in the buffer where they don't fit a primitive, so nothing is copied.
+     *
+     * @param encoded the buffer
+     * @param offset  the position {@link #decode(byte[], int)} would be called with
+     * @param index   the index of the value within its enclosing param list, tuple or array
+     * @param visitor the visitor
+     * @throws RuntimeException if the value extends past the buffer
+     */
+    public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+        checkWord(encoded, offset);
+        visitor.onBytes(index, encoded, offset, Int32Size);
+    }
+
+    static void checkWord(byte[] encoded, int offset) {
+        if (offset < 0 || offset > encoded.length - Int32Size)
+            throw new RuntimeException("Word out of bounds at position " + offset);
+    }
+
+    /**
+     * @return the low 8 bytes of the word at the given position
+     */
+    static long readLong(byte[] encoded, int offset) {
+        checkWord(encoded, offset);
+        long value = 0;
+        for (int i = offset + Int32Size - 8; i < offset + Int32Size; i++) value = (value << 8) | (encoded[i] & 0xFF);
+        return value;
+    }
+
     /**
      * @return fixed size in bytes. For the dynamic types returns IntType.getFixedSize()
      * which is effectively the int offset to dynamic data
@@ -267,58 +379,75 @@ public abstract class SolidityType {
 
         @Override
         public byte[] encode(Object value) {
+            return encodeList(toList(value));
+        }
+
+        @Override
+        public byte[] encodePacked(Object value) {
+            if (elementType.isDynamicType())
+                throw new RuntimeException("Packed encoding is not supported for arrays of dynamic type " + getName());
+            // array elements are padded to 32 bytes even in packed mode
+            return encodeInPlace(value);
+        }
+
+        @Override
+        public byte[] encodeTopic(Object value) {
+            return Keccak256.hash(encodeInPlace(value));
+        }
+
+        @Override
+        protected byte[] encodeInPlace(Object value) {
+            List<?> elems = toList(value);
+            byte[][] encoded = new byte[elems.size()][];
+            for (int i = 0; i < elems.size(); i++) {
+                encoded[i] = elementType.encodeInPlace(elems.get(i));
+            }
+            return ByteUtil.merge(encoded);
+        }
+
+        private List<?> toList(Object value) {
             if (value.getClass().isArray()) {
                 List<Object> elems = new ArrayList<>();
                 for (int i = 0; i < Array.getLength(value); i++) {
                     elems.add(Array.get(value, i));
                 }
-                return encodeList(elems);
+                return elems;
             } else if (value instanceof List) {
-                return encodeList((List<?>) value);
+                return (List<?>) value;
             } else {
                 throw new RuntimeException("List value expected for type " + getName());
             }
         }
 
         protected byte[] encodeTuple(List<?> l) {
-            byte[][] elems;
-            if (elementType.isDynamicType()) {
-                elems = new byte[l.size() * 2][];
-                int offset = l.size() * Int32Size;
-                for (int i = 0; i < l.size(); i++) {
-                    elems[i] = IntType.encodeInt(offset);
-                    byte[] encoded = elementType.encode(l.get(i));
-                    elems[l.size() + i] = encoded;
-                    offset += Int32Size * ((encoded.length - 1) / Int32Size + 1);
-                }
-            } else {
-                elems = new byte[l.size()][];
-                for (int i = 0; i < l.size(); i++) {
-                    elems[i] = elementType.encode(l.get(i));
-                }
-            }
-            return ByteUtil.merge(elems);
+            return AbiLayout.repeated(elementType, l.size()).encode(l);
         }
 
         public Object[] decodeTuple(byte[] encoded, int origOffset, int len) {
-            int offset = origOffset;
-            Object[] ret = new Object[len];
-
-            for (int i = 0; i < len; i++) {
-                if (elementType.isDynamicType()) {
-                    ret[i] = elementType.decode(encoded, origOffset + IntType.decodeInt(encoded, offset).intValue());
-                } else {
-                    ret[i] = elementType.decode(encoded, offset);
-                }
-                offset += elementType.getFixedSize();
-            }
-            return ret;
+            DecodeBudget.allocateArray(len);
+            return AbiLayout.repeated(elementType, len).decode(encoded, origOffset);
         }
 
         public SolidityType getElementType() {
             return elementType;
         }
 
+        /**
+         * Reports {@code len} elements starting at the given position, bracketed by beginArray and endArray.
+         */
+        void visitElements(byte[] encoded, int origOffset, int len, int index, DecodeVisitor visitor) {
+            DecodeBudget.allocateArray(len);
+            visitor.beginArray(index, len);
+            boolean dynamic = elementType.isDynamicType();
+            int size = elementType.getFixedSize();
+            for (int i = 0; i < len; i++) {
+                int position = origOffset + i * size;
+                if (dynamic) checkWord(encoded, position);
+                elementType.visit(encoded, dynamic ? origOffset + AbiLayout.readOffset(encoded, position) : position, i, visitor);
+            }
+            visitor.endArray(index);
+        }
+
         public abstract byte[] encodeList(List<?> l);
     }
 
@@ -338,6 +467,15 @@ public abstract class SolidityType {
             return getElementType().getCanonicalName() + "[" + size + "]";
         }
 
+        @Override
+        public String getTypeDefinition() {
+            return getElementType().getTypeDefinition() + "[" + size + "]";
+        }
+
+        public int getSize() {
+            return size;
+        }
+
         @Override
         public byte[] encodeList(List<?> l) {
             if (l.size() != size)
@@ -350,6 +488,16 @@ public abstract class SolidityType {
             return decodeTuple(encoded, offset, size);
         }
 
+        @Override
+        public int validate(byte[] encoded, int offset, int end) {
+            return AbiLayout.repeated(elementType, size).validateWithin(encoded, offset, end);
+        }
+
+        @Override
+        public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+            visitElements(encoded, offset, size, index, visitor);
+        }
+
         @Override
         public int getFixedSize() {
             if (isDynamicType()) {
@@ -375,6 +523,11 @@ public abstract class SolidityType {
             return elementType.getCanonicalName() + "[]";
         }
 
+        @Override
+        public String getTypeDefinition() {
+            return elementType.getTypeDefinition() + "[]";
+        }
+
         @Override
         public byte[] encodeList(List<?> l) {
             return ByteUtil.merge(IntType.encodeInt(l.size()), encodeTuple(l));
@@ -382,10 +535,29 @@ public abstract class SolidityType {
 
         @Override
         public Object decode(byte[] encoded, int origOffset) {
-            int len = IntType.decodeInt(encoded, origOffset).intValue();
+            int len = AbiLayout.readOffset(encoded, origOffset);
+            // every element needs at least its head in the buffer, so a forged length fails before allocating
+            if ((long) len * elementType.getFixedSize() > encoded.length - origOffset - Int32Size)
+                throw new RuntimeException("Array length " + len + " exceeds payload at position " + origOffset);
             return decodeTuple(encoded, origOffset + Int32Size, len);
         }
 
+        @Override
+        public void visit(byte[] encoded, int origOffset, int index, DecodeVisitor visitor) {
+            checkWord(encoded, origOffset);
+            int len = AbiLayout.readOffset(encoded, origOffset);
+            if ((long) len * elementType.getFixedSize() > encoded.length - origOffset - Int32Size)
+                throw new RuntimeException("Array length " + len + " exceeds payload at position " + origOffset);
+            visitElements(encoded, origOffset + Int32Size, len, index, visitor);
+        }
+
+        @Override
+        public int validate(byte[] encoded, int offset, int end) {
+            int len = AbiLayout.peekOffset(encoded, offset, end);
+            if (len < 0 || (long) len * elementType.getFixedSize() > end - offset - Int32Size) return offset;
+            return AbiLayout.repeated(elementType, len).validateWithin(encoded, offset + Int32Size, end);
+        }
+
         @Override
         public boolean isDynamicType() {
             return true;
@@ -411,20 +583,63 @@ public abstract class SolidityType {
             } else {
                 throw new RuntimeException("byte[] or String value is expected for type 'bytes'");
             }
-            byte[] ret = new byte[((bb.length - 1) / Int32Size + 1) * Int32Size]; // padding 32 bytes
-            System.arraycopy(bb, 0, ret, 0, bb.length);
+            byte[] ret = new byte[Int32Size + ((bb.length + Int32Size - 1) / Int32Size) * Int32Size]; // padding 32 bytes
+            AbiLayout.writeOffset(ret, 0, bb.length);
+            System.arraycopy(bb, 0, ret, Int32Size, bb.length);
+            return ret;
+        }
+
+        @Override
+        public byte[] encodePacked(Object value) {
+            if (value instanceof byte[] bytes) {
+                return bytes;
+            } else if (value instanceof String s) {
+                return s.getBytes();
+            }
+            throw new RuntimeException("byte[] or String value is expected for type 'bytes'");
+        }
 
-            return ByteUtil.merge(IntType.encodeInt(bb.length), ret);
+        @Override
+        public byte[] encodeTopic(Object value) {
+            return Keccak256.hash(encodePacked(value));
+        }
+
+        @Override
+        protected byte[] encodeInPlace(Object value) {
+            byte[] packed = encodePacked(value);
+            return Arrays.copyOf(packed, ((packed.length + Int32Size - 1) / Int32Size) * Int32Size);
         }
 
         @Override
         public Object decode(byte[] encoded, int offset) {
-            int len = IntType.decodeInt(encoded, offset).intValue();
+            int len = AbiLayout.readOffset(encoded, offset);
             if (len == 0) return new byte[0];
+            if (len > encoded.length - offset - Int32Size)
+                throw new RuntimeException("Length " + len + " exceeds payload at position " + offset);
+            DecodeBudget.allocate(len);
             offset += Int32Size;
             return Arrays.copyOfRange(encoded, offset, offset + len);
         }
 
+        @Override
+        public int validate(byte[] encoded, int offset, int end) {
+            int len = AbiLayout.peekOffset(encoded, offset, end);
+            return len < 0 || len > end - offset - Int32Size ? offset : AbiLayout.VALID;
+        }
+
+        @Override
+        public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+            checkWord(encoded, offset);
+            int len = AbiLayout.readOffset(encoded, offset);
+            if (len > encoded.length - offset - Int32Size)
+                throw new RuntimeException("Length " + len + " exceeds payload at position " + offset);
+            visitPayload(encoded, offset + Int32Size, len, index, visitor);
+        }
+
+        void visitPayload(byte[] encoded, int offset, int len, int index, DecodeVisitor visitor) {
+            visitor.onBytes(index, encoded, offset, len);
+        }
+
         @Override
         public boolean isDynamicType() {
             return true;
@@ -442,10 +657,21 @@ public abstract class SolidityType {
             return super.encode(((String) value).getBytes(StandardCharsets.UTF_8));
         }
 
+        @Override
+        public byte[] encodePacked(Object value) {
+            if (!(value instanceof String)) throw new RuntimeException("String value expected for type 'string'");
+            return ((String) value).getBytes(StandardCharsets.UTF_8);
+        }
+
         @Override
         public Object decode(byte[] encoded, int offset) {
             return new String((byte[]) super.decode(encoded, offset), StandardCharsets.UTF_8);
         }
+
+        @Override
+        void visitPayload(byte[] encoded, int offset, int len, int index, DecodeVisitor visitor) {
+            visitor.onString(index, encoded, offset, len);
+        }
     }
 
     public static class Bytes32Type extends SolidityType {
@@ -472,17 +698,59 @@ public abstract class SolidityType {
             throw new RuntimeException("Can't encode java type " + value.getClass() + " to bytes32");
         }
 
+        /**
+         * @return the number of significant bytes, e.g. 4 for 'bytes4'
+         */
+        public int getByteSize() {
+            String size = getName().substring("bytes".length());
+            return size.isEmpty() ? Int32Size : Integer.parseInt(size);
+        }
+
+        @Override
+        public byte[] encodePacked(Object value) {
+            int size = getByteSize();
+            if (value instanceof byte[] bytes && bytes.length <= size) {
+                return Arrays.copyOf(bytes, size);
+            }
+            return Arrays.copyOf(encode(value), size);
+        }
+
+        @Override
+        public byte[] encodeTopic(Object value) {
+            return encodeInPlace(value);
+        }
+
+        /**
+         * Left-aligns a byte[] of up to {@link #getByteSize()} bytes, as values of bytesN are stored in topics and
+         * hashed arrays; {@link #encode(Object)} right-aligns it like an integer.
+         */
+        @Override
+        protected byte[] encodeInPlace(Object value) {
+            if (value instanceof byte[] bytes && bytes.length <= getByteSize()) {
+                return Arrays.copyOf(bytes, Int32Size);
+            }
+            return encode(value);
+        }
+
         @Override
         public Object decode(byte[] encoded, int offset) {
             return decodeBytes32(encoded, offset);
         }
 
+        @Override
+        public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+            checkWord(encoded, offset);
+            visitor.onBytes(index, encoded, offset, getByteSize());
+        }
+
         public static byte[] decodeBytes32(byte[] encoded, int offset) {
             return Arrays.copyOfRange(encoded, offset, offset + Int32Size);
         }
     }
 
     public static class AddressType extends IntType {
+        private static final byte[] ZERO_WORD = new byte[Int32Size];
+
         public AddressType() {
             super("address");
         }
@@ -503,9 +771,23 @@ public abstract class SolidityType {
 
         @Override
         public Object decode(byte[] encoded, int offset) {
+            if (offset + Int32Size <= encoded.length && Arrays.equals(encoded, offset, offset + 12, ZERO_WORD, 0, 12)) {
+                return Arrays.copyOfRange(encoded, offset + 12, offset + Int32Size);
+            }
             BigInteger bi = (BigInteger) super.decode(encoded, offset);
             return ByteUtil.bigIntegerToBytes(bi, 20);
         }
+
+        @Override
+        public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+            checkWord(encoded, offset);
+            visitor.onAddress(index, encoded, offset + 12);
+        }
+
+        @Override
+        public int getBitSize() {
+            return 160;
+        }
     }
 
     public static abstract class NumericType extends SolidityType {
@@ -515,6 +797,31 @@ public abstract class SolidityType {
             super(name);
         }
 
+        /**
+         * @return the width of the type in bits, e.g. 24 for 'uint24' and 256 for 'uint'
+         */
+        public int getBitSize() {
+            int start = getName().length();
+            while (start > 0 && Character.isDigit(getName().charAt(start - 1))) {
+                start--;
+            }
+            return start == getName().length() ? 256 : Integer.parseInt(getName().substring(start));
+        }
+
+        @Override
+        public byte[] encodePacked(Object value) {
+            byte[] word = encode(value);
+            int start = Int32Size - getBitSize() / 8;
+            boolean signed = this instanceof IntType && !(this instanceof AddressType) && !(this instanceof BoolType);
+            byte extension = signed && word[start] < 0 ? (byte) 0xFF : 0;
+            for (int i = 0; i < start; i++) {
+                if (word[i] != extension) {
+                    throw new RuntimeException("Value " + value + " is out of range for type " + getName());
+                }
+            }
+            return Arrays.copyOfRange(word, start, Int32Size);
+        }
+
         BigInteger encodeString(String value) {
             String s = value.toLowerCase().trim();
             int radix = 10;
@@ -555,7 +862,8 @@ public abstract class SolidityType {
         }
 
         public static BigInteger decodeInt(byte[] encoded, int offset) {
-            return new BigInteger(Arrays.copyOfRange(encoded, offset, offset + Int32Size));
+            if (offset + Int32Size > encoded.length) return new BigInteger(Arrays.copyOfRange(encoded, offset, offset + Int32Size));
+            return new BigInteger(encoded, offset, Int32Size);
         }
 
         public static byte[] encodeInt(int i) {
@@ -571,6 +879,16 @@ public abstract class SolidityType {
             return decodeInt(encoded, offset);
         }
 
+        @Override
+        public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+            if (getBitSize() <= 64) {
+                visitor.onInt(index, readLong(encoded, offset));
+            } else {
+                checkWord(encoded, offset);
+                visitor.onBigInt(index, encoded, offset);
+            }
+        }
+
         @Override
         public byte[] encode(Object value) {
             BigInteger bigInt = encodeInternal(value);
@@ -590,7 +908,8 @@ public abstract class SolidityType {
         }
 
         public static BigInteger decodeInt(byte[] encoded, int offset) {
-            return new BigInteger(1, Arrays.copyOfRange(encoded, offset, offset + Int32Size));
+            if (offset + Int32Size > encoded.length) return new BigInteger(1, Arrays.copyOfRange(encoded, offset, offset + Int32Size));
+            return new BigInteger(1, encoded, offset, Int32Size);
         }
 
         public static byte[] encodeInt(BigInteger bigInt) {
@@ -610,6 +929,16 @@ public abstract class SolidityType {
         public Object decode(byte[] encoded, int offset) {
             return decodeInt(encoded, offset);
         }
+
+        @Override
+        public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+            if (getBitSize() <= 64) {
+                visitor.onUint(index, readLong(encoded, offset));
+            } else {
+                checkWord(encoded, offset);
+                visitor.onBigUint(index, encoded, offset);
+            }
+        }
     }
 
     public static class BoolType extends IntType {
@@ -623,10 +952,20 @@ public abstract class SolidityType {
             return super.encode(value == Boolean.TRUE ? 1 : 0);
         }
 
+        @Override
+        public int getBitSize() {
+            return 8;
+        }
+
         @Override
         public Object decode(byte[] encoded, int offset) {
             return ((Number) super.decode(encoded, offset)).intValue() != 0;
         }
+
+        @Override
+        public void visit(byte[] encoded, int offset, int index, DecodeVisitor visitor) {
+            visitor.onBool(index, (int) readLong(encoded, offset) != 0);
+        }
     }
 
     public static class FunctionType extends Bytes32Type {
@@ -640,16 +979,54 @@ public abstract class SolidityType {
             if (((byte[]) value).length != 24) throw new RuntimeException("Expected byte[24] for FunctionType");
             return super.encode(ByteUtil.merge((byte[]) value, new byte[8]));
         }
+
+        @Override
+        public int getByteSize() {
+            return 24;
+        }
     }
 
     public static class TupleType extends SolidityType {
 
         List<SolidityType> types = new ArrayList<>();
+        private volatile AbiLayout layout;
 
         public TupleType() {
             super("tuple");
         }
 
+        public TupleType(List<SolidityType> types) {
+            this();
+            this.types.addAll(types);
+        }
+
+        public List<SolidityType> getTypes() {
+            return types;
+        }
+
+        /**
+         * The layout of the components. Computed on first use, i.e. after the components have been populated from
+         * the ABI definition.
+         */
+        public AbiLayout getLayout() {
+            AbiLayout result = layout;
+            if (result == null || result.size() != types.size()) {
+                result = AbiLayout.of(types);
+                layout = result;
+            }
+            return result;
+        }
+
+        @Override
+        public String getTypeDefinition() {
+            StringBuilder definition = new StringBuilder("(");
+            for (int i = 0; i < types.size(); i++) {
+                if (i > 0) definition.append(',');
+                definition.append(types.get(i).getTypeDefinition());
+            }
+            return definition.append(')').toString();
+        }
+
         @Override
         public boolean isDynamicType() {
             return containsDynamicTypes();
@@ -659,26 +1036,54 @@ public abstract class SolidityType {
             return types.stream().anyMatch(SolidityType::isDynamicType);
         }
 
+        @Override
+        public int getFixedSize() {
+            return isDynamicType() ? Int32Size : getLayout().getHeadSize();
+        }
+
         @Override
         public byte[] encode(Object value) {
-            return new byte[0];
+            if (value instanceof List<?> list) {
+                return getLayout().encode(list);
+            } else if (value instanceof Object[] array) {
+                return getLayout().encode(Arrays.asList(array));
+            }
+            throw new RuntimeException("Object[] or List value expected for type 'tuple': " + value);
         }
 
         @Override
-        public Object decode(byte[] encoded, int origOffset) {
-            int offset = origOffset;
-            Object[] ret = new Object[types.size()];
+        public byte[] encodeTopic(Object value) {
+            return Keccak256.hash(encodeInPlace(value));
+        }
 
+        @Override
+        protected byte[] encodeInPlace(Object value) {
+            List<?> values = value instanceof Object[] array ? Arrays.asList(array) : (List<?>) value;
+            if (values.size() != types.size())
+                throw new RuntimeException("Value count (" + values.size() + ") != " + types.size());
+            byte[][] encoded = new byte[types.size()][];
             for (int i = 0; i < types.size(); i++) {
-                SolidityType elementType = types.get(i);
-                if (elementType.isDynamicType()) {
-                    ret[i] = elementType.decode(encoded, origOffset + IntType.decodeInt(encoded, offset).intValue());
-                } else {
-                    ret[i] = elementType.decode(encoded, offset);
-                }
-                offset += elementType.getFixedSize();
+                encoded[i] = types.get(i).encodeInPlace(values.get(i));
             }
-            return ret;
+            return ByteUtil.merge(encoded);
+        }
+
+        @Override
+        public Object decode(byte[] encoded, int origOffset) {
+            return getLayout().decode(encoded, origOffset);
+        }
+
+        @Override
+        public void visit(byte[] encoded, int origOffset, int index, DecodeVisitor visitor) {
+            AbiLayout layout = getLayout();
+            visitor.beginTuple(index, layout.size());
+            layout.visit(encoded, origOffset, visitor);
+            visitor.endTuple(index);
+        }
+
+        @Override
+        public int validate(byte[] encoded, int offset, int end) {
+            return getLayout().validateWithin(encoded, offset, end);
         }
     }
 }
\ No newline at end of file
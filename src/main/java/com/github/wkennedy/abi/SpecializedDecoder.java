@@ -0,0 +1,350 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.compiled.Words;
+import com.github.wkennedy.abi.entry.AbiParam;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A decoder specialized for one {@link AbiLayout}, used by {@link Decoder} for entries that become hot.
+ * <p>
+ * The per-element readers (word reads at constant head offsets for static types, the element's own
+ * {@link SolidityType#decode} for the rest) are composed into one {@link MethodHandle}. That handle is stored in a
+ * static final field of a hidden class defined for the layout, so the JIT treats it as a constant and can inline the
+ * whole chain instead of going through the megamorphic {@code decode} calls shared by all ABIs.
+ */
+abstract class SpecializedDecoder {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    // 2 slots per element after collecting the readers, which must stay below the 255 slot limit of a method handle
+    static final int MAX_ELEMENTS = 100;
+    private static final byte[] TEMPLATE = template();
+
+    SpecializedDecoder() {
+    }
+
+    /**
+     * Decodes all elements of the layout this decoder was compiled for.
+     *
+     * @param encoded the buffer
+     * @param offset  the start of the encoding within the buffer
+     * @return the decoded values, one per element
+     */
+    abstract Object[] decode(byte[] encoded, int offset);
+
+    /**
+     * Compiles a decoder for the given layout.
+     *
+     * @param layout the layout
+     * @return the decoder, or null if the layout has too many elements to be specialized
+     */
+    static SpecializedDecoder compile(AbiLayout layout) {
+        if (layout.size() > MAX_ELEMENTS) return null;
+        try {
+            MethodHandles.Lookup hidden = LOOKUP.defineHiddenClassWithClassData(TEMPLATE, body(layout), true);
+            return (SpecializedDecoder) hidden.findConstructor(hidden.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Builds the handle (byte[] encoded, int offset) -> Object[] for a layout.
+     */
+    static MethodHandle body(AbiLayout layout) {
+        int count = layout.size();
+        MethodType type = MethodType.methodType(Object[].class, byte[].class, int.class);
+        if (count == 0) {
+            return MethodHandles.dropArguments(MethodHandles.constant(Object[].class, new Object[0]), 0, byte[].class, int.class)
+                    .asType(type);
+        }
+        MethodHandle result = MethodHandles.identity(Object[].class).asCollector(Object[].class, count);
+        for (int i = count - 1; i >= 0; i--) {
+            result = MethodHandles.collectArguments(result, i, element(layout, i));
+        }
+        int[] reorder = new int[count * 2];
+        for (int i = 0; i < reorder.length; i++) {
+            reorder[i] = i % 2;
+        }
+        return MethodHandles.permuteArguments(result, type, reorder);
+    }
+
+    /**
+     * The reader of a single element as (byte[] encoded, int offset) -> Object.
+     */
+    private static MethodHandle element(AbiLayout layout, int index) {
+        SolidityType type = layout.getType(index);
+        int headOffset = layout.getHeadOffset(index);
+        MethodHandle reader = reader(type).asType(MethodType.methodType(Object.class, byte[].class, int.class));
+        if (type.isDynamicType()) {
+            MethodHandle tail = MethodHandles.insertArguments(TAIL, 2, headOffset);
+            MethodHandle h = MethodHandles.collectArguments(reader, 1, tail);
+            return MethodHandles.permuteArguments(h, MethodType.methodType(Object.class, byte[].class, int.class), 0, 0, 1);
+        }
+        return MethodHandles.filterArguments(reader, 1, MethodHandles.insertArguments(ADD, 1, headOffset));
+    }
+
+    /**
+     * The word readers decode exactly like the decode method of these classes, malformed words included; subclasses
+     * may override decode, so they only apply to the exact class.
+     */
+    private static MethodHandle reader(SolidityType type) {
+        Class<?> typeClass = type.getClass();
+        if (typeClass == SolidityType.BoolType.class) return READ_BOOL;
+        if (typeClass == SolidityType.AddressType.class) return READ_ADDRESS;
+        if (typeClass == SolidityType.UnsignedIntType.class) return READ_UINT;
+        if (typeClass == SolidityType.IntType.class) return READ_INT;
+        if (typeClass == SolidityType.Bytes32Type.class) return READ_WORD;
+        return DECODE.bindTo(type);
+    }
+
+    private static int add(int a, int b) {
+        return a + b;
+    }
+
+    private static final MethodHandle ADD = find(SpecializedDecoder.class, "add", int.class, int.class, int.class);
+    private static final MethodHandle TAIL = find(Words.class, "tail", int.class, byte[].class, int.class, int.class);
+    private static final MethodHandle READ_BOOL = find(Words.class, "readBool", boolean.class, byte[].class, int.class);
+    private static final MethodHandle READ_ADDRESS = find(Words.class, "readAddress", byte[].class, byte[].class, int.class);
+    private static final MethodHandle READ_UINT = find(Words.class, "readUint", java.math.BigInteger.class, byte[].class, int.class);
+    private static final MethodHandle READ_INT = find(Words.class, "readInt", java.math.BigInteger.class, byte[].class, int.class);
+    private static final MethodHandle READ_WORD = find(Words.class, "readWord", byte[].class, byte[].class, int.class);
+    private static final MethodHandle DECODE;
+
+    static {
+        try {
+            DECODE = LOOKUP.findVirtual(SolidityType.class, "decode", MethodType.methodType(Object.class, byte[].class, int.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle find(Class<?> owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return LOOKUP.findStatic(owner, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Counts the invocations of one entry and switches to a specialized decoder once the threshold is reached.
+     * Until then, and for layouts that can't be specialized, the interpreted layout decoding is used.
+     */
+    static final class HotPath {
+        private final AbiLayout layout;
+        private final int threshold;
+        private final AtomicInteger invocations = new AtomicInteger();
+        private volatile SpecializedDecoder compiled;
+
+        HotPath(AbiLayout layout, int threshold) {
+            this.layout = layout;
+            this.threshold = threshold;
+        }
+
+        List<?> decode(byte[] encoded, int offset) {
+            SpecializedDecoder decoder = compiled;
+            if (decoder == null && invocations.get() < threshold && invocations.incrementAndGet() == threshold) {
+                decoder = compile(layout);
+                compiled = decoder;
+            }
+            if (decoder != null) {
+                return new ArrayList<>(Arrays.asList(decoder.decode(encoded, offset)));
+            }
+            return AbiParam.decodeList(layout, encoded, offset);
+        }
+
+        boolean isCompiled() {
+            return compiled != null;
+        }
+    }
+
+    /**
+     * The class file of the hidden class every specialized decoder is an instance of:
+     * <pre>
+     * final class SpecializedDecoder$Hot extends SpecializedDecoder {
+     *     private static final MethodHandle MH = MethodHandles.classData(MethodHandles.lookup(), "_", MethodHandle.class);
+     *
+     *     Object[] decode(byte[] encoded, int offset) {
+     *         return (Object[]) MH.invokeExact(encoded, offset);
+     *     }
+     * }
+     * </pre>
+     * The class data is the handle built by {@link #body(AbiLayout)}.
+     */
+    private static byte[] template() {
+        ConstantPool pool = new ConstantPool();
+        int thisClass = pool.classRef("com/github/wkennedy/abi/SpecializedDecoder$Hot");
+        int superClass = pool.classRef("com/github/wkennedy/abi/SpecializedDecoder");
+        int methodHandleClass = pool.classRef("java/lang/invoke/MethodHandle");
+        int methodHandlesClass = pool.classRef("java/lang/invoke/MethodHandles");
+        int field = pool.memberRef(9, thisClass, "MH", "Ljava/lang/invoke/MethodHandle;");
+        int lookup = pool.memberRef(10, methodHandlesClass, "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;");
+        int classData = pool.memberRef(10, methodHandlesClass, "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;");
+        int superInit = pool.memberRef(10, superClass, "<init>", "()V");
+        int invokeExact = pool.memberRef(10, methodHandleClass, "invokeExact", "([BI)[Ljava/lang/Object;");
+        int dataName = pool.string("_");
+        int code = pool.utf8("Code");
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            // constant pool entries for the member names must exist before the pool is written
+            int fieldName = pool.utf8("MH");
+            int fieldType = pool.utf8("Ljava/lang/invoke/MethodHandle;");
+            int clinitName = pool.utf8("<clinit>");
+            int initName = pool.utf8("<init>");
+            int voidType = pool.utf8("()V");
+            int decodeName = pool.utf8("decode");
+            int decodeType = pool.utf8("([BI)[Ljava/lang/Object;");
+
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(65); // Java 21
+            pool.writeTo(out);
+            out.writeShort(0x0010 | 0x0020); // ACC_FINAL | ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); // interfaces
+
+            out.writeShort(1); // fields
+            out.writeShort(0x0002 | 0x0008 | 0x0010); // private static final
+            out.writeShort(fieldName);
+            out.writeShort(fieldType);
+            out.writeShort(0);
+
+            out.writeShort(3); // methods
+            writeMethod(out, 0x0008, clinitName, voidType, code, 3, 0, new byte[]{
+                    (byte) 0xB8, hi(lookup), lo(lookup),             // invokestatic MethodHandles.lookup
+                    0x13, hi(dataName), lo(dataName),                // ldc_w "_"
+                    0x13, hi(methodHandleClass), lo(methodHandleClass), // ldc_w MethodHandle.class
+                    (byte) 0xB8, hi(classData), lo(classData),       // invokestatic MethodHandles.classData
+                    (byte) 0xC0, hi(methodHandleClass), lo(methodHandleClass), // checkcast MethodHandle
+                    (byte) 0xB3, hi(field), lo(field),               // putstatic MH
+                    (byte) 0xB1                                      // return
+            });
+            writeMethod(out, 0, initName, voidType, code, 1, 1, new byte[]{
+                    0x2A,                                            // aload_0
+                    (byte) 0xB7, hi(superInit), lo(superInit),       // invokespecial SpecializedDecoder.<init>
+                    (byte) 0xB1                                      // return
+            });
+            writeMethod(out, 0, decodeName, decodeType, code, 3, 3, new byte[]{
+                    (byte) 0xB2, hi(field), lo(field),               // getstatic MH
+                    0x2B,                                            // aload_1
+                    0x1C,                                            // iload_2
+                    (byte) 0xB6, hi(invokeExact), lo(invokeExact),   // invokevirtual MethodHandle.invokeExact
+                    (byte) 0xB0                                      // areturn
+            });
+            out.writeShort(0); // attributes
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static void writeMethod(DataOutputStream out, int access, int name, int descriptor, int code,
+                                    int maxStack, int maxLocals, byte[] instructions) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(code);
+        out.writeInt(12 + instructions.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(instructions.length);
+        out.write(instructions);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    private static byte hi(int index) {
+        return (byte) (index >>> 8);
+    }
+
+    private static byte lo(int index) {
+        return (byte) index;
+    }
+
+    /**
+     * A minimal class file constant pool with de-duplicated entries.
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) {
+            return entry("U" + value, () -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int classRef(String internalName) {
+            int name = utf8(internalName);
+            return entry("C" + internalName, () -> {
+                out.writeByte(7);
+                out.writeShort(name);
+            });
+        }
+
+        int string(String value) {
+            int utf8 = utf8(value);
+            return entry("S" + value, () -> {
+                out.writeByte(8);
+                out.writeShort(utf8);
+            });
+        }
+
+        int memberRef(int tag, int owner, String name, String descriptor) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + ":" + descriptor, () -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("M" + tag + ":" + owner + ":" + nameAndType, () -> {
+                out.writeByte(tag);
+                out.writeShort(owner);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            bytes.writeTo(target);
+        }
+
+        private int entry(String key, Writer writer) {
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            entries.put(key, count);
+            return count++;
+        }
+
+        private interface Writer {
+            void write() throws IOException;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.github.wkennedy.abi.columnar;
+
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.DecodeBudget;
+import com.github.wkennedy.abi.SolidityType;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A typed column of decoded values for one param across a batch of payloads, with a validity bitmap marking the
+ * rows that decoded successfully. Values are read straight from the encoded words into primitive arrays; no
+ * per-row objects are created.
+ */
+public abstract class Column {
+    static final int WORD_SIZE = 32;
+
+    private final String name;
+    private final SolidityType type;
+    private final int rowCount;
+    private final long[] validity;
+
+    protected Column(String name, SolidityType type, int rowCount) {
+        this.name = name;
+        this.type = type;
+        this.rowCount = rowCount;
+        this.validity = new long[(rowCount + 63) >>> 6];
+    }
+
+    /**
+     * Creates the column best suited for the given type: {@link LongColumn} for integers of up to 64 bits and bool,
+     * {@link FixedBytesColumn} for address, bytesN and function, {@link WordColumn} for wider integers,
+     * {@link VarBytesColumn} for bytes and string, and {@link ObjectColumn} for arrays and tuples.
+     *
+     * @param name     the param name
+     * @param type     the param type
+     * @param rowCount the number of rows
+     * @return the column
+     */
+    public static Column forType(String name, SolidityType type, int rowCount) {
+        return switch (type) {
+            case SolidityType.AddressType ignored -> new FixedBytesColumn(name, type, rowCount, WORD_SIZE - 20, 20);
+            case SolidityType.NumericType numeric when numeric.getBitSize() <= 64 -> new LongColumn(name, type, rowCount);
+            case SolidityType.NumericType ignored -> new WordColumn(name, type, rowCount);
+            case SolidityType.Bytes32Type bytesN -> new FixedBytesColumn(name, type, rowCount, 0, bytesN.getByteSize());
+            case SolidityType.BytesType ignored -> new VarBytesColumn(name, type, rowCount);
+            default -> new ObjectColumn(name, type, rowCount);
+        };
+    }
+
+    /**
+     * Creates a column for an indexed param whose topic holds a hash (dynamic types, arrays and tuples).
+     *
+     * @param name     the param name
+     * @param type     the param type
+     * @param rowCount the number of rows
+     * @return a column of 32 byte hashes
+     */
+    public static Column forHashedTopic(String name, SolidityType type, int rowCount) {
+        return new FixedBytesColumn(name, type, rowCount, 0, WORD_SIZE);
+    }
+
+    /**
+     * Reads the value starting at the given position into the given row and marks the row valid.
+     *
+     * @param encoded the buffer
+     * @param offset  the position of the value (its head word, or for dynamic types the start of its tail)
+     * @param row     the row
+     */
+    void read(byte[] encoded, int offset, int row) {
+        readValue(encoded, offset, row);
+        validity[row >>> 6] |= 1L << row;
+    }
+
+    protected abstract void readValue(byte[] encoded, int offset, int row);
+
+    /**
+     * Marks the row as not decoded and discards anything that was read for it.
+     *
+     * @param row the row
+     */
+    void invalidate(int row) {
+        validity[row >>> 6] &= ~(1L << row);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SolidityType getType() {
+        return type;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param row the row
+     * @return true if the value of the row was decoded
+     */
+    public boolean isValid(int row) {
+        return (validity[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * @return the validity bitmap, one bit per row in little-endian bit order within each long
+     */
+    public long[] getValidity() {
+        return validity;
+    }
+
+    /**
+     * Integers of up to 64 bits and bool. Unsigned 64 bit values are stored as their two's complement bits. A word
+     * whose upper 24 bytes are not a zero extension (or, for signed integers, a sign extension) of the low 8 bytes
+     * doesn't fit and makes the row invalid.
+     */
+    public static class LongColumn extends Column {
+        private final long[] values;
+        private final boolean signed;
+
+        LongColumn(String name, SolidityType type, int rowCount) {
+            super(name, type, rowCount);
+            this.values = new long[rowCount];
+            this.signed = type instanceof SolidityType.IntType && !(type instanceof SolidityType.BoolType);
+        }
+
+        @Override
+        protected void readValue(byte[] encoded, int offset, int row) {
+            long value = 0;
+            for (int i = offset + WORD_SIZE - Long.BYTES; i < offset + WORD_SIZE; i++) {
+                value = (value << 8) | (encoded[i] & 0xFF);
+            }
+            byte extension = signed && value < 0 ? (byte) 0xFF : 0;
+            for (int i = offset; i < offset + WORD_SIZE - Long.BYTES; i++) {
+                if (encoded[i] != extension) {
+                    throw new RuntimeException("Value at position " + offset + " doesn't fit in 64 bits");
+                }
+            }
+            values[row] = value;
+        }
+
+        public long getLong(int row) {
+            return values[row];
+        }
+
+        public long[] getValues() {
+            return values;
+        }
+    }
+
+    /**
+     * Fixed width byte values (address, bytesN, function, topic hashes) packed back to back.
+     */
+    public static class FixedBytesColumn extends Column {
+        private final int skip;
+        private final int width;
+        private final byte[] data;
+
+        FixedBytesColumn(String name, SolidityType type, int rowCount, int skip, int width) {
+            super(name, type, rowCount);
+            this.skip = skip;
+            this.width = width;
+            this.data = new byte[rowCount * width];
+        }
+
+        @Override
+        protected void readValue(byte[] encoded, int offset, int row) {
+            System.arraycopy(encoded, offset + skip, data, row * width, width);
+        }
+
+        /**
+         * @return the number of bytes per row
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * @return the values of all rows packed back to back; row {@code i} starts at {@code i * getWidth()}
+         */
+        public byte[] getData() {
+            return data;
+        }
+
+        public byte[] getBytes(int row) {
+            return Arrays.copyOfRange(data, row * width, (row + 1) * width);
+        }
+    }
+
+    /**
+     * Integers wider than 64 bits stored as packed 32 byte big-endian words.
+     */
+    public static class WordColumn extends FixedBytesColumn {
+        private final boolean signed;
+
+        WordColumn(String name, SolidityType type, int rowCount) {
+            super(name, type, rowCount, 0, WORD_SIZE);
+            this.signed = !(type instanceof SolidityType.UnsignedIntType);
+        }
+
+        public BigInteger getBigInteger(int row) {
+            return signed
+                    ? new BigInteger(getData(), row * WORD_SIZE, WORD_SIZE)
+                    : new BigInteger(1, getData(), row * WORD_SIZE, WORD_SIZE);
+        }
+    }
+
+    /**
+     * Variable length values (bytes and string) stored as one data array plus row offsets.
+     */
+    public static class VarBytesColumn extends Column {
+        private final int[] offsets;
+        private byte[] data = new byte[64];
+        private int size;
+
+        VarBytesColumn(String name, SolidityType type, int rowCount) {
+            super(name, type, rowCount);
+            this.offsets = new int[rowCount + 1];
+        }
+
+        @Override
+        protected void readValue(byte[] encoded, int offset, int row) {
+            int length = AbiLayout.readOffset(encoded, offset);
+            if (length > encoded.length - offset - WORD_SIZE) {
+                throw new RuntimeException("Length " + length + " exceeds payload at position " + offset);
+            }
+            DecodeBudget.allocate(length);
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + length));
+            }
+            System.arraycopy(encoded, offset + WORD_SIZE, data, size, length);
+            size += length;
+            offsets[row + 1] = size;
+        }
+
+        @Override
+        void invalidate(int row) {
+            super.invalidate(row);
+            size = offsets[row];
+            offsets[row + 1] = size;
+        }
+
+        /**
+         * @return the start of each row within {@link #getData()}; row {@code i} ends at {@code getOffsets()[i + 1]}
+         */
+        public int[] getOffsets() {
+            return offsets;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public byte[] getBytes(int row) {
+            return Arrays.copyOfRange(data, offsets[row], offsets[row + 1]);
+        }
+
+        public String getString(int row) {
+            return new String(data, offsets[row], offsets[row + 1] - offsets[row], StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Fallback for arrays and tuples, holding the values produced by {@link SolidityType#decode(byte[], int)}.
+     */
+    public static class ObjectColumn extends Column {
+        private final Object[] values;
+
+        ObjectColumn(String name, SolidityType type, int rowCount) {
+            super(name, type, rowCount);
+            this.values = new Object[rowCount];
+        }
+
+        @Override
+        protected void readValue(byte[] encoded, int offset, int row) {
+            values[row] = getType().decode(encoded, offset);
+        }
+
+        @Override
+        void invalidate(int row) {
+            super.invalidate(row);
+            values[row] = null;
+        }
+
+        public Object getValue(int row) {
+            return values[row];
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.wkennedy.abi.columnar;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a columnar decode: one {@link Column} per param of the decoded entry, in declaration order.
+ */
+public class ColumnBatch {
+    private final String name;
+    private final int rowCount;
+    private final List<Column> columns;
+
+    public ColumnBatch(String name, int rowCount, List<Column> columns) {
+        this.name = name;
+        this.rowCount = rowCount;
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * @return the name of the decoded event or function
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public Column getColumn(int index) {
+        return columns.get(index);
+    }
+
+    /**
+     * @param name the param name
+     * @return the column of the param, or null if there is none
+     */
+    public Column getColumn(String name) {
+        for (Column column : columns) {
+            if (column.getName().equals(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param row the row
+     * @return true if every column of the row was decoded
+     */
+    public boolean isValid(int row) {
+        for (Column column : columns) {
+            if (!column.isValid(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
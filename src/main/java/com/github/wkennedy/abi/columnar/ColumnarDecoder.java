@@ -0,0 +1,215 @@
+package com.github.wkennedy.abi.columnar;
+
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.DecodeBudget;
+import com.github.wkennedy.abi.DecodeLimits;
+import com.github.wkennedy.abi.SolidityType;
+import com.github.wkennedy.abi.entry.AbiEntry;
+import com.github.wkennedy.abi.entry.AbiEvent;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.entry.AbiParam;
+import com.github.wkennedy.abi.models.Log;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * Decodes a batch of payloads of a single event or function into a {@link ColumnBatch} (struct of arrays) instead of
+ * one {@code DecodedLog}/{@code DecodedFunctions} per payload. The layout of the entry is resolved once per decoder,
+ * and values are copied from the encoded words straight into the column arrays.
+ * <p>
+ * A payload that cannot be decoded (wrong selector or topic 0, truncated data, bad offsets) leaves its row invalid in
+ * every column rather than failing the batch. Each payload is decoded under the {@link DecodeLimits} of the decoder,
+ * so one that exceeds them is invalid as well.
+ */
+public class ColumnarDecoder {
+    private static final int SELECTOR_LENGTH = 4;
+
+    private final AbiEntry entry;
+    private final boolean event;
+    private final boolean anonymous;
+    private final byte[] signature;
+    private final AbiLayout dataLayout;
+    // per input: index into the topics (after topic 0) for indexed inputs, -1 otherwise
+    private final int[] topicIndexes;
+    // per input: index into the data layout for non-indexed inputs, -1 otherwise
+    private final int[] dataIndexes;
+    private final boolean[] hashedTopics;
+    private DecodeLimits decodeLimits = DecodeLimits.DEFAULT;
+
+    private ColumnarDecoder(AbiEntry entry, boolean event) {
+        this.entry = entry;
+        this.event = event;
+        this.anonymous = event && Boolean.TRUE.equals(entry.anonymous);
+        this.signature = entry.encodeSignature();
+        int inputCount = entry.inputs.size();
+        this.topicIndexes = new int[inputCount];
+        this.dataIndexes = new int[inputCount];
+        this.hashedTopics = new boolean[inputCount];
+        List<AbiParam> dataInputs = new ArrayList<>();
+        int topicIndex = 0;
+        for (int i = 0; i < inputCount; i++) {
+            AbiParam input = entry.inputs.get(i);
+            if (event && Boolean.TRUE.equals(input.indexed)) {
+                topicIndexes[i] = topicIndex++;
+                dataIndexes[i] = -1;
+                hashedTopics[i] = input.type.isDynamicType() || input.type instanceof SolidityType.ArrayType
+                        || input.type instanceof SolidityType.TupleType;
+            } else {
+                topicIndexes[i] = -1;
+                dataIndexes[i] = dataInputs.size();
+                dataInputs.add(input);
+            }
+        }
+        this.dataLayout = event ? AbiParam.layoutOf(dataInputs) : entry.inputLayout();
+    }
+
+    /**
+     * @param event the event whose logs will be decoded
+     * @return a decoder for logs of the event
+     */
+    public static ColumnarDecoder forEvent(AbiEvent event) {
+        return new ColumnarDecoder(event, true);
+    }
+
+    /**
+     * @param function the function whose calldata will be decoded
+     * @return a decoder for calldata of the function
+     */
+    public static ColumnarDecoder forFunction(AbiFunction function) {
+        return new ColumnarDecoder(function, false);
+    }
+
+    /**
+     * Sets the limits applied to each payload of a batch.
+     *
+     * @param decodeLimits the limits, e.g. DecodeLimits.DEFAULT (the default) or DecodeLimits.UNLIMITED
+     */
+    public void setDecodeLimits(DecodeLimits decodeLimits) {
+        this.decodeLimits = Objects.requireNonNull(decodeLimits, "decodeLimits");
+    }
+
+    public DecodeLimits getDecodeLimits() {
+        return decodeLimits;
+    }
+
+    /**
+     * Decodes the calldata of a batch of calls to the function, selector included.
+     *
+     * @param calldata the calldata of each call
+     * @return one column per function input
+     */
+    public ColumnBatch decodeFunctions(List<byte[]> calldata) {
+        if (event) throw new RuntimeException("Decoder was created for event " + entry.name);
+        List<Column> columns = createColumns(calldata.size());
+        for (int row = 0; row < calldata.size(); row++) {
+            byte[] data = calldata.get(row);
+            if (data == null || data.length < SELECTOR_LENGTH || !Arrays.equals(data, 0, SELECTOR_LENGTH, signature, 0, SELECTOR_LENGTH)) {
+                invalidate(columns, row);
+                continue;
+            }
+            decodeRow(columns, row, null, data, SELECTOR_LENGTH);
+        }
+        return new ColumnBatch(entry.name, calldata.size(), columns);
+    }
+
+    /**
+     * Decodes a batch of logs of the event from raw topics and data.
+     *
+     * @param topics the topics of each log, topic 0 included unless the event is anonymous; null leaves the row invalid
+     * @param data   the data of each log; null leaves the row invalid
+     * @return one column per event input
+     */
+    public ColumnBatch decodeLogs(List<byte[][]> topics, List<byte[]> data) {
+        if (!event) throw new RuntimeException("Decoder was created for function " + entry.name);
+        if (topics.size() != data.size())
+            throw new RuntimeException("Topic count (" + topics.size() + ") != data count (" + data.size() + ")");
+        List<Column> columns = createColumns(data.size());
+        for (int row = 0; row < data.size(); row++) {
+            byte[][] rowTopics = topics.get(row);
+            if (rowTopics == null || data.get(row) == null
+                    || !anonymous && (rowTopics.length == 0 || !Arrays.equals(signature, rowTopics[0]))) {
+                invalidate(columns, row);
+                continue;
+            }
+            decodeRow(columns, row, rowTopics, data.get(row), 0);
+        }
+        return new ColumnBatch(entry.name, data.size(), columns);
+    }
+
+    /**
+     * Decodes a batch of logs of the event. A log whose topics or data aren't valid hex leaves its row invalid.
+     *
+     * @param logs the logs
+     * @return one column per event input
+     */
+    public ColumnBatch decodeLogs(Log... logs) {
+        List<byte[][]> topics = new ArrayList<>(logs.length);
+        List<byte[]> data = new ArrayList<>(logs.length);
+        for (Log log : logs) {
+            byte[][] logTopics = new byte[log.getTopics().size()][];
+            byte[] logData;
+            try {
+                for (int i = 0; i < logTopics.length; i++) {
+                    logTopics[i] = decodeHex(log.getTopics().get(i));
+                }
+                logData = decodeHex(log.getData());
+            } catch (DecoderException e) {
+                logTopics = null;
+                logData = null;
+            }
+            topics.add(logTopics);
+            data.add(logData);
+        }
+        return decodeLogs(topics, data);
+    }
+
+    private List<Column> createColumns(int rowCount) {
+        List<Column> columns = new ArrayList<>(entry.inputs.size());
+        for (int i = 0; i < entry.inputs.size(); i++) {
+            AbiParam input = entry.inputs.get(i);
+            columns.add(hashedTopics[i]
+                    ? Column.forHashedTopic(input.name, input.type, rowCount)
+                    : Column.forType(input.name, input.type, rowCount));
+        }
+        return columns;
+    }
+
+    private void decodeRow(List<Column> columns, int row, byte[][] topics, byte[] data, int dataOffset) {
+        int firstTopic = anonymous ? 0 : 1;
+        DecodeBudget budget = DecodeBudget.open(decodeLimits);
+        try {
+            for (int i = 0; i < columns.size(); i++) {
+                if (topicIndexes[i] >= 0) {
+                    byte[] topic = topics[firstTopic + topicIndexes[i]];
+                    if (topic.length != Column.WORD_SIZE) {
+                        throw new RuntimeException("Topic is not 32 bytes long: " + topic.length);
+                    }
+                    columns.get(i).read(topic, 0, row);
+                } else {
+                    columns.get(i).read(data, dataLayout.getValueOffset(data, dataOffset, dataIndexes[i]), row);
+                }
+            }
+        } catch (RuntimeException e) {
+            invalidate(columns, row);
+        } finally {
+            if (budget != null) budget.close();
+        }
+    }
+
+    private static void invalidate(List<Column> columns, int row) {
+        for (Column column : columns) {
+            column.invalidate(row);
+        }
+    }
+
+    private static byte[] decodeHex(String hex) throws DecoderException {
+        return Hex.decodeHex(hex.startsWith(HEX_PREFIX) ? hex.substring(2) : hex);
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.wkennedy.abi.compiled;
+
+import java.util.List;
+
+/**
+ * An ABI compiled ahead of time into straight-line decoders, e.g. by the {@code generateTestAbiDecoders} task.
+ * Register it with {@link com.github.wkennedy.abi.Decoder#addCompiledAbi(CompiledAbi)}; no JSON is parsed at runtime.
+ */
+public interface CompiledAbi {
+
+    /**
+     * @return the compiled functions of the ABI
+     */
+    List<CompiledFunction> functions();
+
+    /**
+     * @return the compiled events of the ABI
+     */
+    List<CompiledEvent> events();
+}
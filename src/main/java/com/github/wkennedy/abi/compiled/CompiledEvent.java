@@ -0,0 +1,43 @@
+package com.github.wkennedy.abi.compiled;
+
+import com.github.wkennedy.abi.models.Param;
+import com.github.wkennedy.abi.models.ParamNames;
+
+import java.util.List;
+
+/**
+ * An event decoder generated from an ABI definition, with its topic 0 and data offsets as constants.
+ */
+public interface CompiledEvent {
+
+    /**
+     * @return the event name
+     */
+    String name();
+
+    /**
+     * @return the canonical signature, e.g. 'Transfer(address,address,uint256)'
+     */
+    String signature();
+
+    /**
+     * @return the 32 byte topic 0, or null for an anonymous event
+     */
+    byte[] topic0();
+
+    /**
+     * Decodes a log of this event into the same params the runtime decoder produces. Indexed dynamic params are
+     * returned as their 32 byte topic hash.
+     *
+     * @param topics the topics, topic 0 included unless the event is anonymous
+     * @param data   the data
+     * @return the decoded params in declaration order
+     * @throws RuntimeException if topic 0 doesn't match or the log is malformed
+     */
+    List<Param> decodeParams(byte[][] topics, byte[] data);
+
+    /**
+     * @return the name to index table of the decoded params
+     */
+    ParamNames paramNames();
+}
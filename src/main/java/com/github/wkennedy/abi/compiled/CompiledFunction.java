@@ -0,0 +1,47 @@
+package com.github.wkennedy.abi.compiled;
+
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.models.Param;
+import com.github.wkennedy.abi.models.ParamNames;
+
+import java.util.List;
+
+/**
+ * A function decoder generated from an ABI definition, with its selector and argument offsets as constants.
+ */
+public interface CompiledFunction {
+
+    /**
+     * @return the function name
+     */
+    String name();
+
+    /**
+     * @return the canonical signature, e.g. 'transfer(address,uint256)'
+     */
+    String signature();
+
+    /**
+     * @return the 4 byte selector
+     */
+    byte[] selector();
+
+    /**
+     * Decodes calldata of this function into the same params the runtime decoder produces.
+     *
+     * @param calldata the calldata, selector included
+     * @return the decoded params in declaration order
+     * @throws RuntimeException if the selector doesn't match or the calldata is malformed
+     */
+    List<Param> decodeParams(byte[] calldata);
+
+    /**
+     * @return the name to index table of the decoded params
+     */
+    ParamNames paramNames();
+
+    /**
+     * @return the layout of the inputs, following the selector
+     */
+    AbiLayout layout();
+}
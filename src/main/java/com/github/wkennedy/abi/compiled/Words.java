@@ -0,0 +1,190 @@
+package com.github.wkennedy.abi.compiled;
+
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.SolidityType;
+import com.github.wkennedy.util.ByteUtil;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * Word level reads and writes used by generated decoders. All positions are absolute positions within the buffer.
+ */
+public final class Words {
+    private static final int WORD_SIZE = 32;
+    private static final int SELECTOR_LENGTH = 4;
+    private static final int ADDRESS_LENGTH = 20;
+
+    private Words() {
+    }
+
+    /**
+     * Creates a type from its name, populating the innermost tuple with the given components.
+     *
+     * @param name       the type name, e.g. 'uint256' or 'tuple[]'
+     * @param components the tuple components, if the type is a tuple or an array of tuples
+     * @return the type
+     */
+    public static SolidityType type(String name, SolidityType... components) {
+        SolidityType type = SolidityType.getType(name);
+        SolidityType inner = type;
+        while (inner instanceof SolidityType.ArrayType arrayType) {
+            inner = arrayType.getElementType();
+        }
+        if (inner instanceof SolidityType.TupleType tupleType) {
+            tupleType.getTypes().addAll(Arrays.asList(components));
+        }
+        return type;
+    }
+
+    /**
+     * Checks the selector and the minimum length of the calldata.
+     *
+     * @param calldata  the calldata
+     * @param selector  the expected selector
+     * @param minLength the length of the selector plus the head
+     * @throws RuntimeException if the calldata doesn't match
+     */
+    public static void checkSelector(byte[] calldata, int selector, int minLength) {
+        if (calldata.length < SELECTOR_LENGTH || readSelector(calldata) != selector)
+            throw new RuntimeException("Calldata is not a call to selector 0x" + String.format("%08x", selector));
+        if (calldata.length < minLength)
+            throw new RuntimeException("Calldata too short: " + calldata.length + " < " + minLength);
+    }
+
+    /**
+     * Checks topic 0 and the number of topics of a log.
+     *
+     * @param topics the topics
+     * @param topic0 the expected topic 0, or null for an anonymous event
+     * @param count  the expected number of topics
+     * @throws RuntimeException if the log doesn't match
+     */
+    public static void checkTopics(byte[][] topics, byte[] topic0, int count) {
+        if (topic0 != null && (topics.length == 0 || !Arrays.equals(topic0, topics[0])))
+            throw new RuntimeException("Log topic 0 doesn't match the event");
+        if (topics.length != count)
+            throw new RuntimeException("Expected " + count + " topics but the log has " + topics.length);
+    }
+
+    public static byte[] fromHex(String hex) {
+        try {
+            return Hex.decodeHex(hex.startsWith(HEX_PREFIX) ? hex.substring(2) : hex);
+        } catch (DecoderException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static int readSelector(byte[] calldata) {
+        return ((calldata[0] & 0xFF) << 24) | ((calldata[1] & 0xFF) << 16) | ((calldata[2] & 0xFF) << 8) | (calldata[3] & 0xFF);
+    }
+
+    public static byte[] selectorBytes(int selector) {
+        byte[] result = new byte[SELECTOR_LENGTH];
+        writeSelector(result, selector);
+        return result;
+    }
+
+    public static void writeSelector(byte[] target, int selector) {
+        target[0] = (byte) (selector >>> 24);
+        target[1] = (byte) (selector >>> 16);
+        target[2] = (byte) (selector >>> 8);
+        target[3] = (byte) selector;
+    }
+
+    public static BigInteger readUint(byte[] buffer, int position) {
+        if (position + WORD_SIZE > buffer.length) return new BigInteger(1, Arrays.copyOfRange(buffer, position, position + WORD_SIZE));
+        return new BigInteger(1, buffer, position, WORD_SIZE);
+    }
+
+    public static BigInteger readInt(byte[] buffer, int position) {
+        if (position + WORD_SIZE > buffer.length) return new BigInteger(Arrays.copyOfRange(buffer, position, position + WORD_SIZE));
+        return new BigInteger(buffer, position, WORD_SIZE);
+    }
+
+    /**
+     * Reads an address the way {@link SolidityType.AddressType#decode} does, including for words whose upper 12 bytes
+     * are not zero.
+     */
+    public static byte[] readAddress(byte[] buffer, int position) {
+        if (position + WORD_SIZE <= buffer.length) {
+            int start = position + WORD_SIZE - ADDRESS_LENGTH;
+            int i = position;
+            while (i < start && buffer[i] == 0) i++;
+            if (i == start) return Arrays.copyOfRange(buffer, start, position + WORD_SIZE);
+        }
+        return ByteUtil.bigIntegerToBytes(readInt(buffer, position), ADDRESS_LENGTH);
+    }
+
+    /**
+     * Reads a bool the way {@link SolidityType.BoolType#decode} does: only the low 32 bits of the word decide.
+     */
+    public static boolean readBool(byte[] buffer, int position) {
+        if (position + WORD_SIZE > buffer.length) {
+            buffer = Arrays.copyOfRange(buffer, position, position + WORD_SIZE);
+            position = 0;
+        }
+        for (int i = position + WORD_SIZE - Integer.BYTES; i < position + WORD_SIZE; i++) {
+            if (buffer[i] != 0) return true;
+        }
+        return false;
+    }
+
+    public static byte[] readWord(byte[] buffer, int position) {
+        return Arrays.copyOfRange(buffer, position, position + WORD_SIZE);
+    }
+
+    /**
+     * Resolves the position of a dynamic value from its offset word.
+     *
+     * @param buffer     the buffer
+     * @param base       the start of the encoding the offset is relative to
+     * @param headOffset the position of the offset word relative to {@code base}
+     * @return the absolute position of the value
+     */
+    public static int tail(byte[] buffer, int base, int headOffset) {
+        return base + AbiLayout.readOffset(buffer, base + headOffset);
+    }
+
+    public static void writeUint(byte[] target, int position, BigInteger value) {
+        if (value.signum() < 0) throw new RuntimeException("Wrong value for uint type: " + value);
+        System.arraycopy(ByteUtil.bigIntegerToBytes(value, WORD_SIZE), 0, target, position, WORD_SIZE);
+    }
+
+    public static void writeInt(byte[] target, int position, BigInteger value) {
+        System.arraycopy(ByteUtil.bigIntegerToBytesSigned(value, WORD_SIZE), 0, target, position, WORD_SIZE);
+    }
+
+    public static void writeAddress(byte[] target, int position, byte[] address) {
+        if (address.length != ADDRESS_LENGTH)
+            throw new RuntimeException("Invalid address (should be 20 bytes length): " + address.length);
+        System.arraycopy(address, 0, target, position + WORD_SIZE - ADDRESS_LENGTH, ADDRESS_LENGTH);
+    }
+
+    public static void writeBool(byte[] target, int position, boolean value) {
+        target[position + WORD_SIZE - 1] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * Encodes a static value of any type into its head position.
+     */
+    public static void write(byte[] target, int position, SolidityType type, Object value) {
+        byte[] encoded = type.encode(value);
+        System.arraycopy(encoded, 0, target, position, encoded.length);
+    }
+
+    /**
+     * Encodes calldata with the generic layout, for functions with dynamic arguments.
+     */
+    public static byte[] encode(int selector, AbiLayout layout, Object... args) {
+        byte[] encoded = layout.encode(Arrays.asList(args));
+        byte[] result = new byte[SELECTOR_LENGTH + encoded.length];
+        writeSelector(result, selector);
+        System.arraycopy(encoded, 0, result, SELECTOR_LENGTH, encoded.length);
+        return result;
+    }
+}
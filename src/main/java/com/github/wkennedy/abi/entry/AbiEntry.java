@@ -3,7 +3,9 @@ package com.github.wkennedy.abi.entry;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.web3j.crypto.Hash;
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.models.ParamNames;
+import com.github.wkennedy.util.Keccak256;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,6 +21,11 @@ public abstract class AbiEntry {
     public final AbiType type;
     public final Boolean payable;
 
+    private volatile AbiLayout inputLayout;
+    private volatile AbiLayout outputLayout;
+    private volatile ParamNames inputNames;
+    private volatile ParamNames outputNames;
+
     public AbiEntry(Boolean anonymous, Boolean constant, String name, List<AbiParam> inputs, List<AbiParam> outputs, AbiType type, Boolean payable) {
         this.anonymous = anonymous;
         this.constant = constant;
@@ -39,8 +46,64 @@ public abstract class AbiEntry {
         );
     }
 
+    /**
+     * The head/tail layout of the inputs, computed once and shared by encoding and decoding.
+     *
+     * @return the input layout
+     */
+    public AbiLayout inputLayout() {
+        AbiLayout result = inputLayout;
+        if (result == null) {
+            result = AbiParam.layoutOf(inputs);
+            inputLayout = result;
+        }
+        return result;
+    }
+
+    /**
+     * The head/tail layout of the outputs, computed once and shared by encoding and decoding.
+     *
+     * @return the output layout
+     */
+    public AbiLayout outputLayout() {
+        AbiLayout result = outputLayout;
+        if (result == null) {
+            result = AbiParam.layoutOf(outputs == null ? List.of() : outputs);
+            outputLayout = result;
+        }
+        return result;
+    }
+
+    /**
+     * The name to index table of the inputs, computed once and shared by every result decoded from this entry.
+     *
+     * @return the input names
+     */
+    public ParamNames inputNames() {
+        ParamNames result = inputNames;
+        if (result == null) {
+            result = ParamNames.of(inputs.stream().map(input -> input.name).toList());
+            inputNames = result;
+        }
+        return result;
+    }
+
+    /**
+     * The name to index table of the outputs, computed once and shared by every decoded result of this entry.
+     *
+     * @return the output names
+     */
+    public ParamNames outputNames() {
+        ParamNames result = outputNames;
+        if (result == null) {
+            result = outputs == null ? ParamNames.EMPTY : ParamNames.of(outputs.stream().map(output -> output.name).toList());
+            outputNames = result;
+        }
+        return result;
+    }
+
     public byte[] fingerprintSignature() {
-        return Hash.sha3(formatSignature().getBytes());
+        return Keccak256.hash(formatSignature().getBytes());
     }
 
     public byte[] encodeSignature() {
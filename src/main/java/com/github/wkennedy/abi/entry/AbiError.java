@@ -1,11 +1,16 @@
 package com.github.wkennedy.abi.entry;
 
+import com.github.wkennedy.abi.AbiLayout;
+
+import java.util.Arrays;
 import java.util.List;
 
 import static java.lang.String.format;
 import static org.apache.commons.lang3.StringUtils.join;
 
 public class AbiError extends AbiEntry {
+    private static final int SELECTOR_LENGTH = 4;
+
     public AbiError(String name, List<AbiParam> inputs) {
         super(null, null, name, inputs, null, AbiType.error, false);
     }
@@ -14,6 +19,56 @@ public class AbiError extends AbiEntry {
         return AbiParam.decodeList(inputs, encoded);
     }
 
+    /**
+     * @return the 4 byte selector revert data of this error starts with
+     */
+    public byte[] selector() {
+        return Arrays.copyOf(encodeSignature(), SELECTOR_LENGTH);
+    }
+
+    /**
+     * Decodes revert data of this error, reading the arguments in place after the selector.
+     *
+     * @param revertData the revert data, selector included
+     * @return the decoded arguments
+     * @throws RuntimeException if the data is malformed
+     */
+    public List<?> decodeRevert(byte[] revertData) {
+        return decodeRevert(revertData, 0);
+    }
+
+    /**
+     * Decodes revert data of this error that runs to the end of the buffer.
+     *
+     * @param buffer the buffer
+     * @param offset where the selector starts
+     * @return the decoded arguments
+     * @throws RuntimeException if the data is malformed
+     */
+    public List<?> decodeRevert(byte[] buffer, int offset) {
+        return decodeRevert(buffer, offset, buffer.length - offset);
+    }
+
+    /**
+     * Decodes revert data of this error embedded in a larger buffer, e.g. a multicall result. Nothing outside of the
+     * slice is read.
+     *
+     * @param buffer the buffer
+     * @param offset where the selector starts
+     * @param length the length of the revert data, selector included
+     * @return the decoded arguments
+     * @throws RuntimeException if the data is malformed or doesn't fit in the slice
+     */
+    public List<?> decodeRevert(byte[] buffer, int offset, int length) {
+        AbiLayout layout = inputLayout();
+        int invalid = length < SELECTOR_LENGTH ? offset
+                : layout.validateWithin(buffer, offset + SELECTOR_LENGTH, offset + length);
+        if (invalid != AbiLayout.VALID) {
+            throw new RuntimeException("Revert data of " + name + " is truncated or malformed at position " + invalid);
+        }
+        return AbiParam.decodeList(layout, buffer, offset + SELECTOR_LENGTH);
+    }
+
     @Override
     public String toString() {
         return format("error %s(%s);", name, join(inputs, ", "));
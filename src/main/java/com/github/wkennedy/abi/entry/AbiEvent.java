@@ -1,16 +1,20 @@
 package com.github.wkennedy.abi.entry;
 
+import com.github.wkennedy.abi.AbiLayout;
 import com.github.wkennedy.abi.SolidityType;
+import org.apache.commons.codec.binary.Hex;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
 import static java.lang.String.format;
 import static org.apache.commons.collections4.ListUtils.select;
 import static org.apache.commons.lang3.ArrayUtils.subarray;
 import static org.apache.commons.lang3.StringUtils.join;
 
 public class AbiEvent extends AbiEntry {
+    private volatile AbiLayout dataLayout;
 
     public AbiEvent(boolean anonymous, String name, List<AbiParam> inputs, List<AbiParam> outputs) {
         super(anonymous, null, name, inputs, outputs, AbiType.event, false);
@@ -44,6 +48,59 @@ public class AbiEvent extends AbiEntry {
             return indexedParam.type.decode(argTopic);
         }
     }
+    /**
+     * Encodes indexed argument values into the topics of a log filter. Topic 0 is the event signature unless the
+     * event is anonymous. A null value (or a value that is omitted at the end) matches any topic and is returned as
+     * null. Dynamic values, arrays and tuples are hashed the way the EVM stores them.
+     *
+     * @param indexedValues the values of the indexed inputs, in declaration order
+     * @return the topics
+     */
+    public byte[][] encodeTopics(Object... indexedValues) {
+        List<AbiParam> indexedParams = filteredInputs(true);
+        if (indexedValues.length > indexedParams.size())
+            throw new RuntimeException("Too many indexed values: " + indexedValues.length + " > " + indexedParams.size());
+        int first = anonymous ? 0 : 1;
+        byte[][] topics = new byte[first + indexedValues.length][];
+        if (!anonymous) {
+            topics[0] = encodeSignature();
+        }
+        for (int i = 0; i < indexedValues.length; i++) {
+            topics[first + i] = indexedValues[i] == null ? null : indexedParams.get(i).type.encodeTopic(indexedValues[i]);
+        }
+        return topics;
+    }
+
+    /**
+     * Encodes indexed argument values into 0x prefixed hex topics, e.g. for an {@code eth_getLogs} filter.
+     *
+     * @param indexedValues the values of the indexed inputs, in declaration order
+     * @return the topics, with null for wildcards
+     * @see #encodeTopics(Object...)
+     */
+    public List<String> encodeTopicsToHex(Object... indexedValues) {
+        byte[][] topics = encodeTopics(indexedValues);
+        List<String> result = new ArrayList<>(topics.length);
+        for (byte[] topic : topics) {
+            result.add(topic == null ? null : HEX_PREFIX + Hex.encodeHexString(topic));
+        }
+        return result;
+    }
+
+    /**
+     * The layout of the non-indexed inputs, i.e. of a log's data, computed once.
+     *
+     * @return the data layout
+     */
+    public AbiLayout dataLayout() {
+        AbiLayout result = dataLayout;
+        if (result == null) {
+            result = AbiParam.layoutOf(filteredInputs(false));
+            dataLayout = result;
+        }
+        return result;
+    }
+
     private List<AbiParam> filteredInputs(final boolean indexed) {
         return select(inputs, param -> param.indexed == indexed);
     }
@@ -1,17 +1,14 @@
 package com.github.wkennedy.abi.entry;
 
-import com.github.wkennedy.abi.SolidityType;
+import com.github.wkennedy.abi.AbiLayout;
 import com.github.wkennedy.util.ByteUtil;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Hex;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-import static com.github.wkennedy.abi.SolidityType.IntType.encodeInt;
 import static com.github.wkennedy.util.Constants.HEX_PREFIX;
 import static java.lang.String.format;
 import static org.apache.commons.lang3.ArrayUtils.subarray;
@@ -51,45 +48,23 @@ public class AbiFunction extends AbiEntry {
         return HEX_PREFIX + Hex.encodeHexString(methodBytes);
     }
 
-    private ImmutablePair<Integer, Integer> computeStaticSizeAndDynamicParams(Object... args) {
-        int staticSize = 0;
-        int dynamicCnt = 0;
-        for (int i = 0; i < args.length; i++) {
-            SolidityType inputType = inputs.get(i).type;
-            if (inputType.isDynamicType()) {
-                dynamicCnt++;
-            }
-            staticSize += inputType.getFixedSize();
-        }
-
-        return new ImmutablePair<>(staticSize, dynamicCnt);
+    /**
+     * Creates a precompiled calldata template whose arguments can be patched in place.
+     *
+     * @param fixedArgs the initial value of every argument
+     * @return the template
+     * @see CalldataTemplate
+     */
+    public CalldataTemplate template(Object... fixedArgs) {
+        return new CalldataTemplate(this, fixedArgs);
     }
 
     private byte[] encodeArguments(Object... args) {
         if (args.length > inputs.size())
             throw new RuntimeException("Too many arguments: " + args.length + " > " + inputs.size());
 
-        Pair<Integer, Integer> pair = computeStaticSizeAndDynamicParams(args);
-        int staticSize = pair.getKey();
-        int dynamicCnt = pair.getValue();
-
-        byte[][] encodedArgs = new byte[args.length + dynamicCnt][];
-
-        for (int curDynamicPtr = staticSize, curDynamicCnt = 0, i = 0; i < args.length; i++) {
-            Object arg = args[i];
-            SolidityType inputType = inputs.get(i).type;
-            if (inputType.isDynamicType()) {
-                byte[] dynBB = inputType.encode(arg);
-                encodedArgs[i] = encodeInt(curDynamicPtr);
-                encodedArgs[args.length + curDynamicCnt] = dynBB;
-                curDynamicCnt++;
-                curDynamicPtr += dynBB.length;
-            } else {
-                encodedArgs[i] = inputType.encode(arg);
-            }
-        }
-
-        return ByteUtil.merge(encodedArgs);
+        AbiLayout layout = args.length == inputs.size() ? inputLayout() : AbiParam.layoutOf(inputs.subList(0, args.length));
+        return layout.encode(Arrays.asList(args));
     }
 
     /**
@@ -100,7 +75,7 @@ public class AbiFunction extends AbiEntry {
      * @throws RuntimeException if the decoding fails
      */
     public List<?> decode(byte[] encoded) {
-        return AbiParam.decodeList(inputs, subarray(encoded, ENCODED_SIGN_LENGTH, encoded.length));
+        return AbiParam.decodeList(inputLayout(), encoded, ENCODED_SIGN_LENGTH);
     }
 
     /**
@@ -131,7 +106,10 @@ public class AbiFunction extends AbiEntry {
      * @return a List containing the decoded result
      */
     public List<?> decodeResult(byte[] encoded) {
-        return AbiParam.decodeList(outputs, encoded);
+        if (encoded == null || encoded.length == 0) {
+            return new ArrayList<>();
+        }
+        return AbiParam.decodeList(outputLayout(), encoded, 0);
     }
 
     /**
@@ -3,13 +3,13 @@ package com.github.wkennedy.abi.entry;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.AbiLayout;
 import com.github.wkennedy.abi.SolidityType;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import static com.github.wkennedy.abi.SolidityType.IntType.decodeInt;
 import static java.lang.String.format;
 
 @JsonDeserialize(converter = Abi.ParamSanitizer.class)  // invoked after class is fully deserialized
@@ -31,19 +31,33 @@ public class AbiParam {
     }
 
     public static List<?> decodeList(List<AbiParam> params, byte[] encoded) {
-        List<Object> result = new ArrayList<>(params.size());
+        return decodeList(layoutOf(params), encoded, 0);
+    }
 
-        int offset = 0;
-        for (AbiParam param : params) {
-            Object decoded = param.type.isDynamicType()
-                    ? param.type.decode(encoded, decodeInt(encoded, offset).intValue())
-                    : param.type.decode(encoded, offset);
-            result.add(decoded);
+    /**
+     * Decodes all values of the given layout into a mutable list.
+     *
+     * @param layout  the layout of the params
+     * @param encoded the buffer
+     * @param offset  the start of the encoded params within the buffer
+     * @return the decoded values
+     */
+    public static List<?> decodeList(AbiLayout layout, byte[] encoded, int offset) {
+        return new ArrayList<>(Arrays.asList(layout.decode(encoded, offset)));
+    }
 
-            offset += param.type.getFixedSize();
+    /**
+     * Computes the head/tail layout of the given params.
+     *
+     * @param params the params
+     * @return the layout
+     */
+    public static AbiLayout layoutOf(List<AbiParam> params) {
+        List<SolidityType> types = new ArrayList<>(params.size());
+        for (AbiParam param : params) {
+            types.add(param.type);
         }
-
-        return result;
+        return AbiLayout.of(types);
     }
 
     @Override
@@ -60,19 +74,14 @@ public class AbiParam {
     }
 
     public String getTypeDefinition() {
-        if (type instanceof SolidityType.TupleType) {
-            return "(" + components.stream()
-                    .map(Component::getType)
-                    .map(SolidityType::getCanonicalName)
-                    .collect(Collectors.joining(","))
-                    + ")";
-        }
-        return type.getCanonicalName();
+        return type.getTypeDefinition();
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class Component {
         private String name;
         private SolidityType type;
+        private List<Component> components;
 
         public Component() {
         }
@@ -97,5 +106,13 @@ public class AbiParam {
         public void setType(SolidityType type) {
             this.type = type;
         }
+
+        public List<Component> getComponents() {
+            return components;
+        }
+
+        public void setComponents(List<Component> components) {
+            this.components = components;
+        }
     }
 }
@@ -0,0 +1,209 @@
+package com.github.wkennedy.abi.entry;
+
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.SolidityType;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.util.Arrays;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * A precompiled calldata image for an {@link AbiFunction}. The selector and all arguments are encoded once; afterwards
+ * static arguments are patched in place (one 32 byte word per setter call) and dynamic tails are only re-encoded when
+ * a dynamic argument changes, so producing calldata is a copy of the image rather than a full encode.
+ * <p>
+ * Instances are not thread-safe; use {@link #copy()} to hand a template to another thread.
+ */
+public class CalldataTemplate {
+    private static final int SELECTOR_LENGTH = 4;
+    private static final int WORD_SIZE = 32;
+    private static final int ADDRESS_LENGTH = 20;
+
+    private final AbiLayout layout;
+    private final byte[][] tails;
+    private byte[] image;
+
+    CalldataTemplate(AbiFunction function, Object... args) {
+        if (args.length != function.inputs.size())
+            throw new RuntimeException("Template needs a value for every argument: " + args.length + " != " + function.inputs.size());
+        this.layout = function.inputLayout();
+        this.tails = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            if (layout.getType(i).isDynamicType()) {
+                tails[i] = layout.getType(i).encode(args[i]);
+            }
+        }
+        this.image = new byte[SELECTOR_LENGTH + layout.getHeadSize()];
+        System.arraycopy(function.encodeSignature(), 0, image, 0, SELECTOR_LENGTH);
+        for (int i = 0; i < args.length; i++) {
+            if (!layout.getType(i).isDynamicType()) {
+                writeStatic(i, layout.getType(i).encode(args[i]));
+            }
+        }
+        rebuildTails();
+    }
+
+    private CalldataTemplate(CalldataTemplate other) {
+        this.layout = other.layout;
+        this.tails = other.tails.clone();
+        this.image = other.image.clone();
+    }
+
+    /**
+     * Overwrites an unsigned (or signed) integer argument in place.
+     *
+     * @param index the argument index
+     * @param value the new value
+     * @return this template
+     */
+    public CalldataTemplate setUint(int index, long value) {
+        SolidityType type = staticType(index);
+        if (!(type instanceof SolidityType.NumericType numericType)
+                || type instanceof SolidityType.AddressType || type instanceof SolidityType.BoolType)
+            throw new RuntimeException("Argument " + index + " is not an integer: " + type);
+        if (!fits(numericType, value))
+            throw new RuntimeException("Value " + value + " doesn't fit " + type);
+        int offset = wordOffset(index);
+        Arrays.fill(image, offset, offset + WORD_SIZE - Long.BYTES, value < 0 ? (byte) 0xFF : 0);
+        for (int i = 0; i < Long.BYTES; i++) {
+            image[offset + WORD_SIZE - 1 - i] = (byte) (value >>> (8 * i));
+        }
+        return this;
+    }
+
+    /**
+     * Overwrites an address argument in place.
+     *
+     * @param index   the argument index
+     * @param address the 20 address bytes
+     * @return this template
+     */
+    public CalldataTemplate setAddress(int index, byte[] address) {
+        if (!(staticType(index) instanceof SolidityType.AddressType))
+            throw new RuntimeException("Argument " + index + " is not an address: " + staticType(index));
+        if (address.length != ADDRESS_LENGTH)
+            throw new RuntimeException("Invalid address (should be 20 bytes length): " + address.length);
+        int offset = wordOffset(index);
+        Arrays.fill(image, offset, offset + WORD_SIZE - ADDRESS_LENGTH, (byte) 0);
+        System.arraycopy(address, 0, image, offset + WORD_SIZE - ADDRESS_LENGTH, ADDRESS_LENGTH);
+        return this;
+    }
+
+    /**
+     * Overwrites an address argument in place.
+     *
+     * @param index   the argument index
+     * @param address the hex encoded address, with or without the 0x prefix
+     * @return this template
+     */
+    public CalldataTemplate setAddress(int index, String address) {
+        try {
+            return setAddress(index, Hex.decodeHex(address.startsWith(HEX_PREFIX) ? address.substring(2) : address));
+        } catch (DecoderException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Replaces an argument of any type. Static arguments are written in place; dynamic arguments re-encode only their
+     * own tail and shift the tails that follow.
+     *
+     * @param index the argument index
+     * @param value the new value
+     * @return this template
+     */
+    public CalldataTemplate set(int index, Object value) {
+        SolidityType type = layout.getType(index);
+        byte[] encoded = type.encode(value);
+        if (type.isDynamicType()) {
+            tails[index] = encoded;
+            rebuildTails();
+        } else {
+            writeStatic(index, encoded);
+        }
+        return this;
+    }
+
+    /**
+     * @return a copy of the current calldata
+     */
+    public byte[] toByteArray() {
+        return image.clone();
+    }
+
+    /**
+     * Copies the current calldata into the given buffer.
+     *
+     * @param target the buffer
+     * @param offset the position to copy to
+     * @return the number of bytes written
+     */
+    public int writeTo(byte[] target, int offset) {
+        System.arraycopy(image, 0, target, offset, image.length);
+        return image.length;
+    }
+
+    /**
+     * @return the current calldata as a 0x prefixed hex string
+     */
+    public String toHex() {
+        return HEX_PREFIX + Hex.encodeHexString(image);
+    }
+
+    /**
+     * @return the length of the current calldata in bytes
+     */
+    public int length() {
+        return image.length;
+    }
+
+    /**
+     * @return an independent copy of this template, e.g. for use on another thread
+     */
+    public CalldataTemplate copy() {
+        return new CalldataTemplate(this);
+    }
+
+    private SolidityType staticType(int index) {
+        SolidityType type = layout.getType(index);
+        if (type.isDynamicType())
+            throw new RuntimeException("Argument " + index + " is dynamic, use set(int, Object): " + type);
+        return type;
+    }
+
+    private static boolean fits(SolidityType.NumericType type, long value) {
+        int bits = type.getBitSize();
+        if (type instanceof SolidityType.UnsignedIntType) {
+            return value >= 0 && (bits >= Long.SIZE || value >>> bits == 0);
+        }
+        return bits >= Long.SIZE || (value >> (bits - 1)) == 0 || (value >> (bits - 1)) == -1;
+    }
+
+    private int wordOffset(int index) {
+        return SELECTOR_LENGTH + layout.getHeadOffset(index);
+    }
+
+    private void writeStatic(int index, byte[] encoded) {
+        System.arraycopy(encoded, 0, image, wordOffset(index), encoded.length);
+    }
+
+    private void rebuildTails() {
+        int headEnd = SELECTOR_LENGTH + layout.getHeadSize();
+        int totalSize = headEnd;
+        for (byte[] tail : tails) {
+            if (tail != null) totalSize += tail.length;
+        }
+        byte[] rebuilt = image.length == totalSize ? image : Arrays.copyOf(image, totalSize);
+        int tailOffset = headEnd;
+        for (int i = 0; i < tails.length; i++) {
+            if (tails[i] != null) {
+                AbiLayout.writeOffset(rebuilt, wordOffset(i), tailOffset - SELECTOR_LENGTH);
+                System.arraycopy(tails[i], 0, rebuilt, tailOffset, tails[i].length);
+                tailOffset += tails[i].length;
+            }
+        }
+        image = rebuilt;
+    }
+}
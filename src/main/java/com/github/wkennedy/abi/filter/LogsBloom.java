@@ -0,0 +1,88 @@
+package com.github.wkennedy.abi.filter;
+
+import com.github.wkennedy.util.Keccak256;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.util.Collection;
+import java.util.List;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * The 2048 bit bloom filter of a block header ({@code logsBloom}) or receipt. Every log adds its address and each
+ * of its topics: 3 bits taken from the low 11 bits of the first three byte pairs of the keccak hash of the item.
+ * <p>
+ * An instance holds the bit positions of a set of items, so testing a bloom for any of them hashes nothing.
+ */
+public final class LogsBloom {
+    public static final int BYTES = 256;
+
+    private final int[] positions;
+
+    private LogsBloom(int[] positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * @param items the items, e.g. topics or 20 byte addresses
+     * @return a matcher for blooms containing any of the items
+     */
+    public static LogsBloom anyOf(Collection<byte[]> items) {
+        int[] positions = new int[items.size() * 3];
+        int i = 0;
+        for (byte[] item : items) {
+            byte[] hash = Keccak256.hash(item);
+            for (int pair = 0; pair < 3; pair++) {
+                positions[i++] = ((hash[pair * 2] & 0x07) << 8) | (hash[pair * 2 + 1] & 0xFF);
+            }
+        }
+        return new LogsBloom(positions);
+    }
+
+    /**
+     * @param bloom a 256 byte bloom
+     * @return false if the bloom certainly contains none of the items
+     */
+    public boolean mightContainAny(byte[] bloom) {
+        if (bloom.length != BYTES) throw new IllegalArgumentException("A logs bloom is " + BYTES + " bytes, got " + bloom.length);
+        for (int i = 0; i < positions.length; i += 3) {
+            if (isSet(bloom, positions[i]) && isSet(bloom, positions[i + 1]) && isSet(bloom, positions[i + 2])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param bloom a 256 byte bloom as hex, with or without the 0x prefix
+     * @return false if the bloom certainly contains none of the items
+     */
+    public boolean mightContainAny(String bloom) {
+        return mightContainAny(decode(bloom));
+    }
+
+    /**
+     * Tests a single item without building a matcher.
+     *
+     * @param bloom a 256 byte bloom
+     * @param item  the item, e.g. a topic or a 20 byte address
+     * @return false if the bloom certainly doesn't contain the item
+     */
+    public static boolean mightContain(byte[] bloom, byte[] item) {
+        return anyOf(List.of(item)).mightContainAny(bloom);
+    }
+
+    private static boolean isSet(byte[] bloom, int position) {
+        // bit 0 is the lowest bit of the last byte
+        return (bloom[BYTES - 1 - (position >>> 3)] & (1 << (position & 7))) != 0;
+    }
+
+    private static byte[] decode(String bloom) {
+        try {
+            return Hex.decodeHex(bloom.startsWith(HEX_PREFIX) ? bloom.substring(HEX_PREFIX.length()) : bloom);
+        } catch (DecoderException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.github.wkennedy.abi.flow;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.DecodedFunctions;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+import com.github.wkennedy.abi.transaction.RawTransaction;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * A {@link Flow.Processor} that decodes items on an executor and publishes the results to a single subscriber.
+ * <p>
+ * At most {@code maxInFlight} items are requested from upstream that haven't been delivered downstream yet, so the
+ * items being decoded plus the results waiting for demand never exceed that bound; a slow subscriber throttles the
+ * publisher instead of filling the heap. Items with the same key are decoded one after another and delivered in the
+ * order they arrived; items with different keys, or a null key, are decoded in parallel and delivered as they
+ * complete.
+ * <p>
+ * A decode that returns null (an unknown selector or topic) publishes nothing. A decode that throws cancels upstream
+ * and fails the subscriber, as the exception would have failed a direct call.
+ *
+ * @param <T> the input type
+ * @param <R> the decoded type
+ */
+public class DecodeProcessor<T, R> implements Flow.Processor<T, R> {
+    private final Function<? super T, ? extends R> decode;
+    private final Function<? super T, ?> key;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    private final Map<Object, Lane> lanes = new HashMap<>();
+    private final Queue<R> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicLong replenish = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private volatile Flow.Subscriber<? super R> subscriber;
+    private volatile Flow.Subscription upstream;
+    private volatile boolean upstreamDone;
+    private volatile boolean cancelled;
+    private boolean terminated;
+    private boolean upstreamCancelled;
+
+    /**
+     * @param decode      decodes an item; a null result publishes nothing
+     * @param key         the ordering key of an item, e.g. its address; null keys are not ordered
+     * @param executor    runs the decodes
+     * @param maxInFlight the maximum number of items requested but not yet delivered
+     */
+    public DecodeProcessor(Function<? super T, ? extends R> decode, Function<? super T, ?> key, Executor executor, int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        this.decode = Objects.requireNonNull(decode, "decode");
+        this.key = Objects.requireNonNull(key, "key");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Decodes logs as {@link Decoder#decodeLogs} does, keeping the order of the logs of each address.
+     */
+    public static DecodeProcessor<Log, DecodedLog> logs(Decoder decoder, Executor executor, int maxInFlight) {
+        return new DecodeProcessor<>(log -> {
+            List<DecodedLog> decoded = decoder.decodeLogs(log);
+            return decoded.isEmpty() ? null : decoded.getFirst();
+        }, log -> log.getAddress() == null ? null : log.getAddress().toLowerCase(), executor, maxInFlight);
+    }
+
+    /**
+     * Decodes raw transactions as {@link Decoder#decodeTransaction(RawTransaction)} does, keeping the order of the
+     * transactions to each address.
+     */
+    public static DecodeProcessor<RawTransaction, DecodedFunctions> transactions(Decoder decoder, Executor executor, int maxInFlight) {
+        return new DecodeProcessor<>(decoder::decodeTransaction, RawTransaction::getTo, executor, maxInFlight);
+    }
+
+    /**
+     * Decodes calldata as {@link Decoder#decodeFunction(byte[])} does. Calldata carries no address, so results are
+     * delivered as they complete.
+     */
+    public static DecodeProcessor<byte[], DecodedFunctions> calldata(Decoder decoder, Executor executor, int maxInFlight) {
+        return new DecodeProcessor<>(decoder::decodeFunction, data -> null, executor, maxInFlight);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("DecodeProcessor supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    fail(new IllegalArgumentException("Non-positive request: " + n));
+                } else {
+                    demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+                    drain();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                drain();
+            }
+        });
+        this.subscriber = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        replenish.addAndGet(maxInFlight);
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(T item) {
+        Objects.requireNonNull(item, "item");
+        pending.incrementAndGet();
+        try {
+            Object itemKey = key.apply(item);
+            if (itemKey == null) {
+                executor.execute(() -> decode(item));
+                return;
+            }
+            synchronized (lanes) {
+                Lane lane = lanes.computeIfAbsent(itemKey, Lane::new);
+                lane.queue.add(item);
+                if (lane.running) return;
+                lane.running = true;
+                executor.execute(lane);
+            }
+        } catch (RuntimeException e) {
+            // a rejected execution or a failing key function
+            pending.decrementAndGet();
+            fail(e);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamDone = true;
+        fail(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void decode(T item) {
+        try {
+            if (error.get() == null && !cancelled) {
+                R result = decode.apply(item);
+                if (result != null) {
+                    ready.offer(result);
+                } else {
+                    replenish.incrementAndGet();
+                }
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            pending.decrementAndGet();
+        }
+        drain();
+    }
+
+    private void fail(Throwable throwable) {
+        error.compareAndSet(null, throwable);
+        drain();
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) return;
+        int missed = 1;
+        do {
+            Flow.Subscription up = upstream;
+            Flow.Subscriber<? super R> down = subscriber;
+            if (cancelled || terminated) {
+                ready.clear();
+                cancelUpstream(up);
+            } else if (down != null) {
+                long requested = demand.get();
+                long emitted = 0;
+                while (emitted != requested && error.get() == null && !cancelled) {
+                    R result = ready.poll();
+                    if (result == null) break;
+                    down.onNext(result);
+                    emitted++;
+                }
+                if (emitted > 0) {
+                    replenish.addAndGet(emitted);
+                    if (requested != Long.MAX_VALUE) demand.addAndGet(-emitted);
+                }
+                Throwable failure = error.get();
+                if (failure != null) {
+                    terminated = true;
+                    ready.clear();
+                    cancelUpstream(up);
+                    down.onError(failure);
+                } else if (upstreamDone && pending.get() == 0 && ready.isEmpty() && !cancelled) {
+                    terminated = true;
+                    down.onComplete();
+                }
+            }
+            if (up != null && !terminated && !cancelled && !upstreamDone) {
+                long n = replenish.getAndSet(0);
+                if (n > 0) up.request(n);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void cancelUpstream(Flow.Subscription up) {
+        if (up != null && !upstreamCancelled) {
+            upstreamCancelled = true;
+            up.cancel();
+        }
+    }
+
+    private final class Lane implements Runnable {
+        private final Object key;
+        private final ArrayDeque<T> queue = new ArrayDeque<>();
+        private boolean running;
+
+        private Lane(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                T item;
+                synchronized (lanes) {
+                    item = queue.poll();
+                    if (item == null) {
+                        running = false;
+                        lanes.remove(key);
+                        return;
+                    }
+                }
+                decode(item);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.wkennedy.abi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for the registration of an ABI with a decoder.
+ */
+@Name("com.github.wkennedy.abi.AddAbi")
+@Label("Add ABI")
+@Category({"JABI-EVM", "Registry"})
+@Description("Parsing and registration of an ABI")
+@Threshold("1 ms")
+@StackTrace(false)
+public class AddAbiEvent extends Event {
+    @Label("ABI")
+    public String abi;
+
+    @Label("Compiled")
+    @Description("True for an ABI compiled ahead of time, which isn't parsed")
+    public boolean compiled;
+
+    @Label("JSON Size")
+    @DataAmount
+    public int jsonSize;
+
+    @Label("Entries")
+    @Description("Functions and events registered")
+    public int entries;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,32 @@
+package com.github.wkennedy.abi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for a single {@code Decoder.decodeFunction} call, nested multicall decodes included.
+ */
+@Name("com.github.wkennedy.abi.DecodeFunction")
+@Label("Decode Function")
+@Category({"JABI-EVM", "Decoder"})
+@Description("Decoding of calldata by the ABI decoder")
+@Threshold("1 ms")
+@StackTrace(false)
+public class DecodeFunctionEvent extends Event {
+    @Label("Selector")
+    public String selector;
+
+    @Label("ABI")
+    @Description("The address or hash the ABI was registered under")
+    public String abi;
+
+    @Label("Payload Size")
+    @DataAmount
+    public int payloadSize;
+
+    @Label("Depth")
+    @Description("Multicall nesting depth, 0 for a top level call")
+    public int depth;
+
+    @Label("Outcome")
+    public String outcome;
+}
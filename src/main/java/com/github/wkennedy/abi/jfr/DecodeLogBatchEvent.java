@@ -0,0 +1,32 @@
+package com.github.wkennedy.abi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for a {@code Decoder.decodeLogs} call.
+ */
+@Name("com.github.wkennedy.abi.DecodeLogBatch")
+@Label("Decode Log Batch")
+@Category({"JABI-EVM", "Decoder"})
+@Description("Decoding of a batch of logs by the ABI decoder")
+@Threshold("1 ms")
+@StackTrace(false)
+public class DecodeLogBatchEvent extends Event {
+    @Label("Logs")
+    public int logs;
+
+    @Label("Decoded")
+    public int decoded;
+
+    @Label("Misses")
+    @Description("Logs whose topic 0 matched no registered event")
+    public int misses;
+
+    @Label("Payload Size")
+    @Description("Total size of the log data")
+    @DataAmount
+    public long payloadSize;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,27 @@
+package com.github.wkennedy.abi.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * JFR event for the expansion of the nested calls of a multicall.
+ */
+@Name("com.github.wkennedy.abi.MulticallExpansion")
+@Label("Multicall Expansion")
+@Category({"JABI-EVM", "Decoder"})
+@Description("Decoding of the calls nested in a multicall")
+@Threshold("1 ms")
+@StackTrace(false)
+public class MulticallExpansionEvent extends Event {
+    @Label("Selector")
+    public String selector;
+
+    @Label("ABI")
+    public String abi;
+
+    @Label("Nested Calls")
+    public int nestedCalls;
+
+    @Label("Depth")
+    @Description("Nesting depth of the nested calls")
+    public int depth;
+}
@@ -0,0 +1,14 @@
+package com.github.wkennedy.abi.jfr;
+
+/**
+ * Values of the outcome field of the decoder's JFR events.
+ */
+public final class Outcome {
+    public static final String DECODED = "decoded";
+    public static final String MISS = "miss";
+    public static final String FAILED = "failed";
+    public static final String INVALID = "invalid";
+
+    private Outcome() {
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.wkennedy.abi.metrics;
+
+/**
+ * Listener for decoder events. Register an implementation with
+ * {@link com.github.wkennedy.abi.Decoder#setMetrics(DecoderMetrics)}; when none is registered the decoder doesn't
+ * take timestamps or call out at all.
+ * <p>
+ * Keys are the hex encoded selector of a function or topic 0 of an event, without the 0x prefix. The ABI is the
+ * address (or hash) the ABI was registered under, or the class name of a compiled ABI. Implementations are called on
+ * the decoding thread and must be thread-safe and cheap. All methods default to doing nothing.
+ */
+public interface DecoderMetrics {
+
+    /**
+     * A function was decoded.
+     *
+     * @param selector    the selector
+     * @param abi         the ABI the function was found in
+     * @param payloadSize the calldata size in bytes
+     * @param depth       the nesting depth, 0 for a top level call and 1 or more for calls inside a multicall
+     * @param nanos       the decode time, nested calls included
+     */
+    default void functionDecoded(String selector, String abi, int payloadSize, int depth, long nanos) {
+    }
+
+    /**
+     * A log was decoded.
+     *
+     * @param topic0      topic 0 of the log
+     * @param abi         the ABI the event was found in
+     * @param payloadSize the data size in bytes
+     * @param nanos       the decode time
+     */
+    default void logDecoded(String topic0, String abi, int payloadSize, long nanos) {
+    }
+
+    /**
+     * No registered ABI has an entry for the key.
+     *
+     * @param key the selector or topic 0
+     */
+    default void registryMiss(String key) {
+    }
+
+    /**
+     * An entry was registered under a key that already belonged to an entry with a different signature, which it
+     * replaces.
+     *
+     * @param key               the selector or topic 0
+     * @param existingSignature the signature of the replaced entry
+     * @param newSignature      the signature of the new entry
+     */
+    default void collision(String key, String existingSignature, String newSignature) {
+    }
+
+    /**
+     * Decoding failed with an exception, which is rethrown to the caller.
+     *
+     * @param key   the selector or topic 0
+     * @param abi   the ABI the entry was found in
+     * @param error the exception
+     */
+    default void failure(String key, String abi, Throwable error) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.wkennedy.abi.metrics;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A point in time copy of the metrics recorded by {@link RecordingDecoderMetrics}.
+ */
+public class MetricsSnapshot {
+    private final List<KeyMetrics> entries;
+    private final Map<String, KeyMetrics> keys;
+    private final long collisions;
+
+    MetricsSnapshot(List<KeyMetrics> entries, long collisions) {
+        entries.sort(Comparator.comparing(KeyMetrics::key)
+                .thenComparing(KeyMetrics::abi, Comparator.nullsFirst(Comparator.naturalOrder())));
+        Map<String, KeyMetrics> byKey = new TreeMap<>();
+        Map<String, Set<String>> abisByKey = new HashMap<>();
+        for (KeyMetrics entry : entries) {
+            byKey.merge(entry.key(), entry, KeyMetrics::merge);
+            if (entry.abi() != null) abisByKey.computeIfAbsent(entry.key(), k -> new HashSet<>()).add(entry.abi());
+        }
+        // the summed metrics name the ABI only if the key was found in just one
+        byKey.replaceAll((key, sum) -> {
+            Set<String> abis = abisByKey.get(key);
+            return abis != null && abis.size() == 1 ? sum.withAbi(abis.iterator().next()) : sum;
+        });
+        this.entries = Collections.unmodifiableList(entries);
+        this.keys = Collections.unmodifiableMap(byKey);
+        this.collisions = collisions;
+    }
+
+    /**
+     * @return the metrics per selector / topic 0 (hex, without 0x prefix) and ABI, in key order
+     */
+    public List<KeyMetrics> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return the metrics per selector / topic 0 (hex, without 0x prefix), summed over the ABIs it was found in
+     */
+    public Map<String, KeyMetrics> getKeys() {
+        return keys;
+    }
+
+    /**
+     * @param key the selector or topic 0, with or without 0x prefix
+     * @return the metrics of the key summed over the ABIs it was found in, or null if nothing was recorded for it
+     */
+    public KeyMetrics get(String key) {
+        return keys.get(normalize(key));
+    }
+
+    /**
+     * @param key the selector or topic 0, with or without 0x prefix
+     * @param abi the ABI the entry was found in
+     * @return the metrics of the key within that ABI, or null if nothing was recorded for it
+     */
+    public KeyMetrics get(String key, String abi) {
+        String normalized = normalize(key);
+        for (KeyMetrics entry : entries) {
+            if (entry.key().equals(normalized) && Objects.equals(entry.abi(), abi)) return entry;
+        }
+        return null;
+    }
+
+    private static String normalize(String key) {
+        return key.startsWith("0x") ? key.substring(2).toLowerCase() : key.toLowerCase();
+    }
+
+    public long getDecodes() {
+        return keys.values().stream().mapToLong(KeyMetrics::decodes).sum();
+    }
+
+    public long getMisses() {
+        return keys.values().stream().mapToLong(KeyMetrics::misses).sum();
+    }
+
+    public long getFailures() {
+        return keys.values().stream().mapToLong(KeyMetrics::failures).sum();
+    }
+
+    public long getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * Metrics of one selector or topic 0.
+     *
+     * @param key         the selector or topic 0, or {@link RecordingDecoderMetrics#OVERFLOW_KEY} for misses past the cap
+     * @param abi         the ABI the entry was found in, null for misses and collisions, or when summed over
+     *                    several ABIs
+     * @param decodes     successful decodes
+     * @param misses      lookups that found no entry
+     * @param failures    decodes that threw
+     * @param collisions  registrations that replaced an entry with a different signature
+     * @param maxDepth    the deepest multicall nesting the entry was decoded at
+     * @param latency     decode time in nanoseconds
+     * @param payloadSize calldata or log data size in bytes
+     * @param depth       multicall nesting depth of function decodes
+     */
+    public record KeyMetrics(String key, String abi, long decodes, long misses, long failures, long collisions,
+                             long maxDepth, Histogram.Snapshot latency, Histogram.Snapshot payloadSize,
+                             Histogram.Snapshot depth) {
+
+        private KeyMetrics withAbi(String abi) {
+            return new KeyMetrics(key, abi, decodes, misses, failures, collisions, maxDepth, latency, payloadSize, depth);
+        }
+
+        private KeyMetrics merge(KeyMetrics other) {
+            return new KeyMetrics(key, null, decodes + other.decodes, misses + other.misses,
+                    failures + other.failures, collisions + other.collisions, Math.max(maxDepth, other.maxDepth),
+                    latency.merge(other.latency), payloadSize.merge(other.payloadSize), depth.merge(other.depth));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{entries=" + entries + ", collisions=" + collisions + '}';
+    }
+}
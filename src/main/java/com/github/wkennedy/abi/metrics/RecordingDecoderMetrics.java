@@ -0,0 +1,122 @@
+package com.github.wkennedy.abi.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link DecoderMetrics} that keeps counters and histograms per selector / topic 0 and ABI in memory. Counters are
+ * {@link LongAdder}s, so concurrent decoding threads don't contend on them; {@link #snapshot()} reads them without
+ * stopping the writers.
+ * <p>
+ * Registry misses are keyed by untrusted input, so only the first {@link #DEFAULT_MAX_MISS_KEYS} (or the configured
+ * number of) distinct keys are counted on their own; misses of any further key are counted under
+ * {@link #OVERFLOW_KEY}.
+ */
+public class RecordingDecoderMetrics implements DecoderMetrics {
+    public static final int DEFAULT_MAX_MISS_KEYS = 1024;
+    public static final String OVERFLOW_KEY = "other";
+
+    private final Map<StatsKey, KeyStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> misses = new ConcurrentHashMap<>();
+    private final LongAdder collisions = new LongAdder();
+    private final int maxMissKeys;
+
+    public RecordingDecoderMetrics() {
+        this(DEFAULT_MAX_MISS_KEYS);
+    }
+
+    /**
+     * @param maxMissKeys the number of distinct registry miss keys to count on their own
+     */
+    public RecordingDecoderMetrics(int maxMissKeys) {
+        if (maxMissKeys < 0) throw new IllegalArgumentException("maxMissKeys must not be negative: " + maxMissKeys);
+        this.maxMissKeys = maxMissKeys;
+    }
+
+    @Override
+    public void functionDecoded(String selector, String abi, int payloadSize, int depth, long nanos) {
+        KeyStats keyStats = stats(selector, abi);
+        keyStats.decodes.increment();
+        keyStats.latency.record(nanos);
+        keyStats.payloadSize.record(payloadSize);
+        keyStats.depth.record(depth);
+        keyStats.maxDepth.accumulate(depth);
+    }
+
+    @Override
+    public void logDecoded(String topic0, String abi, int payloadSize, long nanos) {
+        KeyStats keyStats = stats(topic0, abi);
+        keyStats.decodes.increment();
+        keyStats.latency.record(nanos);
+        keyStats.payloadSize.record(payloadSize);
+    }
+
+    @Override
+    public void registryMiss(String key) {
+        LongAdder counter = misses.get(key);
+        if (counter == null) {
+            // concurrent first misses may overshoot the cap by a few keys, which is harmless
+            counter = misses.computeIfAbsent(misses.size() < maxMissKeys ? key : OVERFLOW_KEY, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    @Override
+    public void collision(String key, String existingSignature, String newSignature) {
+        collisions.increment();
+        stats(key, null).collisions.increment();
+    }
+
+    @Override
+    public void failure(String key, String abi, Throwable error) {
+        stats(key, abi).failures.increment();
+    }
+
+    /**
+     * @return the current counters and histograms
+     */
+    public MetricsSnapshot snapshot() {
+        List<MetricsSnapshot.KeyMetrics> entries = new ArrayList<>();
+        stats.forEach((key, s) -> entries.add(new MetricsSnapshot.KeyMetrics(key.key(), key.abi(),
+                s.decodes.sum(), 0, s.failures.sum(), s.collisions.sum(), s.maxDepth.get(),
+                s.latency.snapshot(), s.payloadSize.snapshot(), s.depth.snapshot())));
+        misses.forEach((key, count) -> entries.add(new MetricsSnapshot.KeyMetrics(key, null, 0, count.sum(), 0, 0, 0,
+                Histogram.EMPTY, Histogram.EMPTY, Histogram.EMPTY)));
+        return new MetricsSnapshot(entries, collisions.sum());
+    }
+
+    /**
+     * Clears all counters and histograms.
+     */
+    public void reset() {
+        stats.clear();
+        misses.clear();
+        collisions.reset();
+    }
+
+    private KeyStats stats(String key, String abi) {
+        StatsKey statsKey = new StatsKey(key, abi);
+        KeyStats keyStats = stats.get(statsKey);
+        if (keyStats == null) {
+            keyStats = stats.computeIfAbsent(statsKey, k -> new KeyStats());
+        }
+        return keyStats;
+    }
+
+    private record StatsKey(String key, String abi) {
+    }
+
+    private static final class KeyStats {
+        private final LongAdder decodes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder collisions = new LongAdder();
+        private final LongAccumulator maxDepth = new LongAccumulator(Long::max, 0);
+        private final Histogram latency = new Histogram();
+        private final Histogram payloadSize = new Histogram();
+        private final Histogram depth = new Histogram();
+    }
+}
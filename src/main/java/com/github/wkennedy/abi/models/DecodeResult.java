@@ -0,0 +1,65 @@
+package com.github.wkennedy.abi.models;
+
+import java.util.function.Function;
+
+/**
+ * The outcome of a decode that does not throw on bad input: the decoded value, an unknown selector, or malformed
+ * input with where it went wrong. Failures are plain values, so rejecting garbage costs no exception and no stack
+ * trace.
+ *
+ * @param <T> the type of the decoded value
+ */
+public sealed interface DecodeResult<T> {
+
+    /**
+     * The input was decoded.
+     *
+     * @param value the decoded value
+     */
+    record Success<T>(T value) implements DecodeResult<T> {
+    }
+
+    /**
+     * No registered ABI has an entry for the selector.
+     *
+     * @param selector the 0x prefixed selector
+     */
+    record UnknownSelector<T>(String selector) implements DecodeResult<T> {
+    }
+
+    /**
+     * The input doesn't match the entry its selector resolved to.
+     *
+     * @param selector   the 0x prefixed selector, or null if the input is too short or not valid hex
+     * @param paramIndex the index of the param that failed, or -1 if no single param is at fault
+     * @param offset     the position of the offending word within the input, or -1 if unknown
+     * @param reason     what went wrong
+     */
+    record Malformed<T>(String selector, int paramIndex, int offset, String reason) implements DecodeResult<T> {
+    }
+
+    /**
+     * @return true if the input was decoded
+     */
+    default boolean isSuccess() {
+        return this instanceof Success;
+    }
+
+    /**
+     * @return the decoded value, or null if decoding failed
+     */
+    default T orNull() {
+        return this instanceof Success<T> success ? success.value() : null;
+    }
+
+    /**
+     * Transforms the decoded value, passing failures through unchanged.
+     *
+     * @param mapper the transformation
+     * @return the transformed result
+     */
+    @SuppressWarnings("unchecked")
+    default <R> DecodeResult<R> map(Function<? super T, ? extends R> mapper) {
+        return this instanceof Success<T> success ? new Success<>(mapper.apply(success.value())) : (DecodeResult<R>) this;
+    }
+}
@@ -10,6 +10,7 @@ public class DecodedFunctions {
 
     private String name;
     private List<Param> params;
+    private ParamNames names;
     private List<DecodedFunctions> nestedDecodedFunctions;
 
     public DecodedFunctions() {
@@ -21,6 +22,14 @@ public class DecodedFunctions {
         nestedDecodedFunctions = new ArrayList<>();
     }
 
+    /**
+     * @param names the name table of the function, shared by all calls decoded from it
+     */
+    public DecodedFunctions(String name, List<Param> params, ParamNames names) {
+        this(name, params);
+        this.names = names;
+    }
+
     public String getName() {
         return name;
     }
@@ -39,10 +48,19 @@ public class DecodedFunctions {
 
     public void setParams(List<Param> params) {
         this.params = params;
+        this.names = null;
     }
 
+    /**
+     * @param name the param name
+     * @return the first param with the name, or null if there is none
+     */
     public Param getParam(String name) {
-        return params.stream().filter(p -> p.getName().equals(name)).findFirst().orElse(null);
+        return ParamNames.find(names, params, name);
+    }
+
+    public Param getParam(int index) {
+        return params.get(index);
     }
 
     public List<DecodedFunctions> getNestedDecodedFunctions() {
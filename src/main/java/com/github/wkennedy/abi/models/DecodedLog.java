@@ -6,6 +6,7 @@ public class DecodedLog {
     private String name;
     private String address;
     private List<Param> events;
+    private ParamNames names;
 
     public DecodedLog() {
     }
@@ -16,6 +17,14 @@ public class DecodedLog {
         this.events = events;
     }
 
+    /**
+     * @param names the name table of the event, shared by all logs decoded from it
+     */
+    public DecodedLog(String name, String address, List<Param> events, ParamNames names) {
+        this(name, address, events);
+        this.names = names;
+    }
+
     public String getName() {
         return name;
     }
@@ -38,15 +47,28 @@ public class DecodedLog {
 
     public void setEvents(List<Param> events) {
         this.events = events;
+        this.names = null;
     }
 
     public Param getEvent(String name) {
-        return Optional.ofNullable(events)
-                .flatMap(eventList ->
-                        eventList.stream().filter(event -> event.getName().equals(name)).findFirst())
-                .orElse(null);
+        return getParam(name);
+    }
+
+    /**
+     * @param name the param name
+     * @return the first param with the name, or null if there is none
+     */
+    public Param getParam(String name) {
+        return ParamNames.find(names, events, name);
+    }
+
+    public Param getParam(int index) {
+        return events.get(index);
     }
 
+    /**
+     * @return a new mutable map of the params keyed by name; when a name occurs more than once the last param wins
+     */
     public Map<String, Param> getEventsMap() {
         Map<String, Param> eventsMap = new HashMap<>();
         if (events != null) {
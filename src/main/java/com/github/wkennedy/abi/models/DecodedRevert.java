@@ -0,0 +1,132 @@
+package com.github.wkennedy.abi.models;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The decoded revert data of a failed call: a custom error, or one of the built-in {@code Error(string)} and
+ * {@code Panic(uint256)}.
+ */
+public class DecodedRevert {
+    public static final String ERROR = "Error";
+    public static final String PANIC = "Panic";
+
+    private static final Map<Integer, String> PANIC_DESCRIPTIONS = Map.of(
+            0x00, "Generic compiler inserted panic",
+            0x01, "Assertion failed",
+            0x11, "Arithmetic operation overflowed or underflowed",
+            0x12, "Division or modulo by zero",
+            0x21, "Conversion to an invalid enum value",
+            0x22, "Access to an incorrectly encoded storage byte array",
+            0x31, "pop() on an empty array",
+            0x32, "Array index out of bounds",
+            0x41, "Too much memory allocated or array too large",
+            0x51, "Call to a zero-initialized internal function variable"
+    );
+
+    private String name;
+    private String signature;
+    private List<Param> params;
+    private ParamNames names;
+
+    public DecodedRevert() {
+    }
+
+    public DecodedRevert(String name, String signature, List<Param> params, ParamNames names) {
+        this.name = name;
+        this.signature = signature;
+        this.params = params;
+        this.names = names;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the canonical signature, e.g. 'Error(string)'
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    public void setSignature(String signature) {
+        this.signature = signature;
+    }
+
+    public List<Param> getParams() {
+        return params;
+    }
+
+    public void setParams(List<Param> params) {
+        this.params = params;
+        this.names = null;
+    }
+
+    public Param getParam(String name) {
+        return ParamNames.find(names, params, name);
+    }
+
+    public Param getParam(int index) {
+        return params.get(index);
+    }
+
+    public boolean isError() {
+        return "Error(string)".equals(signature);
+    }
+
+    public boolean isPanic() {
+        return "Panic(uint256)".equals(signature);
+    }
+
+    /**
+     * @return the message of an {@code Error(string)}, the description of a {@code Panic(uint256)} code, or null for
+     * custom errors
+     */
+    public String getReason() {
+        if (isError()) return (String) params.getFirst().getRawValue();
+        if (isPanic()) return describePanic((BigInteger) params.getFirst().getRawValue());
+        return null;
+    }
+
+    /**
+     * @param code a panic code
+     * @return what the Solidity compiler raises the code for
+     */
+    public static String describePanic(BigInteger code) {
+        String description = code.bitLength() < 32 ? PANIC_DESCRIPTIONS.get(code.intValue()) : null;
+        return description != null ? description : "Unknown panic code 0x" + code.toString(16);
+    }
+
+    @Override
+    public String toString() {
+        return "DecodedRevert{" +
+                "name='" + name + '\'' +
+                ", signature='" + signature + '\'' +
+                ", params=" + params +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        DecodedRevert that = (DecodedRevert) o;
+        return Objects.equals(name, that.name) && Objects.equals(signature, that.signature) && Objects.equals(params, that.params);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(name);
+        result = 31 * result + Objects.hashCode(signature);
+        result = 31 * result + Objects.hashCode(params);
+        return result;
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.wkennedy.abi.models;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A param whose raw value is decoded on first access, e.g. a non-indexed param of a log decoded from its topics only.
+ * A malformed value surfaces as a RuntimeException from the first {@link #getRawValue()} or {@link #getValue()} call.
+ * <p>
+ * Sources that are equal decode to the same value, so unresolved params with equal sources compare equal without
+ * decoding.
+ */
+public class DeferredParam extends Param {
+    private final Supplier<Object> source;
+    private volatile boolean resolved;
+
+    /**
+     * @param name      the param name
+     * @param type      the Solidity type name
+     * @param source    decodes the raw value; called at most once unless two threads race on the first access
+     * @param formatter renders the display value on first access
+     */
+    public DeferredParam(String name, String type, Supplier<Object> source, ValueFormatter formatter) {
+        super(name, type, null, formatter);
+        this.source = Objects.requireNonNull(source, "source");
+    }
+
+    /**
+     * @return true once the raw value has been decoded
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    @Override
+    public Object getRawValue() {
+        if (!resolved) {
+            super.setRawValue(source.get());
+            resolved = true;
+        }
+        return super.getRawValue();
+    }
+
+    @Override
+    Object deferredSource() {
+        return resolved ? null : source;
+    }
+
+    @Override
+    public void setRawValue(Object rawValue) {
+        super.setRawValue(rawValue);
+        resolved = true;
+    }
+}
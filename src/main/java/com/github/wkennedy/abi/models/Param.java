@@ -3,13 +3,20 @@ package com.github.wkennedy.abi.models;
 import java.util.Arrays;
 import java.util.Objects;
 
-import com.github.wkennedy.util.ByteUtil;
-
+/**
+ * A decoded param. Only the raw decoded value is kept; the display value is rendered by the param's
+ * {@link ValueFormatter} on the first {@link #getValue()} call and memoized. A value set with {@link #setValue} is
+ * kept as is, also when the raw value changes afterwards.
+ */
 public class Param {
+    private static final Object UNRENDERED = new Object();
+
     private String name;
     private String type;
-    private Object value;
+    private Object value = UNRENDERED;
+    private boolean valueSet;
     private Object rawValue;
+    private ValueFormatter formatter = ValueFormatter.HEX;
 
     public Param() {
     }
@@ -18,7 +25,17 @@ public class Param {
         this.name = name;
         this.type = type;
         this.rawValue = value;
-        this.value = ByteUtil.convertValue(value);
+    }
+
+    /**
+     * @param name      the param name
+     * @param type      the Solidity type name
+     * @param value     the raw decoded value
+     * @param formatter renders the display value on first access
+     */
+    public Param(String name, String type, Object value, ValueFormatter formatter) {
+        this(name, type, value);
+        this.formatter = formatter;
     }
 
     public String getName() {
@@ -37,12 +54,21 @@ public class Param {
         this.type = type;
     }
 
+    /**
+     * @return the display form of the value, rendered on first access
+     */
     public Object getValue() {
-        return value;
+        Object result = value;
+        if (result == UNRENDERED) {
+            result = formatter.format(type, getRawValue());
+            value = result;
+        }
+        return result;
     }
 
     public void setValue(Object value) {
         this.value = value;
+        this.valueSet = true;
     }
 
     public Object getRawValue() {
@@ -51,6 +77,9 @@ public class Param {
 
     public void setRawValue(Object rawValue) {
         this.rawValue = rawValue;
+        if (!valueSet) {
+            this.value = UNRENDERED;
+        }
     }
 
     @Override
@@ -58,30 +87,48 @@ public class Param {
         return "Param{" +
                 "name='" + name + '\'' +
                 ", type='" + type + '\'' +
-                ", value=" + value +
+                ", value=" + getValue() +
                 '}';
     }
 
     public String toDisplayString() {
+        Object value = getValue();
         String valueString = value == null ? "null" : (value.getClass().isArray() ? Arrays.toString((Object[]) value) : value.toString());
         return this.getClass().getName() + "(name=" + this.name + ", type=" + this.getType() + ", value=" + valueString + ")";
     }
 
+    /**
+     * Params are equal when their name, type, value and raw value are, so a {@link DeferredParam} equals the Param
+     * decoded eagerly from the same log. Two unresolved deferred params of the same data are equal without decoding
+     * it, and a value that fails to decode makes the params unequal rather than throwing.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-
-        Param param = (Param) o;
-        return Objects.equals(name, param.name) && Objects.equals(type, param.type) && Objects.equals(value, param.value) && Objects.equals(rawValue, param.rawValue);
+        if (!(o instanceof Param param)) return false;
+        if (!Objects.equals(name, param.name) || !Objects.equals(type, param.type)) return false;
+
+        Object source = deferredSource();
+        if (source != null && source.equals(param.deferredSource())) return true;
+        try {
+            return Objects.equals(getValue(), param.getValue()) && Objects.equals(getRawValue(), param.getRawValue());
+        } catch (RuntimeException e) {
+            return false;
+        }
     }
 
+    /**
+     * Hashes the name and type only, so that hashing never decodes a {@link DeferredParam}.
+     */
     @Override
     public int hashCode() {
-        int result = Objects.hashCode(name);
-        result = 31 * result + Objects.hashCode(type);
-        result = 31 * result + Objects.hashCode(value);
-        result = 31 * result + Objects.hashCode(rawValue);
-        return result;
+        return 31 * Objects.hashCode(name) + Objects.hashCode(type);
+    }
+
+    /**
+     * @return what the raw value is still to be decoded from, or null if it is known
+     */
+    Object deferredSource() {
+        return null;
     }
 }
@@ -0,0 +1,76 @@
+package com.github.wkennedy.abi.models;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable name to index table for the params of one ABI entry. It is computed once per entry and shared by
+ * every {@link DecodedFunctions} and {@link DecodedLog} decoded from it, so looking a param up by name needs neither a
+ * scan nor a per-result map. When a name occurs more than once, the first occurrence wins.
+ */
+public final class ParamNames {
+    public static final ParamNames EMPTY = new ParamNames(new String[0]);
+
+    private final String[] names;
+    private final Map<String, Integer> indices;
+
+    private ParamNames(String[] names) {
+        this.names = names;
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) indices.putIfAbsent(names[i], i);
+        }
+        this.indices = Map.copyOf(indices);
+    }
+
+    public static ParamNames of(String... names) {
+        return names.length == 0 ? EMPTY : new ParamNames(names.clone());
+    }
+
+    public static ParamNames of(List<String> names) {
+        return names.isEmpty() ? EMPTY : new ParamNames(names.toArray(new String[0]));
+    }
+
+    /**
+     * @param name the param name
+     * @return the index of the first param with the name, or -1 if there is none
+     */
+    public int indexOf(String name) {
+        if (name == null) return -1;
+        Integer index = indices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Looks a param up by name. The table is only trusted when it was built for the given list, otherwise the list is
+     * scanned.
+     *
+     * @param names  the table, may be null
+     * @param params the params, may be null
+     * @param name   the param name
+     * @return the first param with the name, or null if there is none
+     */
+    static Param find(ParamNames names, List<Param> params, String name) {
+        if (params == null) return null;
+        if (names != null && names.size() == params.size()) {
+            int index = names.indexOf(name);
+            if (index < 0) return null;
+            Param param = params.get(index);
+            if (Objects.equals(param.getName(), name)) return param;
+        }
+        for (Param param : params) {
+            if (Objects.equals(param.getName(), name)) return param;
+        }
+        return null;
+    }
+}
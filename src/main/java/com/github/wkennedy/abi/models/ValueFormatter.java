@@ -0,0 +1,75 @@
+package com.github.wkennedy.abi.models;
+
+import com.github.wkennedy.util.ByteUtil;
+
+import java.math.BigInteger;
+
+/**
+ * Renders the raw decoded value of a {@link Param} into its display form. The formatter is applied lazily, on the
+ * first {@link Param#getValue()} call, so params that are never displayed are never rendered.
+ */
+@FunctionalInterface
+public interface ValueFormatter {
+
+    /**
+     * byte[] values (addresses, bytes, bytesN) as 0x hex strings, also one level deep inside arrays and tuples;
+     * everything else as decoded. This is the default.
+     */
+    ValueFormatter HEX = (type, value) -> ByteUtil.convertValue(value);
+
+    /**
+     * Like {@link #HEX}, but addresses and address arrays are rendered with the EIP-55 mixed case checksum.
+     */
+    ValueFormatter CHECKSUM_ADDRESSES = (type, value) -> {
+        if (isAddress(type) && value instanceof byte[] address) {
+            return ByteUtil.toChecksumAddress(address);
+        }
+        if (isAddress(elementType(type)) && value instanceof Object[] array) {
+            Object[] rendered = new Object[array.length];
+            for (int i = 0; i < array.length; i++) {
+                rendered[i] = array[i] instanceof byte[] address ? ByteUtil.toChecksumAddress(address) : array[i];
+            }
+            return rendered;
+        }
+        return ByteUtil.convertValue(value);
+    };
+
+    /**
+     * Everything as strings: integers in decimal, addresses checksummed, other byte[] values as 0x hex and arrays
+     * rendered recursively. Booleans stay booleans.
+     */
+    ValueFormatter STRINGS = ValueFormatter::renderString;
+
+    /**
+     * @param type  the Solidity type name of the param, e.g. 'address' or 'uint256[]'
+     * @param value the raw decoded value
+     * @return the display form of the value
+     */
+    Object format(String type, Object value);
+
+    private static Object renderString(String type, Object value) {
+        if (value instanceof byte[] bytes) {
+            return isAddress(type) && bytes.length == 20 ? ByteUtil.toChecksumAddress(bytes) : ByteUtil.convertValue(bytes);
+        }
+        if (value instanceof BigInteger number) {
+            return number.toString();
+        }
+        if (value instanceof Object[] array) {
+            String elementType = elementType(type);
+            Object[] rendered = new Object[array.length];
+            for (int i = 0; i < array.length; i++) {
+                rendered[i] = renderString(elementType, array[i]);
+            }
+            return rendered;
+        }
+        return value;
+    }
+
+    private static boolean isAddress(String type) {
+        return "address".equals(type);
+    }
+
+    private static String elementType(String type) {
+        return type != null && type.endsWith("]") ? type.substring(0, type.lastIndexOf('[')) : null;
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.wkennedy.abi.multicall;
+
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.models.DecodedRevert;
+import com.github.wkennedy.abi.models.Param;
+import com.github.wkennedy.abi.models.ParamNames;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The result of one call of a multicall batch: the decoded outputs of a successful call, or the decoded revert of a
+ * failed one. A result that can't be decoded carries the failure instead of failing the batch.
+ */
+public class CallResult {
+    private final int index;
+    private final AbiFunction function;
+    private final boolean success;
+    private final List<Param> outputs;
+    private final DecodedRevert revert;
+    private final RuntimeException failure;
+    private final byte[] buffer;
+    private final int offset;
+    private final int length;
+
+    CallResult(int index, AbiFunction function, boolean success, List<Param> outputs, DecodedRevert revert,
+               RuntimeException failure, byte[] buffer, int offset, int length) {
+        this.index = index;
+        this.function = function;
+        this.success = success;
+        this.outputs = outputs;
+        this.revert = revert;
+        this.failure = failure;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return the position of the call in the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public AbiFunction getFunction() {
+        return function;
+    }
+
+    /**
+     * @return whether the call succeeded on chain
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * @return the decoded outputs of a successful call, or null
+     */
+    public List<Param> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     * @param name the output name
+     * @return the first output with the name, or null
+     */
+    public Param getOutput(String name) {
+        if (outputs == null) return null;
+        ParamNames names = function.outputNames();
+        int index = names.indexOf(name);
+        return index < 0 || index >= outputs.size() ? null : outputs.get(index);
+    }
+
+    public Param getOutput(int index) {
+        return outputs.get(index);
+    }
+
+    /**
+     * @return the decoded revert of a failed call, or null if the call succeeded, reverted without data or with an
+     * unknown error
+     */
+    public DecodedRevert getRevert() {
+        return revert;
+    }
+
+    /**
+     * @return why the return data couldn't be decoded, or null
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return a copy of the raw return data of the call
+     */
+    public byte[] getReturnData() {
+        return Arrays.copyOfRange(buffer, offset, offset + length);
+    }
+
+    @Override
+    public String toString() {
+        return "CallResult{" +
+                "index=" + index +
+                ", function='" + (function == null ? null : function.name) + '\'' +
+                ", success=" + success +
+                ", outputs=" + outputs +
+                ", revert=" + revert +
+                ", failure=" + failure +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.wkennedy.abi.multicall;
+
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.models.DecodedRevert;
+import com.github.wkennedy.abi.models.Param;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * Decodes the return data of a Multicall3 {@code aggregate3}, {@code aggregate3Value} or {@code tryAggregate} call,
+ * i.e. an encoded {@code (bool success, bytes returnData)[]}, given the inner functions in the order they were
+ * called.
+ * <p>
+ * The outer array is walked in place and every inner result is decoded straight from its slice of the buffer, with
+ * the outputs of its function on success and through the decoder's error registry on failure. Nothing is copied
+ * and no hex is produced along the way.
+ */
+public class Multicall3ResultDecoder {
+    private static final int WORD_SIZE = 32;
+
+    private final Decoder decoder;
+
+    /**
+     * @param decoder resolves the reverts of failed calls and decodes the outputs of successful ones
+     */
+    public Multicall3ResultDecoder(Decoder decoder) {
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+    }
+
+    /**
+     * @param returnData the return data of the multicall
+     * @param calls      the inner functions, in call order
+     * @return one result per call, in call order
+     * @throws RuntimeException if the outer array is malformed or its length doesn't match the calls
+     */
+    public List<CallResult> decode(byte[] returnData, List<AbiFunction> calls) {
+        return decode(returnData, calls, false);
+    }
+
+    /**
+     * @param returnData the return data of the multicall as hex, with or without the 0x prefix
+     * @param calls      the inner functions, in call order
+     * @return one result per call, in call order
+     * @throws RuntimeException if the outer array is malformed or its length doesn't match the calls
+     */
+    public List<CallResult> decode(String returnData, List<AbiFunction> calls) {
+        try {
+            return decode(Hex.decodeHex(returnData.startsWith(HEX_PREFIX) ? returnData.substring(HEX_PREFIX.length()) : returnData), calls);
+        } catch (DecoderException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param returnData the return data of the multicall
+     * @param calls      the inner functions, in call order
+     * @param parallel   whether to decode the inner results on the common fork join pool
+     * @return one result per call, in call order
+     * @throws RuntimeException if the outer array is malformed or its length doesn't match the calls
+     */
+    public List<CallResult> decode(byte[] returnData, List<AbiFunction> calls, boolean parallel) {
+        int arrayStart = AbiLayout.readOffset(returnData, 0);
+        int count = AbiLayout.readOffset(returnData, arrayStart);
+        if (count != calls.size()) {
+            throw new RuntimeException("Multicall returned " + count + " results for " + calls.size() + " calls");
+        }
+        int heads = arrayStart + WORD_SIZE;
+        // walk the outer array first, so that malformed framing fails the batch
+        boolean[] successes = new boolean[count];
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            int tuple = heads + AbiLayout.readOffset(returnData, heads + i * WORD_SIZE);
+            successes[i] = AbiLayout.readOffset(returnData, tuple) != 0;
+            int bytes = tuple + AbiLayout.readOffset(returnData, tuple + WORD_SIZE);
+            lengths[i] = AbiLayout.readOffset(returnData, bytes);
+            offsets[i] = bytes + WORD_SIZE;
+            if (lengths[i] > returnData.length - offsets[i]) {
+                throw new RuntimeException("Return data of call " + i + " exceeds the buffer");
+            }
+        }
+
+        CallResult[] results = new CallResult[count];
+        IntStream indexes = IntStream.range(0, count);
+        (parallel ? indexes.parallel() : indexes).forEach(i ->
+                results[i] = decodeResult(i, calls.get(i), successes[i], returnData, offsets[i], lengths[i]));
+        return Arrays.asList(results);
+    }
+
+    private CallResult decodeResult(int index, AbiFunction function, boolean success, byte[] buffer, int offset, int length) {
+        try {
+            if (!success) {
+                DecodedRevert revert = decoder.decodeRevert(buffer, offset, length);
+                return new CallResult(index, function, false, null, revert, null, buffer, offset, length);
+            }
+            List<Param> outputs = decoder.decodeResult(function, buffer, offset, length);
+            return new CallResult(index, function, true, outputs, null, null, buffer, offset, length);
+        } catch (RuntimeException e) {
+            return new CallResult(index, function, success, null, null, e, buffer, offset, length);
+        }
+    }
+}
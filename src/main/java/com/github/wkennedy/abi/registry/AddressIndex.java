@@ -0,0 +1,302 @@
+package com.github.wkennedy.abi.registry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An off-heap open addressing table from 20 byte contract addresses to int ABI ids. Each entry takes a 24 byte slot
+ * (the address and the id) in direct or memory mapped buffers, so tens of millions of addresses cost no heap
+ * objects. Hex input is accepted with or without the 0x prefix and in any case; lookups don't allocate.
+ * <p>
+ * A table can be written to disk with {@link #writeTo} and mapped again with {@link #map}. A mapped table is copy on
+ * write: later puts never modify the file. Tables in memory use direct buffers, which count against
+ * {@code -XX:MaxDirectMemorySize}.
+ * <p>
+ * Instances are not thread-safe for writes. Lookups may run concurrently with each other.
+ */
+public final class AddressIndex {
+    public static final int NO_ID = -1;
+    public static final int ADDRESS_LENGTH = 20;
+
+    private static final int SLOT_BYTES = 24;
+    private static final int ID_OFFSET = 20;
+    private static final int MAX_SEGMENT_SHIFT = 25;
+    private static final int MAGIC = 0x41424958;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 24;
+    private static final long MIN_CAPACITY = 16;
+
+    private ByteBuffer[] segments;
+    private long capacity;
+    private int segmentShift;
+    private long size;
+
+    private AddressIndex(ByteBuffer[] segments, long capacity, long size) {
+        this.segments = segments;
+        this.capacity = capacity;
+        this.segmentShift = Math.min(MAX_SEGMENT_SHIFT, Long.numberOfTrailingZeros(capacity));
+        this.size = size;
+    }
+
+    /**
+     * @param expectedEntries the number of addresses the table should hold before it has to grow
+     * @return an empty table in direct memory
+     */
+    public static AddressIndex create(long expectedEntries) {
+        long capacity = capacityFor(expectedEntries);
+        int shift = Math.min(MAX_SEGMENT_SHIFT, Long.numberOfTrailingZeros(capacity));
+        ByteBuffer[] segments = new ByteBuffer[(int) (capacity >>> shift)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((1 << shift) * SLOT_BYTES);
+        }
+        return new AddressIndex(segments, capacity, 0);
+    }
+
+    /**
+     * Maps a table written by {@link #writeTo}. Pages are loaded on demand, so a large table is usable right away.
+     *
+     * @param path the file
+     * @return the table
+     * @throws IOException if the file can't be opened for reading and writing
+     * @throws IllegalArgumentException if the file isn't an address index
+     */
+    public static AddressIndex map(Path path) throws IOException {
+        // a private (copy on write) mapping needs a writable channel, although nothing is written to the file
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not an address index: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported address index version " + version + ": " + path);
+            long capacity = header.getLong();
+            long size = header.getLong();
+            if (Long.bitCount(capacity) != 1 || channel.size() != HEADER_BYTES + capacity * SLOT_BYTES) {
+                throw new IllegalArgumentException("Truncated or corrupt address index: " + path);
+            }
+            int shift = Math.min(MAX_SEGMENT_SHIFT, Long.numberOfTrailingZeros(capacity));
+            long segmentBytes = (long) (1 << shift) * SLOT_BYTES;
+            ByteBuffer[] segments = new ByteBuffer[(int) (capacity >>> shift)];
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.PRIVATE, HEADER_BYTES + i * segmentBytes, segmentBytes);
+            }
+            return new AddressIndex(segments, capacity, size);
+        }
+    }
+
+    /**
+     * Writes the table to a file that {@link #map} can load.
+     *
+     * @param path the file, replaced if it exists
+     * @throws IOException if the file can't be written
+     */
+    public void writeTo(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putLong(capacity).putLong(size).flip();
+            while (header.hasRemaining()) channel.write(header);
+            for (ByteBuffer segment : segments) {
+                ByteBuffer slice = segment.duplicate().clear();
+                while (slice.hasRemaining()) channel.write(slice);
+            }
+        }
+    }
+
+    /**
+     * @param address a 20 byte address
+     * @return the id mapped to the address, or {@link #NO_ID}
+     */
+    public int get(byte[] address) {
+        checkAddress(address);
+        return get(readLong(address, 0), readLong(address, 8), readInt(address, 16));
+    }
+
+    /**
+     * Looks up an address embedded in a larger buffer, e.g. the {@code to} field of a raw transaction, without
+     * copying it out.
+     *
+     * @param buffer the buffer
+     * @param offset the position of the 20 address bytes
+     * @return the id mapped to the address, or {@link #NO_ID}
+     */
+    public int get(byte[] buffer, int offset) {
+        if (offset < 0 || offset > buffer.length - ADDRESS_LENGTH) {
+            throw new IllegalArgumentException("No " + ADDRESS_LENGTH + " byte address at position " + offset);
+        }
+        return get(readLong(buffer, offset), readLong(buffer, offset + 8), readInt(buffer, offset + 16));
+    }
+
+    /**
+     * @param address a hex address, with or without the 0x prefix, in any case
+     * @return the id mapped to the address, or {@link #NO_ID} if there is none or the input isn't an address
+     */
+    public int get(String address) {
+        int start = hexStart(address);
+        if (start < 0) return NO_ID;
+        return get(hexLong(address, start), hexLong(address, start + 16), (int) hexLong(address, start + 32, 8));
+    }
+
+    /**
+     * @param address a 20 byte address
+     * @param id      the id, 0 or greater
+     * @return the id previously mapped to the address, or {@link #NO_ID}
+     */
+    public int put(byte[] address, int id) {
+        checkAddress(address);
+        return put(readLong(address, 0), readLong(address, 8), readInt(address, 16), id);
+    }
+
+    /**
+     * @param address a hex address, with or without the 0x prefix, in any case
+     * @param id      the id, 0 or greater
+     * @return the id previously mapped to the address, or {@link #NO_ID}
+     * @throws IllegalArgumentException if the input isn't an address
+     */
+    public int put(String address, int id) {
+        int start = hexStart(address);
+        if (start < 0) throw new IllegalArgumentException("Not a 20 byte hex address: " + address);
+        return put(hexLong(address, start), hexLong(address, start + 16), (int) hexLong(address, start + 32, 8), id);
+    }
+
+    /**
+     * @return the number of mapped addresses
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the number of slots
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * @param address a hex string
+     * @return true if it is a 20 byte address, with or without the 0x prefix
+     */
+    public static boolean isAddress(String address) {
+        return hexStart(address) >= 0;
+    }
+
+    private int get(long high, long middle, int low) {
+        long mask = capacity - 1;
+        for (long slot = hash(high, middle, low) & mask; ; slot = (slot + 1) & mask) {
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            int stored = segment.getInt(offset + ID_OFFSET);
+            if (stored == 0) return NO_ID;
+            if (segment.getLong(offset) == high && segment.getLong(offset + 8) == middle && segment.getInt(offset + 16) == low) {
+                return stored - 1;
+            }
+        }
+    }
+
+    private int put(long high, long middle, int low, int id) {
+        if (id < 0 || id == Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid ABI id: " + id);
+        if ((size + 1) * 4 > capacity * 3) grow();
+        long mask = capacity - 1;
+        for (long slot = hash(high, middle, low) & mask; ; slot = (slot + 1) & mask) {
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            int stored = segment.getInt(offset + ID_OFFSET);
+            if (stored == 0) {
+                segment.putLong(offset, high).putLong(offset + 8, middle).putInt(offset + 16, low).putInt(offset + ID_OFFSET, id + 1);
+                size++;
+                return NO_ID;
+            }
+            if (segment.getLong(offset) == high && segment.getLong(offset + 8) == middle && segment.getInt(offset + 16) == low) {
+                segment.putInt(offset + ID_OFFSET, id + 1);
+                return stored - 1;
+            }
+        }
+    }
+
+    private void grow() {
+        AddressIndex grown = create(capacity);
+        for (long slot = 0; slot < capacity; slot++) {
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            int stored = segment.getInt(offset + ID_OFFSET);
+            if (stored != 0) {
+                grown.put(segment.getLong(offset), segment.getLong(offset + 8), segment.getInt(offset + 16), stored - 1);
+            }
+        }
+        this.segments = grown.segments;
+        this.capacity = grown.capacity;
+        this.segmentShift = grown.segmentShift;
+        this.size = grown.size;
+    }
+
+    private ByteBuffer segment(long slot) {
+        return segments[(int) (slot >>> segmentShift)];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot & ((1L << segmentShift) - 1)) * SLOT_BYTES;
+    }
+
+    /**
+     * The smallest power of two capacity keeping the load at or below 3/4, with room for at least one more entry.
+     */
+    private static long capacityFor(long expectedEntries) {
+        long wanted = Math.max(MIN_CAPACITY, (Math.max(0, expectedEntries) * 4 + 2) / 3 + 1);
+        return Long.highestOneBit(wanted - 1) << 1;
+    }
+
+    private static long hash(long high, long middle, int low) {
+        // vanity addresses share long runs of zero bytes, so all 20 bytes are mixed in
+        long h = high * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 32) ^ middle) * 0xC2B2AE3D27D4EB4FL;
+        h = (h ^ (h >>> 29) ^ (low & 0xFFFFFFFFL)) * 0x165667B19E3779F9L;
+        return h ^ (h >>> 32);
+    }
+
+    private static void checkAddress(byte[] address) {
+        if (address.length != ADDRESS_LENGTH) {
+            throw new IllegalArgumentException("An address is " + ADDRESS_LENGTH + " bytes, got " + address.length);
+        }
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) value = (value << 8) | (bytes[i] & 0xFF);
+        return value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        int value = 0;
+        for (int i = offset; i < offset + 4; i++) value = (value << 8) | (bytes[i] & 0xFF);
+        return value;
+    }
+
+    /**
+     * @return the index of the first hex digit, or -1 if the input isn't 40 hex digits with an optional 0x prefix
+     */
+    private static int hexStart(String hex) {
+        if (hex == null) return -1;
+        int start = hex.length() == 42 && hex.charAt(0) == '0' && (hex.charAt(1) == 'x' || hex.charAt(1) == 'X') ? 2 : 0;
+        if (hex.length() - start != ADDRESS_LENGTH * 2) return -1;
+        for (int i = start; i < hex.length(); i++) {
+            if (Character.digit(hex.charAt(i), 16) < 0) return -1;
+        }
+        return start;
+    }
+
+    private static long hexLong(String hex, int start) {
+        return hexLong(hex, start, 16);
+    }
+
+    private static long hexLong(String hex, int start, int digits) {
+        long value = 0;
+        for (int i = start; i < start + digits; i++) value = (value << 4) | Character.digit(hex.charAt(i), 16);
+        return value;
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.wkennedy.abi.registry;
+
+/**
+ * An open addressing table from 4 byte selectors to values, keyed by the selector as a primitive int so lookups
+ * neither box nor build hex strings.
+ * <p>
+ * Instances are not thread-safe for writes. Lookups may run concurrently with each other.
+ *
+ * @param <V> the value type
+ */
+public final class SelectorIndex<V> {
+    private int[] keys = new int[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    /**
+     * @param selector the selector
+     * @param value    the value, not null
+     * @return the value previously stored for the selector, or null
+     */
+    public V put(int selector, V value) {
+        if (value == null) throw new IllegalArgumentException("value must not be null");
+        if ((size + 1) * 4 > keys.length * 3) grow();
+        int mask = keys.length - 1;
+        for (int slot = hash(selector) & mask; ; slot = (slot + 1) & mask) {
+            if (values[slot] == null) {
+                keys[slot] = selector;
+                values[slot] = value;
+                size++;
+                return null;
+            }
+            if (keys[slot] == selector) {
+                @SuppressWarnings("unchecked")
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * @param selector the selector
+     * @return the value stored for the selector, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int selector) {
+        int[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = keys.length - 1;
+        for (int slot = hash(selector) & mask; ; slot = (slot + 1) & mask) {
+            Object value = values[slot];
+            if (value == null) return null;
+            if (keys[slot] == selector) return (V) value;
+        }
+    }
+
+    /**
+     * @param data     the buffer, e.g. calldata or revert data
+     * @param selector where the selector starts
+     * @return the value stored for the selector in the buffer, or null if the buffer is too short or none is stored
+     */
+    public V get(byte[] data, int selector) {
+        if (data == null || data.length - selector < 4) return null;
+        return get(selector(data, selector));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param data   the buffer
+     * @param offset where the selector starts
+     * @return the 4 bytes at the offset as a big endian int
+     */
+    public static int selector(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8 | (data[offset + 3] & 0xFF);
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] newKeys = new int[oldKeys.length * 2];
+        Object[] newValues = new Object[oldKeys.length * 2];
+        int mask = newKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == null) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (newValues[slot] != null) slot = (slot + 1) & mask;
+            newKeys[slot] = oldKeys[i];
+            newValues[slot] = oldValues[i];
+        }
+        keys = newKeys;
+        values = newValues;
+    }
+
+    private static int hash(int selector) {
+        // selectors are keccak prefixes, so the low bits are already well distributed
+        return selector ^ (selector >>> 16);
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.wkennedy.abi.service;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.metrics.Histogram;
+import com.github.wkennedy.abi.models.DecodeResult;
+import com.github.wkennedy.abi.models.DecodedFunctions;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.DecodedRevert;
+import com.github.wkennedy.abi.models.Log;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Runs decode requests concurrently against one shared {@link Decoder}, by default each on its own virtual thread.
+ * <p>
+ * The decoder is {@link Decoder#freeze() frozen} when the service is created, so every request reads the same
+ * immutable registry without locking. At most {@code maxConcurrency} requests decode at a time; the rest wait on a
+ * fair semaphore, which parks a virtual thread instead of pinning its carrier. The time spent waiting for a permit
+ * and the time spent decoding are recorded in nanoseconds.
+ */
+public class DecoderService implements AutoCloseable {
+    private final Decoder decoder;
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final Histogram waitTime = new Histogram();
+    private final Histogram decodeTime = new Histogram();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * @param decoder        the decoder to share; it is frozen
+     * @param maxConcurrency the maximum number of requests decoding at once
+     */
+    public DecoderService(Decoder decoder, int maxConcurrency) {
+        this(decoder, maxConcurrency, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @param decoder        the decoder to share; it is frozen
+     * @param maxConcurrency the maximum number of requests decoding at once
+     * @param executor       runs the requests; closed with the service
+     */
+    public DecoderService(Decoder decoder, int maxConcurrency, ExecutorService executor) {
+        if (maxConcurrency <= 0) throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        decoder.freeze();
+    }
+
+    /**
+     * Runs a request against the shared decoder once a permit is available.
+     *
+     * @param request the request; it must not modify the decoder
+     * @return the result, or the exception the request threw
+     */
+    public <T> CompletableFuture<T> submit(Function<? super Decoder, ? extends T> request) {
+        Objects.requireNonNull(request, "request");
+        long submitted = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            long started = System.nanoTime();
+            waitTime.record(started - submitted);
+            try {
+                return request.apply(decoder);
+            } catch (RuntimeException e) {
+                failures.increment();
+                throw e;
+            } finally {
+                decodeTime.record(System.nanoTime() - started);
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<DecodedFunctions> decodeFunction(String data) {
+        return submit(d -> d.decodeFunction(data));
+    }
+
+    public CompletableFuture<DecodedFunctions> decodeFunction(byte[] data) {
+        return submit(d -> d.decodeFunction(data));
+    }
+
+    public CompletableFuture<DecodeResult<DecodedFunctions>> tryDecodeFunction(byte[] data) {
+        return submit(d -> d.tryDecodeFunction(data));
+    }
+
+    public CompletableFuture<DecodedFunctions> decodeTransaction(byte[] rawTransaction) {
+        return submit(d -> d.decodeTransaction(rawTransaction));
+    }
+
+    public CompletableFuture<List<DecodedLog>> decodeLogs(Log... logs) {
+        return submit(d -> d.decodeLogs(logs));
+    }
+
+    public CompletableFuture<List<DecodedLog>> decodeLogs(String data) {
+        return submit(d -> d.decodeLogs(data));
+    }
+
+    public CompletableFuture<DecodedRevert> decodeRevert(byte[] revertData) {
+        return submit(d -> d.decodeRevert(revertData));
+    }
+
+    /**
+     * @return the frozen decoder requests run against
+     */
+    public Decoder getDecoder() {
+        return decoder;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return the number of requests decoding right now
+     */
+    public int getInFlight() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return an estimate of the number of requests waiting for a permit
+     */
+    public int getQueued() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * @return the nanoseconds between submitting a request and it acquiring a permit
+     */
+    public Histogram.Snapshot getWaitTime() {
+        return waitTime.snapshot();
+    }
+
+    /**
+     * @return the nanoseconds requests spent decoding, failed ones included
+     */
+    public Histogram.Snapshot getDecodeTime() {
+        return decodeTime.snapshot();
+    }
+
+    /**
+     * @return the number of requests that threw
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Stops accepting requests and waits for the submitted ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
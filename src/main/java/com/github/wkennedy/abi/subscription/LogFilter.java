@@ -0,0 +1,166 @@
+package com.github.wkennedy.abi.subscription;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * The raw criteria of a subscription: an emitting contract, a topic 0 and up to three indexed topics, each of which
+ * may be left open. Criteria are compared with the raw log topics, so a filter on an indexed argument takes its
+ * 32 byte topic, e.g. {@link #addressTopic} for an indexed address.
+ * <p>
+ * Instances are immutable; the {@code with} methods return a new filter.
+ */
+public final class LogFilter {
+    private static final LogFilter ANY = new LogFilter(null, null, new String[3]);
+
+    private final String address;
+    private final String topic0;
+    private final String[] topics;
+
+    private LogFilter(String address, String topic0, String[] topics) {
+        this.address = address;
+        this.topic0 = topic0;
+        this.topics = topics;
+    }
+
+    /**
+     * @return a filter matching every log
+     */
+    public static LogFilter any() {
+        return ANY;
+    }
+
+    /**
+     * @param topic0 the topic 0 of the event, with or without the 0x prefix
+     * @return a filter matching every log of the event
+     */
+    public static LogFilter event(String topic0) {
+        return ANY.withTopic0(topic0);
+    }
+
+    /**
+     * @param address the contract address, with or without the 0x prefix
+     * @return a filter matching every log emitted by the contract
+     */
+    public static LogFilter from(String address) {
+        return ANY.withAddress(address);
+    }
+
+    public LogFilter withAddress(String address) {
+        return new LogFilter(normalize(address, 20), topic0, topics);
+    }
+
+    public LogFilter withTopic0(String topic0) {
+        return new LogFilter(address, normalize(topic0, 32), topics);
+    }
+
+    /**
+     * @param position the topic position, 1 to 3
+     * @param topic    the 32 byte topic of the indexed argument, or null to match any
+     * @return a filter that additionally requires the topic
+     */
+    public LogFilter withTopic(int position, String topic) {
+        if (position < 1 || position > 3) throw new IllegalArgumentException("Topic position must be 1 to 3: " + position);
+        String[] result = topics.clone();
+        result[position - 1] = normalize(topic, 32);
+        return new LogFilter(address, topic0, result);
+    }
+
+    /**
+     * @param address an address, with or without the 0x prefix
+     * @return the topic of the address as an indexed argument, left padded to 32 bytes
+     */
+    public static String addressTopic(String address) {
+        String hex = normalize(address, 20).substring(HEX_PREFIX.length());
+        return HEX_PREFIX + "0".repeat(64 - hex.length()) + hex;
+    }
+
+    /**
+     * @return the lowercase 0x prefixed address, or null if any address matches
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * @return the lowercase 0x prefixed topic 0, or null if any event matches
+     */
+    public String getTopic0() {
+        return topic0;
+    }
+
+    /**
+     * @param position the topic position, 1 to 3
+     * @return the lowercase 0x prefixed topic, or null if any value matches
+     */
+    public String getTopic(int position) {
+        return topics[position - 1];
+    }
+
+    /**
+     * Brings hex input to the form used as index keys: lowercase with the 0x prefix. Input that is already in that
+     * form is returned as is, so normalizing the topics of a typical log allocates nothing.
+     */
+    static String normalize(String hex, int bytes) {
+        if (hex == null) return null;
+        boolean prefixed = hex.startsWith(HEX_PREFIX);
+        int digits = hex.length() - (prefixed ? HEX_PREFIX.length() : 0);
+        if (digits != bytes * 2) {
+            throw new IllegalArgumentException("Expected " + bytes + " bytes of hex: " + hex);
+        }
+        if (prefixed && isLowerCase(hex)) return hex;
+        String result = (prefixed ? hex : HEX_PREFIX + hex).toLowerCase();
+        for (int i = HEX_PREFIX.length(); i < result.length(); i++) {
+            if (Character.digit(result.charAt(i), 16) < 0) throw new IllegalArgumentException("Invalid hex: " + hex);
+        }
+        return result;
+    }
+
+    /**
+     * Like {@link #normalize}, for values read from logs: returns null instead of throwing for malformed input.
+     */
+    static String normalizeOrNull(String hex, int bytes) {
+        if (hex == null) return null;
+        try {
+            return normalize(hex, bytes);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isLowerCase(String hex) {
+        for (int i = HEX_PREFIX.length(); i < hex.length(); i++) {
+            char c = hex.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LogFilter that = (LogFilter) o;
+        return Objects.equals(address, that.address) && Objects.equals(topic0, that.topic0) && Arrays.equals(topics, that.topics);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hashCode(address);
+        result = 31 * result + Objects.hashCode(topic0);
+        result = 31 * result + Arrays.hashCode(topics);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "LogFilter{" +
+                "address='" + address + '\'' +
+                ", topic0='" + topic0 + '\'' +
+                ", topics=" + Arrays.toString(topics) +
+                '}';
+    }
+}
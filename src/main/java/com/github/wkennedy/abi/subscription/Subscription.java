@@ -0,0 +1,82 @@
+package com.github.wkennedy.abi.subscription;
+
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A registered filter and the subscriber its matching logs are delivered to.
+ */
+public final class Subscription {
+    private final SubscriptionEngine engine;
+    private final LogFilter filter;
+    private final Consumer<DecodedLog> subscriber;
+    private final BiConsumer<Log, RuntimeException> errorHandler;
+    private final LongAdder failures = new LongAdder();
+
+    Subscription(SubscriptionEngine engine, LogFilter filter, Consumer<DecodedLog> subscriber,
+                 BiConsumer<Log, RuntimeException> errorHandler) {
+        this.engine = engine;
+        this.filter = filter;
+        this.subscriber = subscriber;
+        this.errorHandler = errorHandler;
+    }
+
+    public LogFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return the number of matched logs that could not be decoded or that the subscriber threw on
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Removes the subscription. Logs already being matched may still be delivered.
+     *
+     * @return true if the subscription was active
+     */
+    public boolean cancel() {
+        return engine.unsubscribe(this);
+    }
+
+    /**
+     * @return true if the subscriber accepted the log without throwing
+     */
+    boolean deliver(Log log, DecodedLog decodedLog) {
+        try {
+            subscriber.accept(decodedLog);
+            return true;
+        } catch (RuntimeException e) {
+            fail(log, e);
+            return false;
+        }
+    }
+
+    void fail(Log log, RuntimeException error) {
+        failures.increment();
+        if (errorHandler != null) {
+            try {
+                errorHandler.accept(log, error);
+            } catch (RuntimeException ignored) {
+                // a failing error handler must not stop the deliveries to other subscriptions either
+            }
+        }
+    }
+
+    /**
+     * Whether the raw topics satisfy the indexed topic criteria. Address and topic 0 were matched by the index.
+     */
+    boolean matchesTopics(String[] topics) {
+        for (int position = 1; position <= 3; position++) {
+            String wanted = filter.getTopic(position);
+            if (wanted != null && (position >= topics.length || !wanted.equals(topics[position]))) return false;
+        }
+        return true;
+    }
+}
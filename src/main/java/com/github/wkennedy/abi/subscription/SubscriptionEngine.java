@@ -0,0 +1,237 @@
+package com.github.wkennedy.abi.subscription;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Matches raw logs against many subscriptions before decoding, decodes each matched log once and fans it out to the
+ * matching subscribers.
+ * <p>
+ * All active filters are compiled into an immutable index: hash maps on topic 0 and address, and within each of
+ * those on the first indexed topic the filter constrains. Matching a log costs a few hash lookups however many
+ * subscriptions there are. Subscribing and cancelling rebuild the index and publish it atomically, so they never
+ * block or disturb a running {@link #process} call; a log is matched against whichever index was current when its
+ * matching began.
+ */
+public class SubscriptionEngine {
+    private final Decoder decoder;
+    private final Set<Subscription> subscriptions = new LinkedHashSet<>();
+    private volatile Index index = new Index(List.of());
+
+    /**
+     * @param decoder decodes the matched logs; its registered ABIs determine which matched logs can be delivered
+     */
+    public SubscriptionEngine(Decoder decoder) {
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+    }
+
+    /**
+     * @param filter     the criteria
+     * @param subscriber receives every matching log that the decoder can decode
+     * @return the subscription, to be cancelled when no longer needed
+     */
+    public Subscription subscribe(LogFilter filter, Consumer<DecodedLog> subscriber) {
+        return subscribe(filter, subscriber, null);
+    }
+
+    /**
+     * @param filter       the criteria
+     * @param subscriber   receives every matching log that the decoder can decode
+     * @param errorHandler receives each matching log that failed to decode or that the subscriber threw on, with the
+     *                     error; may be null
+     * @return the subscription, to be cancelled when no longer needed
+     */
+    public Subscription subscribe(LogFilter filter, Consumer<DecodedLog> subscriber, BiConsumer<Log, RuntimeException> errorHandler) {
+        Subscription subscription = new Subscription(this, Objects.requireNonNull(filter, "filter"),
+                Objects.requireNonNull(subscriber, "subscriber"), errorHandler);
+        synchronized (subscriptions) {
+            subscriptions.add(subscription);
+            index = new Index(subscriptions);
+        }
+        return subscription;
+    }
+
+    boolean unsubscribe(Subscription subscription) {
+        synchronized (subscriptions) {
+            if (!subscriptions.remove(subscription)) return false;
+            index = new Index(subscriptions);
+            return true;
+        }
+    }
+
+    /**
+     * @return the number of active subscriptions
+     */
+    public int size() {
+        return index.size;
+    }
+
+    /**
+     * Matches a log without decoding it.
+     *
+     * @param log the raw log
+     * @return the subscriptions matching the log, empty if none
+     */
+    public List<Subscription> match(Log log) {
+        List<Subscription> matches = index.match(log);
+        return matches == null ? List.of() : matches;
+    }
+
+    /**
+     * Matches the logs, decodes the matched ones and delivers them. Logs no subscription matches are not decoded.
+     * A log that fails to decode, or a subscriber that throws, only affects the subscriptions concerned: the failure
+     * is counted and reported to their error handlers, and processing carries on.
+     *
+     * @param logs the raw logs
+     * @return the number of successful deliveries
+     */
+    public int process(Log... logs) {
+        Index current = index;
+        int deliveries = 0;
+        for (Log log : logs) {
+            List<Subscription> matches = current.match(log);
+            if (matches == null) continue;
+            List<DecodedLog> decoded;
+            try {
+                decoded = decoder.decodeLogs(log);
+            } catch (RuntimeException e) {
+                for (Subscription subscription : matches) {
+                    subscription.fail(log, e);
+                }
+                continue;
+            }
+            if (decoded.isEmpty()) continue;
+            DecodedLog decodedLog = decoded.getFirst();
+            for (Subscription subscription : matches) {
+                if (subscription.deliver(log, decodedLog)) deliveries++;
+            }
+        }
+        return deliveries;
+    }
+
+    /**
+     * @see #process(Log...)
+     */
+    public int process(List<Log> logs) {
+        return process(logs.toArray(new Log[0]));
+    }
+
+    /**
+     * The compiled form of a set of filters. Each subscription is reachable by exactly one path, so a log never
+     * matches the same subscription twice.
+     */
+    private static final class Index {
+        private final int size;
+        private final Map<String, TopicIndex> byTopic0 = new HashMap<>();
+        private final Map<String, Bucket> byAddress = new HashMap<>();
+        private final Bucket any = new Bucket();
+
+        Index(Iterable<Subscription> subscriptions) {
+            int count = 0;
+            for (Subscription subscription : subscriptions) {
+                LogFilter filter = subscription.getFilter();
+                Bucket bucket;
+                if (filter.getTopic0() != null) {
+                    TopicIndex topicIndex = byTopic0.computeIfAbsent(filter.getTopic0(), key -> new TopicIndex());
+                    bucket = filter.getAddress() == null
+                            ? topicIndex.anyAddress
+                            : topicIndex.byAddress.computeIfAbsent(filter.getAddress(), key -> new Bucket());
+                } else if (filter.getAddress() != null) {
+                    bucket = byAddress.computeIfAbsent(filter.getAddress(), key -> new Bucket());
+                } else {
+                    bucket = any;
+                }
+                bucket.add(subscription);
+                count++;
+            }
+            this.size = count;
+        }
+
+        /**
+         * @return the matching subscriptions, or null if there are none
+         */
+        List<Subscription> match(Log log) {
+            if (size == 0) return null;
+            List<String> rawTopics = log.getTopics();
+            String[] topics = new String[rawTopics == null ? 0 : rawTopics.size()];
+            for (int i = 0; i < topics.length; i++) {
+                topics[i] = LogFilter.normalizeOrNull(rawTopics.get(i), 32);
+            }
+            String address = LogFilter.normalizeOrNull(log.getAddress(), 20);
+
+            List<Subscription> matches = any.collect(topics, null);
+            if (address != null) {
+                Bucket bucket = byAddress.get(address);
+                if (bucket != null) matches = bucket.collect(topics, matches);
+            }
+            if (topics.length > 0 && topics[0] != null) {
+                TopicIndex topicIndex = byTopic0.get(topics[0]);
+                if (topicIndex != null) {
+                    matches = topicIndex.anyAddress.collect(topics, matches);
+                    if (address != null) {
+                        Bucket bucket = topicIndex.byAddress.get(address);
+                        if (bucket != null) matches = bucket.collect(topics, matches);
+                    }
+                }
+            }
+            return matches;
+        }
+    }
+
+    private static final class TopicIndex {
+        private final Map<String, Bucket> byAddress = new HashMap<>();
+        private final Bucket anyAddress = new Bucket();
+    }
+
+    /**
+     * The subscriptions sharing an address and topic 0 criterion, indexed by the first indexed topic they constrain.
+     */
+    private static final class Bucket {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private final Map<String, List<Subscription>>[] byTopic = new Map[3];
+        private final List<Subscription> open = new ArrayList<>();
+
+        void add(Subscription subscription) {
+            for (int position = 1; position <= 3; position++) {
+                String topic = subscription.getFilter().getTopic(position);
+                if (topic != null) {
+                    if (byTopic[position - 1] == null) byTopic[position - 1] = new HashMap<>();
+                    byTopic[position - 1].computeIfAbsent(topic, key -> new ArrayList<>()).add(subscription);
+                    return;
+                }
+            }
+            open.add(subscription);
+        }
+
+        List<Subscription> collect(String[] topics, List<Subscription> matches) {
+            for (int position = 1; position <= 3 && position < topics.length; position++) {
+                Map<String, List<Subscription>> index = byTopic[position - 1];
+                if (index == null || topics[position] == null) continue;
+                List<Subscription> candidates = index.get(topics[position]);
+                if (candidates == null) continue;
+                for (Subscription candidate : candidates) {
+                    if (candidate.matchesTopics(topics)) {
+                        if (matches == null) matches = new ArrayList<>();
+                        matches.add(candidate);
+                    }
+                }
+            }
+            if (!open.isEmpty()) {
+                if (matches == null) matches = new ArrayList<>();
+                matches.addAll(open);
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.wkennedy.abi.transaction;
+
+import com.github.wkennedy.util.ByteUtil;
+
+import java.util.Arrays;
+
+import static com.github.wkennedy.util.Constants.HEX_PREFIX;
+
+/**
+ * The {@code to} and {@code data} fields of a raw signed transaction, located in place. Only the fields before
+ * {@code data} are walked; nothing is copied, and the signature, access list and blobs are never parsed.
+ * <p>
+ * Supported envelopes are legacy transactions, EIP-2930 (type 1), EIP-1559 (type 2), EIP-4844 (type 3, both the
+ * canonical form and the network form with blobs) and EIP-7702 (type 4).
+ */
+public final class RawTransaction {
+    public static final int LEGACY = 0;
+    public static final int ACCESS_LIST = 1;
+    public static final int DYNAMIC_FEE = 2;
+    public static final int BLOB = 3;
+    public static final int SET_CODE = 4;
+
+    private static final int ADDRESS_LENGTH = 20;
+
+    private final byte[] buffer;
+    private final int type;
+    private final int toOffset;
+    private final int dataOffset;
+    private final int dataLength;
+
+    private RawTransaction(byte[] buffer, int type, int toOffset, int dataOffset, int dataLength) {
+        this.buffer = buffer;
+        this.type = type;
+        this.toOffset = toOffset;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * @param raw the raw transaction, as broadcast with eth_sendRawTransaction
+     * @return the located fields
+     * @throws RuntimeException if the transaction type is unknown or the encoding is malformed
+     */
+    public static RawTransaction parse(byte[] raw) {
+        return parse(raw, 0, raw.length);
+    }
+
+    /**
+     * Locates the fields of a raw transaction embedded in a larger buffer.
+     *
+     * @param buffer the buffer
+     * @param offset the position of the transaction
+     * @param length the length of the transaction
+     * @return the located fields, referencing the given buffer
+     * @throws RuntimeException if the transaction type is unknown or the encoding is malformed
+     */
+    public static RawTransaction parse(byte[] buffer, int offset, int length) {
+        if (length == 0) throw new RuntimeException("Empty transaction");
+        int end = offset + length;
+        int first = buffer[offset] & 0xFF;
+        if (first >= 0xC0) {
+            return locate(buffer, LEGACY, RlpReader.list(buffer, offset, end), 3);
+        }
+        return switch (first) {
+            case ACCESS_LIST -> locate(buffer, first, RlpReader.list(buffer, offset + 1, end), 4);
+            case DYNAMIC_FEE, SET_CODE -> locate(buffer, first, RlpReader.list(buffer, offset + 1, end), 5);
+            case BLOB -> locate(buffer, first, blobPayload(buffer, offset + 1, end), 5);
+            default -> throw new RuntimeException("Unknown transaction type 0x" + Integer.toHexString(first));
+        };
+    }
+
+    private static RlpReader blobPayload(byte[] buffer, int start, int end) {
+        RlpReader payload = RlpReader.list(buffer, start, end);
+        if (!payload.next()) throw new RuntimeException("Empty blob transaction");
+        // the network form wraps the transaction: [tx_payload_body, blobs, commitments, proofs]
+        return payload.isList() ? payload.enter() : RlpReader.list(buffer, start, end);
+    }
+
+    private static RawTransaction locate(byte[] buffer, int type, RlpReader fields, int toIndex) {
+        fields.skip(toIndex + 1);
+        int toOffset;
+        if (fields.length() == ADDRESS_LENGTH && !fields.isList()) {
+            toOffset = fields.offset();
+        } else if (fields.length() == 0 && !fields.isList()) {
+            toOffset = -1;
+        } else {
+            throw new RuntimeException("Invalid to field at position " + fields.offset());
+        }
+        fields.skip(2);
+        if (fields.isList()) throw new RuntimeException("Invalid data field at position " + fields.offset());
+        return new RawTransaction(buffer, type, toOffset, fields.offset(), fields.length());
+    }
+
+    /**
+     * @return the transaction type, {@link #LEGACY} for untyped transactions
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * @return the buffer the offsets refer to
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return true if the transaction deploys a contract, in which case the data is init code rather than calldata
+     */
+    public boolean isContractCreation() {
+        return toOffset < 0;
+    }
+
+    /**
+     * @return the position of the 20 byte {@code to} address within the buffer, or -1 for a contract creation
+     */
+    public int getToOffset() {
+        return toOffset;
+    }
+
+    /**
+     * @return the {@code to} address as 0x hex, or null for a contract creation
+     */
+    public String getTo() {
+        return toOffset < 0 ? null : HEX_PREFIX + ByteUtil.toHexString(Arrays.copyOfRange(buffer, toOffset, toOffset + ADDRESS_LENGTH));
+    }
+
+    /**
+     * @return the position of the calldata within the buffer
+     */
+    public int getDataOffset() {
+        return dataOffset;
+    }
+
+    /**
+     * @return the length of the calldata
+     */
+    public int getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * @return a copy of the calldata
+     */
+    public byte[] getData() {
+        return Arrays.copyOfRange(buffer, dataOffset, dataOffset + dataLength);
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.wkennedy.abi.transaction;
+
+/**
+ * A forward-only reader over the items of an RLP list. Items are reported as offset and length within the
+ * underlying buffer, so nothing is copied; nested lists are read with {@link #enter()}.
+ */
+public final class RlpReader {
+    private final byte[] buffer;
+    private final int end;
+    private int position;
+    private int offset;
+    private int length;
+    private boolean list;
+
+    /**
+     * @param buffer the buffer
+     * @param start  the position of the first item
+     * @param end    the position after the last item
+     */
+    public RlpReader(byte[] buffer, int start, int end) {
+        if (start < 0 || end > buffer.length || start > end) {
+            throw new IllegalArgumentException("Invalid range " + start + ".." + end + " for a buffer of " + buffer.length + " bytes");
+        }
+        this.buffer = buffer;
+        this.position = start;
+        this.end = end;
+    }
+
+    /**
+     * Reads the list encoded at the given position, e.g. a legacy transaction or the payload of a typed one.
+     *
+     * @param buffer the buffer
+     * @param start  the position of the list header
+     * @param end    the position after the list
+     * @return a reader over the items of the list
+     * @throws RuntimeException if the bytes are not a single RLP list filling the range
+     */
+    public static RlpReader list(byte[] buffer, int start, int end) {
+        RlpReader outer = new RlpReader(buffer, start, end);
+        if (!outer.next() || !outer.isList() || outer.hasNext()) {
+            throw new RuntimeException("Not a single RLP list at position " + start);
+        }
+        return outer.enter();
+    }
+
+    /**
+     * @return true if another item follows
+     */
+    public boolean hasNext() {
+        return position < end;
+    }
+
+    /**
+     * Advances to the next item.
+     *
+     * @return false if there are no more items
+     * @throws RuntimeException if the item header is malformed or the item extends past the end
+     */
+    public boolean next() {
+        if (position >= end) return false;
+        int prefix = buffer[position] & 0xFF;
+        int header;
+        long payload;
+        if (prefix < 0x80) {
+            header = 0;
+            payload = 1;
+        } else if (prefix <= 0xB7) {
+            header = 1;
+            payload = prefix - 0x80;
+        } else if (prefix <= 0xBF) {
+            header = 1 + prefix - 0xB7;
+            payload = readLength(position + 1, prefix - 0xB7);
+        } else if (prefix <= 0xF7) {
+            header = 1;
+            payload = prefix - 0xC0;
+        } else {
+            header = 1 + prefix - 0xF7;
+            payload = readLength(position + 1, prefix - 0xF7);
+        }
+        if (payload > end - position - header) {
+            throw new RuntimeException("RLP item at position " + position + " extends past the end");
+        }
+        list = prefix >= 0xC0;
+        offset = position + header;
+        length = (int) payload;
+        position = offset + length;
+        return true;
+    }
+
+    /**
+     * Advances past the given number of items.
+     *
+     * @param count the number of items to skip
+     * @throws RuntimeException if the list has fewer items
+     */
+    public void skip(int count) {
+        for (int i = 0; i < count; i++) {
+            if (!next()) throw new RuntimeException("RLP list ended at position " + position);
+        }
+    }
+
+    /**
+     * @return a reader over the items of the current item, which must be a list
+     */
+    public RlpReader enter() {
+        if (!list) throw new RuntimeException("RLP item at position " + offset + " is not a list");
+        return new RlpReader(buffer, offset, offset + length);
+    }
+
+    /**
+     * @return the position of the current item's payload
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * @return the length of the current item's payload
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return true if the current item is a list
+     */
+    public boolean isList() {
+        return list;
+    }
+
+    private long readLength(int from, int bytes) {
+        if (bytes > 4 || from + bytes > end) {
+            throw new RuntimeException("RLP length at position " + from + " out of range");
+        }
+        long value = 0;
+        for (int i = from; i < from + bytes; i++) value = (value << 8) | (buffer[i] & 0xFF);
+        return value;
+    }
+}
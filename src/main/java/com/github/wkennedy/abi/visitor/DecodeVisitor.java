@@ -0,0 +1,95 @@
+package com.github.wkennedy.abi.visitor;
+
+/**
+ * Receives decoded values as they are walked, SAX style, instead of as {@code Param} objects. Values that don't fit a
+ * primitive are reported as a position in the buffer being decoded, so nothing is copied; the buffer is only valid
+ * for the duration of the callback.
+ * <p>
+ * Every value is reported with its index within the enclosing param list, tuple or array. Tuples and arrays are
+ * bracketed by begin and end calls, and their components are reported in between. All methods default to doing
+ * nothing, so a visitor only implements what it consumes.
+ */
+public interface DecodeVisitor {
+
+    /**
+     * Called before the params of a function or event.
+     *
+     * @param name  the function or event name
+     * @param count the number of params
+     */
+    default void begin(String name, int count) {
+    }
+
+    /**
+     * Called after the params of a function or event.
+     */
+    default void end() {
+    }
+
+    /**
+     * An unsigned integer of at most 64 bits. A uint64 above {@link Long#MAX_VALUE} is negative, use the unsigned
+     * methods of {@link Long} to read it.
+     */
+    default void onUint(int index, long value) {
+    }
+
+    /**
+     * An unsigned integer of more than 64 bits, as a 32 byte big-endian word.
+     */
+    default void onBigUint(int index, byte[] buffer, int offset) {
+    }
+
+    /**
+     * A signed integer of at most 64 bits.
+     */
+    default void onInt(int index, long value) {
+    }
+
+    /**
+     * A signed integer of more than 64 bits, as a 32 byte big-endian two's complement word.
+     */
+    default void onBigInt(int index, byte[] buffer, int offset) {
+    }
+
+    default void onBool(int index, boolean value) {
+    }
+
+    /**
+     * An address, as its 20 bytes.
+     */
+    default void onAddress(int index, byte[] buffer, int offset) {
+    }
+
+    /**
+     * A {@code bytes} value, a {@code bytesN} value, or the 32 byte hash of an indexed dynamic event param.
+     */
+    default void onBytes(int index, byte[] buffer, int offset, int length) {
+    }
+
+    /**
+     * A {@code string} value as its UTF-8 bytes. Defaults to {@link #onBytes}.
+     */
+    default void onString(int index, byte[] buffer, int offset, int length) {
+        onBytes(index, buffer, offset, length);
+    }
+
+    /**
+     * @param index the index of the tuple
+     * @param count the number of components
+     */
+    default void beginTuple(int index, int count) {
+    }
+
+    default void endTuple(int index) {
+    }
+
+    /**
+     * @param index  the index of the array
+     * @param length the number of elements
+     */
+    default void beginArray(int index, int length) {
+    }
+
+    default void endArray(int index) {
+    }
+}
@@ -3,6 +3,7 @@ package com.github.wkennedy.util;
 import org.apache.commons.codec.binary.Hex;
 
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static com.github.wkennedy.util.Constants.HEX_PREFIX;
@@ -70,6 +71,22 @@ public class ByteUtil {
         return Hex.encodeHexString(data);
     }
 
+    /**
+     * Renders a 20 byte address as a 0x prefixed hex string with the EIP-55 mixed case checksum.
+     *
+     * @param address The address bytes.
+     * @return The checksummed address.
+     */
+    public static String toChecksumAddress(byte[] address) {
+        char[] hex = Hex.encodeHex(address);
+        byte[] hash = Keccak256.hash(new String(hex).getBytes(StandardCharsets.US_ASCII));
+        for (int i = 0; i < hex.length; i++) {
+            int nibble = (hash[i / 2] >> (i % 2 == 0 ? 4 : 0)) & 0xF;
+            if (nibble >= 8) hex[i] = Character.toUpperCase(hex[i]);
+        }
+        return HEX_PREFIX + new String(hex);
+    }
+
     /**
      * Merges multiple byte arrays into a single byte array.
      *
@@ -0,0 +1,199 @@
+package com.github.wkennedy.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * An allocation-free Keccak-256 implementation (the original Keccak padding used by Ethereum, not NIST SHA3-256).
+ * <p>
+ * An instance holds the sponge state and can be reused with {@link #reset()}. Instances are not thread-safe; the
+ * static helpers use one instance per thread, so hashing into a caller supplied buffer allocates nothing.
+ */
+public final class Keccak256 {
+    public static final int DIGEST_LENGTH = 32;
+
+    private static final int RATE = 136;
+    private static final int LANES = 25;
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final ThreadLocal<Keccak256> THREAD_LOCAL = ThreadLocal.withInitial(Keccak256::new);
+
+    private static final long[] ROUND_CONSTANTS = {
+            0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+            0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+            0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+            0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+            0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+            0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    private static final int[] ROTATIONS = {
+            0, 1, 62, 28, 27,
+            36, 44, 6, 55, 20,
+            3, 10, 43, 25, 39,
+            41, 45, 15, 21, 8,
+            18, 2, 61, 56, 14
+    };
+
+    private final long[] state = new long[LANES];
+    private final long[] scratch = new long[LANES];
+    private final long[] columns = new long[5];
+    private int position;
+
+    /**
+     * Clears the sponge state so the instance can hash a new message.
+     *
+     * @return this instance
+     */
+    public Keccak256 reset() {
+        Arrays.fill(state, 0L);
+        position = 0;
+        return this;
+    }
+
+    /**
+     * Absorbs the given bytes.
+     *
+     * @param input  the buffer
+     * @param offset the start of the bytes to absorb
+     * @param length the number of bytes to absorb
+     * @return this instance
+     */
+    public Keccak256 update(byte[] input, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            if ((position & 7) == 0 && end - i >= Long.BYTES) {
+                state[position >>> 3] ^= (long) LONG_LE.get(input, i);
+                i += Long.BYTES;
+                position += Long.BYTES;
+            } else {
+                state[position >>> 3] ^= (input[i] & 0xFFL) << ((position & 7) << 3);
+                i++;
+                position++;
+            }
+            if (position == RATE) {
+                permute();
+                position = 0;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Absorbs the given bytes.
+     *
+     * @param input the bytes to absorb
+     * @return this instance
+     */
+    public Keccak256 update(byte[] input) {
+        return update(input, 0, input.length);
+    }
+
+    /**
+     * Finishes the hash, writes the 32 byte digest into the given buffer and resets the instance.
+     *
+     * @param output the buffer
+     * @param offset the position to write the digest to
+     */
+    public void digest(byte[] output, int offset) {
+        state[position >>> 3] ^= 0x01L << ((position & 7) << 3);
+        state[(RATE - 1) >>> 3] ^= 0x80L << (((RATE - 1) & 7) << 3);
+        permute();
+        for (int i = 0; i < DIGEST_LENGTH / Long.BYTES; i++) {
+            LONG_LE.set(output, offset + i * Long.BYTES, state[i]);
+        }
+        reset();
+    }
+
+    /**
+     * Finishes the hash and resets the instance.
+     *
+     * @return the 32 byte digest
+     */
+    public byte[] digest() {
+        byte[] output = new byte[DIGEST_LENGTH];
+        digest(output, 0);
+        return output;
+    }
+
+    /**
+     * The calling thread's instance. The static {@code hash} helpers use the same instance, so a message must be
+     * finished with {@link #digest} before calling them.
+     *
+     * @return the calling thread's instance, reset and ready for a new message
+     */
+    public static Keccak256 threadLocal() {
+        return THREAD_LOCAL.get().reset();
+    }
+
+    /**
+     * Hashes the given bytes.
+     *
+     * @param input the bytes to hash
+     * @return the 32 byte digest
+     */
+    public static byte[] hash(byte[] input) {
+        return hash(input, 0, input.length);
+    }
+
+    /**
+     * Hashes a slice of the given buffer.
+     *
+     * @param input  the buffer
+     * @param offset the start of the slice
+     * @param length the length of the slice
+     * @return the 32 byte digest
+     */
+    public static byte[] hash(byte[] input, int offset, int length) {
+        byte[] output = new byte[DIGEST_LENGTH];
+        hash(input, offset, length, output, 0);
+        return output;
+    }
+
+    /**
+     * Hashes a slice of the given buffer into a caller supplied buffer without allocating.
+     *
+     * @param input        the buffer
+     * @param offset       the start of the slice
+     * @param length       the length of the slice
+     * @param output       the buffer receiving the digest
+     * @param outputOffset the position to write the digest to
+     */
+    public static void hash(byte[] input, int offset, int length, byte[] output, int outputOffset) {
+        threadLocal().update(input, offset, length).digest(output, outputOffset);
+    }
+
+    private void permute() {
+        long[] a = state;
+        long[] b = scratch;
+        long[] c = columns;
+        for (int round = 0; round < 24; round++) {
+            // theta
+            for (int x = 0; x < 5; x++) {
+                c[x] = a[x] ^ a[x + 5] ^ a[x + 10] ^ a[x + 15] ^ a[x + 20];
+            }
+            for (int x = 0; x < 5; x++) {
+                long d = c[(x + 4) % 5] ^ Long.rotateLeft(c[(x + 1) % 5], 1);
+                for (int y = 0; y < LANES; y += 5) {
+                    a[y + x] ^= d;
+                }
+            }
+            // rho and pi
+            for (int x = 0; x < 5; x++) {
+                for (int y = 0; y < 5; y++) {
+                    b[y + 5 * ((2 * x + 3 * y) % 5)] = Long.rotateLeft(a[x + 5 * y], ROTATIONS[x + 5 * y]);
+                }
+            }
+            // chi
+            for (int y = 0; y < LANES; y += 5) {
+                for (int x = 0; x < 5; x++) {
+                    a[y + x] = b[y + x] ^ (~b[y + (x + 1) % 5] & b[y + (x + 2) % 5]);
+                }
+            }
+            // iota
+            a[0] ^= ROUND_CONSTANTS[round];
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.models.DecodedFunctions;
+import com.github.wkennedy.util.Keccak256;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodeLimitsTest {
+    private static final String ABI = """
+            [
+              {"type":"function","name":"store","stateMutability":"nonpayable","outputs":[],
+               "inputs":[{"name":"data","type":"bytes"}]},
+              {"type":"function","name":"batch","stateMutability":"nonpayable","outputs":[],
+               "inputs":[{"name":"items","type":"bytes[]"}]},
+              {"type":"function","name":"sum","stateMutability":"nonpayable","outputs":[],
+               "inputs":[{"name":"values","type":"uint256[]"}]}
+            ]""";
+
+    @Test
+    void forgedBytesLength_shouldFailBeforeAllocating() {
+        Decoder decoder = new Decoder(ABI);
+        decoder.setDecodeLimits(DecodeLimits.UNLIMITED);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> decoder.decodeFunction(selector("store(bytes)") + word(32) + word(Integer.MAX_VALUE)));
+        assertTrue(e.getMessage().contains("exceeds payload"), e.getMessage());
+    }
+
+    @Test
+    void forgedArrayLength_shouldFailBeforeAllocating() {
+        Decoder decoder = new Decoder(ABI);
+        decoder.setDecodeLimits(DecodeLimits.UNLIMITED);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> decoder.decodeFunction(selector("sum(uint256[])") + word(32) + word(Integer.MAX_VALUE) + word(1)));
+        assertTrue(e.getMessage().contains("exceeds payload"), e.getMessage());
+    }
+
+    @Test
+    void maxArrayLength_shouldRejectLongerArrays() {
+        String calldata = selector("sum(uint256[])") + word(32) + word(10) + word(1).repeat(10);
+        Decoder decoder = new Decoder(ABI);
+        assertEquals(10, ((Object[]) decoder.decodeFunction(calldata).getParam("values").getRawValue()).length);
+
+        decoder.setDecodeLimits(new DecodeLimits(Long.MAX_VALUE, 5, 8, 10));
+        DecodeLimitExceededException e = assertThrows(DecodeLimitExceededException.class, () -> decoder.decodeFunction(calldata));
+        assertTrue(e.getMessage().startsWith("Decode limit exceeded"), e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+    }
+
+    @Test
+    void aliasedOffsets_shouldBeChargedPerElement() {
+        // 1000 elements pointing at the same 4 KiB tail: ~40 KB of calldata decoding into ~4 MB
+        int count = 1000;
+        int length = 4096;
+        StringBuilder calldata = new StringBuilder(selector("batch(bytes[])")).append(word(32)).append(word(count));
+        calldata.append(word(count * 32L).repeat(count));
+        calldata.append(word(length)).append("ab".repeat(length));
+
+        Decoder decoder = new Decoder(ABI);
+        decoder.setDecodeLimits(new DecodeLimits(1 << 20, 1_000_000, 8, 10));
+        RuntimeException e = assertThrows(RuntimeException.class, () -> decoder.decodeFunction(calldata.toString()));
+        assertTrue(e.getMessage().startsWith("Decode limit exceeded"), e.getMessage());
+
+        decoder.setDecodeLimits(DecodeLimits.UNLIMITED);
+        Object[] items = (Object[]) decoder.decodeFunction(calldata.toString()).getParam("items").getRawValue();
+        assertEquals(count, items.length);
+        assertEquals(length, ((byte[]) items[count - 1]).length);
+    }
+
+    @Test
+    void multicall_shouldRespectDepthAndNestedCallLimits() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/multicall_example.json")));
+        Decoder decoder = new Decoder(abiJson);
+        String inputData = "0xac9650d80000000000000000000000000000000000000000000000000000000000000020000000000000000000000000000000000000000000000000000000000000000200000000000000000000000000000000000000000000000000000000000000400000000000000000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000000000000000000008413ead5620000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8000000000000000000000000000000000035f2482336c0d4c2ba6e94faa1d66f000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000164883164560000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8fffffffffffffffffffffffffffffffffffffffffffffffffffffffffff2764c00000000000000000000000000000000000000000000000000000000000a11a8000000000000000000000000000000000000000000000000000000e8d4a510000000000000000000000000000000000000000000000a56d35c029fd16645e079000000000000000000000000000000000000000000000000000000e840308c030000000000000000000000000000000000000000000a503344abc0fbe23670910000000000000000000000005a2b5cb4ce921abd65f0c66c2c839894bfc2076c000000000000000000000000000000000000000000000000000000006244356a00000000000000000000000000000000000000000000000000000000";
+        assertEquals(2, decoder.decodeFunction(inputData).getNestedDecodedFunctions().size());
+
+        decoder.setDecodeLimits(new DecodeLimits(Long.MAX_VALUE, 1_000_000, 0, 10));
+        RuntimeException depth = assertThrows(RuntimeException.class, () -> decoder.decodeFunction(inputData));
+        assertTrue(depth.getMessage().contains("multicall depth"), depth.getMessage());
+
+        decoder.setDecodeLimits(new DecodeLimits(Long.MAX_VALUE, 1_000_000, 8, 1));
+        RuntimeException calls = assertThrows(RuntimeException.class, () -> decoder.decodeFunction(inputData));
+        assertTrue(calls.getMessage().contains("nested calls"), calls.getMessage());
+
+        // the budget is released after a failed decode
+        decoder.setDecodeLimits(DecodeLimits.DEFAULT);
+        DecodedFunctions decoded = decoder.decodeFunction(inputData);
+        assertEquals(2, decoded.getNestedDecodedFunctions().size());
+    }
+
+    @Test
+    void negativeLimits_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new DecodeLimits(-1, 1, 1, 1));
+    }
+
+    private static String selector(String signature) {
+        return Hex.toHexString(Keccak256.hash(signature.getBytes(StandardCharsets.UTF_8)), 0, 4);
+    }
+
+    private static String word(long value) {
+        return String.format("%064x", value);
+    }
+}
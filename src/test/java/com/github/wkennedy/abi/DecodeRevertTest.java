@@ -0,0 +1,85 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.models.DecodedRevert;
+import com.github.wkennedy.util.Keccak256;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodeRevertTest {
+    private static final String WORD_32 = "0000000000000000000000000000000000000000000000000000000000000020";
+    private static final String INSUFFICIENT_BALANCE = "0000000000000000000000000000000000000000000000000000000000000014496e73756666696369656e742062616c616e6365000000000000000000000000";
+
+    @Test
+    void decodeRevert_errorString_shouldReturnTheMessage() {
+        DecodedRevert revert = new Decoder().decodeRevert("0x08c379a0" + WORD_32 + INSUFFICIENT_BALANCE);
+
+        assertEquals("Error", revert.getName());
+        assertEquals("Error(string)", revert.getSignature());
+        assertTrue(revert.isError());
+        assertEquals("Insufficient balance", revert.getReason());
+        assertEquals("Insufficient balance", revert.getParam("message").getValue());
+    }
+
+    @Test
+    void decodeRevert_panic_shouldDescribeTheCode() {
+        DecodedRevert revert = new Decoder().decodeRevert("4e487b71" + "0000000000000000000000000000000000000000000000000000000000000011");
+
+        assertTrue(revert.isPanic());
+        assertEquals(BigInteger.valueOf(0x11), revert.getParam("code").getValue());
+        assertEquals("Arithmetic operation overflowed or underflowed", revert.getReason());
+        assertEquals("Unknown panic code 0x99", DecodedRevert.describePanic(BigInteger.valueOf(0x99)));
+    }
+
+    @Test
+    void decodeRevert_customError_shouldUseTheRegisteredAbi() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/tuple_test_abi.json")));
+        Decoder decoder = new Decoder();
+        String stringTooLong = selector("StringTooLong(string)");
+        assertNull(decoder.decodeRevert(stringTooLong + WORD_32 + INSUFFICIENT_BALANCE));
+
+        decoder.addAbi(abiJson);
+        DecodedRevert revert = decoder.decodeRevert(stringTooLong + WORD_32 + INSUFFICIENT_BALANCE);
+
+        assertEquals("StringTooLong", revert.getName());
+        assertEquals("Insufficient balance", revert.getParam(0).getValue());
+        assertNull(revert.getReason());
+        assertEquals("InvalidShortString()", decoder.decodeRevert(selector("InvalidShortString()")).getSignature());
+    }
+
+    @Test
+    void decodeRevert_emptyOrUnknown_shouldReturnNull() {
+        Decoder decoder = new Decoder();
+
+        assertNull(decoder.decodeRevert("0x"));
+        assertNull(decoder.decodeRevert(new byte[]{0x08, (byte) 0xc3}));
+        assertNull(decoder.decodeRevert("0xdeadbeef"));
+    }
+
+    @Test
+    void decodeRevert_truncatedData_shouldThrow() {
+        assertThrows(RuntimeException.class, () -> new Decoder().decodeRevert("0x08c379a0" + WORD_32));
+    }
+
+    @Test
+    void decodeRevert_slice_shouldNotReadPastItsEnd() {
+        Decoder decoder = new Decoder();
+        byte[] buffer = Hex.decode("4e487b71" + "00".repeat(31) + "11" + "08c379a0" + WORD_32 + INSUFFICIENT_BALANCE);
+
+        assertThrows(RuntimeException.class, () -> decoder.decodeRevert(buffer, 0, 4));
+        assertThrows(RuntimeException.class, () -> decoder.decodeRevert(buffer, 36, 4 + 32 + 32));
+        assertEquals(BigInteger.valueOf(17), decoder.decodeRevert(buffer, 0, 36).getParam("code").getRawValue());
+        assertEquals("Insufficient balance", decoder.decodeRevert(buffer, 36, buffer.length - 36).getParam("message").getRawValue());
+    }
+
+    private static String selector(String signature) {
+        return Hex.toHexString(Keccak256.hash(signature.getBytes(StandardCharsets.US_ASCII)), 0, 4);
+    }
+}
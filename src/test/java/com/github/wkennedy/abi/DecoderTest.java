@@ -5,8 +5,13 @@ import com.github.wkennedy.abi.models.DecodedFunctions;
 import com.github.wkennedy.abi.models.DecodedLog;
 import com.github.wkennedy.abi.models.Log;
 import com.github.wkennedy.abi.models.Param;
+import com.github.wkennedy.abi.models.ValueFormatter;
+import com.github.wkennedy.abi.transaction.RawTransaction;
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.jupiter.api.Test;
+import org.web3j.rlp.RlpEncoder;
+import org.web3j.rlp.RlpList;
+import org.web3j.rlp.RlpString;
 
 import java.io.IOException;
 import java.math.BigInteger;
@@ -19,6 +24,11 @@ import java.util.Map;
 
 import static com.github.wkennedy.util.Constants.HEX_PREFIX;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DecoderTest {
 
@@ -39,6 +49,11 @@ public class DecoderTest {
         assertEquals(1, abis.size());
         Map<String, AbiEntry> methodIDs = decoder.getMethodIDs();
         assertEquals(5, methodIDs.size());
+
+        decoder.freeze();
+        assertThrows(UnsupportedOperationException.class, () -> decoder.getAbis().clear());
+        assertThrows(UnsupportedOperationException.class, () -> decoder.getMethodIDs().remove(methodIDs.keySet().iterator().next()));
+        assertEquals(5, decoder.getMethodIDs().size());
     }
 
     @Test
@@ -140,6 +155,22 @@ public class DecoderTest {
     }
 
 
+    @Test
+    public void decodeFunction_withValueFormatter_shouldRenderParamsWithIt() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/uniswap_abi.json")));
+        Decoder decoder = new Decoder();
+        decoder.addAbi("0x7a250d5630b4cf539739df2c5dacb4c659f2488d", abiJson);
+        decoder.setValueFormatter(ValueFormatter.STRINGS);
+
+        DecodedFunctions decodedFunctions = decoder.decodeFunction("0x18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+
+        List<Param> paramList = decodedFunctions.getParams();
+        assertEquals("10000000", paramList.getFirst().getValue());
+        assertEquals(BigInteger.valueOf(10000000), paramList.getFirst().getRawValue());
+        assertEquals(Arrays.toString(new String[]{"0xA0b86991c6218b36c1d19D4a2e9Eb0cE3606eB48", "0xC02aaA39b223FE8D0A0e5C4F27eAD9083C756Cc2"}), Arrays.toString((Object[]) paramList.get(2).getValue()));
+        assertEquals("0xD4CF8e47BeAC55b42Ae58991785Fa326d9384Bd1", paramList.get(3).getValue());
+    }
+
     @Test
     void decodeLogsTest() throws IOException {
         String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
@@ -162,6 +193,109 @@ public class DecoderTest {
         assertEquals("src", decodedLog.getEvents().getFirst().getName());
         assertEquals("dst", decodedLog.getEvents().get(1).getName());
         assertEquals("wad", decodedLog.getEvents().get(2).getName());
+        assertEquals(new BigInteger("264180000000000000"), decodedLog.getParam("wad").getValue());
+        assertEquals("0x66f044b68f2808753b99a7d31820fbc751342d9c", decodedLog.getEventsMap().get("src").getValue());
+
+        DecodedLog second = decoder.decodeLogs(logs).getFirst();
+        assertSame(second.getParam(2), second.getParam("wad"));
+    }
+
+    @Test
+    void decodeLogs_unregisteredTopic_shouldBeSkippedAsMiss() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        Decoder decoder = new Decoder(abiJson);
+        List<String> topics = List.of("0x8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925");
+        Log log = new Log("0x", topics, "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+
+        assertTrue(decoder.decodeLogs(log).isEmpty());
+    }
+
+    @Test
+    void mightContainRegisteredEvents_shouldTestTheLogsBloom() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        Decoder decoder = new Decoder();
+        byte[] bloom = new byte[256];
+        assertFalse(decoder.mightContainRegisteredEvents(bloom));
+
+        org.web3j.utils.Bloom transferBloom = new org.web3j.utils.Bloom();
+        transferBloom.add("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef");
+        assertFalse(decoder.mightContainRegisteredEvents(transferBloom.getBytesHexString()));
+
+        decoder.addAbi(abiJson);
+        assertTrue(decoder.mightContainRegisteredEvents(transferBloom.getBytesHexString()));
+        assertFalse(decoder.mightContainRegisteredEvents(bloom));
+    }
+
+    @Test
+    void getAbiByAddress_shouldRouteAddressesIgnoringCase() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        Decoder decoder = new Decoder();
+        decoder.addAbi("0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365", abiJson);
+        decoder.addAbi("erc20", abiJson);
+        decoder.mapAddress("0x66f044b68f2808753b99a7d31820fbc751342d9c", "erc20");
+
+        assertSame(decoder.getAbis().get("0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365"), decoder.getAbiByAddress("0x4056140bc49cb36dd0b5bc4b4530ef56781cc365"));
+        assertSame(decoder.getAbis().get("erc20"), decoder.getAbiByAddress("0x66F044B68F2808753B99A7D31820FBC751342D9C"));
+        assertNull(decoder.getAbiByAddress("0xa0b86991c6218b36c1d19d4a2e9eb0ce3606eb48"));
+        assertThrows(IllegalArgumentException.class, () -> decoder.mapAddress("0xa0b86991c6218b36c1d19d4a2e9eb0ce3606eb48", "unknown"));
+
+        Decoder restarted = new Decoder();
+        restarted.setAddressIndex(decoder.getAddressIndex(), decoder.getAbiKeys());
+        restarted.addAbi("erc20", abiJson);
+        assertSame(restarted.getAbis().get("erc20"), restarted.getAbiByAddress("0x66f044b68f2808753b99a7d31820fbc751342d9c"));
+    }
+
+    @Test
+    public void decodeTransaction_shouldDecodeInPlaceAndPreferTheAbiRoutedToTheRecipient() throws IOException {
+        String erc20Json = new String(Files.readAllBytes(Paths.get("./src/test/resources/erc20_abi.json")));
+        String wethJson = "[{\"type\":\"function\",\"name\":\"transfer\",\"stateMutability\":\"nonpayable\",\"outputs\":[],"
+                + "\"inputs\":[{\"name\":\"dst\",\"type\":\"address\"},{\"name\":\"wad\",\"type\":\"uint256\"}]}]";
+        Decoder decoder = new Decoder();
+        decoder.addAbi("0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365", erc20Json);
+        decoder.addAbi("weth", wethJson);
+        String calldata = "a9059cbb00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c00000000000000000000000000000000000000000000000003aa8e4f70c34000";
+        byte[] raw = dynamicFeeTransaction("0x4056140bc49cb36dd0b5bc4b4530ef56781cc365", Hex.decode(calldata));
+
+        DecodedFunctions routed = decoder.decodeTransaction(raw);
+        assertEquals("transfer", routed.getName());
+        assertEquals("_to", routed.getParams().getFirst().getName());
+        assertEquals(new BigInteger("264180000000000000"), routed.getParam("_value").getValue());
+        // the selector registry itself resolves to the ABI added last
+        assertEquals("dst", decoder.decodeFunction(Hex.decode(calldata)).getParams().getFirst().getName());
+        assertEquals("dst", decoder.decodeTransaction(dynamicFeeTransaction("0x66f044b68f2808753b99a7d31820fbc751342d9c", Hex.decode(calldata))).getParams().getFirst().getName());
+
+        RawTransaction transaction = RawTransaction.parse(raw);
+        DecodedFunctions slice = decoder.decodeFunction(raw, transaction.getDataOffset(), transaction.getDataLength());
+        assertEquals(routed.getParam("_value").getValue(), slice.getParam("wad").getValue());
+        assertNull(decoder.decodeTransaction(dynamicFeeTransaction("0x4056140bc49cb36dd0b5bc4b4530ef56781cc365", new byte[0])));
+    }
+
+    @Test
+    public void decodeTransaction_truncatedCalldata_shouldNotDecodeTheFieldsThatFollow() {
+        String wethJson = "[{\"type\":\"function\",\"name\":\"transfer\",\"stateMutability\":\"nonpayable\",\"outputs\":[],"
+                + "\"inputs\":[{\"name\":\"dst\",\"type\":\"address\"},{\"name\":\"wad\",\"type\":\"uint256\"}]}]";
+        Decoder decoder = new Decoder();
+        decoder.addAbi("weth", wethJson);
+        // the wad word is missing, the access list and signature follow the data in the transaction
+        byte[] raw = dynamicFeeTransaction("0x4056140bc49cb36dd0b5bc4b4530ef56781cc365",
+                Hex.decode("a9059cbb00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c"));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> decoder.decodeTransaction(raw));
+        assertTrue(e.getMessage().contains("truncated or malformed"), e.getMessage());
+        RawTransaction transaction = RawTransaction.parse(raw);
+        assertThrows(RuntimeException.class, () -> decoder.decodeFunction(raw, transaction.getDataOffset(), transaction.getDataLength()));
+    }
+
+    private static byte[] dynamicFeeTransaction(String to, byte[] data) {
+        byte[] payload = RlpEncoder.encode(new RlpList(
+                RlpString.create(1), RlpString.create(7), RlpString.create(1),
+                RlpString.create(10), RlpString.create(60_000), RlpString.create(Hex.decode(to.substring(2))),
+                RlpString.create(0), RlpString.create(data), new RlpList(),
+                RlpString.create(1), RlpString.create(new byte[32]), RlpString.create(new byte[32])));
+        byte[] raw = new byte[payload.length + 1];
+        raw[0] = RawTransaction.DYNAMIC_FEE;
+        System.arraycopy(payload, 0, raw, 1, payload.length);
+        return raw;
     }
 
     @Test
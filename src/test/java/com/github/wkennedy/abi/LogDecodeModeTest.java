@@ -0,0 +1,89 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.DeferredParam;
+import com.github.wkennedy.abi.models.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogDecodeModeTest {
+    private static final List<String> TOPICS = List.of(
+            "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+            "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+            "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365");
+    private static final String TOKEN = "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365";
+
+    private Decoder decoder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        decoder = new Decoder(new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json"))));
+    }
+
+    @Test
+    void topicsOnly_shouldDeferTheDataUntilItIsRead() {
+        Log log = new Log(String.format("0x%064x", 264180000000000000L), TOPICS, TOKEN);
+        DecodedLog full = decoder.decodeLogs(log).getFirst();
+
+        decoder.setLogDecodeMode(LogDecodeMode.TOPICS_ONLY);
+        DecodedLog topicsOnly = decoder.decodeLogs(log).getFirst();
+
+        assertEquals(full.getParam("src").getValue(), topicsOnly.getParam("src").getValue());
+        assertEquals(full.getParam("dst").getValue(), topicsOnly.getParam("dst").getValue());
+        DeferredParam wad = assertInstanceOf(DeferredParam.class, topicsOnly.getParam("wad"));
+        assertFalse(wad.isResolved());
+
+        assertEquals(BigInteger.valueOf(264180000000000000L), wad.getRawValue());
+        assertTrue(wad.isResolved());
+        assertEquals(full.getParam("wad").getValue(), wad.getValue());
+        assertEquals(full.getParam("wad"), wad);
+        assertEquals(wad, full.getParam("wad"));
+        assertEquals(full.getParam("wad").hashCode(), wad.hashCode());
+    }
+
+    @Test
+    void topicsOnly_shouldReportMalformedDataOnAccess() {
+        decoder.setLogDecodeMode(LogDecodeMode.TOPICS_ONLY);
+        DecodedLog decoded = decoder.decodeLogs(new Log("0xzz", TOPICS, TOKEN)).getFirst();
+
+        assertEquals("0x66f044b68f2808753b99a7d31820fbc751342d9c", decoded.getParam("src").getValue());
+        assertThrows(RuntimeException.class, () -> decoded.getParam("wad").getRawValue());
+    }
+
+    @Test
+    void topicsOnly_equalsAndHashCode_shouldNotDecodeOrThrow() {
+        Log log = new Log(String.format("0x%064x", 264180000000000000L), TOPICS, TOKEN);
+        decoder.setLogDecodeMode(LogDecodeMode.TOPICS_ONLY);
+        DeferredParam first = (DeferredParam) decoder.decodeLogs(log).getFirst().getParam("wad");
+        DeferredParam second = (DeferredParam) decoder.decodeLogs(log).getFirst().getParam("wad");
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(1, new HashSet<>(List.of(first, second)).size());
+        assertFalse(first.isResolved());
+        assertFalse(second.isResolved());
+
+        DeferredParam malformed = (DeferredParam) decoder.decodeLogs(new Log("0xzz", TOPICS, TOKEN)).getFirst().getParam("wad");
+        assertDoesNotThrow(malformed::hashCode);
+        assertEquals(malformed, malformed);
+        assertNotEquals(malformed, first);
+        assertNotEquals(first, malformed);
+        assertEquals(2, new HashSet<>(List.of(first, malformed)).size());
+    }
+
+    @Test
+    void full_shouldBeTheDefault() {
+        assertEquals(LogDecodeMode.FULL, decoder.getLogDecodeMode());
+        DecodedLog decoded = decoder.decodeLogs(new Log(String.format("0x%064x", 1), TOPICS, TOKEN)).getFirst();
+        assertFalse(decoded.getParam("wad") instanceof DeferredParam);
+    }
+}
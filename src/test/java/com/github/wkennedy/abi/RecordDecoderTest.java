@@ -0,0 +1,167 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.entry.AbiEvent;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.models.Log;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordDecoderTest {
+
+    record Transfer(byte[] src, String dst, BigInteger wad) {
+    }
+
+    record Swap(BigInteger amountIn, long amountOutMin, Object[] path, String to, Long deadline) {
+    }
+
+    record ForwardRequest(String from, byte[] to, BigInteger value, long gas, int nonce, byte[] data) {
+    }
+
+    record Execute(ForwardRequest req, byte[] sigR, String sigS, int sigV) {
+    }
+
+    record Tagged(byte[] tag) {
+    }
+
+    record Flag(boolean flag) {
+    }
+
+    record Note(String note) {
+    }
+
+    record WrongType(String amountIn, long amountOutMin, Object[] path, String to, long deadline) {
+    }
+
+    @Test
+    void bindEvent_decodesTransfer() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        AbiEvent event = Abi.fromJson(abiJson).orElseThrow()
+                .findEvent(ev -> "Transfer".equals(ev.name) && "src".equals(ev.inputs.getFirst().name)).orElseThrow();
+        Log log = new Log("0x00000000000000000000000000000000000000000000000003aa8e4f70c34000",
+                Arrays.asList("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+                        "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                        "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365"),
+                "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+
+        Transfer transfer = new Decoder().bind(event, Transfer.class).decodeLog(log);
+
+        assertEquals("66f044b68f2808753b99a7d31820fbc751342d9c", Hex.encodeHexString(transfer.src()));
+        assertEquals("0x4056140bc49cb36dd0b5bc4b4530ef56781cc365", transfer.dst());
+        assertEquals(new BigInteger("264180000000000000"), transfer.wad());
+    }
+
+    @Test
+    void bindFunction_decodesPrimitivesAndArrays() throws IOException, DecoderException {
+        AbiFunction function = function("uniswap_abi.json", "swapExactTokensForETH");
+        byte[] calldata = Hex.decodeHex("18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+
+        Swap swap = new Decoder().bind(function, Swap.class).decodeFunction(calldata);
+
+        assertEquals(BigInteger.valueOf(10000000), swap.amountIn());
+        assertEquals(6283178947560620L, swap.amountOutMin());
+        assertEquals(2, swap.path().length);
+        assertEquals("0xd4cf8e47beac55b42ae58991785fa326d9384bd1", swap.to());
+        assertEquals(1659426897L, swap.deadline());
+    }
+
+    @Test
+    void bindFunction_decodesNestedTupleRecord() throws IOException {
+        AbiFunction function = function("tuple_test_abi.json", "execute");
+        byte[] calldata = function.encode(
+                new Object[]{"0xddcfc6f09a26413c2b0d6224b29738e74102de04", "0xcbb869911c0acd242c15a03c42ce3ddcdd82ea1b", 1000, 21000, 7, new byte[]{1, 2, 3}},
+                new byte[32], new byte[32], 27);
+
+        Execute execute = RecordDecoder.forFunction(function, Execute.class).decodeFunction(calldata);
+
+        assertEquals("0xddcfc6f09a26413c2b0d6224b29738e74102de04", execute.req().from());
+        assertEquals(BigInteger.valueOf(1000), execute.req().value());
+        assertEquals(21000, execute.req().gas());
+        assertEquals(7, execute.req().nonce());
+        assertArrayEquals(new byte[]{1, 2, 3}, execute.req().data());
+        assertEquals(27, execute.sigV());
+    }
+
+    @Test
+    void bind_withIncompatibleRecord_shouldThrow() throws IOException {
+        AbiFunction function = function("uniswap_abi.json", "swapExactTokensForETH");
+        assertThrows(RuntimeException.class, () -> RecordDecoder.forFunction(function, WrongType.class));
+        assertThrows(RuntimeException.class, () -> RecordDecoder.forFunction(function, Transfer.class));
+    }
+
+    @Test
+    void decodeFunction_valueTooWideForPrimitive_shouldThrow() throws IOException {
+        AbiFunction function = function("uniswap_abi.json", "swapExactTokensForETH");
+        byte[] calldata = function.encode(1, new BigInteger("10000000000000000000"), new String[0], "0xd4cf8e47beac55b42ae58991785fa326d9384bd1", 1);
+        assertThrows(ArithmeticException.class, () -> RecordDecoder.forFunction(function, Swap.class).decodeFunction(calldata));
+    }
+
+    @Test
+    void decodeFunction_truncatedFixedBytes_shouldThrowLikeAnInteger() {
+        AbiFunction function = Abi.fromJson("""
+                [{"type":"function","name":"f","stateMutability":"nonpayable","outputs":[],
+                  "inputs":[{"name":"tag","type":"bytes4"}]}]""")
+                .orElseThrow().findFunction(fn -> "f".equals(fn.name)).orElseThrow();
+        RecordDecoder<Tagged> decoder = RecordDecoder.forFunction(function, Tagged.class);
+        byte[] calldata = function.encode((Object) Arrays.copyOf(new byte[]{1, 2, 3, 4}, 32));
+
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, decoder.decodeFunction(calldata).tag());
+        assertThrows(IndexOutOfBoundsException.class, () -> decoder.decodeFunction(Arrays.copyOf(calldata, 4 + 8)));
+    }
+
+    @Test
+    void decodeFunction_dirtyBool_shouldMatchBoolType() {
+        AbiFunction function = Abi.fromJson("""
+                [{"type":"function","name":"f","stateMutability":"nonpayable","outputs":[],
+                  "inputs":[{"name":"flag","type":"bool"}]}]""")
+                .orElseThrow().findFunction(fn -> "f".equals(fn.name)).orElseThrow();
+        RecordDecoder<Flag> decoder = RecordDecoder.forFunction(function, Flag.class);
+        byte[] calldata = function.encode(false);
+        calldata[4 + 30] = 1;
+
+        assertEquals(SolidityType.getType("bool").decode(calldata, 4), decoder.decodeFunction(calldata).flag());
+        assertTrue(decoder.decodeFunction(calldata).flag());
+    }
+
+    @Test
+    void decodeFunction_forgedOrOverBudgetLength_shouldThrow() {
+        AbiFunction function = Abi.fromJson("""
+                [{"type":"function","name":"f","stateMutability":"nonpayable","outputs":[],
+                  "inputs":[{"name":"note","type":"string"}]}]""")
+                .orElseThrow().findFunction(fn -> "f".equals(fn.name)).orElseThrow();
+        RecordDecoder<Note> decoder = RecordDecoder.forFunction(function, Note.class);
+        byte[] calldata = function.encode("a".repeat(100));
+        assertEquals("a".repeat(100), decoder.decodeFunction(calldata).note());
+
+        decoder.setDecodeLimits(new DecodeLimits(64, 1_000, 8, 10));
+        assertThrows(DecodeLimitExceededException.class, () -> decoder.decodeFunction(calldata));
+
+        byte[] forged = calldata.clone();
+        forged[4 + 32 + 28] = 0x7f;
+        forged[4 + 32 + 29] = (byte) 0xff;
+        forged[4 + 32 + 30] = (byte) 0xff;
+        forged[4 + 32 + 31] = (byte) 0xf0;
+        decoder.setDecodeLimits(DecodeLimits.UNLIMITED);
+        RuntimeException e = assertThrows(RuntimeException.class, () -> decoder.decodeFunction(forged));
+        assertTrue(e.getMessage().contains("exceeds payload"), e.getMessage());
+    }
+
+    @Test
+    void decodeFunction_withOtherSelector_shouldThrow() throws IOException {
+        RecordDecoder<Swap> decoder = RecordDecoder.forFunction(function("uniswap_abi.json", "swapExactTokensForETH"), Swap.class);
+        assertThrows(RuntimeException.class, () -> decoder.decodeFunction(new byte[]{1, 2, 3, 4}));
+    }
+
+    private static AbiFunction function(String resource, String name) throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/" + resource)));
+        return Abi.fromJson(abiJson).orElseThrow().findFunction(fn -> name.equals(fn.name)).orElseThrow();
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.util.Keccak256;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScratchArenaTest {
+
+    @Test
+    void bytes_shouldBeReusedAtTheExactLengthAfterClose() {
+        byte[] first;
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            first = scratch.bytes(68);
+            assertEquals(68, first.length);
+            assertNotSame(first, scratch.bytes(68));
+        }
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            byte[] reused = scratch.bytes(68);
+            byte[] other = scratch.bytes(68);
+            assertTrue(reused == first || other == first);
+            assertEquals(36, scratch.bytes(36).length);
+        }
+    }
+
+    @Test
+    void bytes_shouldNotPoolLargeArrays() {
+        byte[] large;
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            large = scratch.bytes(ScratchArena.MAX_POOLED_LENGTH + 1);
+        }
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            assertNotSame(large, scratch.bytes(ScratchArena.MAX_POOLED_LENGTH + 1));
+        }
+    }
+
+    @Test
+    void acquire_shouldNotShareAnArenaThatIsInUse() {
+        try (ScratchArena outer = ScratchArena.acquire(); ScratchArena inner = ScratchArena.acquire()) {
+            assertNotSame(outer, inner);
+        }
+    }
+
+    @Test
+    void acquire_onVirtualThreads_shouldBorrowFromTheSharedPool() throws InterruptedException {
+        AtomicReference<ScratchArena> first = new AtomicReference<>();
+        AtomicReference<ScratchArena> second = new AtomicReference<>();
+        Thread.ofVirtual().start(() -> {
+            try (ScratchArena scratch = ScratchArena.acquire()) {
+                first.set(scratch);
+            }
+        }).join();
+        Thread.ofVirtual().start(() -> {
+            try (ScratchArena scratch = ScratchArena.acquire()) {
+                second.set(scratch);
+            }
+        }).join();
+        assertSame(first.get(), second.get());
+    }
+
+    @Test
+    void hex_shouldRejectInvalidInput() {
+        try (ScratchArena scratch = ScratchArena.acquire()) {
+            assertArrayEquals(new byte[]{(byte) 0xab, 0x01}, scratch.hex("0xAB01"));
+            assertThrows(RuntimeException.class, () -> scratch.hex("0xabc"));
+            assertThrows(RuntimeException.class, () -> scratch.hex("0xzz"));
+        }
+    }
+
+    @Test
+    void decodedValues_shouldNotReferenceScratchArrays() {
+        Decoder decoder = new Decoder("""
+                [{"type":"function","name":"store","stateMutability":"nonpayable","outputs":[],
+                  "inputs":[{"name":"owner","type":"address"},{"name":"data","type":"bytes"}]}]""");
+        String selector = Hex.toHexString(Keccak256.hash("store(address,bytes)".getBytes(StandardCharsets.UTF_8)), 0, 4);
+        String head = "000000000000000000000000" + "11".repeat(20) + String.format("%064x%064x", 64, 32);
+
+        byte[] first = (byte[]) decoder.decodeFunction(selector + head + "aa".repeat(32)).getParam("data").getRawValue();
+        byte[] owner = (byte[]) decoder.decodeFunction(selector + head + "aa".repeat(32)).getParam("owner").getRawValue();
+        decoder.decodeFunction(selector + head + "bb".repeat(32));
+
+        assertEquals("aa".repeat(32), Hex.toHexString(first));
+        assertEquals("11".repeat(20), Hex.toHexString(owner));
+    }
+}
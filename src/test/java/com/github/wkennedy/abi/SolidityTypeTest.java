@@ -161,4 +161,66 @@ public class SolidityTypeTest {
         assertTrue(type.isDynamicType());
     }
 
+    @Test
+    public void testStaticTupleFixedSize() {
+        SolidityType.TupleType tupleType = new SolidityType.TupleType(List.of(new SolidityType.AddressType(), new SolidityType.UnsignedIntType("uint24")));
+        assertFalse(tupleType.isDynamicType());
+        assertEquals(64, tupleType.getFixedSize());
+        assertEquals("(address,uint24)", tupleType.getTypeDefinition());
+    }
+
+    @Test
+    public void testTupleEncodeDecode() {
+        SolidityType.TupleType tupleType = new SolidityType.TupleType(List.of(new SolidityType.UnsignedIntType("uint256"), new SolidityType.StringType()));
+        assertTrue(tupleType.isDynamicType());
+        byte[] encoded = tupleType.encode(new Object[]{5, "abc"});
+        assertEquals(32 * 4, encoded.length);
+        Object[] decoded = (Object[]) tupleType.decode(encoded, 0);
+        assertEquals(java.math.BigInteger.valueOf(5), decoded[0]);
+        assertEquals("abc", decoded[1]);
+    }
+
+    @Test
+    public void testTupleArrayTypeDefinition() {
+        SolidityType.DynamicArrayType arrayType = new SolidityType.DynamicArrayType("tuple[]");
+        ((SolidityType.TupleType) arrayType.getElementType()).getTypes().add(new SolidityType.BytesType());
+        assertEquals("(bytes)[]", arrayType.getTypeDefinition());
+        assertEquals("tuple[]", arrayType.getCanonicalName());
+    }
+
+    @Test
+    public void testEncodeBytesTypeEmptyInputIsLengthWordOnly() {
+        SolidityType.BytesType bytesType = new SolidityType.BytesType();
+        assertEquals(32, bytesType.encode(new byte[0]).length);
+        assertEquals(64, bytesType.encode(new byte[32]).length);
+    }
+
+    @Test
+    public void testEncodePackedMatchesSolidityExample() {
+        // abi.encodePacked(int16(-1), bytes1(0x42), uint16(0x03), string("Hello, world!"))
+        byte[] packed = SolidityType.encodePacked(
+                List.of(SolidityType.getType("int16"), SolidityType.getType("bytes1"), SolidityType.getType("uint16"), SolidityType.getType("string")),
+                -1, new byte[]{0x42}, 3, "Hello, world!");
+        assertEquals("ffff42000348656c6c6f2c20776f726c6421", org.apache.commons.codec.binary.Hex.encodeHexString(packed));
+    }
+
+    @Test
+    public void testEncodePackedAddressBoolAndArray() {
+        assertEquals(20, new SolidityType.AddressType().encodePacked("0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2").length);
+        assertArrayEquals(new byte[]{1}, new SolidityType.BoolType().encodePacked(true));
+        assertEquals(64, SolidityType.getType("uint8[]").encodePacked(new int[]{1, 2}).length);
+        assertThrows(RuntimeException.class, () -> SolidityType.getType("string[]").encodePacked(new String[]{"a"}));
+        assertThrows(RuntimeException.class, () -> new SolidityType.TupleType().encodePacked(new Object[0]));
+    }
+
+    @Test
+    public void testEncodePackedOutOfRangeShouldThrow() {
+        assertArrayEquals(new byte[]{(byte) 0xff}, SolidityType.getType("uint8").encodePacked(255));
+        assertArrayEquals(new byte[]{(byte) 0x80}, SolidityType.getType("int8").encodePacked(-128));
+        assertThrows(RuntimeException.class, () -> SolidityType.getType("uint8").encodePacked(300));
+        assertThrows(RuntimeException.class, () -> SolidityType.getType("int8").encodePacked(128));
+        assertThrows(RuntimeException.class, () -> SolidityType.getType("int8").encodePacked(-129));
+        assertThrows(RuntimeException.class, () -> SolidityType.getType("uint16").encodePacked(-1));
+    }
+
 }
@@ -0,0 +1,99 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.models.DecodedFunctions;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpecializedDecoderTest {
+
+    private static String abi(String file) throws IOException {
+        return new String(Files.readAllBytes(Paths.get("./src/test/resources/" + file)));
+    }
+
+    @Test
+    void compile_shouldDefineHiddenClassMatchingLayoutDecoding() throws IOException {
+        AbiFunction function = Abi.fromJson(abi("tuple_test_abi.json")).orElseThrow()
+                .findFunction(f -> "execute".equals(f.name)).orElseThrow();
+        byte[] calldata = org.bouncycastle.util.encoders.Hex.decode("0x005575f20000000000000000000000000000000000000000000000000000000000000080967c9812e5f939318262ccbd023be072015c3ad2f470d47ab5e6b13e1ca810a540274bf9ce7b9da08b0003fc05e67d74e993f3381bf00bcba0fef022bf3b8d6a000000000000000000000000000000000000000000000000000000000000001b000000000000000000000000ddcfc6f09a26413c2b0d6224b29738e74102de04000000000000000000000000cbb869911c0acd242c15a03c42ce3ddcdd82ea1b000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000038d7ea4c68000000000000000000000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000000000000000000c000000000000000000000000000000000000000000000000000000000000001e4216f62d8000000000000000000000000000000000000000000000000000000000000008000000000000000000000000000000000000000000000000000000000000000e0000000000000000000000000000000000000000000000000000000000000014000000000000000000000000000000000000000000000000000000000000001a0000000000000000000000000000000000000000000000000000000000000003b6261666b7265696263796c746f36667974667336746f796f6f716f6b6272366e333566673767683236646e6f3464766a716c6d743464687a34716d0000000000000000000000000000000000000000000000000000000000000000000000003b6261666b726569647533356c64727965703433797574337275616a747936743278346b3773787077737365347572616b7676366d723763657a696d0000000000000000000000000000000000000000000000000000000000000000000000003b6261666b7265696567616e657563727a6e646b6676726a64346a63346235356174646b707475326d6d3779327372783235617068626b623666373400000000000000000000000000000000000000000000000000000000000000000000000001000000000000000000000000ddcfc6f09a26413c2b0d6224b29738e74102de0400000000000000000000000000000000000000000000000000000000".substring(2));
+
+        SpecializedDecoder decoder = SpecializedDecoder.compile(function.inputLayout());
+        assertNotNull(decoder);
+        assertTrue(decoder.getClass().isHidden());
+        assertEquals(Arrays.deepToString(function.decode(calldata).toArray()), Arrays.deepToString(decoder.decode(calldata, 4)));
+    }
+
+    @Test
+    void compile_emptyLayout_shouldDecodeNothing() {
+        SpecializedDecoder decoder = SpecializedDecoder.compile(AbiLayout.of(List.of()));
+        assertEquals(0, decoder.decode(new byte[0], 0).length);
+    }
+
+    @Test
+    void decodeFunction_shouldSwitchToSpecializedDecoderWhenHot() throws IOException {
+        Decoder decoder = new Decoder(abi("uniswap_abi.json"));
+        decoder.setSpecializationThreshold(2);
+        DecodedFunctions expected = new Decoder(abi("uniswap_abi.json")).decodeFunction("0x18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+
+        for (int i = 0; i < 4; i++) {
+            DecodedFunctions actual = decoder.decodeFunction("0x18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+            assertEquals(expected.getName(), actual.getName());
+            for (int p = 0; p < expected.getParams().size(); p++) {
+                assertEquals(Arrays.deepToString(new Object[]{expected.getParams().get(p).getValue()}),
+                        Arrays.deepToString(new Object[]{actual.getParams().get(p).getValue()}));
+            }
+        }
+    }
+
+    @Test
+    void decodeFunction_dirtyWords_shouldDecodeTheSameHotAndCold() {
+        String abi = """
+                [{"type":"function","name":"f","stateMutability":"nonpayable","outputs":[],
+                  "inputs":[{"name":"b","type":"bool"},{"name":"a","type":"address"}]}]""";
+        AbiFunction function = Abi.fromJson(abi).orElseThrow().findFunction(fn -> "f".equals(fn.name)).orElseThrow();
+        String calldata = org.bouncycastle.util.encoders.Hex.toHexString(function.encodeSignature())
+                + "00".repeat(27) + "0100000000"
+                + "7f" + "00".repeat(11) + "66f044b68f2808753b99a7d31820fbc751342d9c";
+
+        Decoder decoder = new Decoder(abi);
+        DecodedFunctions cold = decoder.decodeFunction(calldata);
+        decoder.setSpecializationThreshold(1);
+        for (int i = 0; i < 3; i++) {
+            DecodedFunctions hot = decoder.decodeFunction(calldata);
+            assertEquals(cold.getParam("b").getValue(), hot.getParam("b").getValue());
+            assertEquals(cold.getParam("a").getValue(), hot.getParam("a").getValue());
+        }
+        assertEquals(false, cold.getParam("b").getRawValue());
+    }
+
+    @Test
+    void decodeLogs_shouldSwitchToSpecializedDecoderWhenHot() throws IOException {
+        Decoder decoder = new Decoder(abi("log_test_abi.json"));
+        decoder.setSpecializationThreshold(1);
+        Log log = new Log("0x00000000000000000000000000000000000000000000000003aa8e4f70c34000",
+                List.of("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+                        "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                        "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365"),
+                "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+
+        for (int i = 0; i < 3; i++) {
+            DecodedLog decoded = decoder.decodeLogs(log).getFirst();
+            assertEquals(new BigInteger("264180000000000000"), decoded.getEvents().get(2).getValue());
+        }
+    }
+
+    @Test
+    void setSpecializationThreshold_negative_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new Decoder().setSpecializationThreshold(-1));
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.wkennedy.abi;
+
+import com.github.wkennedy.abi.models.DecodeResult;
+import com.github.wkennedy.abi.models.DecodedFunctions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TryDecodeFunctionTest {
+    // swapExactTokensForETH(uint256,uint256,address[],address,uint256), path at 0xa0 with two addresses
+    private static final String SWAP_INPUT = "0x18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+
+    private static Decoder decoder() throws IOException {
+        return new Decoder(new String(Files.readAllBytes(Paths.get("./src/test/resources/uniswap_abi.json"))));
+    }
+
+    @Test
+    void tryDecodeFunction_valid_shouldMatchDecodeFunction() throws IOException {
+        Decoder decoder = decoder();
+        DecodeResult<DecodedFunctions> result = decoder.tryDecodeFunction(SWAP_INPUT);
+
+        assertTrue(result.isSuccess());
+        assertEquals(decoder.decodeFunction(SWAP_INPUT).getParam("to").getValue(), result.orNull().getParam("to").getValue());
+        assertEquals(2, ((Object[]) result.orNull().getParam("path").getRawValue()).length);
+        assertEquals("swapExactTokensForETH", result.map(DecodedFunctions::getName).orNull());
+    }
+
+    @Test
+    void tryDecodeFunction_unknownSelector_shouldNotThrow() throws IOException {
+        DecodeResult<DecodedFunctions> result = decoder().tryDecodeFunction("0xdeadbeef" + SWAP_INPUT.substring(10));
+
+        assertEquals(new DecodeResult.UnknownSelector<>("0xdeadbeef"), result);
+        assertNull(result.orNull());
+    }
+
+    @Test
+    void tryDecodeFunction_truncatedArray_shouldReportParamAndOffset() throws IOException {
+        String truncated = SWAP_INPUT.substring(0, SWAP_INPUT.length() - 64);
+
+        DecodeResult<DecodedFunctions> result = decoder().tryDecodeFunction(truncated);
+
+        DecodeResult.Malformed<?> malformed = assertInstanceOf(DecodeResult.Malformed.class, result);
+        assertEquals("0x18cbafe5", malformed.selector());
+        assertEquals(2, malformed.paramIndex());
+        assertEquals(4 + 0xa0, malformed.offset());
+    }
+
+    @Test
+    void tryDecodeFunction_forgedOffset_shouldReportTheHeadWord() throws IOException {
+        String forged = SWAP_INPUT.replace("00000000000000000000000000000000000000000000000000000000000000a0",
+                "00000000000000000000000000000000000000000000000000000000ffffffa0");
+
+        DecodeResult.Malformed<?> malformed = assertInstanceOf(DecodeResult.Malformed.class, decoder().tryDecodeFunction(forged));
+        assertEquals(2, malformed.paramIndex());
+        assertEquals(4 + 64, malformed.offset());
+    }
+
+    @Test
+    void tryDecodeFunction_garbage_shouldNotThrow() throws IOException {
+        Decoder decoder = decoder();
+
+        assertEquals(0, assertInstanceOf(DecodeResult.Malformed.class, decoder.tryDecodeFunction("0x18cb")).offset());
+        assertNull(assertInstanceOf(DecodeResult.Malformed.class, decoder.tryDecodeFunction("0x18cbafzz")).selector());
+        assertInstanceOf(DecodeResult.Malformed.class, decoder.tryDecodeFunction(SWAP_INPUT.substring(0, 75)));
+    }
+
+    @Test
+    void validate_shouldAgreeWithDecode() {
+        SolidityType bytes = SolidityType.getType("bytes");
+        byte[] encoded = bytes.encode(new byte[]{1, 2, 3});
+
+        assertEquals(AbiLayout.VALID, bytes.validate(encoded, 0));
+        assertEquals(0, bytes.validate(java.util.Arrays.copyOf(encoded, 34), 0));
+        assertEquals(0, SolidityType.getType("uint256[]").validate(encoded, 0));
+        assertEquals(-1, AbiLayout.peekOffset(encoded, 40));
+    }
+}
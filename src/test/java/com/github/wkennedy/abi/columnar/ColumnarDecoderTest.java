@@ -0,0 +1,182 @@
+package com.github.wkennedy.abi.columnar;
+
+import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.AbiLayout;
+import com.github.wkennedy.abi.DecodeLimits;
+import com.github.wkennedy.abi.SolidityType;
+import com.github.wkennedy.abi.entry.AbiEvent;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.entry.AbiParam;
+import com.github.wkennedy.abi.models.Log;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarDecoderTest {
+
+    private static final String TRANSFER = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String APPROVAL = "0x8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925";
+
+    @Test
+    void decodeLogs_transferColumns() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        AbiEvent transfer = Abi.fromJson(abiJson).orElseThrow().findEvent(ev -> "Transfer".equals(ev.name) && "src".equals(ev.inputs.getFirst().name)).orElseThrow();
+        Log first = new Log("0x00000000000000000000000000000000000000000000000003aa8e4f70c34000",
+                Arrays.asList(TRANSFER,
+                        "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                        "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365"),
+                "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+        Log other = new Log("0x0000000000000000000000000000000000000000000000000000000000000001",
+                Arrays.asList(APPROVAL,
+                        "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                        "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365"),
+                "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+        Log truncated = new Log("0x00", first.getTopics(), first.getAddress());
+
+        ColumnBatch batch = ColumnarDecoder.forEvent(transfer).decodeLogs(first, other, truncated);
+
+        assertEquals("Transfer", batch.getName());
+        assertEquals(3, batch.getRowCount());
+        assertTrue(batch.isValid(0));
+        assertFalse(batch.isValid(1));
+        assertFalse(batch.isValid(2));
+
+        Column.FixedBytesColumn src = (Column.FixedBytesColumn) batch.getColumn("src");
+        assertEquals(20, src.getWidth());
+        assertEquals("66f044b68f2808753b99a7d31820fbc751342d9c", Hex.encodeHexString(src.getBytes(0)));
+        Column.WordColumn wad = (Column.WordColumn) batch.getColumn("wad");
+        assertEquals(new BigInteger("264180000000000000"), wad.getBigInteger(0));
+    }
+
+    @Test
+    void decodeFunctions_mixedColumns() throws IOException, DecoderException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/uniswap_abi.json")));
+        AbiFunction swap = Abi.fromJson(abiJson).orElseThrow().findFunction(fn -> "swapExactTokensForETH".equals(fn.name)).orElseThrow();
+        byte[] calldata = Hex.decodeHex("18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2");
+
+        ColumnBatch batch = ColumnarDecoder.forFunction(swap).decodeFunctions(List.of(calldata, new byte[]{1, 2, 3, 4}));
+
+        assertTrue(batch.isValid(0));
+        assertFalse(batch.isValid(1));
+        assertEquals(BigInteger.valueOf(10000000), ((Column.WordColumn) batch.getColumn("amountIn")).getBigInteger(0));
+        assertEquals(BigInteger.valueOf(1659426897), ((Column.WordColumn) batch.getColumn("deadline")).getBigInteger(0));
+        assertEquals("d4cf8e47beac55b42ae58991785fa326d9384bd1", Hex.encodeHexString(((Column.FixedBytesColumn) batch.getColumn("to")).getBytes(0)));
+        Object[] path = (Object[]) ((Column.ObjectColumn) batch.getColumn("path")).getValue(0);
+        assertEquals(2, path.length);
+    }
+
+    @Test
+    void decodeFunctions_primitiveAndVariableLengthColumns() {
+        AbiFunction function = new AbiFunction(false, "note", List.of(
+                new AbiParam(false, "id", SolidityType.getType("uint32")),
+                new AbiParam(false, "delta", SolidityType.getType("int64")),
+                new AbiParam(false, "text", new SolidityType.StringType())), List.of(), false);
+        byte[] row0 = function.encode(7, -5, "hello");
+        byte[] row1 = function.encode(8, 9, "");
+        byte[] broken = Arrays.copyOf(function.encode(9, 1, "world"), 4 + 32 * 4);
+        byte[] row3 = function.encode(10, 11, "abi");
+
+        ColumnBatch batch = ColumnarDecoder.forFunction(function).decodeFunctions(List.of(row0, row1, broken, row3));
+
+        Column.LongColumn id = (Column.LongColumn) batch.getColumn("id");
+        Column.LongColumn delta = (Column.LongColumn) batch.getColumn("delta");
+        Column.VarBytesColumn text = (Column.VarBytesColumn) batch.getColumn(2);
+        assertArrayEquals(new long[]{7, 8, 0, 10}, new long[]{id.getLong(0), id.getLong(1), batch.isValid(2) ? -1 : 0, id.getLong(3)});
+        assertEquals(-5, delta.getLong(0));
+        assertEquals("hello", text.getString(0));
+        assertEquals("", text.getString(1));
+        assertFalse(text.isValid(2));
+        assertFalse(id.isValid(2));
+        assertEquals("", text.getString(2));
+        assertEquals("abi", text.getString(3));
+    }
+
+    @Test
+    void decodeFunctions_wordWiderThan64Bits_shouldInvalidateTheRow() {
+        AbiFunction function = new AbiFunction(false, "f", List.of(
+                new AbiParam(false, "id", SolidityType.getType("uint64")),
+                new AbiParam(false, "delta", SolidityType.getType("int64"))), List.of(), false);
+        byte[] valid = function.encode(1, -1);
+        byte[] dirtyUint = function.encode(2, 2);
+        dirtyUint[4] = 1;
+        byte[] dirtyInt = function.encode(3, -3);
+        dirtyInt[4 + 32] = 0x7F;
+
+        ColumnBatch batch = ColumnarDecoder.forFunction(function).decodeFunctions(List.of(valid, dirtyUint, dirtyInt));
+
+        Column.LongColumn delta = (Column.LongColumn) batch.getColumn("delta");
+        assertTrue(batch.isValid(0));
+        assertEquals(-1, delta.getLong(0));
+        assertFalse(batch.isValid(1));
+        assertFalse(batch.isValid(2));
+    }
+
+    @Test
+    void decodeFunctions_forgedLength_shouldInvalidateOnlyThatRow() {
+        AbiFunction function = new AbiFunction(false, "tag", List.of(
+                new AbiParam(false, "ids", SolidityType.getType("uint8[]")),
+                new AbiParam(false, "text", new SolidityType.StringType())), List.of(), false);
+        byte[] valid = function.encode(new Object[]{1, 2}, "hello");
+        byte[] forged = function.encode(new Object[]{3}, "world");
+        // the length word of the string, where its head word points
+        int lengthWord = 4 + AbiLayout.readOffset(forged, 4 + 32);
+        forged[lengthWord + 28] = 0x7f;
+        forged[lengthWord + 29] = (byte) 0xff;
+        forged[lengthWord + 30] = (byte) 0xff;
+        forged[lengthWord + 31] = (byte) 0xf0;
+
+        ColumnBatch batch = ColumnarDecoder.forFunction(function).decodeFunctions(List.of(forged, valid));
+
+        assertFalse(batch.isValid(0));
+        assertNull(((Column.ObjectColumn) batch.getColumn("ids")).getValue(0));
+        assertTrue(batch.isValid(1));
+        assertEquals("hello", ((Column.VarBytesColumn) batch.getColumn("text")).getString(1));
+    }
+
+    @Test
+    void decodeFunctions_shouldApplyTheDecodeLimitsPerRow() {
+        AbiFunction function = new AbiFunction(false, "note", List.of(
+                new AbiParam(false, "text", new SolidityType.StringType())), List.of(), false);
+        ColumnarDecoder decoder = ColumnarDecoder.forFunction(function);
+        decoder.setDecodeLimits(new DecodeLimits(64, 1_000, 8, 10));
+
+        ColumnBatch batch = decoder.decodeFunctions(List.of(function.encode("a".repeat(65)), function.encode("a".repeat(64))));
+
+        assertFalse(batch.isValid(0));
+        assertTrue(batch.isValid(1));
+    }
+
+    @Test
+    void decodeLogs_invalidHex_shouldInvalidateOnlyThatRow() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        AbiEvent transfer = Abi.fromJson(abiJson).orElseThrow().findEvent(ev -> "Transfer".equals(ev.name) && "src".equals(ev.inputs.getFirst().name)).orElseThrow();
+        List<String> topics = Arrays.asList(TRANSFER,
+                "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365");
+        Log badData = new Log("0xzz", topics, "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+        Log badTopic = new Log(String.format("0x%064x", 2), Arrays.asList(TRANSFER, "0xzz", topics.get(2)), badData.getAddress());
+        Log valid = new Log(String.format("0x%064x", 3), topics, badData.getAddress());
+
+        ColumnBatch batch = ColumnarDecoder.forEvent(transfer).decodeLogs(badData, badTopic, valid);
+
+        assertFalse(batch.isValid(0));
+        assertFalse(batch.isValid(1));
+        assertTrue(batch.isValid(2));
+        assertEquals(BigInteger.valueOf(3), ((Column.WordColumn) batch.getColumn("wad")).getBigInteger(2));
+    }
+
+    @Test
+    void decodeLogs_onFunctionDecoder_shouldThrow() {
+        AbiFunction function = new AbiFunction(false, "f", List.of(), List.of(), false);
+        assertThrows(RuntimeException.class, () -> ColumnarDecoder.forFunction(function).decodeLogs());
+    }
+}
@@ -0,0 +1,174 @@
+package com.github.wkennedy.abi.compiled;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.SolidityType;
+import com.github.wkennedy.abi.generated.CodegenClashAbi;
+import com.github.wkennedy.abi.generated.Erc20Abi;
+import com.github.wkennedy.abi.generated.MulticallExample;
+import com.github.wkennedy.abi.generated.UniswapAbi;
+import com.github.wkennedy.abi.models.DecodeResult;
+import com.github.wkennedy.abi.models.DecodedFunctions;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+import com.github.wkennedy.abi.models.Param;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledAbiTest {
+    private static final String SWAP_INPUT = "0x18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+    private static final String MULTICALL_INPUT = "0xac9650d80000000000000000000000000000000000000000000000000000000000000020000000000000000000000000000000000000000000000000000000000000000200000000000000000000000000000000000000000000000000000000000000400000000000000000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000000000000000000008413ead5620000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8000000000000000000000000000000000035f2482336c0d4c2ba6e94faa1d66f000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000164883164560000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8fffffffffffffffffffffffffffffffffffffffffffffffffffffffffff2764c00000000000000000000000000000000000000000000000000000000000a11a8000000000000000000000000000000000000000000000000000000e8d4a510000000000000000000000000000000000000000000000a56d35c029fd16645e079000000000000000000000000000000000000000000000000000000e840308c030000000000000000000000000000000000000000000a503344abc0fbe23670910000000000000000000000005a2b5cb4ce921abd65f0c66c2c839894bfc2076c000000000000000000000000000000000000000000000000000000006244356a00000000000000000000000000000000000000000000000000000000";
+
+    private static Decoder runtimeDecoder(String file) throws IOException {
+        Decoder decoder = new Decoder();
+        decoder.addAbi(new String(Files.readAllBytes(Paths.get("./src/test/resources/" + file))));
+        return decoder;
+    }
+
+    private static void assertSameParams(List<Param> expected, List<Param> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getType(), actual.get(i).getType());
+            assertEquals(Arrays.deepToString(new Object[]{expected.get(i).getValue()}), Arrays.deepToString(new Object[]{actual.get(i).getValue()}));
+        }
+    }
+
+    @Test
+    void decodeFunction_shouldMatchRuntimeDecoder() throws IOException {
+        Decoder compiled = new Decoder();
+        compiled.addCompiledAbi(UniswapAbi.INSTANCE);
+
+        DecodedFunctions expected = runtimeDecoder("uniswap_abi.json").decodeFunction(SWAP_INPUT);
+        DecodedFunctions actual = compiled.decodeFunction(SWAP_INPUT);
+        assertEquals(expected.getName(), actual.getName());
+        assertSameParams(expected.getParams(), actual.getParams());
+        assertTrue(compiled.getAbis().isEmpty());
+    }
+
+    @Test
+    void decodeFunction_multicallWithTuples_shouldMatchRuntimeDecoder() throws IOException {
+        Decoder compiled = new Decoder();
+        compiled.addCompiledAbi(MulticallExample.INSTANCE);
+
+        DecodedFunctions expected = runtimeDecoder("multicall_example.json").decodeFunction(MULTICALL_INPUT);
+        DecodedFunctions actual = compiled.decodeFunction(MULTICALL_INPUT);
+        assertEquals(DecodedFunctions.MULTICALL, actual.getName());
+        assertEquals(2, actual.getNestedDecodedFunctions().size());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(expected.getNestedDecodedFunctions().get(i).getName(), actual.getNestedDecodedFunctions().get(i).getName());
+            assertSameParams(expected.getNestedDecodedFunctions().get(i).getParams(), actual.getNestedDecodedFunctions().get(i).getParams());
+        }
+    }
+
+    @Test
+    void tryDecodeFunction_shouldValidateAgainstTheCompiledLayout() {
+        Decoder compiled = new Decoder();
+        compiled.addCompiledAbi(UniswapAbi.INSTANCE);
+
+        assertTrue(compiled.tryDecodeFunction(SWAP_INPUT).isSuccess());
+        DecodeResult.Malformed<?> malformed = assertInstanceOf(DecodeResult.Malformed.class,
+                compiled.tryDecodeFunction(SWAP_INPUT.substring(0, SWAP_INPUT.length() - 64)));
+        assertEquals(2, malformed.paramIndex());
+    }
+
+    @Test
+    void typedRecord_shouldRoundTrip() {
+        byte[] to = Hex.decode("d4cf8e47beac55b42ae58991785fa326d9384bd1");
+        byte[] calldata = new Erc20Abi.TransferCall(to, BigInteger.TEN).encode();
+        assertEquals("a9059cbb", Hex.toHexString(calldata, 0, 4));
+        assertEquals(68, calldata.length);
+
+        Erc20Abi.TransferCall call = Erc20Abi.TransferCall.decode(calldata);
+        assertArrayEquals(to, call._to());
+        assertEquals(BigInteger.TEN, call._value());
+
+        Erc20Abi.ApproveAndCallCall approve = new Erc20Abi.ApproveAndCallCall(to, BigInteger.ONE, new byte[]{1, 2, 3});
+        Erc20Abi.ApproveAndCallCall decoded = Erc20Abi.ApproveAndCallCall.decode(approve.encode());
+        assertArrayEquals(new byte[]{1, 2, 3}, decoded._extraData());
+    }
+
+    @Test
+    void typedRecord_withArrays_shouldCompareByContent() {
+        byte[] calldata = new Erc20Abi.ApproveAndCallCall(new byte[20], BigInteger.ONE, new byte[]{1, 2, 3}).encode();
+
+        Erc20Abi.ApproveAndCallCall first = Erc20Abi.ApproveAndCallCall.decode(calldata);
+        Erc20Abi.ApproveAndCallCall second = Erc20Abi.ApproveAndCallCall.decode(calldata);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, new Erc20Abi.ApproveAndCallCall(new byte[20], BigInteger.ONE, new byte[]{1, 2, 4}));
+
+        CodegenClashAbi.ClashDynamicCall dynamic = new CodegenClashAbi.ClashDynamicCall("s", new byte[]{1}, new Object[]{BigInteger.ONE, BigInteger.TWO});
+        assertEquals(dynamic, CodegenClashAbi.ClashDynamicCall.decode(dynamic.encode()));
+        assertEquals(dynamic.hashCode(), CodegenClashAbi.ClashDynamicCall.decode(dynamic.encode()).hashCode());
+    }
+
+    @Test
+    void typedRecord_paramsNamedLikeGeneratedMembers_shouldBeRenamed() {
+        CodegenClashAbi.ClashCall call = new CodegenClashAbi.ClashCall(BigInteger.ONE, new byte[20], new byte[32], true, BigInteger.TWO);
+
+        CodegenClashAbi.ClashCall decoded = CodegenClashAbi.ClashCall.decode(call.encode());
+        assertEquals(call, decoded);
+        assertEquals(BigInteger.ONE, decoded.SELECTOR_());
+        assertTrue(decoded.T0_());
+        assertEquals(BigInteger.TWO, decoded.out());
+        assertEquals("TOPIC0", CodegenClashAbi.ClashEvent.NAMES.name(0));
+    }
+
+    @Test
+    void typedRecord_wrongSelector_shouldThrow() {
+        byte[] calldata = new Erc20Abi.TransferCall(new byte[20], BigInteger.TEN).encode();
+        assertThrows(RuntimeException.class, () -> Erc20Abi.ApproveCall.decode(calldata));
+        assertThrows(RuntimeException.class, () -> Erc20Abi.TransferCall.decode(new byte[]{(byte) 0xa9, 0x05, (byte) 0x9c, (byte) 0xbb}));
+    }
+
+    @Test
+    void decodeLogs_shouldMatchRuntimeDecoder() throws IOException {
+        Log log = new Log("0x00000000000000000000000000000000000000000000000003aa8e4f70c34000",
+                List.of("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+                        "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                        "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365"),
+                "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+        Decoder compiled = new Decoder();
+        compiled.addCompiledAbi(Erc20Abi.INSTANCE);
+
+        List<DecodedLog> expected = runtimeDecoder("erc20_abi.json").decodeLogs(log);
+        List<DecodedLog> actual = compiled.decodeLogs(log);
+        assertEquals(1, actual.size());
+        assertEquals(expected.getFirst().getName(), actual.getFirst().getName());
+        assertSameParams(expected.getFirst().getEvents(), actual.getFirst().getEvents());
+        assertEquals(new BigInteger("264180000000000000"), actual.getFirst().getEvents().get(2).getValue());
+    }
+
+    @Test
+    void words_dirtyBoolAndAddress_shouldMatchRuntimeTypes() {
+        SolidityType bool = new SolidityType.BoolType();
+        SolidityType address = new SolidityType.AddressType();
+        String addr = "66f044b68f2808753b99a7d31820fbc751342d9c";
+        List<String> words = List.of(
+                "00".repeat(27) + "0100000000",
+                "01" + "00".repeat(31),
+                "00".repeat(28) + "00000100",
+                "00".repeat(11) + "01" + addr,
+                "00".repeat(10) + "01" + "00" + addr,
+                "7f" + "00".repeat(11) + addr,
+                "ff".repeat(12) + addr,
+                "00".repeat(12) + addr);
+        for (String hex : words) {
+            byte[] word = Hex.decode("cafe" + hex);
+            assertEquals(bool.decode(word, 2), Words.readBool(word, 2), hex);
+            assertArrayEquals((byte[]) address.decode(word, 2), Words.readAddress(word, 2), hex);
+        }
+        byte[] truncated = Hex.decode("00".repeat(28) + "01");
+        assertEquals(bool.decode(truncated, 0), Words.readBool(truncated, 0));
+        assertArrayEquals((byte[]) address.decode(truncated, 0), Words.readAddress(truncated, 0));
+    }
+}
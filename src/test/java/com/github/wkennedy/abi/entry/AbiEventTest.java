@@ -0,0 +1,80 @@
+package com.github.wkennedy.abi.entry;
+
+import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.SolidityType;
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Hash;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbiEventTest {
+
+    @Test
+    void encodeTopicsToHex_transfer() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        AbiEvent transfer = Abi.fromJson(abiJson).orElseThrow().findEvent(ev -> "Transfer".equals(ev.name)).orElseThrow();
+
+        List<String> topics = transfer.encodeTopicsToHex("0x66f044b68f2808753b99a7d31820fbc751342d9c", null);
+
+        assertEquals(Arrays.asList(
+                "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+                "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                null), topics);
+    }
+
+    @Test
+    void encodeTopics_dynamicValuesAreHashed() {
+        AbiEvent event = new AbiEvent(true, "Named", List.of(
+                new AbiParam(true, "name", new SolidityType.StringType()),
+                new AbiParam(true, "ids", SolidityType.getType("uint8[]")),
+                new AbiParam(false, "value", SolidityType.getType("uint256"))), List.of());
+
+        byte[][] topics = event.encodeTopics("abc", new int[]{1, 2});
+
+        assertEquals(2, topics.length);
+        assertArrayEquals(Hash.sha3("abc".getBytes(StandardCharsets.UTF_8)), topics[0]);
+        byte[] inPlace = new byte[64];
+        inPlace[31] = 1;
+        inPlace[63] = 2;
+        assertArrayEquals(Hash.sha3(inPlace), topics[1]);
+    }
+
+    @Test
+    void encodeTopics_bytesN_shouldBeLeftAligned() {
+        // InterfaceChanged of the ENS public resolver, e.g. for ERC-165 (0x01ffc9a7)
+        AbiEvent event = new AbiEvent(false, "InterfaceChanged", List.of(
+                new AbiParam(true, "node", SolidityType.getType("bytes32")),
+                new AbiParam(true, "interfaceID", SolidityType.getType("bytes4")),
+                new AbiParam(false, "implementer", new SolidityType.AddressType())), List.of());
+
+        List<String> topics = event.encodeTopicsToHex(null, new byte[]{0x01, (byte) 0xff, (byte) 0xc9, (byte) 0xa7});
+
+        assertEquals("0x7c69f06bea0bdef565b709e93a147836b0063ba2dd89f02d0b7e8d931e6a6daa", topics.get(0));
+        assertNull(topics.get(1));
+        assertEquals("0x01ffc9a7" + "00".repeat(28), topics.get(2));
+        assertArrayEquals(Arrays.copyOf(new byte[]{0x12, 0x34, 0x56, 0x78}, 32),
+                SolidityType.getType("bytes4").encodeTopic(new byte[]{0x12, 0x34, 0x56, 0x78}));
+
+        byte[] hashedArray = SolidityType.getType("bytes4[]").encodeTopic(new Object[]{new byte[]{1, 2, 3, 4}, new byte[]{5}});
+        byte[] inPlace = new byte[64];
+        System.arraycopy(new byte[]{1, 2, 3, 4}, 0, inPlace, 0, 4);
+        inPlace[32] = 5;
+        assertArrayEquals(Hash.sha3(inPlace), hashedArray);
+    }
+
+    @Test
+    void encodeTopics_tooManyValues_shouldThrow() {
+        AbiEvent event = new AbiEvent(false, "Empty", List.of(), List.of());
+        assertThrows(RuntimeException.class, () -> event.encodeTopics(1));
+        assertEquals(1, event.encodeTopics().length);
+        assertEquals("0x" + Hex.encodeHexString(Hash.sha3("Empty()".getBytes())), event.encodeTopicsToHex().getFirst());
+    }
+}
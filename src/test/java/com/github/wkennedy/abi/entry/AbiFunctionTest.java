@@ -1,5 +1,6 @@
 package com.github.wkennedy.abi.entry;
 
+import com.github.wkennedy.abi.Abi;
 import com.github.wkennedy.abi.Decoder;
 import com.github.wkennedy.abi.SolidityType;
 import org.apache.commons.codec.DecoderException;
@@ -126,4 +127,77 @@ class AbiFunctionTest {
         assertEquals(BigInteger.valueOf(100000000000000000L), amounts[0]);
         assertEquals(BigInteger.valueOf(8502539015892258L), amounts[1]);
     }
+
+    @Test
+    void encode_nestedDynamicArrays_matchesSpecExample() {
+        AbiFunction function = new AbiFunction(false, "g",
+                List.of(new AbiParam(false, "a", SolidityType.getType("uint256[][]")),
+                        new AbiParam(false, "b", SolidityType.getType("string[]"))),
+                Collections.emptyList(), false);
+        Object[][] numbers = {new Object[]{1, 2}, new Object[]{3}};
+        String[] strings = {"one", "two", "three"};
+
+        String encoded = function.encodeToHex(numbers, strings);
+
+        assertEquals("0x2289b18c" +
+                "0000000000000000000000000000000000000000000000000000000000000040" +
+                "0000000000000000000000000000000000000000000000000000000000000140" +
+                "0000000000000000000000000000000000000000000000000000000000000002" +
+                "0000000000000000000000000000000000000000000000000000000000000040" +
+                "00000000000000000000000000000000000000000000000000000000000000a0" +
+                "0000000000000000000000000000000000000000000000000000000000000002" +
+                "0000000000000000000000000000000000000000000000000000000000000001" +
+                "0000000000000000000000000000000000000000000000000000000000000002" +
+                "0000000000000000000000000000000000000000000000000000000000000001" +
+                "0000000000000000000000000000000000000000000000000000000000000003" +
+                "0000000000000000000000000000000000000000000000000000000000000003" +
+                "0000000000000000000000000000000000000000000000000000000000000060" +
+                "00000000000000000000000000000000000000000000000000000000000000a0" +
+                "00000000000000000000000000000000000000000000000000000000000000e0" +
+                "0000000000000000000000000000000000000000000000000000000000000003" +
+                "6f6e650000000000000000000000000000000000000000000000000000000000" +
+                "0000000000000000000000000000000000000000000000000000000000000003" +
+                "74776f0000000000000000000000000000000000000000000000000000000000" +
+                "0000000000000000000000000000000000000000000000000000000000000005" +
+                "7468726565000000000000000000000000000000000000000000000000000000", encoded);
+    }
+
+    @Test
+    void encode_tupleContainingDynamicTypes_roundTripsTransactionInput() throws IOException, DecoderException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/tuple_test_abi.json")));
+        AbiFunction function = Abi.fromJson(abiJson).orElseThrow().findFunction(fn -> "execute".equals(fn.name)).orElseThrow();
+        String inputData = "0x005575f20000000000000000000000000000000000000000000000000000000000000080967c9812e5f939318262ccbd023be072015c3ad2f470d47ab5e6b13e1ca810a540274bf9ce7b9da08b0003fc05e67d74e993f3381bf00bcba0fef022bf3b8d6a000000000000000000000000000000000000000000000000000000000000001b000000000000000000000000ddcfc6f09a26413c2b0d6224b29738e74102de04000000000000000000000000cbb869911c0acd242c15a03c42ce3ddcdd82ea1b000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000038d7ea4c68000000000000000000000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000000000000000000c000000000000000000000000000000000000000000000000000000000000001e4216f62d8000000000000000000000000000000000000000000000000000000000000008000000000000000000000000000000000000000000000000000000000000000e0000000000000000000000000000000000000000000000000000000000000014000000000000000000000000000000000000000000000000000000000000001a0000000000000000000000000000000000000000000000000000000000000003b6261666b7265696263796c746f36667974667336746f796f6f716f6b6272366e333566673767683236646e6f3464766a716c6d743464687a34716d0000000000000000000000000000000000000000000000000000000000000000000000003b6261666b726569647533356c64727965703433797574337275616a747936743278346b3773787077737365347572616b7676366d723763657a696d0000000000000000000000000000000000000000000000000000000000000000000000003b6261666b7265696567616e657563727a6e646b6676726a64346a63346235356174646b707475326d6d3779327372783235617068626b623666373400000000000000000000000000000000000000000000000000000000000000000000000001000000000000000000000000ddcfc6f09a26413c2b0d6224b29738e74102de0400000000000000000000000000000000000000000000000000000000";
+        byte[] input = org.apache.commons.codec.binary.Hex.decodeHex(inputData.replace(HEX_PREFIX, ""));
+
+        List<?> decoded = function.decode(input);
+
+        assertEquals(inputData, function.encodeToHex(decoded.toArray()));
+    }
+
+    @Test
+    void encode_tupleArray_multicall3Aggregate3() {
+        String abiJson = "[{\"name\":\"aggregate3\",\"type\":\"function\",\"stateMutability\":\"payable\",\"inputs\":[{\"name\":\"calls\",\"type\":\"tuple[]\",\"components\":[{\"name\":\"target\",\"type\":\"address\"},{\"name\":\"allowFailure\",\"type\":\"bool\"},{\"name\":\"callData\",\"type\":\"bytes\"}]}],\"outputs\":[]}]";
+        AbiFunction function = Abi.fromJson(abiJson).orElseThrow().getFirst() instanceof AbiFunction fn ? fn : null;
+        assertNotNull(function);
+        assertEquals("aggregate3((address,bool,bytes)[])", function.formatSignature());
+
+        byte[] callData = {0x31, 0x3c, (byte) 0xe5, 0x67};
+        Object[] calls = {
+                new Object[]{"0xA0b86991c6218b36c1d19D4a2e9Eb0cE3606eB48", true, callData},
+                new Object[]{"0xC02aaA39b223FE8D0A0e5C4F27eAD9083C756Cc2", false, new byte[0]}
+        };
+        byte[] encoded = function.encode((Object) calls);
+
+        assertEquals("0x82ad56cb", HEX_PREFIX + org.apache.commons.codec.binary.Hex.encodeHexString(AbiFunction.extractSignature(encoded)));
+        // selector, array offset, length, 2 element offsets, 2 x (head of 3 words + bytes length + padded bytes)
+        assertEquals(4 + 32 * 4 + 32 * 5 + 32 * 4, encoded.length);
+        Object[] decodedCalls = (Object[]) function.decode(encoded).getFirst();
+        assertEquals(2, decodedCalls.length);
+        Object[] first = (Object[]) decodedCalls[0];
+        assertEquals(true, first[1]);
+        assertArrayEquals(callData, (byte[]) first[2]);
+        Object[] second = (Object[]) decodedCalls[1];
+        assertEquals(false, second[1]);
+        assertArrayEquals(new byte[0], (byte[]) second[2]);
+    }
 }
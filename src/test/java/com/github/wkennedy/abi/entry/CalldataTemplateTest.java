@@ -0,0 +1,92 @@
+package com.github.wkennedy.abi.entry;
+
+import com.github.wkennedy.abi.Abi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalldataTemplateTest {
+
+    private static final String WETH = "0xc02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+    private static final String USDC = "0xa0b86991c6218b36c1d19d4a2e9eb0ce3606eb48";
+    private static final String DAI = "0x6b175474e89094c44da98b954eedeac495271d0f";
+
+    private AbiFunction getAmountsOut;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/uniswap_abi.json")));
+        getAmountsOut = Abi.fromJson(abiJson).orElseThrow().findFunction(fn -> "getAmountsOut".equals(fn.name)).orElseThrow();
+    }
+
+    @Test
+    void template_withoutChanges_matchesEncode() {
+        BigInteger amountIn = new BigInteger("1000000000000000000");
+        String[] path = {WETH, USDC};
+        CalldataTemplate template = getAmountsOut.template(amountIn, path);
+        assertEquals(getAmountsOut.encodeToHex(amountIn, path), template.toHex());
+    }
+
+    @Test
+    void setUint_patchesStaticWordOnly() {
+        CalldataTemplate template = getAmountsOut.template(new BigInteger("1000000000000000000"), new String[]{WETH, USDC});
+        template.setUint(0, 5_000_000L);
+        assertEquals(getAmountsOut.encodeToHex(5_000_000L, new String[]{WETH, USDC}), template.toHex());
+    }
+
+    @Test
+    void set_dynamicArgument_rebuildsTails() {
+        CalldataTemplate template = getAmountsOut.template(1, new String[]{WETH, USDC});
+        template.set(1, new String[]{WETH, USDC, DAI});
+        assertEquals(getAmountsOut.encodeToHex(1, new String[]{WETH, USDC, DAI}), template.toHex());
+        template.set(1, new String[]{WETH});
+        assertEquals(getAmountsOut.encodeToHex(1, new String[]{WETH}), template.toHex());
+        assertEquals(4 + 32 * 4, template.length());
+    }
+
+    @Test
+    void setAddress_patchesAddressWord() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/erc20_abi.json")));
+        AbiFunction balanceOf = Abi.fromJson(abiJson).orElseThrow().findFunction(fn -> "balanceOf".equals(fn.name)).orElseThrow();
+        CalldataTemplate template = balanceOf.template(WETH);
+        CalldataTemplate copy = template.copy().setAddress(0, DAI);
+        assertEquals(balanceOf.encodeToHex(WETH), template.toHex());
+        assertEquals(balanceOf.encodeToHex(DAI), copy.toHex());
+    }
+
+    @Test
+    void setUint_onDynamicArgument_shouldThrow() {
+        CalldataTemplate template = getAmountsOut.template(1, new String[]{WETH, USDC});
+        assertThrows(RuntimeException.class, () -> template.setUint(1, 1));
+        assertThrows(RuntimeException.class, () -> template.setAddress(0, WETH));
+        assertThrows(RuntimeException.class, () -> template.setUint(0, -1));
+    }
+
+    @Test
+    void setUint_shouldRejectNonIntegerTypesAndValuesOutOfRange() {
+        AbiFunction f = Abi.fromJson("""
+                [{"type":"function","name":"f","stateMutability":"nonpayable","outputs":[],
+                  "inputs":[{"name":"a","type":"address"},{"name":"b","type":"bool"},{"name":"c","type":"uint8"},{"name":"d","type":"int8"}]}]""")
+                .orElseThrow().findFunction(fn -> "f".equals(fn.name)).orElseThrow();
+        CalldataTemplate template = f.template(WETH, false, 0, 0);
+        assertThrows(RuntimeException.class, () -> template.setUint(0, 1));
+        assertThrows(RuntimeException.class, () -> template.setUint(1, 1));
+        assertThrows(RuntimeException.class, () -> template.setUint(2, 256));
+        assertThrows(RuntimeException.class, () -> template.setUint(3, 128));
+        assertThrows(RuntimeException.class, () -> template.setUint(3, -129));
+
+        template.setUint(2, 255).setUint(3, -128);
+        assertEquals(f.encodeToHex(WETH, false, 255, -128), template.toHex());
+    }
+
+    @Test
+    void template_withMissingArguments_shouldThrow() {
+        assertThrows(RuntimeException.class, () -> getAmountsOut.template(1));
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.wkennedy.abi.filter;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+import org.web3j.utils.Bloom;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogsBloomTest {
+    private static final String TRANSFER = "ddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String APPROVAL = "8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925";
+    private static final String TOKEN = "a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48";
+
+    @Test
+    void mightContainAny_shouldMatchTheBloomOfALog() {
+        Bloom bloom = new Bloom();
+        bloom.add("0x" + TOKEN);
+        bloom.add("0x" + TRANSFER);
+
+        LogsBloom transfers = LogsBloom.anyOf(List.of(Hex.decode(TRANSFER)));
+        assertTrue(transfers.mightContainAny(bloom.getBytes()));
+        assertTrue(transfers.mightContainAny(bloom.getBytesHexString()));
+        assertTrue(LogsBloom.mightContain(bloom.getBytes(), Hex.decode(TOKEN)));
+        assertFalse(LogsBloom.anyOf(List.of(Hex.decode(APPROVAL))).mightContainAny(bloom.getBytes()));
+        assertTrue(LogsBloom.anyOf(List.of(Hex.decode(APPROVAL), Hex.decode(TRANSFER))).mightContainAny(bloom.getBytes()));
+    }
+
+    @Test
+    void mightContainAny_emptyBloom_shouldMatchNothing() {
+        assertFalse(LogsBloom.anyOf(List.of(Hex.decode(TRANSFER))).mightContainAny(new byte[LogsBloom.BYTES]));
+    }
+
+    @Test
+    void mightContainAny_wrongLength_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> LogsBloom.anyOf(List.of()).mightContainAny(new byte[32]));
+    }
+}
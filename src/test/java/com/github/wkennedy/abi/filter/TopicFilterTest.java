@@ -0,0 +1,60 @@
+package com.github.wkennedy.abi.filter;
+
+import com.github.wkennedy.util.Keccak256;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopicFilterTest {
+
+    @Test
+    void mightContain_registeredTopic_shouldAlwaysPass() {
+        List<byte[]> topics = topics("Registered", 1000);
+        TopicFilter filter = TopicFilter.of(topics);
+
+        for (byte[] topic : topics) {
+            assertTrue(filter.mightContain(topic));
+            assertTrue(filter.mightContain("0x" + Hex.toHexString(topic)));
+            assertTrue(filter.mightContain(Hex.toHexString(topic).toUpperCase()));
+        }
+    }
+
+    @Test
+    void mightContain_unknownTopics_shouldMostlyBeRejected() {
+        TopicFilter filter = TopicFilter.of(topics("Registered", 1000));
+
+        int passed = 0;
+        for (byte[] topic : topics("Unknown", 10000)) {
+            if (filter.mightContain("0x" + Hex.toHexString(topic))) passed++;
+        }
+        assertTrue(passed < 200, "false positives: " + passed);
+    }
+
+    @Test
+    void mightContain_emptyFilter_shouldRejectWellFormedTopics() {
+        TopicFilter filter = TopicFilter.of(List.of());
+
+        assertFalse(filter.mightContain("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef"));
+    }
+
+    @Test
+    void mightContain_malformedTopic_shouldPass() {
+        TopicFilter filter = TopicFilter.of(List.of());
+
+        assertTrue(filter.mightContain("0x1234"));
+        assertTrue(filter.mightContain("0xzzf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef"));
+    }
+
+    private static List<byte[]> topics(String prefix, int count) {
+        List<byte[]> topics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            topics.add(Keccak256.hash((prefix + i + "(uint256)").getBytes(StandardCharsets.US_ASCII)));
+        }
+        return topics;
+    }
+}
@@ -0,0 +1,239 @@
+package com.github.wkennedy.abi.flow;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodeProcessorTest {
+    private static final String TRANSFER = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String SRC = "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c";
+    private static final String DST = "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365";
+    private static final String TOKEN_A = "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365";
+    private static final String TOKEN_B = "0xa0b86991c6218b36c1d19d4a2e9eb0ce3606eb48";
+
+    private Decoder decoder;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        decoder = new Decoder(new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json"))));
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static Log transfer(String token, long wad) {
+        return new Log(String.format("0x%064x", wad), List.of(TRANSFER, SRC, DST), token);
+    }
+
+    @Test
+    void logs_shouldKeepTheOrderOfEachAddressAndSkipUnknownTopics() throws InterruptedException {
+        DecodeProcessor<Log, DecodedLog> processor = DecodeProcessor.logs(decoder, executor, 8);
+        Map<String, List<BigInteger>> received = new ConcurrentHashMap<>();
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, log ->
+                received.computeIfAbsent(log.getAddress().toLowerCase(), a -> new CopyOnWriteArrayList<>()).add((BigInteger) log.getParam("wad").getRawValue()));
+        processor.subscribe(subscriber);
+
+        try (SubmissionPublisher<Log> publisher = new SubmissionPublisher<>(executor, 4)) {
+            publisher.subscribe(processor);
+            for (int i = 0; i < 200; i++) {
+                publisher.submit(transfer(i % 2 == 0 ? TOKEN_A : TOKEN_B, i));
+                if (i % 50 == 0) publisher.submit(new Log("0x", List.of("0x" + "11".repeat(32)), TOKEN_A));
+            }
+        }
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error.get());
+        assertEquals(100, received.get(TOKEN_A.toLowerCase()).size());
+        assertEquals(100, received.get(TOKEN_B).size());
+        for (List<BigInteger> values : received.values()) {
+            for (int i = 1; i < values.size(); i++) {
+                assertTrue(values.get(i - 1).compareTo(values.get(i)) < 0, "out of order: " + values);
+            }
+        }
+    }
+
+    @Test
+    void slowSubscriber_shouldBoundWhatIsRequestedUpstream() throws InterruptedException {
+        int maxInFlight = 4;
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) logs.add(transfer(TOKEN_A, i));
+        ListPublisher<Log> publisher = new ListPublisher<>(logs);
+        DecodeProcessor<Log, DecodedLog> processor = DecodeProcessor.logs(decoder, executor, maxInFlight);
+        AtomicBoolean exceeded = new AtomicBoolean();
+        AtomicLong delivered = new AtomicLong();
+        CollectingSubscriber subscriber = new CollectingSubscriber(1, log -> {
+            if (publisher.requested.get() > delivered.incrementAndGet() - 1 + maxInFlight) exceeded.set(true);
+        });
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertEquals(100, delivered.get());
+        assertFalse(exceeded.get(), "requested " + publisher.requested.get() + " ahead of delivery");
+    }
+
+    @Test
+    void failingDecode_shouldCancelUpstreamAndFailTheSubscriber() throws InterruptedException {
+        List<Log> logs = List.of(transfer(TOKEN_A, 1), new Log("0x01", List.of(TRANSFER, SRC, DST), TOKEN_A), transfer(TOKEN_A, 3));
+        ListPublisher<Log> publisher = new ListPublisher<>(logs);
+        DecodeProcessor<Log, DecodedLog> processor = new DecodeProcessor<>(log -> {
+            if (log.getData().equals("0x01")) throw new RuntimeException("Malformed log");
+            return decoder.decodeLogs(log).getFirst();
+        }, Log::getAddress, executor, 1);
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE, log -> {
+        });
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertEquals("Malformed log", subscriber.error.get().getMessage());
+        assertTrue(publisher.cancelled.get());
+    }
+
+    @Test
+    void secondSubscriber_shouldBeRejected() throws InterruptedException {
+        DecodeProcessor<byte[], ?> processor = DecodeProcessor.calldata(decoder, executor, 1);
+        processor.subscribe(new CollectingSubscriber(1, log -> {
+        }));
+        CountDownLatch rejected = new CountDownLatch(1);
+        processor.subscribe(new Flow.Subscriber<Object>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            @Override
+            public void onNext(Object item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                if (throwable instanceof IllegalStateException) rejected.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertTrue(rejected.await(1, TimeUnit.SECONDS));
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<Object> {
+        private final long batch;
+        private final java.util.function.Consumer<DecodedLog> consumer;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private Flow.Subscription subscription;
+
+        private CollectingSubscriber(long batch, java.util.function.Consumer<DecodedLog> consumer) {
+            this.batch = batch;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            consumer.accept((DecodedLog) item);
+            if (batch != Long.MAX_VALUE) subscription.request(batch);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+
+    /**
+     * Emits a fixed list on demand, recording how much was requested in total.
+     */
+    private static final class ListPublisher<T> implements Flow.Publisher<T> {
+        private final List<T> items;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private long demand;
+        private int index;
+        private boolean emitting;
+        private boolean completed;
+
+        private ListPublisher(List<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super T> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested.addAndGet(n);
+                    synchronized (ListPublisher.this) {
+                        demand += n;
+                        if (emitting) return;
+                        emitting = true;
+                    }
+                    while (true) {
+                        T item;
+                        boolean complete = false;
+                        synchronized (ListPublisher.this) {
+                            if (cancelled.get() || demand == 0 || index == items.size()) {
+                                emitting = false;
+                                if (index == items.size() && !completed && !cancelled.get()) complete = completed = true;
+                                item = null;
+                            } else {
+                                demand--;
+                                item = items.get(index++);
+                            }
+                        }
+                        if (item == null) {
+                            if (complete) subscriber.onComplete();
+                            return;
+                        }
+                        subscriber.onNext(item);
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled.set(true);
+                }
+            });
+        }
+    }
+}
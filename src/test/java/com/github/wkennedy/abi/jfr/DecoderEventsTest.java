@@ -0,0 +1,68 @@
+package com.github.wkennedy.abi.jfr;
+
+import com.github.wkennedy.abi.Decoder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecoderEventsTest {
+    private static final String MULTICALL_INPUT = "0xac9650d80000000000000000000000000000000000000000000000000000000000000020000000000000000000000000000000000000000000000000000000000000000200000000000000000000000000000000000000000000000000000000000000400000000000000000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000000000000000000008413ead5620000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8000000000000000000000000000000000035f2482336c0d4c2ba6e94faa1d66f000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000164883164560000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8fffffffffffffffffffffffffffffffffffffffffffffffffffffffffff2764c00000000000000000000000000000000000000000000000000000000000a11a8000000000000000000000000000000000000000000000000000000e8d4a510000000000000000000000000000000000000000000000a56d35c029fd16645e079000000000000000000000000000000000000000000000000000000e840308c030000000000000000000000000000000000000000000a503344abc0fbe23670910000000000000000000000005a2b5cb4ce921abd65f0c66c2c839894bfc2076c000000000000000000000000000000000000000000000000000000006244356a00000000000000000000000000000000000000000000000000000000";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void decoder_shouldEmitEventsWhenRecording() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/multicall_example.json")));
+        Path file = tempDir.resolve("decoder.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(AddAbiEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(DecodeFunctionEvent.class).withThreshold(Duration.ZERO);
+            recording.enable(MulticallExpansionEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+
+            Decoder decoder = new Decoder();
+            decoder.addAbi("0xc36442b4a4522e871399cd717abdd847ab11fe88", abiJson);
+            decoder.decodeFunction(MULTICALL_INPUT);
+            decoder.decodeFunction("0xdeadbeef");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        RecordedEvent addAbi = single(events, "com.github.wkennedy.abi.AddAbi");
+        assertEquals("0xc36442b4a4522e871399cd717abdd847ab11fe88", addAbi.getString("abi"));
+        assertEquals(Outcome.DECODED, addAbi.getString("outcome"));
+        assertTrue(addAbi.getInt("entries") > 0);
+
+        List<RecordedEvent> decodes = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.github.wkennedy.abi.DecodeFunction")).toList();
+        assertEquals(4, decodes.size());
+        assertEquals(2, decodes.stream().filter(e -> e.getInt("depth") == 1).count());
+        RecordedEvent top = decodes.stream().filter(e -> "0xac9650d8".equals(e.getString("selector"))).findFirst().orElseThrow();
+        assertEquals(0, top.getInt("depth"));
+        assertEquals((MULTICALL_INPUT.length() - 2) / 2, top.getInt("payloadSize"));
+        assertEquals(1, decodes.stream().filter(e -> Outcome.MISS.equals(e.getString("outcome"))).count());
+
+        RecordedEvent expansion = single(events, "com.github.wkennedy.abi.MulticallExpansion");
+        assertEquals(2, expansion.getInt("nestedCalls"));
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.getFirst();
+    }
+}
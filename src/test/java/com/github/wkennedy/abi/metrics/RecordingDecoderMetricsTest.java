@@ -0,0 +1,152 @@
+package com.github.wkennedy.abi.metrics;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.Log;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingDecoderMetricsTest {
+    private static final String SWAP_INPUT = "0x18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+    private static final String MULTICALL_INPUT = "0xac9650d80000000000000000000000000000000000000000000000000000000000000020000000000000000000000000000000000000000000000000000000000000000200000000000000000000000000000000000000000000000000000000000000400000000000000000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000000000000000000008413ead5620000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8000000000000000000000000000000000035f2482336c0d4c2ba6e94faa1d66f000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000164883164560000000000000000000000005c8cd1c2f2997f7a041026cc29de8177b4c6d8ec00000000000000000000000089e54f174ca5ff39cf53ab58004158e2ca012eac0000000000000000000000000000000000000000000000000000000000000bb8fffffffffffffffffffffffffffffffffffffffffffffffffffffffffff2764c00000000000000000000000000000000000000000000000000000000000a11a8000000000000000000000000000000000000000000000000000000e8d4a510000000000000000000000000000000000000000000000a56d35c029fd16645e079000000000000000000000000000000000000000000000000000000e840308c030000000000000000000000000000000000000000000a503344abc0fbe23670910000000000000000000000005a2b5cb4ce921abd65f0c66c2c839894bfc2076c000000000000000000000000000000000000000000000000000000006244356a00000000000000000000000000000000000000000000000000000000";
+
+    private static String abi(String file) throws IOException {
+        return new String(Files.readAllBytes(Paths.get("./src/test/resources/" + file)));
+    }
+
+    @Test
+    void decodeFunction_shouldRecordPerSelector() throws IOException {
+        Decoder decoder = new Decoder();
+        RecordingDecoderMetrics metrics = new RecordingDecoderMetrics();
+        decoder.setMetrics(metrics);
+        decoder.addAbi("0x7a250d5630b4cf539739df2c5dacb4c659f2488d", abi("uniswap_abi.json"));
+
+        decoder.decodeFunction(SWAP_INPUT);
+        decoder.decodeFunction(SWAP_INPUT);
+        assertNull(decoder.decodeFunction("0xdeadbeef"));
+        assertThrows(RuntimeException.class, () -> decoder.decodeFunction(SWAP_INPUT.substring(0, 80)));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        MetricsSnapshot.KeyMetrics swap = snapshot.get("0x18cbafe5");
+        assertEquals("0x7a250d5630b4cf539739df2c5dacb4c659f2488d", swap.abi());
+        assertEquals(2, swap.decodes());
+        assertEquals(1, swap.failures());
+        assertEquals(2, swap.latency().getCount());
+        assertEquals((SWAP_INPUT.length() - 2) / 2, swap.payloadSize().getMax());
+        assertEquals(1, snapshot.get("deadbeef").misses());
+        assertEquals(1, snapshot.getMisses());
+    }
+
+    @Test
+    void decodeFunction_multicall_shouldRecordNestedDepth() throws IOException {
+        Decoder decoder = new Decoder(abi("multicall_example.json"));
+        RecordingDecoderMetrics metrics = new RecordingDecoderMetrics();
+        decoder.setMetrics(metrics);
+
+        decoder.decodeFunction(MULTICALL_INPUT);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(0, snapshot.get("ac9650d8").maxDepth());
+        assertEquals(3, snapshot.getDecodes());
+        assertEquals(2, snapshot.getKeys().values().stream().filter(k -> k.maxDepth() == 1).count());
+    }
+
+    @Test
+    void decodeLogs_shouldRecordPerTopic() throws IOException {
+        Decoder decoder = new Decoder();
+        RecordingDecoderMetrics metrics = new RecordingDecoderMetrics();
+        decoder.setMetrics(metrics);
+        decoder.addAbi("erc20", abi("erc20_abi.json"));
+        Log log = new Log("0x00000000000000000000000000000000000000000000000003aa8e4f70c34000",
+                List.of("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+                        "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                        "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365"),
+                "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+        Log unknown = new Log("0x", List.of("0x" + "11".repeat(32)), "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+
+        decoder.decodeLogs(log, unknown);
+
+        MetricsSnapshot.KeyMetrics transfer = metrics.snapshot().get("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef");
+        assertEquals("erc20", transfer.abi());
+        assertEquals(1, transfer.decodes());
+        assertEquals(32, transfer.payloadSize().getMax());
+        assertEquals(1, metrics.snapshot().get("11".repeat(32)).misses());
+    }
+
+    @Test
+    void addAbi_selectorCollision_shouldBeRecorded() {
+        Decoder decoder = new Decoder();
+        RecordingDecoderMetrics metrics = new RecordingDecoderMetrics();
+        decoder.setMetrics(metrics);
+        String burn = "[{\"type\":\"function\",\"name\":\"burn\",\"inputs\":[{\"name\":\"amount\",\"type\":\"uint256\"}]}]";
+        decoder.addAbi("a", burn);
+        decoder.addAbi("b", burn);
+        assertEquals(0, metrics.snapshot().getCollisions());
+
+        // shares the selector 0x42966c68 with burn(uint256)
+        decoder.addAbi("c", "[{\"type\":\"function\",\"name\":\"collate_propagate_storage\",\"inputs\":[{\"name\":\"x\",\"type\":\"bytes16\"}]}]");
+        assertEquals(1, metrics.snapshot().getCollisions());
+        assertEquals(1, metrics.snapshot().get("42966c68").collisions());
+    }
+
+    @Test
+    void decodeFunction_shouldRecordPerSelectorAndAbi() {
+        Decoder decoder = new Decoder();
+        RecordingDecoderMetrics metrics = new RecordingDecoderMetrics();
+        decoder.setMetrics(metrics);
+        String burn = "[{\"type\":\"function\",\"name\":\"burn\",\"inputs\":[{\"name\":\"amount\",\"type\":\"uint256\"}]}]";
+        String calldata = "0x42966c68" + "00".repeat(31) + "01";
+        decoder.addAbi("a", burn);
+        decoder.decodeFunction(calldata);
+        decoder.addAbi("b", burn);
+        decoder.decodeFunction(calldata);
+        decoder.decodeFunction(calldata);
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.get("42966c68", "a").decodes());
+        assertEquals(2, snapshot.get("42966c68", "b").decodes());
+        assertEquals(3, snapshot.get("42966c68").decodes());
+        assertEquals(3, snapshot.get("42966c68").latency().getCount());
+        assertNull(snapshot.get("42966c68").abi());
+        assertEquals(2, snapshot.getEntries().size());
+    }
+
+    @Test
+    void registryMiss_shouldCountKeysPastTheCapInOneBucket() {
+        Decoder decoder = new Decoder();
+        RecordingDecoderMetrics metrics = new RecordingDecoderMetrics(2);
+        decoder.setMetrics(metrics);
+        for (int i = 0; i < 100; i++) {
+            assertNull(decoder.decodeFunction(String.format("0x%08x", i)));
+        }
+        assertNull(decoder.decodeFunction("0x00000000"));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.getKeys().size());
+        assertEquals(2, snapshot.get("00000000").misses());
+        assertEquals(1, snapshot.get("00000001").misses());
+        assertEquals(98, snapshot.get(RecordingDecoderMetrics.OVERFLOW_KEY).misses());
+        assertEquals(101, snapshot.getMisses());
+    }
+
+    @Test
+    void histogram_percentilesShouldBeWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500.5, snapshot.getMean());
+        long p50 = snapshot.getPercentile(0.5);
+        assertTrue(p50 >= 500 && p50 <= 625, "p50 " + p50);
+        assertEquals(1000, snapshot.getPercentile(1.0));
+        assertEquals(0, new Histogram().snapshot().getPercentile(0.99));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -71,4 +72,28 @@ public class DecodedFunctionsTest {
         DecodedFunctions decodedFunctions2 = new DecodedFunctions("function1", Collections.emptyList());
         assertEquals(decodedFunctions1.hashCode(), decodedFunctions2.hashCode());
     }
+
+    @Test
+    void getParam_withNameTable_ReturnsParamByNameAndIndex() {
+        Param to = new Param("to", "address", "0x01");
+        Param amount = new Param("amount", "uint256", "1");
+        ParamNames names = ParamNames.of("to", "amount");
+
+        DecodedFunctions decodedFunctions = new DecodedFunctions("transfer", List.of(to, amount), names);
+
+        assertSame(amount, decodedFunctions.getParam("amount"));
+        assertSame(to, decodedFunctions.getParam(0));
+        assertNull(decodedFunctions.getParam("missing"));
+    }
+
+    @Test
+    void getParam_afterSetParams_IgnoresNameTable() {
+        Param amount = new Param("amount", "uint256", "1");
+        DecodedFunctions decodedFunctions = new DecodedFunctions("transfer", List.of(new Param("to", "address", "0x01"), amount), ParamNames.of("to", "amount"));
+
+        decodedFunctions.setParams(List.of(amount));
+
+        assertSame(amount, decodedFunctions.getParam("amount"));
+        assertNull(decodedFunctions.getParam("to"));
+    }
 }
@@ -136,4 +136,25 @@ public class DecodedLogTest {
         DecodedLog decodedLog1 = new DecodedLog("name1", "address1", Arrays.asList(new Param("event1", "type1", "value1")));
         assertEquals(decodedLog1.hashCode(), decodedLog1.hashCode());
     }
+
+    @Test
+    void getEventsMapTestWithNameTable() {
+        Param from = new Param("from", "address", "0x01");
+        Param to = new Param("to", "address", "0x02");
+        Param unnamed = new Param("", "uint256", "1");
+        Param duplicate = new Param("", "uint256", "2");
+        DecodedLog decodedLog = new DecodedLog("Transfer", "address", List.of(from, to, unnamed, duplicate), ParamNames.of("from", "to", "", ""));
+
+        Map<String, Param> eventsMap = decodedLog.getEventsMap();
+
+        assertEquals(3, eventsMap.size());
+        assertSame(to, eventsMap.get("to"));
+        assertSame(duplicate, eventsMap.get(""));
+        assertSame(to, decodedLog.getEvent("to"));
+        assertSame(unnamed, decodedLog.getEvent(""));
+        assertSame(duplicate, decodedLog.getParam(3));
+        eventsMap.put("value", from);
+        assertSame(from, eventsMap.get("value"));
+        assertNull(decodedLog.getEventsMap().get("value"));
+    }
 }
@@ -1,9 +1,14 @@
 
 package com.github.wkennedy.abi.models;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.wkennedy.util.ByteUtil;
+import org.bouncycastle.util.encoders.Hex;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ParamTest {
@@ -78,4 +83,59 @@ class ParamTest {
         Param param2 = new Param("name1", "type1", "value1");
         assertNotEquals(param1.hashCode(), param2.hashCode());
     }
+
+    @Test
+    public void getValue_shouldRenderLazilyAndOnlyOnce() {
+        AtomicInteger renders = new AtomicInteger();
+        Param param = new Param("amount", "uint256", BigInteger.TEN, (type, value) -> {
+            renders.incrementAndGet();
+            return value.toString();
+        });
+        assertEquals(0, renders.get());
+        assertEquals("10", param.getValue());
+        assertEquals("10", param.getValue());
+        assertEquals(1, renders.get());
+        assertEquals(BigInteger.TEN, param.getRawValue());
+    }
+
+    @Test
+    public void getValue_defaultFormatter_shouldRenderBytesAsHex() {
+        Param param = new Param("to", "address", Hex.decode("5aaeb6053f3e94c9b9a09f33669435e7ef1beaed"));
+        assertEquals("0x5aaeb6053f3e94c9b9a09f33669435e7ef1beaed", param.getValue());
+    }
+
+    @Test
+    public void getValue_checksumFormatter_shouldChecksumAddresses() {
+        byte[] address = Hex.decode("5aaeb6053f3e94c9b9a09f33669435e7ef1beaed");
+        Param param = new Param("to", "address", address, ValueFormatter.CHECKSUM_ADDRESSES);
+        assertEquals("0x5aAeb6053F3E94C9b9A09f33669435E7Ef1BeAed", param.getValue());
+
+        Param path = new Param("path", "address[]", new Object[]{address}, ValueFormatter.CHECKSUM_ADDRESSES);
+        assertArrayEquals(new Object[]{"0x5aAeb6053F3E94C9b9A09f33669435E7Ef1BeAed"}, (Object[]) path.getValue());
+    }
+
+    @Test
+    public void getValue_stringsFormatter_shouldRenderNumbersInDecimal() {
+        Param amounts = new Param("amounts", "uint256[]", new Object[]{BigInteger.ONE, BigInteger.valueOf(264180000000000000L)}, ValueFormatter.STRINGS);
+        assertArrayEquals(new Object[]{"1", "264180000000000000"}, (Object[]) amounts.getValue());
+        assertEquals(Boolean.TRUE, new Param("flag", "bool", Boolean.TRUE, ValueFormatter.STRINGS).getValue());
+    }
+
+    @Test
+    public void setRawValue_shouldRenderAgain() {
+        Param param = new Param("amount", "uint256", BigInteger.ONE, ValueFormatter.STRINGS);
+        assertEquals("1", param.getValue());
+        param.setRawValue(BigInteger.TWO);
+        assertEquals("2", param.getValue());
+    }
+
+    @Test
+    public void setRawValue_shouldKeepAnExplicitValue() throws Exception {
+        Param param = new ObjectMapper().readValue("{\"name\":\"amount\",\"type\":\"uint256\",\"value\":\"one\",\"rawValue\":1}", Param.class);
+        assertEquals("one", param.getValue());
+        assertEquals(1, param.getRawValue());
+
+        param.setRawValue(2);
+        assertEquals("one", param.getValue());
+    }
 }
@@ -0,0 +1,109 @@
+package com.github.wkennedy.abi.multicall;
+
+import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Multicall3ResultDecoderTest {
+    /**
+     * aggregate3 result of balanceOf (1000), name ("USD Coin"), decimals (reverted with Error("nope")), balanceOf
+     * (succeeded without data) and totalSupply (reverted without data).
+     */
+    private static final String RESULTS = "0x0000000000000000000000000000000000000000000000000000000000000020000000000000000000000000000000000000000000000000000000000000000500000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000000000000000000000000000000000000000012000000000000000000000000000000000000000000000000000000000000001e000000000000000000000000000000000000000000000000000000000000002c0000000000000000000000000000000000000000000000000000000000000032000000000000000000000000000000000000000000000000000000000000000010000000000000000000000000000000000000000000000000000000000000040000000000000000000000000000000000000000000000000000000000000002000000000000000000000000000000000000000000000000000000000000003e80000000000000000000000000000000000000000000000000000000000000001000000000000000000000000000000000000000000000000000000000000004000000000000000000000000000000000000000000000000000000000000000600000000000000000000000000000000000000000000000000000000000000020000000000000000000000000000000000000000000000000000000000000000855534420436f696e00000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000040000000000000000000000000000000000000000000000000000000000000006408c379a0000000000000000000000000000000000000000000000000000000000000002000000000000000000000000000000000000000000000000000000000000000046e6f70650000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000100000000000000000000000000000000000000000000000000000000000000400000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000000400000000000000000000000000000000000000000000000000000000000000000";
+
+    private Multicall3ResultDecoder resultDecoder;
+    private List<AbiFunction> calls;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Abi abi = Abi.fromJson(new String(Files.readAllBytes(Paths.get("./src/test/resources/erc20_abi.json")))).orElseThrow();
+        AbiFunction balanceOf = function(abi, "balanceOf");
+        calls = List.of(balanceOf, function(abi, "name"), function(abi, "decimals"), balanceOf, function(abi, "totalSupply"));
+        resultDecoder = new Multicall3ResultDecoder(new Decoder());
+    }
+
+    @Test
+    void decode_shouldDecodeEveryResultFromItsSlice() {
+        List<CallResult> results = resultDecoder.decode(RESULTS, calls);
+
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(BigInteger.valueOf(1000), results.get(0).getOutput(0).getValue());
+        assertEquals("USD Coin", results.get(1).getOutput("").getValue());
+
+        CallResult reverted = results.get(2);
+        assertFalse(reverted.isSuccess());
+        assertNull(reverted.getOutputs());
+        assertEquals("nope", reverted.getRevert().getReason());
+        assertEquals("08c379a0", Hex.toHexString(reverted.getReturnData(), 0, 4));
+
+        CallResult empty = results.get(3);
+        assertTrue(empty.isSuccess());
+        assertNull(empty.getOutputs());
+        assertNotNull(empty.getFailure());
+
+        CallResult revertedWithoutData = results.get(4);
+        assertFalse(revertedWithoutData.isSuccess());
+        assertNull(revertedWithoutData.getRevert());
+        assertNull(revertedWithoutData.getFailure());
+        assertEquals(0, revertedWithoutData.getReturnData().length);
+    }
+
+    @Test
+    void decode_parallel_shouldMatchSequential() {
+        byte[] returnData = Hex.decode(RESULTS.substring(2));
+
+        List<CallResult> sequential = resultDecoder.decode(returnData, calls, false);
+        List<CallResult> parallel = resultDecoder.decode(returnData, calls, true);
+
+        for (int i = 0; i < calls.size(); i++) {
+            assertEquals(sequential.get(i).getIndex(), parallel.get(i).getIndex());
+            assertEquals(sequential.get(i).getOutputs(), parallel.get(i).getOutputs());
+            assertEquals(sequential.get(i).getRevert(), parallel.get(i).getRevert());
+        }
+    }
+
+    @Test
+    void decode_wrongNumberOfCalls_shouldThrow() {
+        assertThrows(RuntimeException.class, () -> resultDecoder.decode(RESULTS, calls.subList(0, 4)));
+    }
+
+    @Test
+    void decode_truncatedData_shouldThrow() {
+        byte[] returnData = Hex.decode(RESULTS.substring(2));
+        byte[] truncated = Arrays.copyOf(returnData, returnData.length - 96);
+
+        assertThrows(RuntimeException.class, () -> resultDecoder.decode(truncated, calls));
+    }
+
+    @Test
+    void decode_truncatedReturnData_shouldNotReadTheNextResult() {
+        byte[] returnData = Hex.decode(RESULTS.substring(2));
+        // name() returns 0x60 bytes, declare 0x40 so that the string bytes lie past its slice
+        assertEquals(0x60, returnData[0x1a0 + 31]);
+        returnData[0x1a0 + 31] = 0x40;
+
+        List<CallResult> results = resultDecoder.decode(returnData, calls);
+
+        assertTrue(results.get(1).isSuccess());
+        assertNull(results.get(1).getOutputs());
+        assertNotNull(results.get(1).getFailure());
+        assertEquals(BigInteger.valueOf(1000), results.get(0).getOutput(0).getValue());
+    }
+
+    private static AbiFunction function(Abi abi, String name) {
+        return abi.findFunction(function -> name.equals(function.name)).orElseThrow();
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.wkennedy.abi.registry;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AddressIndexTest {
+    private static final String ADDRESS = "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void get_shouldIgnoreCaseAndPrefix() {
+        AddressIndex index = AddressIndex.create(0);
+        assertEquals(AddressIndex.NO_ID, index.put(ADDRESS, 7));
+
+        assertEquals(7, index.get(ADDRESS.toLowerCase()));
+        assertEquals(7, index.get(ADDRESS.substring(2).toUpperCase()));
+        assertEquals(7, index.get(Hex.decode(ADDRESS.substring(2))));
+        assertEquals(AddressIndex.NO_ID, index.get("0x66f044b68f2808753b99a7d31820fbc751342d9c"));
+        assertEquals(AddressIndex.NO_ID, index.get("not an address"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void put_existingAddress_shouldReplaceTheId() {
+        AddressIndex index = AddressIndex.create(0);
+        index.put(ADDRESS, 1);
+
+        assertEquals(1, index.put(ADDRESS.toLowerCase(), 2));
+        assertEquals(2, index.get(ADDRESS));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void put_beyondCapacity_shouldGrow() {
+        AddressIndex index = AddressIndex.create(0);
+        byte[][] addresses = randomAddresses(50_000);
+        for (int i = 0; i < addresses.length; i++) {
+            index.put(addresses[i], i);
+        }
+
+        assertEquals(addresses.length, index.size());
+        assertTrue(index.capacity() >= addresses.length * 4L / 3);
+        for (int i = 0; i < addresses.length; i++) {
+            assertEquals(i, index.get(addresses[i]));
+        }
+    }
+
+    @Test
+    void put_vanityAddresses_shouldNotCollide() {
+        AddressIndex index = AddressIndex.create(0);
+        for (int i = 0; i < 1000; i++) {
+            index.put(String.format("0x%040x", i), i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, index.get(String.format("%040X", i)));
+        }
+    }
+
+    @Test
+    void map_shouldRestoreAWrittenTable() throws IOException {
+        AddressIndex index = AddressIndex.create(1000);
+        byte[][] addresses = randomAddresses(1000);
+        for (int i = 0; i < addresses.length; i++) {
+            index.put(addresses[i], i);
+        }
+        Path file = tempDir.resolve("addresses.idx");
+        index.writeTo(file);
+
+        AddressIndex mapped = AddressIndex.map(file);
+
+        assertEquals(index.size(), mapped.size());
+        assertEquals(index.capacity(), mapped.capacity());
+        for (int i = 0; i < addresses.length; i++) {
+            assertEquals(i, mapped.get(addresses[i]));
+        }
+    }
+
+    @Test
+    void put_onMappedTable_shouldNotModifyTheFile() throws IOException {
+        AddressIndex index = AddressIndex.create(0);
+        index.put(ADDRESS, 1);
+        Path file = tempDir.resolve("addresses.idx");
+        index.writeTo(file);
+        byte[] written = Files.readAllBytes(file);
+
+        AddressIndex mapped = AddressIndex.map(file);
+        mapped.put(ADDRESS, 2);
+        mapped.put("0x66f044b68f2808753b99a7d31820fbc751342d9c", 3);
+
+        assertEquals(2, mapped.get(ADDRESS));
+        assertArrayEquals(written, Files.readAllBytes(file));
+        assertEquals(1, AddressIndex.map(file).get(ADDRESS));
+    }
+
+    @Test
+    void map_otherFile_shouldThrow() throws IOException {
+        Path file = tempDir.resolve("other.idx");
+        Files.write(file, new byte[]{1, 2, 3});
+
+        assertThrows(IllegalArgumentException.class, () -> AddressIndex.map(file));
+    }
+
+    @Test
+    void put_invalidInput_shouldThrow() {
+        AddressIndex index = AddressIndex.create(0);
+        assertThrows(IllegalArgumentException.class, () -> index.put("0x1234", 1));
+        assertThrows(IllegalArgumentException.class, () -> index.put(new byte[32], 1));
+        assertThrows(IllegalArgumentException.class, () -> index.put(ADDRESS, -1));
+    }
+
+    private static byte[][] randomAddresses(int count) {
+        Random random = new Random(42);
+        byte[][] addresses = new byte[count][AddressIndex.ADDRESS_LENGTH];
+        for (byte[] address : addresses) {
+            random.nextBytes(address);
+        }
+        return addresses;
+    }
+}
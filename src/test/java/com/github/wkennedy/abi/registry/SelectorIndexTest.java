@@ -0,0 +1,41 @@
+package com.github.wkennedy.abi.registry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectorIndexTest {
+
+    @Test
+    void put_manySelectors_shouldGrowAndKeepThemAll() {
+        SelectorIndex<String> index = new SelectorIndex<>();
+        for (int i = 0; i < 1000; i++) {
+            assertNull(index.put(i * 0x01000193, "v" + i));
+        }
+
+        assertEquals(1000, index.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("v" + i, index.get(i * 0x01000193));
+        }
+        assertNull(index.get(-1));
+    }
+
+    @Test
+    void put_existingSelector_shouldReplaceTheValue() {
+        SelectorIndex<String> index = new SelectorIndex<>();
+        index.put(0x42966c68, "burn(uint256)");
+
+        assertEquals("burn(uint256)", index.put(0x42966c68, "collate_propagate_storage(bytes16)"));
+        assertEquals("collate_propagate_storage(bytes16)", index.get(new byte[]{0x42, (byte) 0x96, 0x6c, 0x68, 0x00}, 0));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void get_shortBuffer_shouldReturnNull() {
+        SelectorIndex<String> index = new SelectorIndex<>();
+        index.put(0, "zero");
+
+        assertNull(index.get(new byte[3], 0));
+        assertEquals("zero", index.get(new byte[4], 0));
+    }
+}
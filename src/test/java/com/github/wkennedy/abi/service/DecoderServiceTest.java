@@ -0,0 +1,93 @@
+package com.github.wkennedy.abi.service;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecoderServiceTest {
+    private static final String TRANSFER = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String SRC = "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c";
+    private static final String DST = "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365";
+    private static final String TOKEN = "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365";
+
+    private String abiJson;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+    }
+
+    @Test
+    void decodeLogs_shouldDecodeConcurrentlyWithinTheLimit() throws Exception {
+        int requests = 2_000;
+        int limit = 4;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try (DecoderService service = new DecoderService(new Decoder(abiJson), limit)) {
+            List<CompletableFuture<List<DecodedLog>>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                Log log = new Log(String.format("0x%064x", i), List.of(TRANSFER, SRC, DST), TOKEN);
+                futures.add(service.submit(decoder -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    LockSupport.parkNanos(10_000);
+                    try {
+                        return decoder.decodeLogs(log);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }));
+            }
+            for (int i = 0; i < requests; i++) {
+                List<DecodedLog> decoded = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals(BigInteger.valueOf(i), decoded.getFirst().getParam("wad").getRawValue());
+            }
+
+            assertTrue(maxRunning.get() <= limit, "max running " + maxRunning.get());
+            assertEquals(requests, service.getWaitTime().getCount());
+            assertEquals(requests, service.getDecodeTime().getCount());
+            assertEquals(0, service.getFailures());
+            assertEquals(0, service.getInFlight());
+        }
+    }
+
+    @Test
+    void failedRequest_shouldCompleteExceptionallyAndReleaseItsPermit() throws Exception {
+        try (DecoderService service = new DecoderService(new Decoder(abiJson), 1)) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> service.decodeFunction("0xzz").get(10, TimeUnit.SECONDS));
+            assertInstanceOf(RuntimeException.class, e.getCause());
+            assertEquals(1, service.getFailures());
+
+            Log log = new Log(String.format("0x%064x", 7), List.of(TRANSFER, SRC, DST), TOKEN);
+            assertEquals(BigInteger.valueOf(7),
+                    service.decodeLogs(log).get(10, TimeUnit.SECONDS).getFirst().getParam("wad").getRawValue());
+            assertEquals(2, service.getDecodeTime().getCount());
+        }
+    }
+
+    @Test
+    void constructor_shouldFreezeTheDecoder() {
+        Decoder decoder = new Decoder(abiJson);
+        try (DecoderService service = new DecoderService(decoder, 2)) {
+            assertTrue(service.getDecoder().isFrozen());
+            assertThrows(IllegalStateException.class, () -> decoder.addAbi(TOKEN, abiJson));
+            assertThrows(IllegalArgumentException.class, () -> new DecoderService(decoder, 0));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.wkennedy.abi.subscription;
+
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.models.DecodedLog;
+import com.github.wkennedy.abi.models.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionEngineTest {
+    private static final String TRANSFER = "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String APPROVAL = "0x8c5be1e5ebec7d5bd14f71427d1e84f3dd0314c0f7b2291e5b200ac8c7c3b925";
+    private static final String SRC = "0x66f044b68f2808753b99a7d31820fbc751342d9c";
+    private static final String DST = "0x4056140bc49cb36dd0b5bc4b4530ef56781cc365";
+    private static final String CONTRACT = "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365";
+
+    private SubscriptionEngine engine;
+    private Log transfer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        engine = new SubscriptionEngine(new Decoder(abiJson));
+        transfer = new Log("0x00000000000000000000000000000000000000000000000003aa8e4f70c34000",
+                List.of(TRANSFER, LogFilter.addressTopic(SRC), LogFilter.addressTopic(DST)),
+                CONTRACT);
+    }
+
+    @Test
+    void process_shouldDeliverToEveryMatchingSubscription() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        engine.subscribe(LogFilter.event(TRANSFER).withTopic(2, LogFilter.addressTopic(DST)), log -> received.add("to dst"));
+        engine.subscribe(LogFilter.event(TRANSFER).withTopic(2, LogFilter.addressTopic(SRC)), log -> received.add("to src"));
+        engine.subscribe(LogFilter.event(TRANSFER).withTopic(1, LogFilter.addressTopic(SRC)).withTopic(2, LogFilter.addressTopic(DST)), log -> received.add("src to dst"));
+        engine.subscribe(LogFilter.from(CONTRACT.toLowerCase()), log -> received.add("from contract"));
+        engine.subscribe(LogFilter.from(SRC), log -> received.add("from src"));
+        engine.subscribe(LogFilter.event(APPROVAL), log -> received.add("approval"));
+        engine.subscribe(LogFilter.event(TRANSFER).withAddress(CONTRACT), log -> received.add("contract transfer"));
+        engine.subscribe(LogFilter.any(), log -> received.add("any"));
+
+        assertEquals(5, engine.process(transfer));
+        assertEquals(List.of("any", "from contract", "to dst", "src to dst", "contract transfer").stream().sorted().toList(),
+                received.stream().sorted().toList());
+    }
+
+    @Test
+    void process_shouldDecodeOnceAndShareTheResult() {
+        List<DecodedLog> received = new ArrayList<>();
+        engine.subscribe(LogFilter.event(TRANSFER), received::add);
+        engine.subscribe(LogFilter.from(CONTRACT), received::add);
+
+        engine.process(transfer);
+
+        assertEquals(2, received.size());
+        assertSame(received.get(0), received.get(1));
+        assertEquals("Transfer", received.getFirst().getName());
+        assertEquals(new BigInteger("264180000000000000"), received.getFirst().getParam("wad").getValue());
+    }
+
+    @Test
+    void process_failures_shouldOnlyAffectTheSubscriptionsConcerned() {
+        List<DecodedLog> received = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        Subscription throwing = engine.subscribe(LogFilter.event(TRANSFER), log -> {
+            throw new IllegalStateException("subscriber bug");
+        }, (log, e) -> errors.add(e.getMessage()));
+        Subscription healthy = engine.subscribe(LogFilter.event(TRANSFER), received::add, (log, e) -> errors.add("healthy: " + log.getData()));
+        Log malformed = new Log("0xzz", transfer.getTopics(), CONTRACT);
+
+        assertEquals(2, engine.process(transfer, malformed, transfer));
+
+        assertEquals(2, received.size());
+        assertEquals(3, throwing.getFailures());
+        assertEquals(1, healthy.getFailures());
+        assertEquals(4, errors.size());
+        assertEquals("subscriber bug", errors.get(0));
+        assertEquals("healthy: 0xzz", errors.get(2));
+        assertEquals("subscriber bug", errors.get(3));
+    }
+
+    @Test
+    void match_unmatchedLog_shouldBeEmpty() {
+        engine.subscribe(LogFilter.event(APPROVAL), log -> fail("not expected"));
+
+        assertTrue(engine.match(transfer).isEmpty());
+        assertEquals(0, engine.process(transfer));
+    }
+
+    @Test
+    void cancel_shouldStopDeliveries() {
+        List<DecodedLog> received = new ArrayList<>();
+        Subscription subscription = engine.subscribe(LogFilter.event(TRANSFER), received::add);
+        engine.process(transfer);
+
+        assertTrue(subscription.cancel());
+        assertFalse(subscription.cancel());
+        engine.process(transfer);
+
+        assertEquals(1, received.size());
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    void subscribe_whileProcessing_shouldNotDisturbTheMatchLoop() throws InterruptedException {
+        engine.subscribe(LogFilter.event(TRANSFER), log -> {
+        });
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread churn = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                engine.subscribe(LogFilter.from(SRC), log -> {
+                }).cancel();
+            }
+        });
+        try {
+            for (int i = 0; i < 2000; i++) {
+                assertEquals(1, engine.process(transfer));
+            }
+        } finally {
+            running.set(false);
+            churn.join();
+        }
+        assertEquals(1, engine.size());
+    }
+
+    @Test
+    void logFilter_invalidHex_shouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> LogFilter.event("0x1234"));
+        assertThrows(IllegalArgumentException.class, () -> LogFilter.from("0xzz56140bc49cb36dd0b5bc4b4530ef56781cc365"));
+        assertThrows(IllegalArgumentException.class, () -> LogFilter.any().withTopic(4, TRANSFER));
+    }
+}
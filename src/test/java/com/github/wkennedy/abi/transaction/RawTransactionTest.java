@@ -0,0 +1,116 @@
+package com.github.wkennedy.abi.transaction;
+
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.rlp.RlpEncoder;
+import org.web3j.rlp.RlpList;
+import org.web3j.rlp.RlpString;
+import org.web3j.rlp.RlpType;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RawTransactionTest {
+    static final String TO = "0x4056140bc49cb36dd0b5bc4b4530ef56781cc365";
+    static final byte[] DATA = Hex.decode("a9059cbb00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c00000000000000000000000000000000000000000000000003aa8e4f70c34000");
+
+    static byte[] typed(int type, RlpType... fields) {
+        byte[] payload = RlpEncoder.encode(new RlpList(fields));
+        byte[] raw = new byte[payload.length + 1];
+        raw[0] = (byte) type;
+        System.arraycopy(payload, 0, raw, 1, payload.length);
+        return raw;
+    }
+
+    static RlpType number(long value) {
+        return RlpString.create(BigInteger.valueOf(value));
+    }
+
+    static RlpType bytes(byte[] value) {
+        return RlpString.create(value);
+    }
+
+    static RlpType[] signature() {
+        return new RlpType[]{number(1), bytes(new byte[32]), bytes(new byte[32])};
+    }
+
+    static RlpType[] concat(RlpType[]... parts) {
+        List<RlpType> all = new ArrayList<>();
+        for (RlpType[] part : parts) all.addAll(Arrays.asList(part));
+        return all.toArray(new RlpType[0]);
+    }
+
+    private static void assertFields(RawTransaction transaction, int type) {
+        assertEquals(type, transaction.getType());
+        assertFalse(transaction.isContractCreation());
+        assertEquals(TO, transaction.getTo());
+        assertEquals(DATA.length, transaction.getDataLength());
+        assertArrayEquals(DATA, transaction.getData());
+    }
+
+    @Test
+    void parse_signedLegacyAndDynamicFee_shouldLocateToAndData() {
+        Credentials credentials = Credentials.create("0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318");
+        org.web3j.crypto.RawTransaction legacy = org.web3j.crypto.RawTransaction.createTransaction(
+                BigInteger.ONE, BigInteger.TEN, BigInteger.valueOf(60_000), TO, BigInteger.ZERO, Hex.toHexString(DATA));
+        org.web3j.crypto.RawTransaction dynamicFee = org.web3j.crypto.RawTransaction.createTransaction(
+                1, BigInteger.ONE, BigInteger.valueOf(60_000), TO, BigInteger.ZERO, Hex.toHexString(DATA), BigInteger.ONE, BigInteger.TEN);
+
+        assertFields(RawTransaction.parse(TransactionEncoder.signMessage(legacy, 1, credentials)), RawTransaction.LEGACY);
+        assertFields(RawTransaction.parse(TransactionEncoder.signMessage(dynamicFee, credentials)), RawTransaction.DYNAMIC_FEE);
+    }
+
+    @Test
+    void parse_accessListAndBlob_shouldLocateToAndData() {
+        RlpType to = bytes(Hex.decode(TO.substring(2)));
+        RlpType accessList = new RlpList(new RlpList(to, new RlpList(bytes(new byte[32]))));
+        byte[] accessListTx = typed(RawTransaction.ACCESS_LIST, concat(new RlpType[]{number(1), number(7), number(10), number(60_000), to, number(0), bytes(DATA), accessList}, signature()));
+        RlpType[] blobFields = concat(new RlpType[]{number(1), number(7), number(1), number(10), number(60_000), to, number(0), bytes(DATA),
+                new RlpList(), number(1), new RlpList(bytes(new byte[32]))}, signature());
+        byte[] blobTx = typed(RawTransaction.BLOB, blobFields);
+        byte[] networkBlobTx = typed(RawTransaction.BLOB, new RlpList(blobFields), new RlpList(bytes(new byte[64])), new RlpList(bytes(new byte[48])), new RlpList(bytes(new byte[48])));
+
+        assertFields(RawTransaction.parse(accessListTx), RawTransaction.ACCESS_LIST);
+        assertFields(RawTransaction.parse(blobTx), RawTransaction.BLOB);
+        assertFields(RawTransaction.parse(networkBlobTx), RawTransaction.BLOB);
+    }
+
+    @Test
+    void parse_embeddedInLargerBuffer_shouldReferenceTheBuffer() {
+        byte[] raw = typed(RawTransaction.DYNAMIC_FEE, concat(new RlpType[]{number(1), number(7), number(1), number(10), number(60_000),
+                bytes(Hex.decode(TO.substring(2))), number(0), bytes(DATA), new RlpList()}, signature()));
+        byte[] buffer = new byte[raw.length + 10];
+        System.arraycopy(raw, 0, buffer, 5, raw.length);
+
+        RawTransaction transaction = RawTransaction.parse(buffer, 5, raw.length);
+
+        assertSame(buffer, transaction.getBuffer());
+        assertArrayEquals(DATA, Arrays.copyOfRange(buffer, transaction.getDataOffset(), transaction.getDataOffset() + transaction.getDataLength()));
+    }
+
+    @Test
+    void parse_contractCreation_shouldHaveNoTo() {
+        RawTransaction transaction = RawTransaction.parse(typed(RawTransaction.DYNAMIC_FEE, concat(new RlpType[]{number(1), number(7), number(1), number(10),
+                number(60_000), bytes(new byte[0]), number(0), bytes(new byte[]{0x60, 0x00}), new RlpList()}, signature())));
+
+        assertTrue(transaction.isContractCreation());
+        assertNull(transaction.getTo());
+        assertEquals(-1, transaction.getToOffset());
+        assertEquals(2, transaction.getDataLength());
+    }
+
+    @Test
+    void parse_malformed_shouldThrow() {
+        byte[] raw = typed(RawTransaction.DYNAMIC_FEE, number(1), number(7));
+        assertThrows(RuntimeException.class, () -> RawTransaction.parse(raw));
+        assertThrows(RuntimeException.class, () -> RawTransaction.parse(Arrays.copyOf(raw, raw.length - 1)));
+        assertThrows(RuntimeException.class, () -> RawTransaction.parse(new byte[]{0x05, (byte) 0xC0}));
+        assertThrows(RuntimeException.class, () -> RawTransaction.parse(new byte[]{(byte) 0xF9, 0x7F, (byte) 0xFF}));
+    }
+}
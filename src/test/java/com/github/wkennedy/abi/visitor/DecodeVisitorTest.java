@@ -0,0 +1,180 @@
+package com.github.wkennedy.abi.visitor;
+
+import com.github.wkennedy.abi.Abi;
+import com.github.wkennedy.abi.Decoder;
+import com.github.wkennedy.abi.entry.AbiFunction;
+import com.github.wkennedy.abi.models.Log;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodeVisitorTest {
+    private static final String ABI = """
+            [{"type":"function","name":"mix","stateMutability":"nonpayable","outputs":[],
+              "inputs":[{"name":"amount","type":"uint64"},{"name":"delta","type":"int32"},{"name":"big","type":"uint256"},
+                        {"name":"flag","type":"bool"},{"name":"tag","type":"bytes4"},
+                        {"name":"order","type":"tuple","components":[
+                            {"name":"owner","type":"address"},{"name":"note","type":"string"},{"name":"ids","type":"uint8[]"}]},
+                        {"name":"data","type":"bytes"}]}]""";
+    private static final String OWNER = "1111111111111111111111111111111111111111";
+
+    @Test
+    void decodeFunction_shouldReportEveryValueInOrder() {
+        AbiFunction mix = Abi.fromJson(ABI).orElseThrow().findFunction(f -> f.name.equals("mix")).orElseThrow();
+        byte[] calldata = mix.encode(new BigInteger("18446744073709551615"), -7, BigInteger.TWO.pow(200), true,
+                Hex.decode("cafebabe" + "00".repeat(28)), new Object[]{Hex.decode(OWNER), "h\u00e9llo", new Object[]{1, 2, 3}}, Hex.decode("0102"));
+
+        Trace trace = new Trace();
+        assertTrue(new Decoder(ABI).decodeFunction(calldata, trace));
+
+        assertEquals(List.of(
+                "begin mix 7",
+                "uint 0 18446744073709551615",
+                "int 1 -7",
+                "bigUint 2 " + BigInteger.TWO.pow(200),
+                "bool 3 true",
+                "bytes 4 cafebabe",
+                "beginTuple 5 3",
+                "address 0 " + OWNER,
+                "string 1 h\u00e9llo",
+                "beginArray 2 3",
+                "uint 0 1",
+                "uint 1 2",
+                "uint 2 3",
+                "endArray 2",
+                "endTuple 5",
+                "bytes 6 0102",
+                "end"), trace.events);
+    }
+
+    @Test
+    void decodeFunction_shouldMatchTheRegularDecoder() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/uniswap_abi.json")));
+        Decoder decoder = new Decoder(abiJson);
+        String input = "0x18cbafe5000000000000000000000000000000000000000000000000000000000098968000000000000000000000000000000000000000000000000000165284993ac4ac00000000000000000000000000000000000000000000000000000000000000a0000000000000000000000000d4cf8e47beac55b42ae58991785fa326d9384bd10000000000000000000000000000000000000000000000000000000062e8d8510000000000000000000000000000000000000000000000000000000000000002000000000000000000000000a0b86991c6218b36c1d19d4a2e9eb0ce3606eb48000000000000000000000000c02aaa39b223fe8d0a0e5c4f27ead9083c756cc2";
+
+        Trace trace = new Trace();
+        assertTrue(decoder.decodeFunction(input, trace));
+
+        Object[] path = (Object[]) decoder.decodeFunction(input).getParam("path").getRawValue();
+        assertEquals(List.of(
+                "begin swapExactTokensForETH 5",
+                "bigUint 0 10000000",
+                "bigUint 1 6283178947560620",
+                "beginArray 2 2",
+                "address 0 " + Hex.toHexString((byte[]) path[0]),
+                "address 1 " + Hex.toHexString((byte[]) path[1]),
+                "endArray 2",
+                "address 3 d4cf8e47beac55b42ae58991785fa326d9384bd1",
+                "bigUint 4 1659426897",
+                "end"), trace.events);
+    }
+
+    @Test
+    void decodeLog_shouldReadIndexedParamsFromTopics() throws IOException {
+        String abiJson = new String(Files.readAllBytes(Paths.get("./src/test/resources/log_test_abi.json")));
+        Log log = new Log(String.format("0x%064x", 264180000000000000L),
+                List.of("0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef",
+                        "0x00000000000000000000000066f044b68f2808753b99a7d31820fbc751342d9c",
+                        "0x0000000000000000000000004056140bc49cb36dd0b5bc4b4530ef56781cc365"),
+                "0x4056140BC49cb36dd0b5bC4b4530ef56781Cc365");
+
+        Trace trace = new Trace();
+        assertTrue(new Decoder(abiJson).decodeLog(log, trace));
+
+        assertEquals(List.of(
+                "begin Transfer 3",
+                "address 0 66f044b68f2808753b99a7d31820fbc751342d9c",
+                "address 1 4056140bc49cb36dd0b5bc4b4530ef56781cc365",
+                "bigUint 2 264180000000000000",
+                "end"), trace.events);
+    }
+
+    @Test
+    void unknownOrTruncatedInput_shouldBeRejected() {
+        Decoder decoder = new Decoder(ABI);
+        assertFalse(decoder.decodeFunction("0xdeadbeef", new Trace()));
+
+        AbiFunction mix = Abi.fromJson(ABI).orElseThrow().findFunction(f -> f.name.equals("mix")).orElseThrow();
+        String calldata = mix.encodeToHex(1, 1, 1, false, new byte[4], new Object[]{new byte[20], "", new Object[0]}, new byte[0]);
+        assertThrows(RuntimeException.class, () -> decoder.decodeFunction(calldata.substring(0, calldata.length() - 64), new Trace()));
+    }
+
+    private static final class Trace implements DecodeVisitor {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void begin(String name, int count) {
+            events.add("begin " + name + " " + count);
+        }
+
+        @Override
+        public void end() {
+            events.add("end");
+        }
+
+        @Override
+        public void onUint(int index, long value) {
+            events.add("uint " + index + " " + Long.toUnsignedString(value));
+        }
+
+        @Override
+        public void onBigUint(int index, byte[] buffer, int offset) {
+            events.add("bigUint " + index + " " + new BigInteger(1, buffer, offset, 32));
+        }
+
+        @Override
+        public void onInt(int index, long value) {
+            events.add("int " + index + " " + value);
+        }
+
+        @Override
+        public void onBool(int index, boolean value) {
+            events.add("bool " + index + " " + value);
+        }
+
+        @Override
+        public void onAddress(int index, byte[] buffer, int offset) {
+            events.add("address " + index + " " + Hex.toHexString(buffer, offset, 20));
+        }
+
+        @Override
+        public void onBytes(int index, byte[] buffer, int offset, int length) {
+            events.add("bytes " + index + " " + Hex.toHexString(buffer, offset, length));
+        }
+
+        @Override
+        public void onString(int index, byte[] buffer, int offset, int length) {
+            events.add("string " + index + " " + new String(buffer, offset, length, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void beginTuple(int index, int count) {
+            events.add("beginTuple " + index + " " + count);
+        }
+
+        @Override
+        public void endTuple(int index) {
+            events.add("endTuple " + index);
+        }
+
+        @Override
+        public void beginArray(int index, int length) {
+            events.add("beginArray " + index + " " + length);
+        }
+
+        @Override
+        public void endArray(int index) {
+            events.add("endArray " + index);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.wkennedy.util;
+
+import org.apache.commons.codec.binary.Hex;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Hash;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Keccak256Test {
+
+    @Test
+    void hash_emptyInput() {
+        assertEquals("c5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470", Hex.encodeHexString(Keccak256.hash(new byte[0])));
+    }
+
+    @Test
+    void hash_eventSignature() {
+        byte[] signature = "Transfer(address,address,uint256)".getBytes(StandardCharsets.UTF_8);
+        assertEquals("ddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef", Hex.encodeHexString(Keccak256.hash(signature)));
+    }
+
+    @Test
+    void hash_matchesWeb3jAcrossBlockBoundaries() {
+        Random random = new Random(42);
+        for (int length = 0; length < 600; length += 7) {
+            byte[] input = new byte[length];
+            random.nextBytes(input);
+            assertArrayEquals(Hash.sha3(input), Keccak256.hash(input), "length " + length);
+        }
+    }
+
+    @Test
+    void hash_sliceIntoBuffer() {
+        byte[] input = "xxTransfer(address,address,uint256)xx".getBytes(StandardCharsets.UTF_8);
+        byte[] output = new byte[40];
+        Keccak256.hash(input, 2, input.length - 4, output, 8);
+        assertEquals("ddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef", Hex.encodeHexString(output).substring(16, 80));
+    }
+
+    @Test
+    void update_incrementalMatchesOneShot() {
+        byte[] input = new byte[300];
+        new Random(7).nextBytes(input);
+        Keccak256 keccak = new Keccak256();
+        keccak.update(input, 0, 3).update(input, 3, 150).update(input, 153, 147);
+        assertArrayEquals(Keccak256.hash(input), keccak.digest());
+    }
+}